@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2017-2020. Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dizitart.no2.common.mapper;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Represents a snapshot of the time a {@link JacksonMapper} spent
+ * converting objects of a single class.
+ *
+ * @author Anindya Chatterjee
+ * @since 4.0
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class ConversionMetrics {
+    /**
+     * The number of conversions.
+     *
+     * @return the conversion count
+     */
+    private final long conversionCount;
+
+    /**
+     * The total time spent in conversions, in nanoseconds.
+     *
+     * @return the total conversion time
+     */
+    private final long totalTimeNanos;
+
+    /**
+     * The time taken by the slowest conversion, in nanoseconds.
+     *
+     * @return the max conversion time
+     */
+    private final long maxTimeNanos;
+
+    /**
+     * The average time taken by a conversion, in nanoseconds.
+     *
+     * @return the average conversion time
+     */
+    public long getAverageTimeNanos() {
+        return conversionCount == 0 ? 0 : totalTimeNanos / conversionCount;
+    }
+}
@@ -34,16 +34,34 @@ import org.dizitart.no2.common.mapper.extensions.NitriteIdExtension;
 import java.io.IOException;
 import java.lang.reflect.Modifier;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static org.dizitart.no2.common.util.Iterables.listOf;
 
 /**
+ * A {@link NitriteMapper} implementation which uses jackson
+ * to convert objects to and from documents.
+ * <p>
+ * Whether a class serializes to a jackson value node is decided
+ * once per class and cached, so that repeated conversions of the
+ * same type do not pay for the check again.
+ * <p>
+ * If enabled via {@link #setConversionMetricsEnabled(boolean)}, the time
+ * spent in {@link #convert(Object, Class)} is recorded per class and can be
+ * read via {@link #getConversionMetrics()}. Only the outermost conversion
+ * of a call is recorded, the conversions of its nested objects are part
+ * of its time and are not counted again.
+ *
  * @author Anindya Chatterjee
  */
 @Slf4j
 public class JacksonMapper extends MappableMapper {
     private final List<JacksonExtension> jacksonExtensions;
     private final List<Class<?>> moduleTypes;
+    private final Map<Class<?>, Boolean> valueTypeCache;
+    private final Map<Class<?>, ConversionTimer> conversionTimers;
+    private final ThreadLocal<int[]> conversionDepth;
+    private volatile boolean conversionMetricsEnabled;
 
     @Getter(AccessLevel.PROTECTED)
     private final ObjectMapper objectMapper;
@@ -51,12 +69,18 @@ public class JacksonMapper extends MappableMapper {
     public JacksonMapper() {
         this.jacksonExtensions = new ArrayList<>();
         this.moduleTypes = new ArrayList<>();
+        this.valueTypeCache = new ConcurrentHashMap<>();
+        this.conversionTimers = new ConcurrentHashMap<>();
+        this.conversionDepth = ThreadLocal.withInitial(() -> new int[1]);
         this.objectMapper = createObjectMapper();
     }
 
     public JacksonMapper(JacksonExtension... jacksonExtensions) {
         this.jacksonExtensions = new ArrayList<>(listOf(jacksonExtensions));
         this.moduleTypes = new ArrayList<>();
+        this.valueTypeCache = new ConcurrentHashMap<>();
+        this.conversionTimers = new ConcurrentHashMap<>();
+        this.conversionDepth = ThreadLocal.withInitial(() -> new int[1]);
         this.objectMapper = createObjectMapper();
     }
 
@@ -83,6 +107,48 @@ public class JacksonMapper extends MappableMapper {
     protected void addValueType(Class<?> valueType) {
         super.addValueType(valueType);
         this.moduleTypes.add(valueType);
+        this.valueTypeCache.clear();
+    }
+
+    /**
+     * Enables or disables the recording of conversion metrics. It is
+     * disabled by default.
+     *
+     * @param enabled <code>true</code> to record the conversion metrics
+     */
+    public void setConversionMetricsEnabled(boolean enabled) {
+        this.conversionMetricsEnabled = enabled;
+    }
+
+    /**
+     * Checks if the conversion metrics are recorded.
+     *
+     * @return <code>true</code> if the conversion metrics are recorded
+     */
+    public boolean isConversionMetricsEnabled() {
+        return conversionMetricsEnabled;
+    }
+
+    /**
+     * Gets a snapshot of the conversion time spent per class. The key of the
+     * map is the class of the source object, or the target type when
+     * a document is converted to an object.
+     *
+     * @return the conversion metrics by class
+     */
+    public Map<Class<?>, ConversionMetrics> getConversionMetrics() {
+        Map<Class<?>, ConversionMetrics> metrics = new HashMap<>();
+        for (Map.Entry<Class<?>, ConversionTimer> entry : conversionTimers.entrySet()) {
+            metrics.put(entry.getKey(), entry.getValue().snapshot());
+        }
+        return metrics;
+    }
+
+    /**
+     * Discards all recorded conversion metrics.
+     */
+    public void resetConversionMetrics() {
+        conversionTimers.clear();
     }
 
     @Override
@@ -92,21 +158,23 @@ public class JacksonMapper extends MappableMapper {
             return null;
         }
 
-        if (isValue(source)) {
-            if (this.moduleTypes.contains(type)) {
-                return this.objectMapper.convertValue(source, type);
-            } else {
-                return (Target) convertValue(source);
-            }
-        } else {
-            if (Document.class.isAssignableFrom(type)) {
-                return (Target) convertToDocument(source);
-            } else if (source instanceof Document) {
-                return convertFromDocument((Document) source, type);
-            }
+        if (!conversionMetricsEnabled) {
+            return doConvert(source, type);
         }
 
-        throw new ObjectMappingException("failed to convert using jackson");
+        // a mappable object converts its nested objects via this mapper
+        int[] depth = conversionDepth.get();
+        long start = depth[0] == 0 ? System.nanoTime() : 0;
+        depth[0]++;
+        try {
+            return doConvert(source, type);
+        } finally {
+            if (--depth[0] == 0) {
+                Class<?> key = source instanceof Document ? type : source.getClass();
+                conversionTimers.computeIfAbsent(key, k -> new ConversionTimer())
+                    .record(System.nanoTime() - start);
+            }
+        }
     }
 
     @Override
@@ -114,18 +182,30 @@ public class JacksonMapper extends MappableMapper {
         if (super.isValueType(type)) return true;
         if (moduleTypes.contains(type)) return true;
         if (type.isInterface() || Modifier.isAbstract(type.getModifiers())) return false;
-        Object item = ObjectUtils.newInstance(type, false);
-        return isValue(item);
+
+        Boolean valueType = valueTypeCache.get(type);
+        if (valueType == null) {
+            Object item = ObjectUtils.newInstance(type, false);
+            valueType = isValueNode(item);
+            valueTypeCache.put(type, valueType);
+        }
+        return valueType;
     }
 
     @Override
     public boolean isValue(Object object) {
-        try {
-            JsonNode node = objectMapper.convertValue(object, JsonNode.class);
-            return node != null && node.isValueNode();
-        } catch (Exception ex) {
-            throw new ObjectMappingException("error while checking for value type", ex);
+        if (object == null) {
+            return false;
+        }
+
+        // jackson picks the serializer by class, so the shape is the same for all instances
+        Class<?> type = object.getClass();
+        Boolean valueType = valueTypeCache.get(type);
+        if (valueType == null) {
+            valueType = isValueNode(object);
+            valueTypeCache.put(type, valueType);
         }
+        return valueType;
     }
 
     @Override
@@ -133,6 +213,25 @@ public class JacksonMapper extends MappableMapper {
 
     }
 
+    @SuppressWarnings("unchecked")
+    private <Source, Target> Target doConvert(Source source, Class<Target> type) {
+        if (isValue(source)) {
+            if (this.moduleTypes.contains(type)) {
+                return this.objectMapper.convertValue(source, type);
+            } else {
+                return (Target) convertValue(source);
+            }
+        } else {
+            if (Document.class.isAssignableFrom(type)) {
+                return (Target) convertToDocument(source);
+            } else if (source instanceof Document) {
+                return convertFromDocument((Document) source, type);
+            }
+        }
+
+        throw new ObjectMappingException("failed to convert using jackson");
+    }
+
     @Override
     protected <Target> Target convertFromDocument(Document source, Class<Target> type) {
         try {
@@ -158,8 +257,14 @@ public class JacksonMapper extends MappableMapper {
         try {
             return super.convertToDocument(source);
         } catch (ObjectMappingException ome) {
-            JsonNode node = objectMapper.convertValue(source, JsonNode.class);
-            return readDocument(node);
+            try {
+                JsonNode node = objectMapper.convertValue(source, JsonNode.class);
+                return readDocument(node);
+            } catch (IllegalArgumentException iae) {
+                // the value type check is cached per class, so serialization
+                // errors of an instance surface here instead of in isValue
+                throw new ObjectMappingException("failed to convert object to document", iae);
+            }
         }
     }
 
@@ -170,6 +275,15 @@ public class JacksonMapper extends MappableMapper {
         objectMapper.registerModule(jacksonExtension.getModule());
     }
 
+    private boolean isValueNode(Object object) {
+        try {
+            JsonNode node = objectMapper.convertValue(object, JsonNode.class);
+            return node != null && node.isValueNode();
+        } catch (Exception ex) {
+            throw new ObjectMappingException("error while checking for value type", ex);
+        }
+    }
+
     private Object convertValue(Object object) {
         JsonNode node = objectMapper.convertValue(object, JsonNode.class);
         if (node == null) {
@@ -28,15 +28,18 @@ import com.fasterxml.jackson.databind.jsontype.impl.LaissezFaireSubTypeValidator
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.BinaryNode;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import lombok.Data;
 import org.dizitart.no2.NitriteConfig;
 import org.dizitart.no2.collection.Document;
 import org.dizitart.no2.common.mapper.extensions.NitriteIdExtension;
 import org.dizitart.no2.exceptions.ObjectMappingException;
+import org.dizitart.no2.repository.annotations.Entity;
 import org.junit.Test;
 
 import java.io.UnsupportedEncodingException;
 import java.nio.charset.StandardCharsets;
 import java.text.DateFormat;
+import java.util.UUID;
 
 import static org.junit.Assert.*;
 
@@ -307,5 +310,118 @@ public class JacksonMapperTest {
         assertTrue(jacksonMapper.getObjectMapper()
             .getSerializerProviderInstance() instanceof com.fasterxml.jackson.databind.ser.DefaultSerializerProvider.Impl);
     }
-}
+    @Test
+    public void testEntityConversionMatchesJackson() {
+        JacksonMapper jacksonMapper = new JacksonMapper();
+
+        SimpleEntity entity = new SimpleEntity();
+        entity.setName("entity");
+        entity.setCount(3);
+        entity.setScore(1.5);
+        entity.setEnabled(true);
+
+        SimpleBean bean = new SimpleBean();
+        bean.setName("entity");
+        bean.setCount(3);
+        bean.setScore(1.5);
+        bean.setEnabled(true);
+
+        Document fromEntity = jacksonMapper.convert(entity, Document.class);
+        Document fromBean = jacksonMapper.convert(bean, Document.class);
+        assertEquals(fromBean, fromEntity);
+        assertEquals(entity, jacksonMapper.convert(fromBean, SimpleEntity.class));
+    }
+
+    @Test
+    public void testValueClassificationIsCached() {
+        JacksonMapper jacksonMapper = new JacksonMapper();
+        assertTrue(jacksonMapper.isValue("a"));
+        assertTrue(jacksonMapper.isValue("b"));
+        assertFalse(jacksonMapper.isValue(null));
+        assertFalse(jacksonMapper.isValue(new SimpleBean()));
+        assertFalse(jacksonMapper.isValueType(SimpleBean.class));
+        assertTrue(jacksonMapper.isValueType(UUID.class));
+        assertTrue(jacksonMapper.isValue(UUID.randomUUID()));
+    }
+
+    @Test
+    public void testConversionMetrics() {
+        JacksonMapper jacksonMapper = new JacksonMapper();
+        SimpleBean bean = new SimpleBean();
+        bean.setName("bean");
+
+        // metrics are opt-in
+        assertFalse(jacksonMapper.isConversionMetricsEnabled());
+        jacksonMapper.convert(bean, Document.class);
+        assertTrue(jacksonMapper.getConversionMetrics().isEmpty());
+
+        jacksonMapper.setConversionMetricsEnabled(true);
+        Document document = jacksonMapper.convert(bean, Document.class);
+        jacksonMapper.convert(bean, Document.class);
+        jacksonMapper.convert(document, SimpleBean.class);
+
+        ConversionMetrics metrics = jacksonMapper.getConversionMetrics().get(SimpleBean.class);
+        assertNotNull(metrics);
+        assertEquals(3, metrics.getConversionCount());
+        assertTrue(metrics.getTotalTimeNanos() >= metrics.getMaxTimeNanos());
+        assertTrue(metrics.getAverageTimeNanos() <= metrics.getMaxTimeNanos());
 
+        jacksonMapper.resetConversionMetrics();
+        assertTrue(jacksonMapper.getConversionMetrics().isEmpty());
+    }
+
+    @Data
+    @Entity
+    public static class SimpleEntity {
+        private String name;
+        private int count;
+        private double score;
+        private boolean enabled;
+    }
+
+    @Test
+    public void testConversionMetricsOfNestedObjects() {
+        JacksonMapper jacksonMapper = new JacksonMapper();
+        jacksonMapper.setConversionMetricsEnabled(true);
+
+        MappableBean child = new MappableBean();
+        child.name = "child";
+        MappableBean parent = new MappableBean();
+        parent.name = "parent";
+        parent.child = child;
+
+        Document document = jacksonMapper.convert(parent, Document.class);
+        MappableBean copy = jacksonMapper.convert(document, MappableBean.class);
+        assertEquals("child", copy.child.name);
+
+        // the nested conversions are part of the outer ones
+        assertEquals(2, jacksonMapper.getConversionMetrics().get(MappableBean.class).getConversionCount());
+        assertEquals(1, jacksonMapper.getConversionMetrics().size());
+    }
+
+    public static class MappableBean implements Mappable {
+        private String name;
+        private MappableBean child;
+
+        @Override
+        public Document write(NitriteMapper mapper) {
+            return Document.createDocument("name", name)
+                .put("child", child == null ? null : mapper.convert(child, Document.class));
+        }
+
+        @Override
+        public void read(NitriteMapper mapper, Document document) {
+            name = document.get("name", String.class);
+            Document childDocument = document.get("child", Document.class);
+            child = childDocument == null ? null : mapper.convert(childDocument, MappableBean.class);
+        }
+    }
+
+    @Data
+    public static class SimpleBean {
+        private String name;
+        private int count;
+        private double score;
+        private boolean enabled;
+    }
+}
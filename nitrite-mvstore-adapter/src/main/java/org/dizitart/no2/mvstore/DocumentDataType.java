@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.mvstore;
+
+import org.dizitart.no2.collection.Document;
+import org.dizitart.no2.common.codec.DocumentCodec;
+import org.h2.mvstore.WriteBuffer;
+import org.h2.mvstore.type.ObjectDataType;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The value type of a document map, which writes the {@link Document}s
+ * with a {@link DocumentCodec} instead of java serialization.
+ * <p>
+ * Any other value, as well as documents written by an older version
+ * in java serialized form, are handled by the {@link ObjectDataType}.
+ *
+ * @author Anindya Chatterjee
+ * @since 4.0
+ */
+class DocumentDataType extends ObjectDataType {
+    // not used as a tag by ObjectDataType
+    private static final byte TAG_DOCUMENT = 127;
+
+    private final DocumentCodec documentCodec;
+    private int averageSize = 256;
+
+    /**
+     * Instantiates a new {@link DocumentDataType}.
+     *
+     * @param documentCodec the document codec
+     */
+    DocumentDataType(DocumentCodec documentCodec) {
+        this.documentCodec = documentCodec;
+    }
+
+    @Override
+    public int getMemory(Object obj) {
+        if (obj instanceof Document) {
+            return averageSize;
+        }
+        return super.getMemory(obj);
+    }
+
+    @Override
+    public void write(WriteBuffer buff, Object obj) {
+        if (obj instanceof Document) {
+            byte[] bytes = documentCodec.encode((Document) obj);
+            buff.put(TAG_DOCUMENT).put(bytes);
+            updateAverageSize(bytes.length);
+        } else {
+            super.write(buff, obj);
+        }
+    }
+
+    @Override
+    public Object read(ByteBuffer buff) {
+        if (buff.get(buff.position()) == TAG_DOCUMENT) {
+            int start = buff.position();
+            buff.get();
+            // fields are decoded only when accessed
+            Document document = documentCodec.decodeLazily(buff);
+            updateAverageSize(buff.position() - start);
+            return document;
+        }
+        return super.read(buff);
+    }
+
+    private void updateAverageSize(int size) {
+        // same moving average as the serialized object type of ObjectDataType
+        averageSize = (size + 15 * averageSize) / 16;
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2019-2020. Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dizitart.no2.mvstore;
+
+import lombok.extern.slf4j.Slf4j;
+import org.dizitart.no2.common.concurrent.ThreadPoolManager;
+import org.dizitart.no2.exceptions.NitriteIOException;
+import org.h2.mvstore.MVStore;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Groups concurrent commit requests on a {@link MVStore} into a single
+ * chunk write.
+ * <p>
+ * The first request after a flush opens a batch, which stays open
+ * for the configured window so that other committers can join it.
+ * Then the store is committed and synced to the disk once and the
+ * futures of all requests in the batch are completed.
+ *
+ * @author Anindya Chatterjee
+ * @since 4.0
+ */
+@Slf4j
+class GroupCommitter implements AutoCloseable {
+    private final MVStore mvStore;
+    private final long windowNanos;
+    private final Runnable afterCommit;
+    private final ReentrantLock lock;
+    private final Condition batchOpened;
+    private final Thread flusher;
+    private List<CompletableFuture<Void>> pending;
+    private boolean closed;
+
+    GroupCommitter(MVStore mvStore, long windowMillis, Runnable afterCommit) {
+        this.mvStore = mvStore;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, windowMillis));
+        this.afterCommit = afterCommit;
+        this.lock = new ReentrantLock();
+        this.batchOpened = lock.newCondition();
+        this.pending = new ArrayList<>();
+        this.flusher = ThreadPoolManager.threadFactory("MVStore.GroupCommit").newThread(this::run);
+        this.flusher.start();
+    }
+
+    /**
+     * Requests a commit of all changes made so far.
+     *
+     * @return the future which completes once the changes are written
+     */
+    CompletableFuture<Void> commit() {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        lock.lock();
+        try {
+            if (closed) {
+                future.completeExceptionally(new NitriteIOException("store is closed"));
+                return future;
+            }
+
+            pending.add(future);
+            if (pending.size() == 1) {
+                batchOpened.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+        return future;
+    }
+
+    /**
+     * Flushes the open batch and stops the flusher thread.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            batchOpened.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new NitriteIOException("interrupted while flushing pending commits", e);
+        }
+    }
+
+    private void run() {
+        List<CompletableFuture<Void>> batch;
+        while ((batch = nextBatch()) != null) {
+            flush(batch);
+        }
+    }
+
+    private List<CompletableFuture<Void>> nextBatch() {
+        lock.lock();
+        try {
+            while (pending.isEmpty() && !closed) {
+                batchOpened.awaitUninterruptibly();
+            }
+
+            if (pending.isEmpty()) {
+                return null;
+            }
+
+            // keep the batch open for the window, close() flushes it at once
+            long remaining = windowNanos;
+            while (remaining > 0 && !closed) {
+                try {
+                    remaining = batchOpened.awaitNanos(remaining);
+                } catch (InterruptedException e) {
+                    break;
+                }
+            }
+
+            List<CompletableFuture<Void>> batch = pending;
+            pending = new ArrayList<>();
+            return batch;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void flush(List<CompletableFuture<Void>> batch) {
+        try {
+            mvStore.commit();
+            // a completed request must survive a crash, one fsync covers the whole group
+            mvStore.sync();
+        } catch (Exception e) {
+            log.error("Error while committing a group of " + batch.size() + " requests", e);
+            NitriteIOException error = new NitriteIOException("failed to commit changes", e);
+            for (CompletableFuture<Void> future : batch) {
+                future.completeExceptionally(error);
+            }
+            return;
+        }
+
+        for (CompletableFuture<Void> future : batch) {
+            future.complete(null);
+        }
+
+        try {
+            afterCommit.run();
+        } catch (Exception e) {
+            log.error("Error while notifying commit", e);
+        }
+    }
+}
@@ -63,6 +63,12 @@ public class MVStoreConfig implements StoreConfig {
     @Getter @Setter(AccessLevel.PACKAGE)
     private boolean autoCompact;
 
+    @Getter @Setter(AccessLevel.PACKAGE)
+    private boolean groupCommit;
+
+    @Getter @Setter(AccessLevel.PACKAGE)
+    private long groupCommitWindow;
+
     @Getter @Setter(AccessLevel.PACKAGE)
     private boolean recoveryMode;
 
@@ -41,6 +41,8 @@ public class MVStoreModuleBuilder {
     private boolean compress;
     private boolean compressHigh;
     private boolean autoCommit = true;
+    private boolean groupCommit = false;
+    private long groupCommitWindow = 5;
     private boolean recoveryMode = false;
     private int cacheSize = 16;
     private int cacheConcurrency = 16;
@@ -83,6 +85,8 @@ public class MVStoreModuleBuilder {
         dbConfig.compress(compress());
         dbConfig.compressHigh(compressHigh());
         dbConfig.autoCommit(autoCommit());
+        dbConfig.groupCommit(groupCommit());
+        dbConfig.groupCommitWindow(groupCommitWindow());
         dbConfig.recoveryMode(recoveryMode());
         dbConfig.cacheSize(cacheSize());
         dbConfig.cacheConcurrency(cacheConcurrency());
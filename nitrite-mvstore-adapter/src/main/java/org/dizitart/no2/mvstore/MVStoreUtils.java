@@ -113,7 +113,8 @@ class MVStoreUtils {
             builder = builder.fileName(mvStoreConfig.filePath());
         }
 
-        if (!mvStoreConfig.autoCommit()) {
+        // with group commit, chunks are only written by the group committer
+        if (!mvStoreConfig.autoCommit() || mvStoreConfig.groupCommit()) {
             builder = builder.autoCommitDisabled();
         }
 
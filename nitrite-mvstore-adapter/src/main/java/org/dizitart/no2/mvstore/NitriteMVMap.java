@@ -16,15 +16,17 @@
 
 package org.dizitart.no2.mvstore;
 
+import org.dizitart.no2.collection.Document;
 import org.dizitart.no2.common.RecordStream;
+import org.dizitart.no2.common.codec.DocumentCodec;
 import org.dizitart.no2.common.tuples.Pair;
 import org.dizitart.no2.store.NitriteMap;
 import org.dizitart.no2.store.NitriteStore;
+import org.h2.mvstore.Cursor;
 import org.h2.mvstore.MVMap;
 import org.h2.mvstore.MVStore;
 
-import java.util.Iterator;
-import java.util.Map;
+import java.util.*;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.dizitart.no2.common.util.ValidationUtils.notNull;
@@ -39,9 +41,15 @@ class NitriteMVMap<Key, Value> implements NitriteMap<Key, Value> {
     private final MVStore mvStore;
     private final AtomicBoolean droppedFlag;
     private final AtomicBoolean closedFlag;
+    private final DocumentCodec documentCodec;
 
     NitriteMVMap(MVMap<Key, Value> mvMap, NitriteStore<?> nitriteStore) {
+        this(mvMap, nitriteStore, null);
+    }
+
+    NitriteMVMap(MVMap<Key, Value> mvMap, NitriteStore<?> nitriteStore, DocumentCodec documentCodec) {
         this.mvMap = mvMap;
+        this.documentCodec = documentCodec;
         this.nitriteStore = nitriteStore;
         this.mvStore = mvMap.getStore();
         this.closedFlag = new AtomicBoolean(false);
@@ -106,6 +114,7 @@ class NitriteMVMap<Key, Value> implements NitriteMap<Key, Value> {
         notNull(value, "value cannot be null");
         MVStore.TxCounter txCounter = mvStore.registerVersionUsage();
         try {
+            registerFields(value);
             mvMap.put(key, value);
             updateLastModifiedTime();
         } finally {
@@ -123,6 +132,7 @@ class NitriteMVMap<Key, Value> implements NitriteMap<Key, Value> {
         notNull(value, "value cannot be null");
         MVStore.TxCounter txCounter = mvStore.registerVersionUsage();
         try {
+            registerFields(value);
             Value v = mvMap.putIfAbsent(key, value);
             updateLastModifiedTime();
             return v;
@@ -154,6 +164,25 @@ class NitriteMVMap<Key, Value> implements NitriteMap<Key, Value> {
         return () -> new ReverseIterator<>(mvMap);
     }
 
+    @Override
+    public List<RecordStream<Pair<Key, Value>>> splitEntries(int splitCount) {
+        long size = mvMap.sizeAsLong();
+        if (splitCount <= 1 || size < splitCount) {
+            return Collections.singletonList(entries());
+        }
+
+        // range boundaries are found by positional lookup on the b-tree,
+        // so that each range holds almost the same number of entries
+        List<RecordStream<Pair<Key, Value>>> splits = new ArrayList<>(splitCount);
+        Key from = null;
+        for (int i = 1; i <= splitCount; i++) {
+            Key to = i == splitCount ? null : mvMap.getKey(size * i / splitCount);
+            splits.add(rangeEntries(from, to));
+            from = to;
+        }
+        return splits;
+    }
+
     @Override
     public Key higherKey(Key key) {
         return mvMap.higherKey(key);
@@ -195,6 +224,42 @@ class NitriteMVMap<Key, Value> implements NitriteMap<Key, Value> {
         }
     }
 
+    private RecordStream<Pair<Key, Value>> rangeEntries(Key from, Key to) {
+        return () -> new Iterator<Pair<Key, Value>>() {
+            // cursor starts from the first key if from is null
+            final Cursor<Key, Value> cursor = mvMap.cursor(from);
+            Pair<Key, Value> nextPair;
+            boolean done;
+
+            @Override
+            public boolean hasNext() {
+                if (nextPair != null) {
+                    return true;
+                }
+
+                if (!done && cursor.hasNext()) {
+                    Key key = cursor.next();
+                    if (to == null || mvMap.getKeyType().compare(key, to) < 0) {
+                        nextPair = new Pair<>(key, cursor.getValue());
+                        return true;
+                    }
+                }
+                done = true;
+                return false;
+            }
+
+            @Override
+            public Pair<Key, Value> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Pair<Key, Value> pair = nextPair;
+                nextPair = null;
+                return pair;
+            }
+        };
+    }
+
     @Override
     public void close() {
         if (!closedFlag.get() && !droppedFlag.get()) {
@@ -202,4 +267,12 @@ class NitriteMVMap<Key, Value> implements NitriteMap<Key, Value> {
             nitriteStore.closeMap(getName());
         }
     }
+
+    private void registerFields(Value value) {
+        // documents are encoded only when the map is stored, so the field
+        // names must be in the dictionary before the document is in the map
+        if (documentCodec != null && value instanceof Document) {
+            documentCodec.registerFields((Document) value);
+        }
+    }
 }
@@ -18,7 +18,12 @@ package org.dizitart.no2.mvstore;
 
 
 import lombok.extern.slf4j.Slf4j;
+import org.dizitart.no2.collection.Document;
+import org.dizitart.no2.common.codec.DocumentCodec;
+import org.dizitart.no2.common.codec.FieldNameDictionary;
 import org.dizitart.no2.common.util.StringUtils;
+import org.dizitart.no2.exceptions.NitriteException;
+import org.dizitart.no2.exceptions.NitriteIOException;
 import org.dizitart.no2.index.BoundingBox;
 import org.dizitart.no2.store.AbstractNitriteStore;
 import org.dizitart.no2.store.NitriteMap;
@@ -30,7 +35,12 @@ import org.h2.mvstore.MVStore;
 import org.h2.mvstore.rtree.MVRTreeMap;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+import static org.dizitart.no2.common.Constants.FIELD_DICTIONARY_PREFIX;
+import static org.dizitart.no2.common.Constants.INTERNAL_NAME_SEPARATOR;
 
 /**
  * @since 1.0
@@ -39,18 +49,25 @@ import java.util.concurrent.ConcurrentHashMap;
 @Slf4j
 public class NitriteMVStore extends AbstractNitriteStore<MVStoreConfig> {
     private MVStore mvStore;
+    private GroupCommitter groupCommitter;
     private final Map<String, NitriteMap<?, ?>> nitriteMapRegistry;
     private final Map<String, NitriteRTree<?, ?>> nitriteRTreeMapRegistry;
+    private final Map<String, DocumentCodec> documentCodecRegistry;
 
     public NitriteMVStore() {
         super();
         this.nitriteMapRegistry = new ConcurrentHashMap<>();
         this.nitriteRTreeMapRegistry = new ConcurrentHashMap<>();
+        this.documentCodecRegistry = new ConcurrentHashMap<>();
     }
 
     @Override
     public void openOrCreate() {
         this.mvStore = MVStoreUtils.openOrCreate(getStoreConfig());
+        if (getStoreConfig().groupCommit() && !mvStore.isReadOnly()) {
+            this.groupCommitter = new GroupCommitter(mvStore, getStoreConfig().groupCommitWindow(),
+                () -> alert(StoreEvents.Commit));
+        }
         initEventBus();
         alert(StoreEvents.Opened);
     }
@@ -72,12 +89,38 @@ public class NitriteMVStore extends AbstractNitriteStore<MVStoreConfig> {
 
     @Override
     public void commit() {
+        if (groupCommitter != null) {
+            awaitCommit(groupCommitter.commit());
+            return;
+        }
+
         mvStore.commit();
         alert(StoreEvents.Commit);
     }
 
+    /**
+     * Commits the changes asynchronously. If group commit is enabled,
+     * concurrent requests within the group commit window are written
+     * to disk as a single chunk.
+     *
+     * @return the future which completes after the commit
+     */
+    @Override
+    public CompletableFuture<Void> commitAsync() {
+        if (groupCommitter != null) {
+            return groupCommitter.commit();
+        }
+        return super.commitAsync();
+    }
+
     @Override
     public void close() {
+        if (groupCommitter != null) {
+            // flush the pending commits before the store goes away
+            groupCommitter.close();
+            groupCommitter = null;
+        }
+
         if (getStoreConfig().autoCompact()) {
             compact();
         }
@@ -93,6 +136,7 @@ public class NitriteMVStore extends AbstractNitriteStore<MVStoreConfig> {
 
         nitriteMapRegistry.clear();
         nitriteRTreeMapRegistry.clear();
+        documentCodecRegistry.clear();
 
         mvStore.close();
         alert(StoreEvents.Closed);
@@ -111,8 +155,19 @@ public class NitriteMVStore extends AbstractNitriteStore<MVStoreConfig> {
             return (NitriteMVMap<Key, Value>) nitriteMapRegistry.get(mapName);
         }
 
-        MVMap<Key, Value> mvMap = mvStore.openMap(mapName);
-        NitriteMVMap<Key, Value> nitriteMVMap = new NitriteMVMap<>(mvMap, this);
+        NitriteMVMap<Key, Value> nitriteMVMap;
+        if (Document.class.equals(valueType)) {
+            // the codec outlives a closed nitrite map, as the underlying mvmap
+            // and its value type stay open until the store is closed
+            DocumentCodec documentCodec = documentCodecRegistry.computeIfAbsent(mapName,
+                this::openDocumentCodec);
+            MVMap<Key, Value> mvMap = mvStore.openMap(mapName,
+                new MVMap.Builder<Key, Value>().valueType(new DocumentDataType(documentCodec)));
+            nitriteMVMap = new NitriteMVMap<>(mvMap, this, documentCodec);
+        } else {
+            MVMap<Key, Value> mvMap = mvStore.openMap(mapName);
+            nitriteMVMap = new NitriteMVMap<>(mvMap, this);
+        }
         nitriteMapRegistry.put(mapName, nitriteMVMap);
         return nitriteMVMap;
     }
@@ -135,6 +190,13 @@ public class NitriteMVStore extends AbstractNitriteStore<MVStoreConfig> {
     public void removeMap(String name) {
         MVMap<?, ?> mvMap = mvStore.openMap(name);
         mvStore.removeMap(mvMap);
+
+        documentCodecRegistry.remove(name);
+        String dictionaryName = fieldDictionaryName(name);
+        if (mvStore.hasMap(dictionaryName)) {
+            mvStore.removeMap(mvStore.openMap(dictionaryName));
+        }
+
         getCatalog().remove(name);
         nitriteMapRegistry.remove(name);
     }
@@ -161,6 +223,31 @@ public class NitriteMVStore extends AbstractNitriteStore<MVStoreConfig> {
         mvStore.compactMoveChunks();
     }
 
+    private DocumentCodec openDocumentCodec(String mapName) {
+        // the dictionary lives in the same store, so a committed document
+        // never refers to a field id which has not been committed
+        MVMap<Integer, String> dictionaryMap = mvStore.openMap(fieldDictionaryName(mapName));
+        return new DocumentCodec(new FieldNameDictionary(dictionaryMap, dictionaryMap::put));
+    }
+
+    private void awaitCommit(CompletableFuture<Void> future) {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new NitriteIOException("interrupted while waiting for commit", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof NitriteException) {
+                throw (NitriteException) e.getCause();
+            }
+            throw new NitriteIOException("failed to commit changes", e.getCause());
+        }
+    }
+
+    private String fieldDictionaryName(String mapName) {
+        return FIELD_DICTIONARY_PREFIX + INTERNAL_NAME_SEPARATOR + mapName;
+    }
+
     private void initEventBus() {
         if (getStoreConfig().eventListeners() != null) {
             for (StoreEventListener eventListener : getStoreConfig().eventListeners()) {
@@ -20,6 +20,7 @@ package org.dizitart.no2.integration.mvstore;
 import org.dizitart.no2.integration.Retry;
 import org.dizitart.no2.Nitrite;
 import org.dizitart.no2.collection.Document;
+import org.dizitart.no2.common.RecordStream;
 import org.dizitart.no2.common.tuples.Pair;
 import org.dizitart.no2.exceptions.ValidationException;
 import org.dizitart.no2.store.NitriteMap;
@@ -28,6 +29,8 @@ import org.junit.After;
 import org.junit.Rule;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 import static org.dizitart.no2.integration.TestUtil.*;
@@ -75,6 +78,35 @@ public class NitriteMapStressTest {
         db.close();
     }
 
+    @Test
+    public void testSplitEntries() {
+        db = createDb(dbPath);
+        NitriteStore<?> nitriteStore = db.getStore();
+        NitriteMap<String, Document> nitriteMap = nitriteStore.openMap("testSplitEntries",
+            String.class, Document.class);
+
+        for (int i = 0; i < 1000; i++) {
+            nitriteMap.put(UUID.randomUUID().toString(), Document.createDocument("index", i));
+        }
+
+        List<String> keys = new ArrayList<>();
+        for (Pair<String, Document> entry : nitriteMap.entries()) {
+            keys.add(entry.getFirst());
+        }
+
+        List<RecordStream<Pair<String, Document>>> splits = nitriteMap.splitEntries(8);
+        assertEquals(8, splits.size());
+
+        // ranges are contiguous, non overlapping and in key order
+        List<String> splitKeys = new ArrayList<>();
+        for (RecordStream<Pair<String, Document>> split : splits) {
+            for (Pair<String, Document> entry : split) {
+                splitKeys.add(entry.getFirst());
+            }
+        }
+        assertEquals(keys, splitKeys);
+    }
+
     @Test
     public void testNullKey() {
         db = createDb(dbPath);
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.dizitart.no2.integration.transaction;
+
+import org.dizitart.no2.Nitrite;
+import org.dizitart.no2.collection.Document;
+import org.dizitart.no2.collection.NitriteCollection;
+import org.dizitart.no2.exceptions.TransactionException;
+import org.dizitart.no2.index.IndexType;
+import org.dizitart.no2.transaction.Session;
+import org.dizitart.no2.transaction.State;
+import org.dizitart.no2.transaction.Transaction;
+import org.dizitart.no2.transaction.TransactionMode;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.dizitart.no2.collection.Document.createDocument;
+import static org.dizitart.no2.filters.FluentFilter.where;
+import static org.dizitart.no2.integration.TestUtil.*;
+import static org.junit.Assert.*;
+
+/**
+ * @author Anindya Chatterjee
+ */
+public class OptimisticTransactionTest {
+    private String fileName;
+    private Nitrite db;
+
+    @Before
+    public void setUp() {
+        fileName = getRandomTempDbFile();
+        db = createDb(fileName);
+    }
+
+    @After
+    public void tearDown() {
+        if (db != null && !db.isClosed()) {
+            db.close();
+        }
+        deleteDb(fileName);
+    }
+
+    @Test
+    public void testFailedCommitIsReverted() {
+        NitriteCollection a = db.getCollection("a");
+        NitriteCollection b = db.getCollection("b");
+        b.createIndex(IndexType.UNIQUE, "k");
+
+        Document john = createDocument("firstName", "John").put("age", 30);
+        a.insert(john);
+        Document storedJohn = a.getById(john.getId());
+
+        try (Session session = db.createSession()) {
+            Transaction transaction = session.beginTransaction(TransactionMode.Optimistic);
+            transaction.getCollection("a").insert(createDocument("firstName", "Jane"));
+            transaction.getCollection("a").update(where("firstName").eq("John"), createDocument("age", 31));
+            transaction.getCollection("b").insert(createDocument("k", 7));
+
+            // the collection a is written before b fails at commit
+            b.insert(createDocument("k", 7));
+
+            boolean failed = false;
+            try {
+                transaction.commit();
+            } catch (TransactionException e) {
+                failed = true;
+                assertEquals(State.Failed, transaction.getState());
+                transaction.rollback();
+            }
+            assertTrue(failed);
+        }
+
+        assertEquals(1, a.size());
+        assertEquals(storedJohn, a.getById(john.getId()));
+        assertEquals(1, b.size());
+    }
+}
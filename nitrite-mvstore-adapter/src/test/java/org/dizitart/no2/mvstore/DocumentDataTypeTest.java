@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.mvstore;
+
+import org.dizitart.no2.collection.Document;
+import org.dizitart.no2.collection.LazyDocument;
+import org.dizitart.no2.common.codec.DocumentCodec;
+import org.dizitart.no2.common.codec.FieldNameDictionary;
+import org.h2.mvstore.WriteBuffer;
+import org.h2.mvstore.type.ObjectDataType;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.dizitart.no2.collection.Document.createDocument;
+import static org.junit.Assert.*;
+
+public class DocumentDataTypeTest {
+    private DocumentDataType dataType;
+
+    @Before
+    public void setUp() {
+        Map<Integer, String> dictionary = new HashMap<>();
+        dataType = new DocumentDataType(new DocumentCodec(new FieldNameDictionary(dictionary, dictionary::put)));
+    }
+
+    @Test
+    public void testWriteAndRead() {
+        Document document = createDocument("name", "John").put("age", 30);
+        document.getId();
+
+        WriteBuffer writeBuffer = new WriteBuffer();
+        dataType.write(writeBuffer, new Object[]{document, "text", 10L}, 3, false);
+
+        ByteBuffer buffer = writeBuffer.getBuffer();
+        buffer.flip();
+        Object[] values = new Object[3];
+        dataType.read(buffer, values, 3, false);
+
+        assertTrue(values[0] instanceof LazyDocument);
+        assertEquals(document, values[0]);
+        assertEquals("text", values[1]);
+        assertEquals(10L, values[2]);
+        assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    public void testReadSerializedDocument() {
+        Document document = createDocument("name", "Jane");
+        WriteBuffer writeBuffer = new WriteBuffer();
+        new ObjectDataType().write(writeBuffer, document);
+
+        ByteBuffer buffer = writeBuffer.getBuffer();
+        buffer.flip();
+        assertEquals(document, dataType.read(buffer));
+    }
+
+    @Test
+    public void testGetMemory() {
+        Document document = createDocument("name", "John");
+        int initial = dataType.getMemory(document);
+
+        WriteBuffer writeBuffer = new WriteBuffer();
+        for (int i = 0; i < 100; i++) {
+            dataType.write(writeBuffer, document);
+        }
+        assertTrue(dataType.getMemory(document) < initial);
+        assertEquals(new ObjectDataType().getMemory("text"), dataType.getMemory("text"));
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.mvstore;
+
+import org.dizitart.no2.exceptions.NitriteIOException;
+import org.h2.mvstore.FileStore;
+import org.h2.mvstore.MVMap;
+import org.h2.mvstore.MVStore;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.dizitart.no2.integration.TestUtil.deleteDb;
+import static org.dizitart.no2.integration.TestUtil.getRandomTempDbFile;
+import static org.junit.Assert.*;
+
+public class GroupCommitterTest {
+    private String fileName;
+    private MVStore mvStore;
+    private AtomicInteger commitCount;
+
+    @Before
+    public void setUp() {
+        fileName = getRandomTempDbFile();
+        mvStore = new MVStore.Builder().fileName(fileName).autoCommitDisabled().open();
+        commitCount = new AtomicInteger();
+    }
+
+    @After
+    public void cleanUp() {
+        mvStore.close();
+        deleteDb(fileName);
+    }
+
+    @Test
+    public void testConcurrentCommitsShareAChunk() throws Exception {
+        GroupCommitter groupCommitter = new GroupCommitter(mvStore, 200, commitCount::incrementAndGet);
+        MVMap<Integer, String> map = mvStore.openMap("test");
+        ExecutorService executor = Executors.newFixedThreadPool(10);
+        CountDownLatch latch = new CountDownLatch(1);
+        try {
+            List<CompletableFuture<CompletableFuture<Void>>> requests = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                final int key = i;
+                CompletableFuture<CompletableFuture<Void>> request = new CompletableFuture<>();
+                executor.submit(() -> {
+                    latch.await();
+                    map.put(key, "value" + key);
+                    request.complete(groupCommitter.commit());
+                    return null;
+                });
+                requests.add(request);
+            }
+            latch.countDown();
+
+            for (CompletableFuture<CompletableFuture<Void>> request : requests) {
+                request.get(5, TimeUnit.SECONDS).get(5, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdown();
+            groupCommitter.close();
+        }
+
+        assertFalse(mvStore.hasUnsavedChanges());
+        assertTrue(commitCount.get() >= 1);
+        assertTrue(commitCount.get() < 10);
+    }
+
+    @Test
+    public void testCloseFlushesPendingCommits() throws Exception {
+        GroupCommitter groupCommitter = new GroupCommitter(mvStore, 60000, commitCount::incrementAndGet);
+        mvStore.openMap("test").put(1, "one");
+
+        CompletableFuture<Void> future = groupCommitter.commit();
+        groupCommitter.close();
+
+        future.get(5, TimeUnit.SECONDS);
+        assertEquals(1, commitCount.get());
+        assertFalse(mvStore.hasUnsavedChanges());
+    }
+
+    @Test
+    public void testGroupIsSyncedOnce() throws Exception {
+        AtomicInteger syncCount = new AtomicInteger();
+        String syncedFile = getRandomTempDbFile();
+        FileStore fileStore = new FileStore() {
+            @Override
+            public void sync() {
+                syncCount.incrementAndGet();
+                super.sync();
+            }
+        };
+        fileStore.open(syncedFile, false, null);
+        MVStore syncedStore = new MVStore.Builder().fileName(syncedFile)
+            .fileStore(fileStore).autoCommitDisabled().open();
+        try {
+            GroupCommitter groupCommitter = new GroupCommitter(syncedStore, 60000, commitCount::incrementAndGet);
+            MVMap<Integer, String> map = syncedStore.openMap("test");
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                map.put(i, "value" + i);
+                futures.add(groupCommitter.commit());
+            }
+            int syncsBefore = syncCount.get();
+            groupCommitter.close();
+
+            for (CompletableFuture<Void> future : futures) {
+                future.get(5, TimeUnit.SECONDS);
+            }
+            assertEquals(1, commitCount.get());
+            assertEquals(1, syncCount.get() - syncsBefore);
+        } finally {
+            syncedStore.close();
+            fileStore.close();
+            deleteDb(syncedFile);
+        }
+    }
+
+    @Test
+    public void testCommitAfterClose() throws Exception {
+        GroupCommitter groupCommitter = new GroupCommitter(mvStore, 0, commitCount::incrementAndGet);
+        groupCommitter.close();
+
+        CompletableFuture<Void> future = groupCommitter.commit();
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            fail("commit succeeded after close");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof NitriteIOException);
+        }
+        assertEquals(0, commitCount.get());
+    }
+}
@@ -17,8 +17,24 @@
 
 package org.dizitart.no2.mvstore;
 
+import org.dizitart.no2.Nitrite;
+import org.dizitart.no2.collection.Document;
+import org.dizitart.no2.collection.NitriteCollection;
+import org.dizitart.no2.store.events.StoreEvents;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.dizitart.no2.collection.Document.createDocument;
+import static org.dizitart.no2.common.Constants.FIELD_DICTIONARY_PREFIX;
+import static org.dizitart.no2.common.Constants.INTERNAL_NAME_SEPARATOR;
+import static org.dizitart.no2.integration.TestUtil.createDb;
+import static org.dizitart.no2.integration.TestUtil.deleteDb;
+import static org.dizitart.no2.integration.TestUtil.getRandomTempDbFile;
 import static org.junit.Assert.*;
 
 public class NitriteMVStoreTest {
@@ -55,5 +71,80 @@ public class NitriteMVStoreTest {
     public void testGetStoreVersion() {
         assertNotNull((new NitriteMVStore()).getStoreVersion());
     }
-}
 
+    @Test
+    public void testDocumentMapReopen() {
+        String fileName = getRandomTempDbFile();
+        try {
+            Nitrite db = createDb(fileName);
+            NitriteCollection collection = db.getCollection("test");
+            for (int i = 0; i < 100; i++) {
+                collection.insert(createDocument("index", i)
+                    .put("name", "name" + i)
+                    .put("address", createDocument("zip", 1000 + i)));
+            }
+            db.close();
+
+            db = createDb(fileName);
+            collection = db.getCollection("test");
+            assertEquals(100, collection.size());
+            for (Document document : collection.find()) {
+                int index = document.get("index", Integer.class);
+                assertEquals("name" + index, document.get("name"));
+                assertEquals(1000 + index, document.get("address.zip"));
+            }
+
+            String dictionaryName = FIELD_DICTIONARY_PREFIX + INTERNAL_NAME_SEPARATOR + "test";
+            assertTrue(db.getStore().hasMap(dictionaryName));
+
+            collection.drop();
+            assertFalse(db.getStore().hasMap(dictionaryName));
+            db.close();
+        } finally {
+            deleteDb(fileName);
+        }
+    }
+
+    @Test
+    public void testGroupCommit() throws Exception {
+        String fileName = getRandomTempDbFile();
+        try {
+            AtomicInteger commits = new AtomicInteger();
+            MVStoreModule storeModule = MVStoreModule.withConfig()
+                .filePath(fileName)
+                .groupCommit(true)
+                .groupCommitWindow(50)
+                .addStoreEventListener(eventInfo -> {
+                    if (eventInfo.getEvent() == StoreEvents.Commit) {
+                        commits.incrementAndGet();
+                    }
+                })
+                .build();
+            Nitrite db = Nitrite.builder().loadModule(storeModule).openOrCreate();
+            NitriteCollection collection = db.getCollection("test");
+
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                collection.insert(createDocument("index", i));
+                futures.add(db.commitAsync());
+            }
+            for (CompletableFuture<Void> future : futures) {
+                future.get(5, TimeUnit.SECONDS);
+            }
+            assertFalse(db.getStore().hasUnsavedChanges());
+            assertTrue(commits.get() < 20);
+
+            collection.insert(createDocument("index", 20));
+            db.commit();
+            assertFalse(db.getStore().hasUnsavedChanges());
+            db.close();
+
+            storeModule = MVStoreModule.withConfig().filePath(fileName).build();
+            db = Nitrite.builder().loadModule(storeModule).openOrCreate();
+            assertEquals(21, db.getCollection("test").size());
+            db.close();
+        } finally {
+            deleteDb(fileName);
+        }
+    }
+}
@@ -16,6 +16,7 @@
 
 package org.dizitart.no2.sync;
 
+import org.dizitart.no2.sync.crdt.ChangeBatch;
 import org.dizitart.no2.sync.crdt.LastWriteWinState;
 import org.dizitart.no2.sync.message.BatchChangeContinue;
 import org.dizitart.no2.sync.message.BatchChangeEnd;
@@ -23,8 +24,14 @@ import org.dizitart.no2.sync.message.BatchChangeStart;
 
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
+ * Sends the local changes to the server in chunks. The chunks are read from
+ * the change log of the replica after the last sequence acknowledged by the
+ * server, and the sequence of the last change sent becomes the new
+ * checkpoint once the server acknowledges the end of the batch.
+ *
  * @author Anindya Chatterjee
  */
 class BatchChangeScheduler {
@@ -33,52 +40,63 @@ class BatchChangeScheduler {
     private final MessageFactory factory;
     private final MessageTemplate messageTemplate;
     private final FeedJournal journal;
+    private final AtomicLong sentSequence;
 
     public BatchChangeScheduler(ReplicationTemplate replica) {
         this.replica = replica;
         this.factory = replica.getMessageFactory();
         this.messageTemplate = replica.getMessageTemplate();
         this.journal = replica.getFeedJournal();
+        this.sentSequence = new AtomicLong(-1);
     }
 
     public void schedule() {
         if (replica.isConnected()) {
             Long lastSyncTime = replica.getLastSyncTime();
+            int chunkSize = replica.getConfig().getChunkSize();
 
-            BatchChangeStart message = createStart(factory, lastSyncTime);
+            ChangeBatch batch = replica.getCrdt().getChangesAfter(replica.getCheckpoint(), chunkSize);
+            BatchChangeStart message = factory.createChangeStart(replica.getConfig(),
+                replica.getReplicaId(), "");
+            message.setFeed(batch.getState());
             messageTemplate.sendMessage(message);
-            journal.write(message.getFeed());
+            journal.write(batch.getState());
+
+            if (batch.isLast()) {
+                sendEnd(batch.getLastSequence(), lastSyncTime);
+                return;
+            }
 
             timer = new Timer();
             timer.scheduleAtFixedRate(new TimerTask() {
-                boolean hasMore = true;
-                int start = replica.getConfig().getChunkSize();
+                long sequence = batch.getLastSequence();
 
                 @Override
                 public void run() {
-                    LastWriteWinState state = replica.getCrdt().getChangesSince(lastSyncTime, start,
-                        replica.getConfig().getChunkSize());
-                    if (state.getChanges().size() == 0 && state.getTombstones().size() == 0) {
-                        hasMore = false;
-                    }
-
-                    if (hasMore) {
+                    ChangeBatch next = replica.getCrdt().getChangesAfter(sequence, chunkSize);
+                    LastWriteWinState state = next.getState();
+                    if (!state.getChanges().isEmpty() || !state.getTombstones().isEmpty()) {
                         BatchChangeContinue message = factory.createChangeContinue(replica.getConfig(),
                             replica.getReplicaId(), "", state);
 
                         messageTemplate.sendMessage(message);
                         journal.write(state);
-                        start = start + replica.getConfig().getChunkSize();
                     }
+                    sequence = next.getLastSequence();
 
-                    if (!hasMore) {
+                    if (next.isLast()) {
                         timer.cancel();
+                        sendEnd(sequence, lastSyncTime);
                     }
                 }
             }, 0, replica.getConfig().getDebounce());
+        }
+    }
 
-            BatchChangeEnd endMessage = factory.createChangeEnd(replica.getConfig(), replica.getReplicaId(), "", lastSyncTime);
-            messageTemplate.sendMessage(endMessage);
+    public void acknowledge() {
+        long sequence = sentSequence.getAndSet(-1);
+        if (sequence >= 0) {
+            replica.saveCheckpoint(sequence);
         }
     }
 
@@ -88,14 +106,11 @@ class BatchChangeScheduler {
         }
     }
 
-    private BatchChangeStart createStart(MessageFactory factory, Long lastSyncTime) {
-        BatchChangeStart startMessage = factory.createChangeStart(replica.getConfig(),
-            replica.getReplicaId(), "");
-
-        LastWriteWinState state = replica.getCrdt().getChangesSince(lastSyncTime, 0,
-            replica.getConfig().getChunkSize());
-
-        startMessage.setFeed(state);
-        return startMessage;
+    private void sendEnd(long sequence, Long lastSyncTime) {
+        // the end is sent after the last chunk, so that the server
+        // acknowledges the batch only after receiving all of it
+        sentSequence.set(sequence);
+        BatchChangeEnd endMessage = factory.createChangeEnd(replica.getConfig(), replica.getReplicaId(), "", lastSyncTime);
+        messageTemplate.sendMessage(endMessage);
     }
 }
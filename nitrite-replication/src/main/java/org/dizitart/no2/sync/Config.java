@@ -40,4 +40,6 @@ public class Config {
     private String authToken;
     private boolean acceptAllCertificates;
     private Callable<Boolean> networkConnectivityChecker;
+    private boolean binaryProtocol;
+    private Integer feedWindow;
 }
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2017-2020. Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dizitart.no2.sync;
+
+import lombok.extern.slf4j.Slf4j;
+import org.dizitart.no2.collection.Document;
+import org.dizitart.no2.sync.crdt.LastWriteWinState;
+import org.dizitart.no2.sync.message.DataGateFeed;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Sends the local changes to the server as {@link DataGateFeed} messages.
+ * <p>
+ * If a feed window is configured, the changes made within the window are
+ * coalesced into a single feed, where the last change of a document wins.
+ * Otherwise every change is sent as soon as it is made.
+ *
+ * @author Anindya Chatterjee
+ */
+@Slf4j
+class FeedBatcher {
+    private final ReplicationTemplate replica;
+    private final ReentrantLock lock;
+    private Map<String, Document> changes;
+    private Map<String, Long> tombstones;
+    private Timer timer;
+    private boolean scheduled;
+
+    public FeedBatcher(ReplicationTemplate replica) {
+        this.replica = replica;
+        this.lock = new ReentrantLock();
+        this.changes = new LinkedHashMap<>();
+        this.tombstones = new LinkedHashMap<>();
+    }
+
+    public void submit(LastWriteWinState state) {
+        Integer window = replica.getConfig().getFeedWindow();
+        if (window == null || window <= 0) {
+            send(state);
+            return;
+        }
+
+        try {
+            lock.lock();
+            for (Document change : state.getChanges()) {
+                String id = change.getId().getIdValue();
+                tombstones.remove(id);
+                changes.put(id, change);
+            }
+
+            for (Map.Entry<String, Long> entry : state.getTombstones().entrySet()) {
+                changes.remove(entry.getKey());
+                tombstones.put(entry.getKey(), entry.getValue());
+            }
+
+            if (!scheduled) {
+                if (timer == null) {
+                    timer = new Timer(true);
+                }
+
+                timer.schedule(new TimerTask() {
+                    @Override
+                    public void run() {
+                        flush();
+                    }
+                }, window);
+                scheduled = true;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void flush() {
+        LastWriteWinState state = new LastWriteWinState();
+        try {
+            lock.lock();
+            state.getChanges().addAll(changes.values());
+            state.getTombstones().putAll(tombstones);
+            changes = new LinkedHashMap<>();
+            tombstones = new LinkedHashMap<>();
+            scheduled = false;
+        } finally {
+            lock.unlock();
+        }
+
+        if (!state.getChanges().isEmpty() || !state.getTombstones().isEmpty()) {
+            try {
+                send(state);
+            } catch (Exception e) {
+                // the changes are still in the change log for the next batch
+                log.error("Error while sending coalesced feed", e);
+            }
+        }
+    }
+
+    public void stop() {
+        try {
+            lock.lock();
+            if (timer != null) {
+                timer.cancel();
+                timer = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+        flush();
+    }
+
+    private void send(LastWriteWinState state) {
+        if (replica.shouldExchangeFeed()) {
+            MessageFactory factory = replica.getMessageFactory();
+            DataGateFeed feedMessage = factory.createFeedMessage(replica.getConfig(),
+                replica.getReplicaId(), state);
+
+            FeedJournal journal = replica.getFeedJournal();
+            replica.getMessageTemplate().sendMessage(feedMessage);
+            journal.write(state);
+        }
+    }
+}
@@ -18,6 +18,7 @@ package org.dizitart.no2.sync;
 
 import lombok.extern.slf4j.Slf4j;
 import okhttp3.Response;
+import okio.ByteString;
 import org.dizitart.no2.common.Constants;
 import org.dizitart.no2.common.concurrent.ThreadPoolManager;
 import org.dizitart.no2.common.util.StringUtils;
@@ -28,6 +29,7 @@ import org.dizitart.no2.sync.message.DataGateMessage;
 import org.dizitart.no2.sync.net.DataGateSocketListener;
 
 import java.util.concurrent.ExecutorService;
+import java.util.function.Supplier;
 
 /**
  * @author Anindya Chatterjee
@@ -45,16 +47,14 @@ class MessageDispatcher implements DataGateSocketListener, AutoCloseable {
 
     @Override
     public void onMessage(String text) {
-        try {
-            log.debug("Message received from server {}", text);
-            DataGateMessage message = transformer.transform(text);
-            validateMessage(message);
-            dispatch(message);
-        } catch (Exception e) {
-            log.error("Error while processing message", e);
-            replicationTemplate.postEvent(new ReplicationEvent(ReplicationEventType.Error, e));
-            replicationTemplate.stopReplication("Error - " + e.getMessage());
-        }
+        log.debug("Message received from server {}", text);
+        process(() -> transformer.transform(text));
+    }
+
+    @Override
+    public void onMessage(ByteString bytes) {
+        log.debug("Binary message of {} bytes received from server", bytes.size());
+        process(() -> transformer.transform(bytes.toByteArray()));
     }
 
     @Override
@@ -69,6 +69,18 @@ class MessageDispatcher implements DataGateSocketListener, AutoCloseable {
         log.warn("Connection to server is closed due to {}", reason);
     }
 
+    private void process(Supplier<DataGateMessage> reader) {
+        try {
+            DataGateMessage message = reader.get();
+            validateMessage(message);
+            dispatch(message);
+        } catch (Exception e) {
+            log.error("Error while processing message", e);
+            replicationTemplate.postEvent(new ReplicationEvent(ReplicationEventType.Error, e));
+            replicationTemplate.stopReplication("Error - " + e.getMessage());
+        }
+    }
+
     private <M extends DataGateMessage> void dispatch(M message) {
         MessageHandler<M> handler = findHandler(message);
         if (handler != null) {
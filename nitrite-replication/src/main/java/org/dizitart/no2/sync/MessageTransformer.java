@@ -16,94 +16,292 @@
 
 package org.dizitart.no2.sync;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.dizitart.no2.collection.Document;
+import org.dizitart.no2.common.codec.DocumentCodec;
+import org.dizitart.no2.common.codec.FieldNameDictionary;
+import org.dizitart.no2.exceptions.NitriteException;
+import org.dizitart.no2.exceptions.NitriteIOException;
+import org.dizitart.no2.sync.crdt.LastWriteWinState;
 import org.dizitart.no2.sync.message.*;
 
+import java.io.*;
+import java.util.*;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
 /**
+ * Transforms the {@link DataGateMessage}s to and from the text and
+ * binary frames of the DataGate protocol.
+ * <p>
+ * A binary frame starts with a flag byte and the id of the
+ * {@link MessageType}, followed by the payload of the message, which is
+ * deflated if it is large enough to benefit from it. The message type is
+ * read from the second byte, so the payload is parsed only once, straight
+ * into the message class.
+ * <p>
+ * The payload is the json of the message. If the message carries changed
+ * documents, they are left out of the json and written after it with the
+ * binary {@link DocumentCodec}, along with the field names they use.
+ * The codec never falls back to java serialization on the wire, a message
+ * with a document it cannot encode otherwise is sent as json as a whole.
+ *
  * @author Anindya Chatterjee
  */
 public class MessageTransformer {
+    private static final byte FLAG_NONE = 0;
+    private static final byte FLAG_DEFLATED = 1;
+    private static final byte FLAG_ENCODED_CHANGES = 2;
+    private static final int HEADER_SIZE = 2;
+    private static final int COMPRESSION_THRESHOLD = 256;
+    private static final int MAX_PAYLOAD_SIZE = 64 * 1024 * 1024;
+
     private ObjectMapper objectMapper;
+    private ObjectMapper headerMapper;
 
     public MessageTransformer(ObjectMapper objectMapper) {
         this.objectMapper = objectMapper;
+        this.headerMapper = objectMapper.copy().addMixIn(LastWriteWinState.class, WithoutChanges.class);
     }
 
     public DataGateMessage transform(String message) {
         try {
             JsonNode jsonNode = objectMapper.readTree(message);
-            if (isError(jsonNode)) {
-                return objectMapper.treeToValue(jsonNode, ErrorMessage.class);
-            } else if (isConnect(jsonNode)) {
-                return objectMapper.treeToValue(jsonNode, Connect.class);
-            } else if (isConnectAck(jsonNode)) {
-                return objectMapper.treeToValue(jsonNode, ConnectAck.class);
-            } else if (isDisconnect(jsonNode)) {
-                return objectMapper.treeToValue(jsonNode, Disconnect.class);
-            } else if (isBatchChangeStart(jsonNode)) {
-                return objectMapper.treeToValue(jsonNode, BatchChangeStart.class);
-            } else if (isBatchChangeContinue(jsonNode)) {
-                return objectMapper.treeToValue(jsonNode, BatchChangeContinue.class);
-            } else if (isBatchChangeEnd(jsonNode)) {
-                return objectMapper.treeToValue(jsonNode, BatchChangeEnd.class);
-            } else if (isBatchAck(jsonNode)) {
-                return objectMapper.treeToValue(jsonNode, BatchAck.class);
-            } else if (isBatchEndAck(jsonNode)) {
-                return objectMapper.treeToValue(jsonNode, BatchEndAck.class);
-            } else if (isFeed(jsonNode)) {
-                return objectMapper.treeToValue(jsonNode, DataGateFeed.class);
-            } else if (isFeedAck(jsonNode)) {
-                return objectMapper.treeToValue(jsonNode, DataGateFeedAck.class);
+            JsonNode header = jsonNode.get("header");
+            if (header == null) {
+                return null;
             }
-        } catch (JsonProcessingException e) {
+
+            Class<? extends DataGateMessage> messageClass =
+                getMessageClass(MessageType.fromCode(header.path("messageType").asText()));
+            if (messageClass != null) {
+                return objectMapper.treeToValue(jsonNode, messageClass);
+            }
+        } catch (IOException e) {
             throw new ReplicationException("failed to transform message from server", e, true);
         }
         return null;
     }
 
-    private boolean isError(JsonNode jsonNode) {
-        return jsonNode.get("header").get("messageType").asText().equals(MessageType.Error.code());
-    }
+    public DataGateMessage transform(byte[] frame) {
+        if (frame == null || frame.length < HEADER_SIZE) {
+            throw new ReplicationException("invalid binary frame received from server", true);
+        }
 
-    private boolean isConnect(JsonNode jsonNode) {
-        return jsonNode.get("header").get("messageType").asText().equals(MessageType.Connect.code());
+        Class<? extends DataGateMessage> messageClass = getMessageClass(MessageType.fromId(frame[1]));
+        if (messageClass == null) {
+            return null;
+        }
+
+        try {
+            byte[] payload = Arrays.copyOfRange(frame, HEADER_SIZE, frame.length);
+            if ((frame[0] & FLAG_DEFLATED) != 0) {
+                payload = inflate(payload);
+            }
+
+            if ((frame[0] & FLAG_ENCODED_CHANGES) != 0) {
+                return readWithChanges(payload, messageClass);
+            }
+            return objectMapper.readValue(payload, messageClass);
+        } catch (IOException | DataFormatException | NitriteException e) {
+            throw new ReplicationException("failed to transform binary message from server", e, true);
+        }
     }
 
-    private boolean isConnectAck(JsonNode jsonNode) {
-        return jsonNode.get("header").get("messageType").asText().equals(MessageType.ConnectAck.code());
+    public byte[] toBinary(DataGateMessage message) {
+        try {
+            byte[] payload = null;
+            byte flag = FLAG_NONE;
+            if (hasChanges(message)) {
+                payload = writeWithChanges((ReceiptAware) message);
+                flag = FLAG_ENCODED_CHANGES;
+            }
+
+            if (payload == null) {
+                payload = objectMapper.writeValueAsBytes(message);
+                flag = FLAG_NONE;
+            }
+
+            if (payload.length >= COMPRESSION_THRESHOLD) {
+                byte[] deflated = deflate(payload);
+                if (deflated.length < payload.length) {
+                    payload = deflated;
+                    flag |= FLAG_DEFLATED;
+                }
+            }
+
+            byte[] frame = new byte[payload.length + HEADER_SIZE];
+            frame[0] = flag;
+            frame[1] = message.getHeader().getMessageType().id();
+            System.arraycopy(payload, 0, frame, HEADER_SIZE, payload.length);
+            return frame;
+        } catch (IOException e) {
+            throw new ReplicationException("failed to transform message " + message, e, true);
+        }
     }
 
-    private boolean isDisconnect(JsonNode jsonNode) {
-        return jsonNode.get("header").get("messageType").asText().equals(MessageType.Disconnect.code());
+    private boolean hasChanges(DataGateMessage message) {
+        if (message instanceof ReceiptAware) {
+            LastWriteWinState feed = ((ReceiptAware) message).getFeed();
+            return feed != null && feed.getChanges() != null && !feed.getChanges().isEmpty();
+        }
+        return false;
     }
 
-    private boolean isBatchChangeStart(JsonNode jsonNode) {
-        return jsonNode.get("header").get("messageType").asText().equals(MessageType.BatchChangeStart.code());
+    private byte[] writeWithChanges(ReceiptAware message) throws IOException {
+        // ids are assigned from 0 in the order the field names are first seen
+        List<String> fieldNames = new ArrayList<>();
+        DocumentCodec codec = new DocumentCodec(new FieldNameDictionary(Collections.emptyMap(),
+            (id, fieldName) -> fieldNames.add(fieldName)), false);
+
+        Collection<Document> changes = message.getFeed().getChanges();
+        List<byte[]> documents = new ArrayList<>(changes.size());
+        for (Document change : changes) {
+            try {
+                documents.add(codec.encode(change));
+            } catch (NitriteIOException e) {
+                // a value only java serialization can write, the json keeps it
+                return null;
+            }
+        }
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(outputStream);
+        byte[] json = headerMapper.writeValueAsBytes(message);
+        output.writeInt(json.length);
+        output.write(json);
+
+        output.writeInt(fieldNames.size());
+        for (String fieldName : fieldNames) {
+            output.writeUTF(fieldName);
+        }
+
+        output.writeInt(documents.size());
+        for (byte[] document : documents) {
+            output.writeInt(document.length);
+            output.write(document);
+        }
+        output.flush();
+        return outputStream.toByteArray();
     }
 
-    private boolean isBatchChangeContinue(JsonNode jsonNode) {
-        return jsonNode.get("header").get("messageType").asText().equals(MessageType.BatchChangeContinue.code());
+    private DataGateMessage readWithChanges(byte[] payload,
+                                            Class<? extends DataGateMessage> messageClass) throws IOException {
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(payload));
+        byte[] json = new byte[readLength(input)];
+        input.readFully(json);
+        DataGateMessage message = objectMapper.readValue(json, messageClass);
+        if (!(message instanceof ReceiptAware) || ((ReceiptAware) message).getFeed() == null) {
+            throw new IOException("no feed found for the encoded changes of " + messageClass.getSimpleName());
+        }
+
+        int fieldCount = readLength(input);
+        Map<Integer, String> fieldNames = new HashMap<>();
+        for (int i = 0; i < fieldCount; i++) {
+            fieldNames.put(i, input.readUTF());
+        }
+        // decoding only looks up the field names, it never assigns new ids,
+        // and never deserializes a java object sent by the server
+        DocumentCodec codec = new DocumentCodec(new FieldNameDictionary(fieldNames, (id, fieldName) -> {
+        }), false);
+
+        Set<Document> changes = ((ReceiptAware) message).getFeed().getChanges();
+        int documentCount = readLength(input);
+        for (int i = 0; i < documentCount; i++) {
+            byte[] document = new byte[readLength(input)];
+            input.readFully(document);
+            changes.add(codec.decode(document));
+        }
+        return message;
     }
 
-    private boolean isBatchChangeEnd(JsonNode jsonNode) {
-        return jsonNode.get("header").get("messageType").asText().equals(MessageType.BatchChangeEnd.code());
+    private int readLength(DataInputStream input) throws IOException {
+        int length = input.readInt();
+        if (length < 0 || length > input.available()) {
+            throw new IOException("invalid length " + length + " in binary frame");
+        }
+        return length;
     }
 
-    private boolean isBatchAck(JsonNode jsonNode) {
-        return jsonNode.get("header").get("messageType").asText().equals(MessageType.BatchAck.code());
+    private Class<? extends DataGateMessage> getMessageClass(MessageType messageType) {
+        if (messageType == null) {
+            return null;
+        }
+
+        switch (messageType) {
+            case Error:
+                return ErrorMessage.class;
+            case Connect:
+                return Connect.class;
+            case ConnectAck:
+                return ConnectAck.class;
+            case Disconnect:
+                return Disconnect.class;
+            case BatchChangeStart:
+                return BatchChangeStart.class;
+            case BatchChangeContinue:
+                return BatchChangeContinue.class;
+            case BatchChangeEnd:
+                return BatchChangeEnd.class;
+            case BatchAck:
+                return BatchAck.class;
+            case BatchEndAck:
+                return BatchEndAck.class;
+            case DataGateFeed:
+                return DataGateFeed.class;
+            case DataGateFeedAck:
+                return DataGateFeedAck.class;
+        }
+        return null;
     }
 
-    private boolean isBatchEndAck(JsonNode jsonNode) {
-        return jsonNode.get("header").get("messageType").asText().equals(MessageType.BatchEndAck.code());
+    private byte[] deflate(byte[] data) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream(data.length / 2);
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                int count = deflater.deflate(buffer);
+                outputStream.write(buffer, 0, count);
+            }
+            return outputStream.toByteArray();
+        } finally {
+            deflater.end();
+        }
     }
 
-    private boolean isFeed(JsonNode jsonNode) {
-        return jsonNode.get("header").get("messageType").asText().equals(MessageType.DataGateFeed.code());
+    private byte[] inflate(byte[] data) throws DataFormatException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data);
+
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream(
+                Math.min(data.length * 4, MAX_PAYLOAD_SIZE));
+            byte[] buffer = new byte[4096];
+            while (!inflater.finished()) {
+                int count = inflater.inflate(buffer);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new DataFormatException("truncated binary frame");
+                }
+                if (outputStream.size() + count > MAX_PAYLOAD_SIZE) {
+                    throw new DataFormatException("inflated binary frame exceeds "
+                        + MAX_PAYLOAD_SIZE + " bytes");
+                }
+                outputStream.write(buffer, 0, count);
+            }
+            return outputStream.toByteArray();
+        } finally {
+            inflater.end();
+        }
     }
 
-    private boolean isFeedAck(JsonNode jsonNode) {
-        return jsonNode.get("header").get("messageType").asText().equals(MessageType.DataGateFeedAck.code());
+    @JsonIgnoreProperties("changes")
+    private abstract static class WithoutChanges {
     }
 }
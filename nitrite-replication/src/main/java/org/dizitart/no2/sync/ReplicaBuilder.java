@@ -42,12 +42,15 @@ public class ReplicaBuilder {
     private ObjectMapper objectMapper;
     private Proxy proxy;
     private boolean acceptAllCertificates = false;
+    private boolean binaryProtocol = false;
+    private TimeSpan feedWindow;
     private Callable<Boolean> networkConnectivityChecker = () -> true;
 
     ReplicaBuilder() {
         chunkSize = 10;
         timeout = new TimeSpan(5, TimeUnit.SECONDS);
         debounce = new TimeSpan(1, TimeUnit.SECONDS);
+        feedWindow = new TimeSpan(0, TimeUnit.MILLISECONDS);
         objectMapper = new ObjectMapper();
         objectMapper.registerModule(new DocumentModule());
     }
@@ -103,6 +106,16 @@ public class ReplicaBuilder {
         return this;
     }
 
+    public ReplicaBuilder binaryProtocol(boolean binary) {
+        this.binaryProtocol = binary;
+        return this;
+    }
+
+    public ReplicaBuilder feedWindow(TimeSpan timeSpan) {
+        this.feedWindow = timeSpan;
+        return this;
+    }
+
     public ReplicaBuilder acceptAllCertificates(boolean accept) {
         this.acceptAllCertificates = accept;
         return this;
@@ -127,6 +140,8 @@ public class ReplicaBuilder {
             config.setRequestBuilder(builder);
             config.setProxy(proxy);
             config.setAcceptAllCertificates(acceptAllCertificates);
+            config.setBinaryProtocol(binaryProtocol);
+            config.setFeedWindow(getTimeoutInMillis(feedWindow));
             config.setAuthToken(authToken);
             config.setNetworkConnectivityChecker(networkConnectivityChecker);
             return new Replica(config);
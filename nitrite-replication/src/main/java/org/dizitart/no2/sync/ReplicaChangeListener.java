@@ -24,7 +24,6 @@ import org.dizitart.no2.collection.events.CollectionEventListener;
 import org.dizitart.no2.sync.crdt.LastWriteWinState;
 import org.dizitart.no2.sync.event.ReplicationEvent;
 import org.dizitart.no2.sync.event.ReplicationEventType;
-import org.dizitart.no2.sync.message.DataGateFeed;
 
 import java.util.Collections;
 
@@ -76,13 +75,17 @@ class ReplicaChangeListener implements CollectionEventListener {
         Long deleteTime = document.getLastModifiedSinceEpoch();
 
         if (replicationTemplate.getCrdt() != null) {
-            replicationTemplate.getCrdt().getTombstones().put(nitriteId, deleteTime);
+            replicationTemplate.getCrdt().addTombstone(nitriteId, deleteTime);
             state.setTombstones(Collections.singletonMap(nitriteId.getIdValue(), deleteTime));
             sendFeed(state);
         }
     }
 
     private void handleModifyEvent(Document document) {
+        if (replicationTemplate.getCrdt() != null) {
+            replicationTemplate.getCrdt().recordChange(document.getId());
+        }
+
         LastWriteWinState state = new LastWriteWinState();
         state.setChanges(Collections.singleton(document));
         sendFeed(state);
@@ -90,13 +93,7 @@ class ReplicaChangeListener implements CollectionEventListener {
 
     private void sendFeed(LastWriteWinState state) {
         if (replicationTemplate.shouldExchangeFeed() && messageTemplate != null) {
-            MessageFactory factory = replicationTemplate.getMessageFactory();
-            DataGateFeed feedMessage = factory.createFeedMessage(replicationTemplate.getConfig(),
-                replicationTemplate.getReplicaId(), state);
-
-            FeedJournal journal = replicationTemplate.getFeedJournal();
-            messageTemplate.sendMessage(feedMessage);
-            journal.write(state);
+            replicationTemplate.sendFeed(state);
         }
     }
 }
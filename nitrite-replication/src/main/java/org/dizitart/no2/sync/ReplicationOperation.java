@@ -26,8 +26,7 @@ import org.dizitart.no2.sync.crdt.LastWriteWinMap;
 
 import java.util.UUID;
 
-import static org.dizitart.no2.collection.meta.Attributes.LAST_SYNCED;
-import static org.dizitart.no2.collection.meta.Attributes.TOMBSTONE;
+import static org.dizitart.no2.collection.meta.Attributes.*;
 import static org.dizitart.no2.common.Constants.INTERNAL_NAME_SEPARATOR;
 
 /**
@@ -66,7 +65,43 @@ interface ReplicationOperation {
 
         NitriteStore<?> store = getCollection().getStore();
         NitriteMap<NitriteId, Long> tombstone = store.openMap(tombstoneName, NitriteId.class, Long.class);
-        return new LastWriteWinMap(getCollection(), tombstone);
+        LastWriteWinMap crdt = new LastWriteWinMap(getCollection(), tombstone);
+        recordChanges(crdt);
+        return crdt;
+    }
+
+    default void recordChanges(LastWriteWinMap crdt) {
+        Attributes attributes = getAttributes();
+        String lastRecordedStr = attributes.get(LAST_RECORDED);
+
+        // the changes made before the change log existed are taken from the last sync
+        Long since = StringUtils.isNullOrEmpty(lastRecordedStr)
+            ? getLastSyncTime() : Long.valueOf(lastRecordedStr);
+        long recordTime = System.currentTimeMillis();
+        crdt.recordChangesSince(since);
+        saveLastRecordedTime(recordTime);
+    }
+
+    default void saveLastRecordedTime(Long lastRecordedTime) {
+        Attributes attributes = getAttributes();
+        attributes.set(LAST_RECORDED, Long.toString(lastRecordedTime));
+        saveAttributes(attributes);
+    }
+
+    default Long getCheckpoint() {
+        Attributes attributes = getAttributes();
+        String checkpointStr = attributes.get(CHECKPOINT);
+        if (StringUtils.isNullOrEmpty(checkpointStr)) {
+            return 0L;
+        } else {
+            return Long.parseLong(checkpointStr);
+        }
+    }
+
+    default void saveCheckpoint(Long checkpoint) {
+        Attributes attributes = getAttributes();
+        attributes.set(CHECKPOINT, Long.toString(checkpoint));
+        saveAttributes(attributes);
     }
 
     default String getTombstoneName(Attributes attributes) {
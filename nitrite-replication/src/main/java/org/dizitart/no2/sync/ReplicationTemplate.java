@@ -22,9 +22,9 @@ import lombok.extern.slf4j.Slf4j;
 import org.dizitart.no2.collection.NitriteCollection;
 import org.dizitart.no2.collection.NitriteId;
 import org.dizitart.no2.collection.meta.Attributes;
-import org.dizitart.no2.common.tuples.Pair;
 import org.dizitart.no2.common.util.StringUtils;
 import org.dizitart.no2.sync.crdt.LastWriteWinMap;
+import org.dizitart.no2.sync.crdt.LastWriteWinState;
 import org.dizitart.no2.sync.event.ReplicationEvent;
 import org.dizitart.no2.sync.event.ReplicationEventBus;
 import org.dizitart.no2.sync.event.ReplicationEventListener;
@@ -32,7 +32,6 @@ import org.dizitart.no2.sync.message.Connect;
 import org.dizitart.no2.sync.message.Disconnect;
 import org.dizitart.no2.sync.message.Receipt;
 
-import java.util.HashSet;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -56,6 +55,9 @@ public class ReplicationTemplate implements ReplicationOperation {
     @Getter(AccessLevel.NONE)
     private BatchChangeScheduler batchChangeScheduler;
 
+    @Getter(AccessLevel.NONE)
+    private FeedBatcher feedBatcher;
+
     @Getter(AccessLevel.NONE)
     private String replicaId;
 
@@ -102,6 +104,7 @@ public class ReplicationTemplate implements ReplicationOperation {
 
     public void stopReplication(String reason) {
         batchChangeScheduler.stop();
+        feedBatcher.stop();
         eventBus.post(new ReplicationEvent(Stopped));
         connected.set(false);
         exchangeFlag.set(false);
@@ -113,6 +116,14 @@ public class ReplicationTemplate implements ReplicationOperation {
         batchChangeScheduler.schedule();
     }
 
+    public void acknowledgeChanges() {
+        batchChangeScheduler.acknowledge();
+    }
+
+    public void sendFeed(LastWriteWinState state) {
+        feedBatcher.submit(state);
+    }
+
     public void startFeedExchange() {
         this.exchangeFlag.compareAndSet(false, true);
     }
@@ -158,26 +169,25 @@ public class ReplicationTemplate implements ReplicationOperation {
     }
 
     public void close() {
+        feedBatcher.stop();
         eventBus.close();
         messageTemplate.close();
         batchChangeScheduler.stop();
         this.getCollection().unsubscribe(replicaChangeListener);
+        if (getCollection().isOpen()) {
+            // all changes until now are in the change log
+            saveLastRecordedTime(System.currentTimeMillis());
+        }
     }
 
     public void collectGarbage(Long ttl) {
         if (ttl != null && ttl > 0) {
             long collectTime = System.currentTimeMillis() - ttl;
-            if (crdt != null && crdt.getTombstones() != null) {
-                Set<NitriteId> removeSet = new HashSet<>();
-                for (Pair<NitriteId, Long> entry : crdt.getTombstones().entries()) {
-                    if (entry.getSecond() < collectTime) {
-                        removeSet.add(entry.getFirst());
-                    }
-                }
+            if (crdt != null) {
+                Set<NitriteId> removeSet = crdt.collectGarbage(collectTime);
 
                 Receipt garbage = new Receipt();
                 for (NitriteId nitriteId : removeSet) {
-                    crdt.getTombstones().remove(nitriteId);
                     garbage.getRemoved().add(nitriteId.getIdValue());
                 }
 
@@ -196,6 +206,7 @@ public class ReplicationTemplate implements ReplicationOperation {
         this.crdt = createReplicatedDataType();
         this.feedJournal = new FeedJournal(this);
         this.batchChangeScheduler = new BatchChangeScheduler(this);
+        this.feedBatcher = new FeedBatcher(this);
         this.replicaChangeListener = new ReplicaChangeListener(this, messageTemplate);
         this.getCollection().subscribe(replicaChangeListener);
     }
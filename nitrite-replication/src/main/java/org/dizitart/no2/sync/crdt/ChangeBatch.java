@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2017-2020. Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dizitart.no2.sync.crdt;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * A chunk of changes read from a {@link ChangeLog}.
+ *
+ * @author Anindya Chatterjee
+ */
+@Data
+@AllArgsConstructor
+public class ChangeBatch {
+    /**
+     * The state of the changed documents.
+     */
+    private LastWriteWinState state;
+
+    /**
+     * The sequence number of the last change read, to read the next chunk after.
+     */
+    private long lastSequence;
+
+    /**
+     * Indicates whether the change log had no more changes to read.
+     */
+    private boolean last;
+}
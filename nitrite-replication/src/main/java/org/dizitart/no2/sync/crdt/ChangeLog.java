@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2017-2020. Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dizitart.no2.sync.crdt;
+
+import org.dizitart.no2.collection.NitriteId;
+import org.dizitart.no2.collection.meta.Attributes;
+import org.dizitart.no2.common.tuples.Pair;
+import org.dizitart.no2.store.NitriteMap;
+import org.dizitart.no2.store.NitriteStore;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.dizitart.no2.common.Constants.INTERNAL_NAME_SEPARATOR;
+
+/**
+ * A durable log of the changed documents of a replicated collection,
+ * ordered by a monotonic sequence number.
+ * <p>
+ * Every change of a document takes the next sequence number and drops
+ * the earlier entry of the same document, so the log holds one entry
+ * per changed document in the order of their last change. It is read
+ * with keyset pagination after a sequence number, which seeks into the
+ * ordered map instead of skipping the entries read before.
+ * <p>
+ * The last sequence number is restored from the newest entry of the log,
+ * or from the attributes of the log if the newest entries were removed,
+ * so a sequence number is never taken twice.
+ *
+ * @author Anindya Chatterjee
+ */
+public class ChangeLog {
+    private static final String SEQUENCE = "sequence";
+    private static final String LAST_SEQUENCE = "last_sequence";
+
+    private final NitriteMap<Long, NitriteId> changes;
+    private final NitriteMap<NitriteId, Long> sequences;
+    private long lastSequence;
+
+    public ChangeLog(NitriteStore<?> store, String name) {
+        this.changes = store.openMap(name, Long.class, NitriteId.class);
+        this.sequences = store.openMap(name + INTERNAL_NAME_SEPARATOR + SEQUENCE,
+            NitriteId.class, Long.class);
+
+        Long last = changes.isEmpty() ? null : changes.floorKey(Long.MAX_VALUE);
+        this.lastSequence = Math.max(last == null ? 0 : last, loadLastSequence());
+    }
+
+    public synchronized long record(NitriteId nitriteId) {
+        Long previous = sequences.get(nitriteId);
+        if (previous != null) {
+            changes.remove(previous);
+        }
+
+        long sequence = ++lastSequence;
+        changes.put(sequence, nitriteId);
+        sequences.put(nitriteId, sequence);
+        return sequence;
+    }
+
+    public synchronized void remove(NitriteId nitriteId) {
+        Long sequence = sequences.get(nitriteId);
+        if (sequence != null) {
+            // the entry might be the newest one, which the sequence is restored from
+            saveLastSequence();
+            sequences.remove(nitriteId);
+            changes.remove(sequence);
+        }
+    }
+
+    public synchronized long getLastSequence() {
+        return lastSequence;
+    }
+
+    public List<Pair<Long, NitriteId>> readAfter(long sequence, int size) {
+        List<Pair<Long, NitriteId>> entries = new ArrayList<>();
+        Long key = changes.higherKey(sequence);
+        while (key != null && entries.size() < size) {
+            NitriteId nitriteId = changes.get(key);
+            if (nitriteId != null) {
+                // the entry might have been moved by a change in the meantime
+                entries.add(new Pair<>(key, nitriteId));
+            }
+            key = changes.higherKey(key);
+        }
+        return entries;
+    }
+
+    public long size() {
+        return changes.size();
+    }
+
+    private long loadLastSequence() {
+        Attributes attributes = changes.getAttributes();
+        String value = attributes == null ? null : attributes.get(LAST_SEQUENCE);
+        return value == null ? 0 : Long.parseLong(value);
+    }
+
+    private void saveLastSequence() {
+        if (loadLastSequence() == lastSequence) {
+            return;
+        }
+
+        Attributes attributes = changes.getAttributes();
+        if (attributes == null) {
+            attributes = new Attributes(changes.getName());
+        }
+        attributes.set(LAST_SEQUENCE, Long.toString(lastSequence));
+        changes.setAttributes(attributes);
+    }
+}
@@ -20,11 +20,15 @@ import lombok.Data;
 import org.dizitart.no2.collection.*;
 import org.dizitart.no2.common.tuples.Pair;
 import org.dizitart.no2.store.NitriteMap;
+import org.dizitart.no2.store.NitriteStore;
 
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
 
+import static org.dizitart.no2.collection.FindOptions.orderBy;
 import static org.dizitart.no2.collection.FindOptions.skipBy;
 import static org.dizitart.no2.common.Constants.*;
+import static org.dizitart.no2.common.SortOrder.Ascending;
 import static org.dizitart.no2.filters.FluentFilter.where;
 
 /**
@@ -32,12 +36,29 @@ import static org.dizitart.no2.filters.FluentFilter.where;
  */
 @Data
 public class LastWriteWinMap {
+    private static final String CHANGES = "changes";
+    private static final String TIMES = "times";
+
     private NitriteCollection collection;
     private NitriteMap<NitriteId, Long> tombstones;
+    private NitriteMap<Long, List<?>> tombstoneTimes;
+    private ChangeLog changeLog;
 
     public LastWriteWinMap(NitriteCollection collection, NitriteMap<NitriteId, Long> tombstones) {
         this.collection = collection;
         this.tombstones = tombstones;
+
+        NitriteStore<?> store = tombstones.getStore();
+        this.tombstoneTimes = store.openMap(tombstones.getName() + INTERNAL_NAME_SEPARATOR + TIMES,
+            Long.class, CopyOnWriteArrayList.class);
+        this.changeLog = new ChangeLog(store, tombstones.getName() + INTERNAL_NAME_SEPARATOR + CHANGES);
+
+        if (tombstoneTimes.isEmpty() && !tombstones.isEmpty()) {
+            // index the tombstones written before the time index existed
+            for (Pair<NitriteId, Long> entry : tombstones.entries()) {
+                addTombstoneTime(entry.getFirst(), entry.getSecond());
+            }
+        }
     }
 
     public void merge(LastWriteWinState snapshot) {
@@ -62,17 +83,82 @@ public class LastWriteWinMap {
 
         if (offset == 0) {
             // don't repeat for other offsets
-            for (Pair<NitriteId, Long> entry : tombstones.entries()) {
-                Long timestamp = entry.getSecond();
-                if (timestamp >= since) {
-                    state.getTombstones().put(entry.getFirst().getIdValue(), entry.getSecond());
+            Long time = tombstoneTimes.ceilingKey(since);
+            while (time != null) {
+                for (NitriteId nitriteId : getTombstoneIds(time)) {
+                    state.getTombstones().put(nitriteId.getIdValue(), time);
                 }
+                time = tombstoneTimes.higherKey(time);
             }
         }
 
         return state;
     }
 
+    public ChangeBatch getChangesAfter(long sequence, int size) {
+        LastWriteWinState state = new LastWriteWinState();
+        List<Pair<Long, NitriteId>> entries = changeLog.readAfter(sequence, size);
+
+        long lastSequence = sequence;
+        for (Pair<Long, NitriteId> entry : entries) {
+            NitriteId nitriteId = entry.getSecond();
+            Document document = collection.getById(nitriteId);
+            if (document != null) {
+                state.getChanges().add(document);
+            } else {
+                Long timestamp = tombstones.get(nitriteId);
+                if (timestamp != null) {
+                    state.getTombstones().put(nitriteId.getIdValue(), timestamp);
+                }
+            }
+            lastSequence = entry.getFirst();
+        }
+
+        return new ChangeBatch(state, lastSequence, entries.size() < size);
+    }
+
+    public void recordChange(NitriteId nitriteId) {
+        changeLog.record(nitriteId);
+    }
+
+    public void recordChangesSince(Long since) {
+        // catches up with the changes made while no replica was listening
+        DocumentCursor cursor = collection.find(where(DOC_MODIFIED).gte(since), orderBy(DOC_MODIFIED, Ascending));
+        for (Document document : cursor) {
+            changeLog.record(document.getId());
+        }
+
+        Long time = tombstoneTimes.ceilingKey(since);
+        while (time != null) {
+            for (NitriteId nitriteId : getTombstoneIds(time)) {
+                changeLog.record(nitriteId);
+            }
+            time = tombstoneTimes.higherKey(time);
+        }
+    }
+
+    public void addTombstone(NitriteId nitriteId, Long timestamp) {
+        removeTombstone(nitriteId);
+        tombstones.put(nitriteId, timestamp);
+        addTombstoneTime(nitriteId, timestamp);
+        changeLog.record(nitriteId);
+    }
+
+    public Set<NitriteId> collectGarbage(long before) {
+        Set<NitriteId> collected = new HashSet<>();
+        Long time = tombstoneTimes.ceilingKey(Long.MIN_VALUE);
+        while (time != null && time < before) {
+            for (NitriteId nitriteId : getTombstoneIds(time)) {
+                tombstones.remove(nitriteId);
+                changeLog.remove(nitriteId);
+                collected.add(nitriteId);
+            }
+            tombstoneTimes.remove(time);
+            time = tombstoneTimes.higherKey(time);
+        }
+        return collected;
+    }
+
     private void put(Document value) {
         if (value != null) {
             NitriteId key = value.getId();
@@ -86,11 +172,13 @@ public class LastWriteWinMap {
                     if (docModifiedTime >= tombstoneTime) {
                         value.put(DOC_SOURCE, REPLICATOR);
                         collection.insert(value);
-                        tombstones.remove(key);
+                        removeTombstone(key);
+                        changeLog.record(key);
                     }
                 } else {
                     value.put(DOC_SOURCE, REPLICATOR);
                     collection.insert(value);
+                    changeLog.record(key);
                 }
             } else {
                 Long oldTime = entry.getLastModifiedSinceEpoch();
@@ -102,6 +190,7 @@ public class LastWriteWinMap {
 
                     value.put(DOC_SOURCE, REPLICATOR);
                     collection.insert(value);
+                    changeLog.record(key);
                 }
             }
         }
@@ -112,7 +201,35 @@ public class LastWriteWinMap {
         if (entry != null) {
             entry.put(DOC_SOURCE, REPLICATOR);
             collection.remove(entry);
-            tombstones.put(key, timestamp);
+            addTombstone(key, timestamp);
+        }
+    }
+
+    private void removeTombstone(NitriteId nitriteId) {
+        Long timestamp = tombstones.remove(nitriteId);
+        if (timestamp != null) {
+            List<NitriteId> nitriteIds = getTombstoneIds(timestamp);
+            if (nitriteIds.remove(nitriteId)) {
+                if (nitriteIds.isEmpty()) {
+                    tombstoneTimes.remove(timestamp);
+                } else {
+                    tombstoneTimes.put(timestamp, nitriteIds);
+                }
+            }
         }
     }
+
+    private void addTombstoneTime(NitriteId nitriteId, Long timestamp) {
+        List<NitriteId> nitriteIds = getTombstoneIds(timestamp);
+        if (!nitriteIds.contains(nitriteId)) {
+            nitriteIds.add(nitriteId);
+            tombstoneTimes.put(timestamp, nitriteIds);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<NitriteId> getTombstoneIds(Long timestamp) {
+        List<NitriteId> nitriteIds = (List<NitriteId>) tombstoneTimes.get(timestamp);
+        return nitriteIds == null ? new CopyOnWriteArrayList<>() : nitriteIds;
+    }
 }
@@ -34,6 +34,7 @@ public class BatchEndAckHandler implements MessageHandler<BatchEndAck>, JournalA
 
     @Override
     public void handleMessage(BatchEndAck message) {
+        replicationTemplate.acknowledgeChanges();
         Receipt finalReceipt = getJournal().getFinalReceipt();
         retryFailed(finalReceipt);
     }
@@ -18,26 +18,41 @@ package org.dizitart.no2.sync.message;
 
 import com.fasterxml.jackson.annotation.JsonValue;
 
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * @author Anindya Chatterjee.
  */
 public enum MessageType {
-    Error("no2.sync.error"),
-    Connect("no2.sync.connect"),
-    ConnectAck("no2.sync.connect.ack"),
-    Disconnect("no2.sync.disconnect"),
-    BatchChangeStart("no2.sync.batch.start"),
-    BatchChangeContinue("no2.sync.batch.continue"),
-    BatchChangeEnd("no2.sync.batch.end"),
-    BatchAck("no2.sync.batch.ack"),
-    BatchEndAck("no2.sync.batch.end.ack"),
-    DataGateFeed("no2.sync.feed"),
-    DataGateFeedAck("no2.sync.feed.ack");
+    Error("no2.sync.error", 0),
+    Connect("no2.sync.connect", 1),
+    ConnectAck("no2.sync.connect.ack", 2),
+    Disconnect("no2.sync.disconnect", 3),
+    BatchChangeStart("no2.sync.batch.start", 4),
+    BatchChangeContinue("no2.sync.batch.continue", 5),
+    BatchChangeEnd("no2.sync.batch.end", 6),
+    BatchAck("no2.sync.batch.ack", 7),
+    BatchEndAck("no2.sync.batch.end.ack", 8),
+    DataGateFeed("no2.sync.feed", 9),
+    DataGateFeedAck("no2.sync.feed.ack", 10);
+
+    private static final Map<String, MessageType> codes = new HashMap<>();
+    private static final MessageType[] ids = new MessageType[values().length];
+
+    static {
+        for (MessageType messageType : values()) {
+            codes.put(messageType.code, messageType);
+            ids[messageType.id] = messageType;
+        }
+    }
 
     private String code;
+    private byte id;
 
-    MessageType(String code) {
+    MessageType(String code, int id) {
         this.code = code;
+        this.id = (byte) id;
     }
 
     @JsonValue
@@ -45,6 +60,35 @@ public enum MessageType {
         return code;
     }
 
+    /**
+     * Gets the id of the message type in a binary frame.
+     *
+     * @return the id
+     */
+    public byte id() {
+        return id;
+    }
+
+    /**
+     * Gets the message type of a code, or <code>null</code> if the code is unknown.
+     *
+     * @param code the code
+     * @return the message type
+     */
+    public static MessageType fromCode(String code) {
+        return codes.get(code);
+    }
+
+    /**
+     * Gets the message type of an id, or <code>null</code> if the id is unknown.
+     *
+     * @param id the id
+     * @return the message type
+     */
+    public static MessageType fromId(byte id) {
+        return id >= 0 && id < ids.length ? ids[id] : null;
+    }
+
     @Override
     public String toString() {
         return code;
@@ -23,8 +23,6 @@ import org.dizitart.no2.collection.Document;
 import org.dizitart.no2.common.tuples.Pair;
 
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
 
 /**
  * @author Anindya Chatterjee
@@ -38,20 +36,22 @@ public class DocumentSerializer extends StdScalarSerializer<Document> {
     @Override
     public void serialize(Document value, JsonGenerator gen, SerializerProvider provider) throws IOException {
         if (value != null) {
-            Map<String, Object> map = fromDocument(value);
-            gen.writeObject(map);
+            writeDocument(value, gen);
         }
     }
 
-    private Map<String, Object> fromDocument(Document document) {
-        Map<String, Object> map = new HashMap<>();
+    private void writeDocument(Document document, JsonGenerator gen) throws IOException {
+        // writes the fields as they are iterated, without copying them to a map first
+        gen.writeStartObject();
         for (Pair<String, Object> pair : document) {
+            gen.writeFieldName(pair.getFirst());
             Object value = pair.getSecond();
             if (value instanceof Document) {
-                value = fromDocument((Document) value);
+                writeDocument((Document) value, gen);
+            } else {
+                gen.writeObject(value);
             }
-            map.put(pair.getFirst(), value);
         }
-        return map;
+        gen.writeEndObject();
     }
 }
@@ -22,6 +22,7 @@ import lombok.extern.slf4j.Slf4j;
 import okhttp3.*;
 import okio.ByteString;
 import org.dizitart.no2.sync.Config;
+import org.dizitart.no2.sync.MessageTransformer;
 import org.dizitart.no2.sync.ReplicationException;
 import org.dizitart.no2.sync.message.DataGateMessage;
 import org.jetbrains.annotations.NotNull;
@@ -49,6 +50,7 @@ public class DataGateSocket {
     private final Request request;
     private final Lock lock;
     private final ObjectMapper objectMapper;
+    private final MessageTransformer transformer;
     private final Config config;
     private final Callable<Boolean> networkConnectivityChecker;
     private WebSocket mWebSocket;
@@ -116,6 +118,7 @@ public class DataGateSocket {
         this.httpClient = createClient();
         this.request = config.getRequestBuilder().build();
         this.objectMapper = config.getObjectMapper();
+        this.transformer = new MessageTransformer(objectMapper);
     }
 
     public void setListener(DataGateSocketListener listener) {
@@ -148,9 +151,15 @@ public class DataGateSocket {
         boolean isSent = false;
         try {
             if (mWebSocket != null && isConnected()) {
-                String text = objectMapper.writeValueAsString(message);
-                log.debug("Sending message to server {}", text);
-                isSent = mWebSocket.send(text);
+                if (config.isBinaryProtocol()) {
+                    byte[] frame = transformer.toBinary(message);
+                    log.debug("Sending binary message of {} bytes to server {}", frame.length, message);
+                    isSent = mWebSocket.send(ByteString.of(frame));
+                } else {
+                    String text = objectMapper.writeValueAsString(message);
+                    log.debug("Sending message to server {}", text);
+                    isSent = mWebSocket.send(text);
+                }
 
                 if (!isSent) {
                     tryReconnect();
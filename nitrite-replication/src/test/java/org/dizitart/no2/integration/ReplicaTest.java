@@ -26,6 +26,7 @@ import org.dizitart.no2.integration.server.Repository;
 import org.dizitart.no2.integration.server.SimpleDataGateServer;
 import org.dizitart.no2.sync.Replica;
 import org.dizitart.no2.sync.ReplicationTemplate;
+import org.dizitart.no2.sync.TimeSpan;
 import org.dizitart.no2.sync.crdt.LastWriteWinMap;
 import org.junit.After;
 import org.junit.Before;
@@ -41,6 +42,7 @@ import java.util.UUID;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.awaitility.Awaitility.await;
 import static org.dizitart.no2.collection.Document.createDocument;
@@ -632,6 +634,48 @@ public class ReplicaTest {
             && lastWriteWinMap.getTombstones().size() == 0);
     }
 
+    @Test
+    public void testBinaryProtocolWithFeedWindow() {
+        repository.getUserMap().put("anidotnet", "abcd");
+        db = createDb(dbFile);
+        NitriteCollection c1 = db.getCollection("testBinaryProtocol");
+        c1.insert(randomDocument());
+
+        Replica r1 = Replica.builder()
+            .of(c1)
+            .remote("ws://127.0.0.1:9090/datagate/anidotnet/testBinaryProtocol")
+            .jwtAuth("anidotnet", "abcd")
+            .binaryProtocol(true)
+            .feedWindow(new TimeSpan(200, MILLISECONDS))
+            .create();
+
+        r1.connect();
+
+        await().atMost(5, SECONDS).until(() -> repository.getReplicaStore()
+            .containsKey("anidotnet@testBinaryProtocol"));
+        LastWriteWinMap lastWriteWinMap = repository.getReplicaStore().get("anidotnet@testBinaryProtocol");
+        await().atMost(5, SECONDS).until(() -> lastWriteWinMap.getCollection().size() == 1);
+
+        Document document = randomDocument();
+        c1.insert(document);
+        for (int i = 0; i < 20; i++) {
+            c1.insert(randomDocument());
+        }
+        for (int i = 0; i < 5; i++) {
+            c1.update(where("firstName").eq(document.get("firstName")),
+                createDocument("lastName", "Chatterjee-" + i));
+        }
+        await().atMost(5, SECONDS).until(() -> lastWriteWinMap.getCollection().size() == 22);
+        await().atMost(5, SECONDS).until(() -> lastWriteWinMap.getCollection()
+            .find(where("lastName").eq("Chatterjee-4")).size() == 1);
+
+        c1.remove(where("firstName").eq(document.get("firstName")));
+        await().atMost(5, SECONDS).until(() -> lastWriteWinMap.getCollection().size() == 21);
+
+        r1.disconnect();
+        r1.close();
+    }
+
     @SneakyThrows
     private LastWriteWinMap getCrdt(Replica replica) {
         Field field = Replica.class.getDeclaredField("replicationTemplate");
@@ -73,31 +73,45 @@ public class SimpleDataGateEndpoint {
     public void onMessage(String message, Session session) {
         try {
             log.info("Message received at server {}", message);
-            DataGateMessage dataGateMessage = transformer.transform(message);
-            if (dataGateMessage instanceof Connect) {
-                Connect connect = (Connect) dataGateMessage;
-                handleConnect(session, connect);
-            } else if (dataGateMessage instanceof BatchChangeStart) {
-                BatchChangeStart batchChangeStart = (BatchChangeStart) dataGateMessage;
-                handleBatchChangeStart(session, batchChangeStart);
-            } else if (dataGateMessage instanceof BatchChangeContinue) {
-                BatchChangeContinue batchChangeContinue = (BatchChangeContinue) dataGateMessage;
-                handleBatchChangeContinue(session, batchChangeContinue);
-            } else if (dataGateMessage instanceof BatchChangeEnd) {
-                BatchChangeEnd batchChangeEnd = (BatchChangeEnd) dataGateMessage;
-                handleBatchChangeEnd(session, batchChangeEnd);
-            } else if (dataGateMessage instanceof DataGateFeed) {
-                DataGateFeed dataGateFeed = (DataGateFeed) dataGateMessage;
-                handleDataGateFeed(session, dataGateFeed);
-            } else if (dataGateMessage instanceof Disconnect) {
-                Disconnect disconnect = (Disconnect) dataGateMessage;
-                handleDisconnect(session, disconnect);
-            }
+            handleMessage(session, transformer.transform(message));
         } catch (Exception e) {
             log.error("Error while handling message {}", message, e);
         }
     }
 
+    @OnMessage
+    public void onMessage(byte[] message, Session session) {
+        try {
+            DataGateMessage dataGateMessage = transformer.transform(message);
+            log.info("Binary message of {} bytes received at server {}", message.length, dataGateMessage);
+            handleMessage(session, dataGateMessage);
+        } catch (Exception e) {
+            log.error("Error while handling binary message", e);
+        }
+    }
+
+    private void handleMessage(Session session, DataGateMessage dataGateMessage) throws IOException {
+        if (dataGateMessage instanceof Connect) {
+            Connect connect = (Connect) dataGateMessage;
+            handleConnect(session, connect);
+        } else if (dataGateMessage instanceof BatchChangeStart) {
+            BatchChangeStart batchChangeStart = (BatchChangeStart) dataGateMessage;
+            handleBatchChangeStart(session, batchChangeStart);
+        } else if (dataGateMessage instanceof BatchChangeContinue) {
+            BatchChangeContinue batchChangeContinue = (BatchChangeContinue) dataGateMessage;
+            handleBatchChangeContinue(session, batchChangeContinue);
+        } else if (dataGateMessage instanceof BatchChangeEnd) {
+            BatchChangeEnd batchChangeEnd = (BatchChangeEnd) dataGateMessage;
+            handleBatchChangeEnd(session, batchChangeEnd);
+        } else if (dataGateMessage instanceof DataGateFeed) {
+            DataGateFeed dataGateFeed = (DataGateFeed) dataGateMessage;
+            handleDataGateFeed(session, dataGateFeed);
+        } else if (dataGateMessage instanceof Disconnect) {
+            Disconnect disconnect = (Disconnect) dataGateMessage;
+            handleDisconnect(session, disconnect);
+        }
+    }
+
     @OnError
     public void onError(Session session, Throwable ex) {
         log.error("Error in DataGate server", ex);
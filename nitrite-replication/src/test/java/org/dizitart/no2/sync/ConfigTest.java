@@ -126,6 +126,14 @@ public class ConfigTest {
         assertTrue(config.isAcceptAllCertificates());
     }
 
+    @Test
+    public void testSetBinaryProtocol() {
+        Config config = new Config();
+        config.setBinaryProtocol(true);
+        assertTrue(config.isBinaryProtocol());
+        assertFalse(config.equals(new Config()));
+    }
+
     @Test
     public void testSetAuthToken() {
         Config config = new Config();
@@ -162,7 +170,7 @@ public class ConfigTest {
         assertEquals(
             "Config(collection=null, chunkSize=null, userName=null, debounce=null, objectMapper=null, timeout=null,"
                 + " requestBuilder=null, proxy=HTTP @ 0.0.0.0/0.0.0.0:1, authToken=null, acceptAllCertificates=false,"
-                + " networkConnectivityChecker=null)",
+                + " networkConnectivityChecker=null, binaryProtocol=false, feedWindow=null)",
             config.toString());
     }
 
@@ -181,7 +189,7 @@ public class ConfigTest {
         config.setTimeout(timeout);
         assertEquals("Config(collection=null, chunkSize=null, userName=null, debounce=null, objectMapper=null, timeout"
             + "=TimeSpan(time=10, timeUnit=NANOSECONDS), requestBuilder=null, proxy=null, authToken=null, acceptAll"
-            + "Certificates=false, networkConnectivityChecker=null)", config.toString());
+            + "Certificates=false, networkConnectivityChecker=null, binaryProtocol=false, feedWindow=null)", config.toString());
     }
 
     @Test
@@ -196,7 +204,7 @@ public class ConfigTest {
         assertEquals(
             "Config(collection=null, chunkSize=null, userName=null, debounce=null, objectMapper=null, timeout=null,"
                 + " requestBuilder=null, proxy=null, authToken=null, acceptAllCertificates=false, networkConnectivityChecker"
-                + "=null)",
+                + "=null, binaryProtocol=false, feedWindow=null)",
             (new Config()).toString());
     }
 }
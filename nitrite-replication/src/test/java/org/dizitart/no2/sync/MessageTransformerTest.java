@@ -0,0 +1,237 @@
+package org.dizitart.no2.sync;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.dizitart.no2.collection.Document;
+import org.dizitart.no2.common.codec.DocumentCodec;
+import org.dizitart.no2.common.codec.FieldNameDictionary;
+import org.dizitart.no2.sync.crdt.LastWriteWinState;
+import org.dizitart.no2.sync.message.*;
+import org.dizitart.no2.sync.module.DocumentModule;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.*;
+import java.util.zip.Deflater;
+
+import static org.junit.Assert.*;
+
+public class MessageTransformerTest {
+    private ObjectMapper objectMapper;
+    private MessageTransformer transformer;
+    private MessageFactory factory;
+
+    @Before
+    public void setUp() {
+        objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new DocumentModule());
+        transformer = new MessageTransformer(objectMapper);
+        factory = new MessageFactory();
+    }
+
+    @Test
+    public void testTransformText() throws Exception {
+        Connect connect = createConnect();
+        String text = objectMapper.writeValueAsString(connect);
+
+        DataGateMessage message = transformer.transform(text);
+        assertTrue(message instanceof Connect);
+        assertEquals(connect, message);
+    }
+
+    @Test
+    public void testTransformUnknownText() {
+        assertNull(transformer.transform("{\"header\":{\"messageType\":\"no2.sync.unknown\"}}"));
+        assertNull(transformer.transform("{\"authToken\":\"abcd\"}"));
+    }
+
+    @Test
+    public void testBinaryRoundTrip() {
+        Connect connect = createConnect();
+        byte[] frame = transformer.toBinary(connect);
+
+        // a small payload is not deflated
+        assertEquals(0, frame[0]);
+        assertEquals(MessageType.Connect.id(), frame[1]);
+
+        DataGateMessage message = transformer.transform(frame);
+        assertTrue(message instanceof Connect);
+        assertEquals(connect, message);
+    }
+
+    @Test
+    public void testDeflatedFrame() throws Exception {
+        DataGateFeed feed = createFeed(100);
+        byte[] json = objectMapper.writeValueAsBytes(feed);
+        byte[] frame = transformer.toBinary(feed);
+
+        // deflated, with the changes encoded by the document codec
+        assertEquals(3, frame[0]);
+        assertEquals(MessageType.DataGateFeed.id(), frame[1]);
+        assertTrue(frame.length < json.length / 2);
+
+        DataGateMessage message = transformer.transform(frame);
+        assertTrue(message instanceof DataGateFeed);
+        DataGateFeed result = (DataGateFeed) message;
+        assertEquals(feed.getHeader(), result.getHeader());
+        assertEquals(100, result.getFeed().getChanges().size());
+        assertEquals(1, result.getFeed().getTombstones().size());
+        for (Document document : result.getFeed().getChanges()) {
+            assertTrue(((String) document.get("name")).startsWith("name-"));
+        }
+    }
+
+    @Test
+    public void testEncodedChanges() {
+        Document document = Document.createDocument("count", 1L)
+            .put("date", new Date(1000L))
+            .put("tags", new ArrayList<>(Arrays.asList("a", "b")))
+            .put("address", Document.createDocument("zip", (short) 7));
+        document.getId();
+        LastWriteWinState state = new LastWriteWinState();
+        state.getChanges().add(document);
+
+        BatchChangeContinue message = new BatchChangeContinue();
+        message.setHeader(factory.createHeader(MessageType.BatchChangeContinue, "test", "", "replica", "user"));
+        message.setFeed(state);
+        message.setBatchSize(10);
+        byte[] frame = transformer.toBinary(message);
+        assertEquals(2, frame[0] & 2);
+
+        BatchChangeContinue result = (BatchChangeContinue) transformer.transform(frame);
+        assertEquals(10, (int) result.getBatchSize());
+        assertEquals(1, result.getFeed().getChanges().size());
+
+        // the values keep their types, which the json payload does not
+        Document change = result.getFeed().getChanges().iterator().next();
+        assertEquals(document.getId(), change.getId());
+        assertEquals(1L, change.get("count"));
+        assertEquals(new Date(1000L), change.get("date"));
+        assertEquals(Arrays.asList("a", "b"), change.get("tags"));
+        assertEquals((short) 7, change.get("address.zip"));
+    }
+
+    @Test
+    public void testSerializableValueSentAsJson() {
+        UUID uuid = UUID.randomUUID();
+        Document document = Document.createDocument("uuid", uuid);
+        document.getId();
+        BatchChangeContinue message = createBatch(document);
+
+        // the codec would need java serialization for the uuid
+        byte[] frame = transformer.toBinary(message);
+        assertEquals(0, frame[0] & 2);
+
+        BatchChangeContinue result = (BatchChangeContinue) transformer.transform(frame);
+        Document change = result.getFeed().getChanges().iterator().next();
+        assertEquals(uuid.toString(), change.get("uuid"));
+    }
+
+    @Test
+    public void testSerializedValueRejected() throws IOException {
+        BatchChangeContinue message = createBatch();
+        List<String> fieldNames = new ArrayList<>();
+        DocumentCodec codec = new DocumentCodec(new FieldNameDictionary(new HashMap<>(),
+            (id, fieldName) -> fieldNames.add(fieldName)));
+        byte[] document = codec.encode(Document.createDocument("uuid", UUID.randomUUID()));
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(outputStream);
+        output.writeByte(2);
+        output.writeByte(MessageType.BatchChangeContinue.id());
+        byte[] json = objectMapper.writeValueAsBytes(message);
+        output.writeInt(json.length);
+        output.write(json);
+        output.writeInt(fieldNames.size());
+        for (String fieldName : fieldNames) {
+            output.writeUTF(fieldName);
+        }
+        output.writeInt(1);
+        output.writeInt(document.length);
+        output.write(document);
+
+        try {
+            transformer.transform(outputStream.toByteArray());
+            fail("a java serialized value must not be read from the server");
+        } catch (ReplicationException e) {
+            assertTrue(e.getCause().getMessage().contains("not allowed"));
+        }
+    }
+
+    @Test(expected = ReplicationException.class)
+    public void testInflatedFrameTooLarge() {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        byte[] zeros = new byte[1024 * 1024];
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        outputStream.write(1);
+        outputStream.write(MessageType.DataGateFeed.id());
+        byte[] buffer = new byte[4096];
+        for (int i = 0; i < 65; i++) {
+            deflater.setInput(zeros);
+            while (!deflater.needsInput()) {
+                outputStream.write(buffer, 0, deflater.deflate(buffer));
+            }
+        }
+        deflater.finish();
+        while (!deflater.finished()) {
+            outputStream.write(buffer, 0, deflater.deflate(buffer));
+        }
+        deflater.end();
+
+        transformer.transform(outputStream.toByteArray());
+    }
+
+    @Test
+    public void testUnknownBinaryType() {
+        byte[] frame = transformer.toBinary(createConnect());
+        frame[1] = 99;
+        assertNull(transformer.transform(frame));
+    }
+
+    @Test(expected = ReplicationException.class)
+    public void testTruncatedFrame() {
+        byte[] frame = transformer.toBinary(createFeed(100));
+        transformer.transform(Arrays.copyOf(frame, frame.length / 2));
+    }
+
+    @Test(expected = ReplicationException.class)
+    public void testInvalidFrame() {
+        transformer.transform(new byte[]{0});
+    }
+
+    private Connect createConnect() {
+        Connect connect = new Connect();
+        connect.setHeader(factory.createHeader(MessageType.Connect, "test", "", "replica", "user"));
+        connect.setAuthToken("abcd");
+        return connect;
+    }
+
+    private BatchChangeContinue createBatch(Document... changes) {
+        LastWriteWinState state = new LastWriteWinState();
+        state.getChanges().addAll(Arrays.asList(changes));
+
+        BatchChangeContinue message = new BatchChangeContinue();
+        message.setHeader(factory.createHeader(MessageType.BatchChangeContinue, "test", "", "replica", "user"));
+        message.setFeed(state);
+        message.setBatchSize(10);
+        return message;
+    }
+
+    private DataGateFeed createFeed(int size) {
+        LastWriteWinState state = new LastWriteWinState();
+        for (int i = 0; i < size; i++) {
+            Document document = Document.createDocument("name", "name-" + i)
+                .put("address", Document.createDocument("street", "1234 Abcd Street"));
+            document.getId();
+            state.getChanges().add(document);
+        }
+        state.getTombstones().put("1", 1000L);
+
+        DataGateFeed feed = new DataGateFeed();
+        feed.setHeader(factory.createHeader(MessageType.DataGateFeed, "test", "", "replica", "user"));
+        feed.setFeed(state);
+        return feed;
+    }
+}
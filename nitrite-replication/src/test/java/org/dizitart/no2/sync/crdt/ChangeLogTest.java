@@ -0,0 +1,109 @@
+package org.dizitart.no2.sync.crdt;
+
+import org.dizitart.no2.collection.NitriteId;
+import org.dizitart.no2.common.tuples.Pair;
+import org.dizitart.no2.store.memory.InMemoryStore;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ChangeLogTest {
+    @Test
+    public void testRecord() {
+        ChangeLog changeLog = new ChangeLog(new InMemoryStore(), "changes");
+        NitriteId id1 = NitriteId.newId();
+        NitriteId id2 = NitriteId.newId();
+
+        assertEquals(1, changeLog.record(id1));
+        assertEquals(2, changeLog.record(id2));
+        assertEquals(2, changeLog.getLastSequence());
+        assertEquals(2, changeLog.size());
+
+        // a change of the same document moves it to the end of the log
+        assertEquals(3, changeLog.record(id1));
+        assertEquals(2, changeLog.size());
+
+        List<Pair<Long, NitriteId>> entries = changeLog.readAfter(0, 10);
+        assertEquals(2, entries.size());
+        assertEquals(Long.valueOf(2), entries.get(0).getFirst());
+        assertEquals(id2, entries.get(0).getSecond());
+        assertEquals(Long.valueOf(3), entries.get(1).getFirst());
+        assertEquals(id1, entries.get(1).getSecond());
+    }
+
+    @Test
+    public void testReadAfter() {
+        ChangeLog changeLog = new ChangeLog(new InMemoryStore(), "changes");
+        for (int i = 0; i < 25; i++) {
+            changeLog.record(NitriteId.newId());
+        }
+
+        long sequence = 0;
+        int pages = 0;
+        int count = 0;
+        List<Pair<Long, NitriteId>> entries = changeLog.readAfter(sequence, 10);
+        while (!entries.isEmpty()) {
+            pages++;
+            count += entries.size();
+            sequence = entries.get(entries.size() - 1).getFirst();
+            entries = changeLog.readAfter(sequence, 10);
+        }
+
+        assertEquals(3, pages);
+        assertEquals(25, count);
+        assertEquals(25, sequence);
+        assertTrue(changeLog.readAfter(25, 10).isEmpty());
+    }
+
+    @Test
+    public void testRemove() {
+        ChangeLog changeLog = new ChangeLog(new InMemoryStore(), "changes");
+        NitriteId id1 = NitriteId.newId();
+        NitriteId id2 = NitriteId.newId();
+        changeLog.record(id1);
+        changeLog.record(id2);
+
+        changeLog.remove(id1);
+        changeLog.remove(NitriteId.newId());
+
+        List<Pair<Long, NitriteId>> entries = changeLog.readAfter(0, 10);
+        assertEquals(1, entries.size());
+        assertEquals(id2, entries.get(0).getSecond());
+    }
+
+    @Test
+    public void testReopen() {
+        InMemoryStore store = new InMemoryStore();
+        ChangeLog changeLog = new ChangeLog(store, "changes");
+        changeLog.record(NitriteId.newId());
+        changeLog.record(NitriteId.newId());
+
+        // the sequence continues after the last entry of the log
+        changeLog = new ChangeLog(store, "changes");
+        assertEquals(2, changeLog.getLastSequence());
+        assertEquals(3, changeLog.record(NitriteId.newId()));
+    }
+
+    @Test
+    public void testReopenAfterRemove() {
+        InMemoryStore store = new InMemoryStore();
+        ChangeLog changeLog = new ChangeLog(store, "changes");
+        NitriteId id1 = NitriteId.newId();
+        NitriteId id2 = NitriteId.newId();
+        assertEquals(1, changeLog.record(id1));
+        assertEquals(2, changeLog.record(id2));
+
+        // the newest entry is collected after it has been acknowledged up to 2
+        changeLog.remove(id2);
+        changeLog = new ChangeLog(store, "changes");
+        assertEquals(2, changeLog.getLastSequence());
+
+        NitriteId id3 = NitriteId.newId();
+        assertEquals(3, changeLog.record(id3));
+        List<Pair<Long, NitriteId>> entries = changeLog.readAfter(2, 10);
+        assertEquals(1, entries.size());
+        assertEquals(id3, entries.get(0).getSecond());
+    }
+}
@@ -0,0 +1,161 @@
+package org.dizitart.no2.sync.crdt;
+
+import org.dizitart.no2.Nitrite;
+import org.dizitart.no2.collection.Document;
+import org.dizitart.no2.collection.NitriteCollection;
+import org.dizitart.no2.collection.NitriteId;
+import org.dizitart.no2.store.NitriteMap;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Set;
+
+import static org.dizitart.no2.collection.Document.createDocument;
+import static org.dizitart.no2.common.Constants.DOC_MODIFIED;
+import static org.junit.Assert.*;
+
+public class LastWriteWinMapTest {
+    private Nitrite db;
+    private NitriteCollection collection;
+    private NitriteMap<NitriteId, Long> tombstones;
+    private LastWriteWinMap crdt;
+
+    @Before
+    public void setUp() {
+        db = Nitrite.builder().fieldSeparator(".").openOrCreate();
+        collection = db.getCollection("test");
+        tombstones = db.getStore().openMap("test-replica", NitriteId.class, Long.class);
+        crdt = new LastWriteWinMap(collection, tombstones);
+    }
+
+    @After
+    public void tearDown() {
+        db.close();
+    }
+
+    @Test
+    public void testMergeRecordsChanges() {
+        LastWriteWinState state = new LastWriteWinState();
+        for (int i = 0; i < 5; i++) {
+            state.getChanges().add(document(i, 1000L + i));
+        }
+        crdt.merge(state);
+
+        ChangeBatch batch = crdt.getChangesAfter(0, 10);
+        assertEquals(5, batch.getState().getChanges().size());
+        assertEquals(5, batch.getLastSequence());
+        assertTrue(batch.isLast());
+    }
+
+    @Test
+    public void testGetChangesAfter() {
+        for (int i = 0; i < 25; i++) {
+            Document document = document(i, 1000L + i);
+            collection.insert(document);
+            crdt.recordChange(document.getId());
+        }
+
+        long sequence = 0;
+        int count = 0;
+        ChangeBatch batch;
+        do {
+            batch = crdt.getChangesAfter(sequence, 10);
+            count += batch.getState().getChanges().size();
+            sequence = batch.getLastSequence();
+        } while (!batch.isLast());
+
+        assertEquals(25, count);
+        assertEquals(25, sequence);
+        assertTrue(crdt.getChangesAfter(sequence, 10).getState().getChanges().isEmpty());
+    }
+
+    @Test
+    public void testGetChangesAfterWithTombstone() {
+        Document document = document(1, 1000L);
+        NitriteId nitriteId = document.getId();
+        collection.insert(document);
+        crdt.recordChange(nitriteId);
+        long checkpoint = crdt.getChangesAfter(0, 10).getLastSequence();
+
+        LastWriteWinState state = new LastWriteWinState();
+        state.getTombstones().put(nitriteId.getIdValue(), 2000L);
+        crdt.merge(state);
+
+        ChangeBatch batch = crdt.getChangesAfter(checkpoint, 10);
+        assertTrue(batch.getState().getChanges().isEmpty());
+        assertEquals(Long.valueOf(2000L), batch.getState().getTombstones().get(nitriteId.getIdValue()));
+        assertEquals(0, collection.size());
+    }
+
+    @Test
+    public void testTombstonesSince() {
+        NitriteId id1 = NitriteId.newId();
+        NitriteId id2 = NitriteId.newId();
+        NitriteId id3 = NitriteId.newId();
+        crdt.addTombstone(id1, 1000L);
+        crdt.addTombstone(id2, 2000L);
+        crdt.addTombstone(id3, 2000L);
+
+        LastWriteWinState state = crdt.getChangesSince(1500L, 0, 10);
+        assertEquals(2, state.getTombstones().size());
+        assertTrue(state.getTombstones().containsKey(id2.getIdValue()));
+        assertTrue(state.getTombstones().containsKey(id3.getIdValue()));
+
+        // a newer tombstone of the same document replaces the older one
+        crdt.addTombstone(id1, 3000L);
+        state = crdt.getChangesSince(2500L, 0, 10);
+        assertEquals(1, state.getTombstones().size());
+        assertEquals(Long.valueOf(3000L), state.getTombstones().get(id1.getIdValue()));
+        assertEquals(3, tombstones.size());
+    }
+
+    @Test
+    public void testCollectGarbage() {
+        NitriteId id1 = NitriteId.newId();
+        NitriteId id2 = NitriteId.newId();
+        crdt.addTombstone(id1, 1000L);
+        crdt.addTombstone(id2, 3000L);
+
+        Set<NitriteId> collected = crdt.collectGarbage(2000L);
+        assertEquals(1, collected.size());
+        assertTrue(collected.contains(id1));
+        assertEquals(1, tombstones.size());
+        assertTrue(tombstones.containsKey(id2));
+
+        ChangeBatch batch = crdt.getChangesAfter(0, 10);
+        assertEquals(1, batch.getState().getTombstones().size());
+        assertTrue(batch.getState().getTombstones().containsKey(id2.getIdValue()));
+    }
+
+    @Test
+    public void testRecordChangesSince() {
+        Document document = createDocument("value", 1);
+        collection.insert(document);
+        long since = System.currentTimeMillis() + 1;
+        NitriteId removed = NitriteId.newId();
+        tombstones.put(NitriteId.newId(), since - 10);
+        tombstones.put(removed, since + 10);
+
+        // the tombstones written before the time index existed are indexed on open
+        crdt = new LastWriteWinMap(collection, tombstones);
+        crdt.recordChangesSince(since);
+
+        ChangeBatch batch = crdt.getChangesAfter(0, 10);
+        assertTrue(batch.getState().getChanges().isEmpty());
+        assertEquals(1, batch.getState().getTombstones().size());
+        assertTrue(batch.getState().getTombstones().containsKey(removed.getIdValue()));
+
+        crdt.recordChangesSince(Long.MIN_VALUE);
+        batch = crdt.getChangesAfter(0, 10);
+        assertEquals(1, batch.getState().getChanges().size());
+        assertEquals(2, batch.getState().getTombstones().size());
+    }
+
+    private Document document(int value, long modified) {
+        Document document = createDocument("value", value);
+        document.getId();
+        document.put(DOC_MODIFIED, modified);
+        return document;
+    }
+}
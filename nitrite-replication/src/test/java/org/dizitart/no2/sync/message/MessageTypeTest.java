@@ -1,6 +1,7 @@
 package org.dizitart.no2.sync.message;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 
 import org.junit.Test;
 
@@ -9,5 +10,21 @@ public class MessageTypeTest {
     public void testCode() {
         assertEquals("no2.sync.error", MessageType.Error.code());
     }
-}
 
+    @Test
+    public void testFromCode() {
+        for (MessageType messageType : MessageType.values()) {
+            assertEquals(messageType, MessageType.fromCode(messageType.code()));
+        }
+        assertNull(MessageType.fromCode("no2.sync.unknown"));
+    }
+
+    @Test
+    public void testFromId() {
+        for (MessageType messageType : MessageType.values()) {
+            assertEquals(messageType, MessageType.fromId(messageType.id()));
+        }
+        assertNull(MessageType.fromId((byte) 64));
+        assertNull(MessageType.fromId((byte) -1));
+    }
+}
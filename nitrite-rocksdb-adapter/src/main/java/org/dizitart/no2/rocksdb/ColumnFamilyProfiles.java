@@ -0,0 +1,154 @@
+package org.dizitart.no2.rocksdb;
+
+import lombok.extern.slf4j.Slf4j;
+import org.rocksdb.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Holds the column family options of each {@link MapRole} of a store.
+ * <p>
+ * A role uses the options set for it in {@link RocksDBConfig}. If none is
+ * set and role based tuning is enabled, the options are derived from the
+ * role, otherwise the common column family options are used. All tuned
+ * roles share one block cache.
+ *
+ * @author Anindya Chatterjee
+ * @since 4.0
+ */
+@Slf4j(topic = "no2-rocksdb")
+class ColumnFamilyProfiles implements AutoCloseable {
+    private static final int BLOOM_BITS_PER_KEY = 10;
+    private static final long DOCUMENT_BLOCK_SIZE = 16 * 1024;
+    private static final long INDEX_BLOCK_SIZE = 4 * 1024;
+
+    private final ColumnFamilyOptions defaultOptions;
+    private final Map<MapRole, ColumnFamilyOptions> roleOptions;
+    private final List<AbstractNativeReference> resources;
+    private ReadOptions scanOptions;
+
+    ColumnFamilyProfiles(RocksDBConfig dbConfig, ColumnFamilyOptions defaultOptions) {
+        this.defaultOptions = defaultOptions;
+        this.roleOptions = new EnumMap<>(MapRole.class);
+        this.resources = new ArrayList<>();
+
+        Map<MapRole, ColumnFamilyOptions> configured = dbConfig.roleColumnFamilyOptions();
+        if (configured != null) {
+            roleOptions.putAll(configured);
+        }
+
+        if (dbConfig.roleBasedTuning()) {
+            Cache blockCache = new LRUCache(dbConfig.blockCacheSize());
+            resources.add(blockCache);
+
+            for (MapRole role : MapRole.values()) {
+                if (!roleOptions.containsKey(role)) {
+                    roleOptions.put(role, createOptions(role, dbConfig, blockCache));
+                }
+            }
+        }
+        resources.addAll(roleOptions.values());
+    }
+
+    ColumnFamilyOptions getOptions(String mapName) {
+        ColumnFamilyOptions options = roleOptions.get(MapRole.of(mapName));
+        return options == null ? defaultOptions : options;
+    }
+
+    /**
+     * Gets the read options for iterators over a map, or null if the
+     * default read options can be used.
+     */
+    synchronized ReadOptions getScanOptions(String mapName) {
+        if (!roleOptions.containsKey(MapRole.of(mapName))) {
+            return null;
+        }
+
+        // a role may use a prefix extractor, range scans must
+        // still see all keys in order regardless of their prefix
+        if (scanOptions == null) {
+            scanOptions = new ReadOptions().setTotalOrderSeek(true);
+            resources.add(scanOptions);
+        }
+        return scanOptions;
+    }
+
+    @Override
+    public synchronized void close() {
+        for (AbstractNativeReference resource : resources) {
+            resource.close();
+        }
+        resources.clear();
+    }
+
+    private ColumnFamilyOptions createOptions(MapRole role, RocksDBConfig dbConfig, Cache blockCache) {
+        Filter bloomFilter = new BloomFilter(BLOOM_BITS_PER_KEY, false);
+        resources.add(bloomFilter);
+
+        BlockBasedTableConfig tableConfig = new BlockBasedTableConfig()
+            .setBlockCache(blockCache)
+            .setFilterPolicy(bloomFilter)
+            .setCacheIndexAndFilterBlocks(true)
+            .setPinL0FilterAndIndexBlocksInCache(true);
+
+        ColumnFamilyOptions options;
+        switch (role) {
+            case DOCUMENTS:
+                options = createDocumentOptions(dbConfig.minBlobSize());
+                tableConfig.setBlockSize(DOCUMENT_BLOCK_SIZE);
+                // fresh data stays uncompressed, colder levels trade cpu for space
+                options.setCompressionPerLevel(Arrays.asList(
+                    CompressionType.NO_COMPRESSION, CompressionType.NO_COMPRESSION,
+                    CompressionType.LZ4_COMPRESSION, CompressionType.LZ4_COMPRESSION,
+                    CompressionType.LZ4_COMPRESSION, CompressionType.LZ4_COMPRESSION,
+                    CompressionType.LZ4_COMPRESSION));
+                options.setBottommostCompressionType(CompressionType.ZSTD_COMPRESSION);
+                break;
+            case INDEXES:
+                options = new ColumnFamilyOptions();
+                tableConfig.setBlockSize(INDEX_BLOCK_SIZE);
+                tableConfig.setWholeKeyFiltering(true);
+                if (dbConfig.indexPrefixLength() > 0) {
+                    options.useCappedPrefixExtractor(dbConfig.indexPrefixLength());
+                    options.setMemtablePrefixBloomSizeRatio(0.1);
+                }
+                // index entries are small and repetitive, so they compress well
+                options.setCompressionType(CompressionType.LZ4_COMPRESSION);
+                options.setBottommostCompressionType(CompressionType.ZSTD_COMPRESSION);
+                break;
+            default:
+                options = new ColumnFamilyOptions();
+                tableConfig.setBlockSize(INDEX_BLOCK_SIZE);
+                options.setCompressionType(CompressionType.NO_COMPRESSION);
+                break;
+        }
+
+        options.setCompactionStyle(CompactionStyle.LEVEL);
+        options.setLevelCompactionDynamicLevelBytes(true);
+        options.setTableFormatConfig(tableConfig);
+        return options;
+    }
+
+    private ColumnFamilyOptions createDocumentOptions(long minBlobSize) {
+        if (minBlobSize > 0) {
+            // blob files are not exposed through the java setters yet
+            Properties properties = new Properties();
+            properties.setProperty("enable_blob_files", "true");
+            properties.setProperty("min_blob_size", String.valueOf(minBlobSize));
+            properties.setProperty("blob_compression_type", "kLZ4Compression");
+
+            ColumnFamilyOptions options = ColumnFamilyOptions.getColumnFamilyOptionsFromProps(properties);
+            if (options != null) {
+                return options;
+            }
+            log.warn("Blob files are not supported by this version of rocksdb, " +
+                "large documents will be stored inline");
+        }
+        return new ColumnFamilyOptions();
+    }
+}
@@ -1,9 +1,12 @@
 package org.dizitart.no2.rocksdb;
 
 import org.dizitart.no2.common.tuples.Pair;
+import org.dizitart.no2.exceptions.NitriteIOException;
 import org.dizitart.no2.rocksdb.formatter.ObjectFormatter;
 import org.rocksdb.*;
+import org.rocksdb.util.BytewiseComparator;
 
+import java.nio.ByteBuffer;
 import java.util.Iterator;
 
 class EntrySet<K, V> implements Iterable<Pair<K, V>> {
@@ -13,16 +16,60 @@ class EntrySet<K, V> implements Iterable<Pair<K, V>> {
     private final Class<?> keyType;
     private final Class<?> valueType;
     private final boolean reverse;
+    private final byte[] fromKey;
+    private final byte[] toKey;
+    private final BytewiseComparator comparator;
+    private final ReadOptions readOptions;
+    private final RocksDBSnapshot.Handle snapshot;
 
     public EntrySet(RocksDB rocksDB, ColumnFamilyHandle columnFamilyHandle,
                     ObjectFormatter objectFormatter, Class<?> keyType,
                     Class<?> valueType, boolean reverse) {
+        this(rocksDB, columnFamilyHandle, objectFormatter, keyType, valueType,
+            reverse, null, null, null, null, null);
+    }
+
+    /**
+     * Creates an entry set which reads from the snapshot if not null, otherwise
+     * from the latest state with the given read options.
+     */
+    public EntrySet(RocksDB rocksDB, ColumnFamilyHandle columnFamilyHandle,
+                    ObjectFormatter objectFormatter, Class<?> keyType,
+                    Class<?> valueType, boolean reverse, ReadOptions readOptions,
+                    RocksDBSnapshot.Handle snapshot) {
+        this(rocksDB, columnFamilyHandle, objectFormatter, keyType, valueType,
+            reverse, null, null, null, readOptions, snapshot);
+    }
+
+    /**
+     * Creates an entry set over the forward key range [fromKey, toKey) of raw keys.
+     * A null bound leaves that end of the range open.
+     */
+    public EntrySet(RocksDB rocksDB, ColumnFamilyHandle columnFamilyHandle,
+                    ObjectFormatter objectFormatter, Class<?> keyType,
+                    Class<?> valueType, byte[] fromKey, byte[] toKey,
+                    BytewiseComparator comparator, ReadOptions readOptions,
+                    RocksDBSnapshot.Handle snapshot) {
+        this(rocksDB, columnFamilyHandle, objectFormatter, keyType, valueType,
+            false, fromKey, toKey, comparator, readOptions, snapshot);
+    }
+
+    private EntrySet(RocksDB rocksDB, ColumnFamilyHandle columnFamilyHandle,
+                     ObjectFormatter objectFormatter, Class<?> keyType,
+                     Class<?> valueType, boolean reverse, byte[] fromKey,
+                     byte[] toKey, BytewiseComparator comparator, ReadOptions readOptions,
+                     RocksDBSnapshot.Handle snapshot) {
         this.rocksDB = rocksDB;
         this.columnFamilyHandle = columnFamilyHandle;
         this.objectFormatter = objectFormatter;
         this.keyType = keyType;
         this.valueType = valueType;
         this.reverse = reverse;
+        this.fromKey = fromKey;
+        this.toKey = toKey;
+        this.comparator = comparator;
+        this.readOptions = readOptions;
+        this.snapshot = snapshot;
     }
 
     @Override
@@ -31,12 +78,16 @@ class EntrySet<K, V> implements Iterable<Pair<K, V>> {
     }
 
     private class EntryIterator implements Iterator<Pair<K, V>> {
+        private final ScanIterator scanIterator;
         private final RocksIterator rawEntryIterator;
 
         public EntryIterator() {
-            rawEntryIterator = rocksDB.newIterator(columnFamilyHandle);
+            scanIterator = new ScanIterator(rocksDB, columnFamilyHandle, readOptions, snapshot);
+            rawEntryIterator = scanIterator.raw();
             if (reverse) {
                 rawEntryIterator.seekToLast();
+            } else if (fromKey != null) {
+                rawEntryIterator.seek(fromKey);
             } else {
                 rawEntryIterator.seekToFirst();
             }
@@ -44,10 +95,19 @@ class EntrySet<K, V> implements Iterable<Pair<K, V>> {
 
         @Override
         public boolean hasNext() {
+            if (scanIterator.isClosed()) {
+                return false;
+            }
+            if (scanIterator.isCancelled()) {
+                // the cursor is gone, stop reading from its snapshot
+                scanIterator.close();
+                throw new NitriteIOException("snapshot of the scan has been released");
+            }
+
             try {
-                boolean result = rawEntryIterator.isValid();
+                boolean result = rawEntryIterator.isValid() && withinRange();
                 if (!result) {
-                    rawEntryIterator.close();
+                    scanIterator.close();
                 }
                 return result;
             } catch (AssertionError e) {
@@ -73,9 +133,15 @@ class EntrySet<K, V> implements Iterable<Pair<K, V>> {
             }
         }
 
+        private boolean withinRange() {
+            if (toKey == null) return true;
+            return comparator.compare(ByteBuffer.wrap(rawEntryIterator.key()),
+                ByteBuffer.wrap(toKey)) < 0;
+        }
+
         @Override
         protected void finalize() throws Throwable {
-            rawEntryIterator.close();
+            scanIterator.close();
             super.finalize();
         }
     }
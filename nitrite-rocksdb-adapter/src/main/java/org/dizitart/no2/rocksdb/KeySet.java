@@ -1,7 +1,9 @@
 package org.dizitart.no2.rocksdb;
 
+import org.dizitart.no2.exceptions.NitriteIOException;
 import org.dizitart.no2.rocksdb.formatter.ObjectFormatter;
 import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.ReadOptions;
 import org.rocksdb.RocksDB;
 import org.rocksdb.RocksIterator;
 
@@ -12,12 +14,21 @@ class KeySet<K> implements Iterable<K> {
     private final RocksDB rocksDB;
     private final ColumnFamilyHandle columnFamilyHandle;
     private final Class<?> keyType;
+    private final ReadOptions readOptions;
+    private final RocksDBSnapshot.Handle snapshot;
 
     public KeySet(RocksDB rocksDB, ColumnFamilyHandle columnFamilyHandle, ObjectFormatter objectFormatter, Class<?> keyType) {
+        this(rocksDB, columnFamilyHandle, objectFormatter, keyType, null, null);
+    }
+
+    public KeySet(RocksDB rocksDB, ColumnFamilyHandle columnFamilyHandle, ObjectFormatter objectFormatter,
+                  Class<?> keyType, ReadOptions readOptions, RocksDBSnapshot.Handle snapshot) {
         this.rocksDB = rocksDB;
         this.columnFamilyHandle = columnFamilyHandle;
         this.objectFormatter = objectFormatter;
         this.keyType = keyType;
+        this.readOptions = readOptions;
+        this.snapshot = snapshot;
     }
 
     @Override
@@ -26,19 +37,30 @@ class KeySet<K> implements Iterable<K> {
     }
 
     private class KeyIterator implements Iterator<K> {
+        private final ScanIterator scanIterator;
         private final RocksIterator rawEntryIterator;
 
         public KeyIterator() {
-            rawEntryIterator = rocksDB.newIterator(columnFamilyHandle);
+            scanIterator = new ScanIterator(rocksDB, columnFamilyHandle, readOptions, snapshot);
+            rawEntryIterator = scanIterator.raw();
             rawEntryIterator.seekToFirst();
         }
 
         @Override
         public boolean hasNext() {
+            if (scanIterator.isClosed()) {
+                return false;
+            }
+            if (scanIterator.isCancelled()) {
+                // the cursor is gone, stop reading from its snapshot
+                scanIterator.close();
+                throw new NitriteIOException("snapshot of the scan has been released");
+            }
+
             try {
                 boolean result = rawEntryIterator.isValid();
                 if (!result) {
-                    rawEntryIterator.close();
+                    scanIterator.close();
                 }
                 return result;
             } catch (AssertionError e) {
@@ -56,7 +78,7 @@ class KeySet<K> implements Iterable<K> {
 
         @Override
         protected void finalize() throws Throwable {
-            rawEntryIterator.close();
+            scanIterator.close();
             super.finalize();
         }
     }
@@ -0,0 +1,59 @@
+package org.dizitart.no2.rocksdb;
+
+import org.rocksdb.RocksDB;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.dizitart.no2.common.Constants.INDEX_PREFIX;
+import static org.dizitart.no2.common.Constants.INTERNAL_NAME_SEPARATOR;
+
+/**
+ * Represents the role of a nitrite map in a rocksdb store. Each role can
+ * have its own column family options.
+ *
+ * @author Anindya Chatterjee
+ * @since 4.0
+ */
+public enum MapRole {
+    /**
+     * Maps holding the documents of collections and repositories,
+     * as well as user created key-value maps.
+     */
+    DOCUMENTS,
+
+    /**
+     * Maps holding index entries.
+     */
+    INDEXES,
+
+    /**
+     * Internal maps of nitrite like the meta map, the catalog,
+     * index metadata and field name dictionaries.
+     */
+    METADATA;
+
+    private static final String INTERNAL_MAP_PREFIX = "$nitrite";
+    private static final String DEFAULT_COLUMN_FAMILY
+        = new String(RocksDB.DEFAULT_COLUMN_FAMILY, StandardCharsets.UTF_8);
+
+    /**
+     * Gets the role of a map from its name.
+     *
+     * @param mapName the map name
+     * @return the map role
+     */
+    public static MapRole of(String mapName) {
+        if (mapName == null || DEFAULT_COLUMN_FAMILY.equals(mapName)) {
+            return METADATA;
+        }
+
+        if (mapName.startsWith(INDEX_PREFIX + INTERNAL_NAME_SEPARATOR)) {
+            return INDEXES;
+        }
+
+        if (mapName.startsWith(INTERNAL_MAP_PREFIX)) {
+            return METADATA;
+        }
+        return DOCUMENTS;
+    }
+}
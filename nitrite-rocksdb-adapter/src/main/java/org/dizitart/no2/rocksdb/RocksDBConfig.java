@@ -12,7 +12,9 @@ import org.rocksdb.ColumnFamilyOptions;
 import org.rocksdb.DBOptions;
 import org.rocksdb.Options;
 
+import java.util.EnumMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 @Accessors(fluent = true)
@@ -29,6 +31,21 @@ public class RocksDBConfig implements StoreConfig {
     @Getter @Setter(AccessLevel.PACKAGE)
     private ColumnFamilyOptions columnFamilyOptions;
 
+    @Getter @Setter(AccessLevel.PACKAGE)
+    private Map<MapRole, ColumnFamilyOptions> roleColumnFamilyOptions;
+
+    @Getter @Setter(AccessLevel.PACKAGE)
+    private boolean roleBasedTuning;
+
+    @Getter @Setter(AccessLevel.PACKAGE)
+    private long blockCacheSize;
+
+    @Getter @Setter(AccessLevel.PACKAGE)
+    private int indexPrefixLength;
+
+    @Getter @Setter(AccessLevel.PACKAGE)
+    private long minBlobSize;
+
     @Getter @Setter(AccessLevel.PACKAGE)
     private String filePath;
 
@@ -38,6 +55,8 @@ public class RocksDBConfig implements StoreConfig {
     RocksDBConfig() {
         eventListeners = new HashSet<>();
         objectFormatter = new KryoObjectFormatter();
+        roleColumnFamilyOptions = new EnumMap<>(MapRole.class);
+        blockCacheSize = 32 * 1024 * 1024;
     }
 
     @Override
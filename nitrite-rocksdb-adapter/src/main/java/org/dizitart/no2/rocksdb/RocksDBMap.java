@@ -3,18 +3,29 @@ package org.dizitart.no2.rocksdb;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
+import org.dizitart.no2.collection.Document;
 import org.dizitart.no2.common.RecordStream;
 import org.dizitart.no2.common.tuples.Pair;
 import org.dizitart.no2.exceptions.NitriteIOException;
+import org.dizitart.no2.rocksdb.formatter.DocumentFormatter;
 import org.dizitart.no2.rocksdb.formatter.ObjectFormatter;
 import org.dizitart.no2.store.NitriteMap;
 import org.dizitart.no2.store.NitriteStore;
 import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.Range;
+import org.rocksdb.ReadOptions;
 import org.rocksdb.RocksDB;
 import org.rocksdb.RocksIterator;
+import org.rocksdb.SizeApproximationFlag;
+import org.rocksdb.Slice;
 import org.rocksdb.util.BytewiseComparator;
 
+import java.math.BigInteger;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -22,6 +33,10 @@ import static org.dizitart.no2.common.util.ValidationUtils.notNull;
 
 @Slf4j
 public class RocksDBMap<K, V> implements NitriteMap<K, V> {
+    private static final int SLICES_PER_SPLIT = 8;
+    private static final int INTERPOLATION_BYTES = 16;
+    private static final int REFINE_ROUNDS = 4;
+
     private final String mapName;
     private final RocksDBReference reference;
     private final RocksDBStore store;
@@ -38,7 +53,7 @@ public class RocksDBMap<K, V> implements NitriteMap<K, V> {
     @Getter @Setter
     private Class<?> keyType;
 
-    @Getter @Setter
+    @Getter
     private Class<?> valueType;
 
     public RocksDBMap(String mapName, RocksDBStore store,
@@ -52,10 +67,30 @@ public class RocksDBMap<K, V> implements NitriteMap<K, V> {
         initialize();
     }
 
+    public void setValueType(Class<?> valueType) {
+        this.valueType = valueType;
+        this.objectFormatter = createObjectFormatter();
+    }
+
     @Override
     public boolean containsKey(K k) {
         byte[] key = objectFormatter.encodeKey(k);
         try {
+            WriteUnit writeUnit = store.getCurrentWriteUnit();
+            if (writeUnit != null) {
+                return writeUnit.get(columnFamilyHandle, key) != null;
+            }
+
+            RocksDBSnapshot.Handle snapshot = store.getPinnedSnapshot();
+            if (snapshot != null) {
+                ReadOptions readOptions = snapshot.pin();
+                try {
+                    return rocksDB.get(columnFamilyHandle, readOptions, key) != null;
+                } finally {
+                    snapshot.unpin();
+                }
+            }
+
             // check if key definitely does not exist, then return false
             boolean result = rocksDB.keyMayExist(columnFamilyHandle, key, null);
             if (!result) return false;
@@ -73,7 +108,23 @@ public class RocksDBMap<K, V> implements NitriteMap<K, V> {
     public V get(K k) {
         try {
             byte[] key = objectFormatter.encodeKey(k);
-            byte[] value = rocksDB.get(columnFamilyHandle, key);
+            WriteUnit writeUnit = store.getCurrentWriteUnit();
+            byte[] value;
+            if (writeUnit != null) {
+                value = writeUnit.get(columnFamilyHandle, key);
+            } else {
+                RocksDBSnapshot.Handle snapshot = store.getPinnedSnapshot();
+                if (snapshot != null) {
+                    ReadOptions readOptions = snapshot.pin();
+                    try {
+                        value = rocksDB.get(columnFamilyHandle, readOptions, key);
+                    } finally {
+                        snapshot.unpin();
+                    }
+                } else {
+                    value = rocksDB.get(columnFamilyHandle, key);
+                }
+            }
             if (value == null) {
                 return null;
             }
@@ -106,7 +157,8 @@ public class RocksDBMap<K, V> implements NitriteMap<K, V> {
 
     @Override
     public RecordStream<V> values() {
-        return RecordStream.fromIterable(new ValueSet<>(rocksDB, columnFamilyHandle, objectFormatter, getValueType()));
+        return RecordStream.fromIterable(new ValueSet<>(rocksDB, columnFamilyHandle, objectFormatter,
+            getValueType(), reference.getScanOptions(mapName), store.getPinnedSnapshot()));
     }
 
     @Override
@@ -115,6 +167,19 @@ public class RocksDBMap<K, V> implements NitriteMap<K, V> {
         try {
             byte[] key = objectFormatter.encodeKey(k);
 
+            WriteUnit writeUnit = store.getCurrentWriteUnit();
+            if (writeUnit != null) {
+                byte[] value = writeUnit.get(columnFamilyHandle, key);
+                if (value == null) {
+                    return null;
+                }
+
+                writeUnit.delete(columnFamilyHandle, key);
+                writeUnit.afterWrite(size::decrementAndGet);
+                updateLastModifiedTime();
+                return (V) objectFormatter.decode(value, getValueType());
+            }
+
             // if the definitely does not exists return null
             if (!rocksDB.keyMayExist(columnFamilyHandle, key, null)) {
                 return null;
@@ -140,7 +205,8 @@ public class RocksDBMap<K, V> implements NitriteMap<K, V> {
 
     @Override
     public RecordStream<K> keys() {
-        return RecordStream.fromIterable(new KeySet<>(rocksDB, columnFamilyHandle, objectFormatter, getKeyType()));
+        return RecordStream.fromIterable(new KeySet<>(rocksDB, columnFamilyHandle, objectFormatter,
+            getKeyType(), reference.getScanOptions(mapName), store.getPinnedSnapshot()));
     }
 
     @Override
@@ -150,6 +216,17 @@ public class RocksDBMap<K, V> implements NitriteMap<K, V> {
             byte[] key = objectFormatter.encodeKey(k);
             byte[] value = objectFormatter.encode(v);
 
+            WriteUnit writeUnit = store.getCurrentWriteUnit();
+            if (writeUnit != null) {
+                boolean exists = writeUnit.get(columnFamilyHandle, key) != null;
+                writeUnit.put(columnFamilyHandle, key, value);
+                if (!exists) {
+                    writeUnit.afterWrite(size::incrementAndGet);
+                }
+                updateLastModifiedTime();
+                return;
+            }
+
             // check if this is update or insert
             boolean result = rocksDB.keyMayExist(columnFamilyHandle, key, null);
 
@@ -170,7 +247,7 @@ public class RocksDBMap<K, V> implements NitriteMap<K, V> {
     public long size() {
         if (size.get() == 0) {
             // first time size calculation after db opening
-            try (RocksIterator iterator = rocksDB.newIterator(columnFamilyHandle)) {
+            try (RocksIterator iterator = newIterator(reference.getScanOptions(mapName))) {
                 iterator.seekToFirst();
 
                 while (iterator.isValid()) {
@@ -191,12 +268,20 @@ public class RocksDBMap<K, V> implements NitriteMap<K, V> {
 
         try {
             byte[] key = objectFormatter.encodeKey(k);
-            byte[] oldValue = rocksDB.get(columnFamilyHandle, key);
+            WriteUnit writeUnit = store.getCurrentWriteUnit();
+            byte[] oldValue = writeUnit != null
+                ? writeUnit.get(columnFamilyHandle, key)
+                : rocksDB.get(columnFamilyHandle, key);
 
             if (oldValue == null) {
                 byte[] value = objectFormatter.encode(v);
-                rocksDB.put(columnFamilyHandle, key, value);
-                size.incrementAndGet();
+                if (writeUnit != null) {
+                    writeUnit.put(columnFamilyHandle, key, value);
+                    writeUnit.afterWrite(size::incrementAndGet);
+                } else {
+                    rocksDB.put(columnFamilyHandle, key, value);
+                    size.incrementAndGet();
+                }
                 updateLastModifiedTime();
                 return null;
             }
@@ -211,19 +296,211 @@ public class RocksDBMap<K, V> implements NitriteMap<K, V> {
     @Override
     public RecordStream<Pair<K, V>> entries() {
         return RecordStream.fromIterable(new EntrySet<>(rocksDB, columnFamilyHandle,
-            objectFormatter, getKeyType(), getValueType(), false));
+            objectFormatter, getKeyType(), getValueType(), false,
+            reference.getScanOptions(mapName), store.getPinnedSnapshot()));
     }
 
     @Override
     public RecordStream<Pair<K, V>> reversedEntries() {
         return RecordStream.fromIterable(new EntrySet<>(rocksDB, columnFamilyHandle,
-            objectFormatter, getKeyType(), getValueType(), true));
+            objectFormatter, getKeyType(), getValueType(), true,
+            reference.getScanOptions(mapName), store.getPinnedSnapshot()));
+    }
+
+    @Override
+    public List<RecordStream<Pair<K, V>>> splitEntries(int splitCount) {
+        if (splitCount <= 1 || size() < splitCount) {
+            return Collections.singletonList(entries());
+        }
+
+        // the splits hold the snapshot, not its read options, a worker thread
+        // pins it to open the iterator of its range or fails if it is released
+        ReadOptions readOptions = reference.getScanOptions(mapName);
+        RocksDBSnapshot.Handle snapshot = store.getPinnedSnapshot();
+        List<byte[]> boundaries;
+        try (ScanIterator scanIterator = newIterator()) {
+            RocksIterator iterator = scanIterator.raw();
+            iterator.seekToFirst();
+            byte[] first = iterator.isValid() ? iterator.key() : null;
+            iterator.seekToLast();
+            byte[] last = iterator.isValid() ? iterator.key() : null;
+
+            boundaries = first == null || last == null
+                ? Collections.emptyList() : splitPoints(first, last, iterator, splitCount);
+        }
+
+        List<RecordStream<Pair<K, V>>> splits = new ArrayList<>(boundaries.size() + 1);
+        byte[] from = null;
+        for (byte[] to : boundaries) {
+            splits.add(RecordStream.fromIterable(new EntrySet<>(rocksDB, columnFamilyHandle, objectFormatter,
+                getKeyType(), getValueType(), from, to, bytewiseComparator, readOptions, snapshot)));
+            from = to;
+        }
+        splits.add(RecordStream.fromIterable(new EntrySet<>(rocksDB, columnFamilyHandle, objectFormatter,
+            getKeyType(), getValueType(), from, null, bytewiseComparator, readOptions, snapshot)));
+        return splits;
+    }
+
+    private List<byte[]> splitPoints(byte[] first, byte[] last, RocksIterator iterator, int splitCount) {
+        // the key range is cut into slices by interpolating the raw keys. a slice
+        // holding more than a fraction of a split, as estimated by the store, is
+        // cut again between the first and the last key it holds. the boundaries
+        // are then picked where the slices add up to an equal share of the size
+        List<byte[]> bounds = new ArrayList<>();
+        bounds.add(first);
+        bounds.addAll(interpolate(first, last, splitCount * SLICES_PER_SPLIT));
+        bounds.add(Arrays.copyOf(last, last.length + 1));
+        List<Long> sizes = approximateSizes(bounds);
+
+        for (int round = 0; round < REFINE_ROUNDS; round++) {
+            long limit = sum(sizes) / ((long) splitCount * SLICES_PER_SPLIT);
+            List<byte[]> refinedBounds = new ArrayList<>();
+            boolean refined = false;
+            refinedBounds.add(bounds.get(0));
+            for (int i = 0; i < sizes.size(); i++) {
+                if (limit > 0 && sizes.get(i) > limit) {
+                    List<byte[]> points = slicePoints(iterator, bounds.get(i), bounds.get(i + 1));
+                    refined = refined || !points.isEmpty();
+                    refinedBounds.addAll(points);
+                }
+                refinedBounds.add(bounds.get(i + 1));
+            }
+
+            if (!refined) {
+                break;
+            }
+            bounds = refinedBounds;
+            sizes = approximateSizes(bounds);
+        }
+
+        if (bounds.size() - 2 < splitCount - 1) {
+            return Collections.emptyList();
+        }
+        return pickBoundaries(bounds.subList(1, bounds.size() - 1), sizes, splitCount);
+    }
+
+    private List<byte[]> slicePoints(RocksIterator iterator, byte[] from, byte[] to) {
+        iterator.seek(from);
+        if (!iterator.isValid()) {
+            return Collections.emptyList();
+        }
+        byte[] low = iterator.key();
+
+        iterator.seekForPrev(to);
+        if (iterator.isValid() && bytewiseComparator.compare(ByteBuffer.wrap(iterator.key()),
+            ByteBuffer.wrap(to)) == 0) {
+            iterator.prev();
+        }
+        if (!iterator.isValid()) {
+            return Collections.emptyList();
+        }
+        byte[] high = iterator.key();
+
+        if (bytewiseComparator.compare(ByteBuffer.wrap(low), ByteBuffer.wrap(high)) >= 0) {
+            return Collections.emptyList();
+        }
+        return interpolate(low, high, SLICES_PER_SPLIT);
+    }
+
+    private List<Long> approximateSizes(List<byte[]> bounds) {
+        List<Slice> slices = new ArrayList<>(bounds.size());
+        List<Range> ranges = new ArrayList<>(bounds.size() - 1);
+        try {
+            for (byte[] bound : bounds) {
+                slices.add(new Slice(bound));
+            }
+            for (int i = 1; i < slices.size(); i++) {
+                ranges.add(new Range(slices.get(i - 1), slices.get(i)));
+            }
+
+            long[] sizes = rocksDB.getApproximateSizes(columnFamilyHandle, ranges,
+                SizeApproximationFlag.INCLUDE_FILES, SizeApproximationFlag.INCLUDE_MEMTABLES);
+            List<Long> result = new ArrayList<>(sizes.length);
+            for (long size : sizes) {
+                result.add(size);
+            }
+            return result;
+        } finally {
+            for (Slice slice : slices) {
+                slice.close();
+            }
+        }
+    }
+
+    private static long sum(List<Long> sizes) {
+        long total = 0;
+        for (long size : sizes) {
+            total += size;
+        }
+        return total;
+    }
+
+    private static List<byte[]> pickBoundaries(List<byte[]> candidates, List<Long> sizes, int splitCount) {
+        long total = sum(sizes);
+
+        // candidate i ends the slice i, without any size estimate
+        // the slices are taken as equal
+        long[] accumulated = new long[candidates.size()];
+        long running = 0;
+        for (int i = 0; i < accumulated.length; i++) {
+            running += total == 0 ? 1 : sizes.get(i);
+            accumulated[i] = running;
+        }
+        long weight = total == 0 ? sizes.size() : total;
+
+        List<byte[]> boundaries = new ArrayList<>(splitCount - 1);
+        int index = -1;
+        for (int split = 1; split < splitCount; split++) {
+            double target = (double) weight * split / splitCount;
+            // leave a candidate for each of the remaining boundaries
+            int maxIndex = candidates.size() - splitCount + split;
+            index++;
+            while (index < maxIndex && accumulated[index] < target) {
+                index++;
+            }
+            boundaries.add(candidates.get(index));
+        }
+        return boundaries;
+    }
+
+    private static List<byte[]> interpolate(byte[] first, byte[] last, int sliceCount) {
+        int prefix = 0;
+        while (prefix < first.length && prefix < last.length && first[prefix] == last[prefix]) {
+            prefix++;
+        }
+
+        // keys are compared as unsigned numbers over the bytes which matter
+        // for the split, padding the shorter key with zeros
+        int length = Math.min(Math.max(first.length, last.length), prefix + INTERPOLATION_BYTES);
+        BigInteger low = new BigInteger(1, Arrays.copyOf(first, length));
+        BigInteger range = new BigInteger(1, Arrays.copyOf(last, length)).subtract(low);
+
+        List<byte[]> candidates = new ArrayList<>(sliceCount - 1);
+        BigInteger previous = low;
+        for (int i = 1; i < sliceCount; i++) {
+            BigInteger point = low.add(range.multiply(BigInteger.valueOf(i))
+                .divide(BigInteger.valueOf(sliceCount)));
+            if (point.compareTo(previous) > 0) {
+                candidates.add(toBytes(point, length));
+                previous = point;
+            }
+        }
+        return candidates;
+    }
+
+    private static byte[] toBytes(BigInteger value, int length) {
+        byte[] bytes = value.toByteArray();
+        byte[] key = new byte[length];
+        int copy = Math.min(bytes.length, length);
+        System.arraycopy(bytes, bytes.length - copy, key, length - copy, copy);
+        return key;
     }
 
     @Override
     @SuppressWarnings({"unchecked", "rawtypes"})
     public K higherKey(K k) {
-        try (RocksIterator iterator = rocksDB.newIterator(columnFamilyHandle)) {
+        try (ScanIterator scanIterator = newIterator()) {
+            RocksIterator iterator = scanIterator.raw();
             byte[] key = objectFormatter.encodeKey(k);
 
             iterator.seek(key);
@@ -249,7 +526,8 @@ public class RocksDBMap<K, V> implements NitriteMap<K, V> {
     @Override
     @SuppressWarnings({"unchecked", "rawtypes"})
     public K ceilingKey(K k) {
-        try (RocksIterator iterator = rocksDB.newIterator(columnFamilyHandle)) {
+        try (ScanIterator scanIterator = newIterator()) {
+            RocksIterator iterator = scanIterator.raw();
             byte[] key = objectFormatter.encodeKey(k);
 
             iterator.seek(key);
@@ -275,7 +553,8 @@ public class RocksDBMap<K, V> implements NitriteMap<K, V> {
     @Override
     @SuppressWarnings({"unchecked", "rawtypes"})
     public K lowerKey(K k) {
-        try (RocksIterator iterator = rocksDB.newIterator(columnFamilyHandle)) {
+        try (ScanIterator scanIterator = newIterator()) {
+            RocksIterator iterator = scanIterator.raw();
             byte[] key = objectFormatter.encodeKey(k);
 
             iterator.seekForPrev(key);
@@ -303,7 +582,8 @@ public class RocksDBMap<K, V> implements NitriteMap<K, V> {
     @Override
     @SuppressWarnings({"unchecked", "rawtypes"})
     public K floorKey(K k) {
-        try (RocksIterator iterator = rocksDB.newIterator(columnFamilyHandle)) {
+        try (ScanIterator scanIterator = newIterator()) {
+            RocksIterator iterator = scanIterator.raw();
             byte[] key = objectFormatter.encodeKey(k);
 
             iterator.seekForPrev(key);
@@ -356,9 +636,28 @@ public class RocksDBMap<K, V> implements NitriteMap<K, V> {
         this.size = new AtomicLong(0); // just initialized
         this.closedFlag = new AtomicBoolean(false);
         this.droppedFlag = new AtomicBoolean(false);
-        this.objectFormatter = store.getStoreConfig().objectFormatter();
+        this.objectFormatter = createObjectFormatter();
         this.columnFamilyHandle = reference.getOrCreateColumnFamily(getName());
         this.rocksDB = reference.getRocksDB();
         this.bytewiseComparator = this.reference.getDbComparator();
     }
+
+    private ScanIterator newIterator() {
+        return new ScanIterator(rocksDB, columnFamilyHandle,
+            reference.getScanOptions(mapName), store.getPinnedSnapshot());
+    }
+
+    private RocksIterator newIterator(ReadOptions readOptions) {
+        return readOptions == null
+            ? rocksDB.newIterator(columnFamilyHandle)
+            : rocksDB.newIterator(columnFamilyHandle, readOptions);
+    }
+
+    private ObjectFormatter createObjectFormatter() {
+        ObjectFormatter formatter = store.getStoreConfig().objectFormatter();
+        if (Document.class.equals(getValueType())) {
+            return new DocumentFormatter(formatter, store.getDocumentCodec(mapName));
+        }
+        return formatter;
+    }
 }
@@ -27,7 +27,9 @@ import org.rocksdb.DBOptions;
 import org.rocksdb.Options;
 
 import java.io.File;
+import java.util.EnumMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -44,12 +46,42 @@ public class RocksDBModuleBuilder {
     private ObjectFormatter objectFormatter;
     private RocksDBConfig dbConfig;
 
+    /**
+     * Derives the column family options of documents, indexes and
+     * metadata maps from their role, with bloom filters, per level
+     * compression and a shared block cache. It uses level style
+     * compaction and is best enabled when the database is created.
+     */
+    private boolean roleBasedTuning;
+
+    /**
+     * The size in bytes of the block cache shared by the tuned roles.
+     */
+    private long blockCacheSize;
+
+    /**
+     * The length of the key prefix used for prefix bloom filters of
+     * tuned index maps, 0 disables prefix filtering.
+     */
+    private int indexPrefixLength;
+
+    /**
+     * The minimum size in bytes of a document to store it in a blob file
+     * for tuned document maps, 0 disables blob files.
+     */
+    private long minBlobSize;
+
     @Setter(AccessLevel.NONE)
     private final Set<StoreEventListener> eventListeners;
 
+    @Setter(AccessLevel.NONE)
+    private final Map<MapRole, ColumnFamilyOptions> roleColumnFamilyOptions;
+
     RocksDBModuleBuilder() {
         dbConfig = new RocksDBConfig();
         eventListeners = new HashSet<>();
+        roleColumnFamilyOptions = new EnumMap<>(MapRole.class);
+        blockCacheSize = dbConfig.blockCacheSize();
     }
 
     public RocksDBModuleBuilder filePath(File file) {
@@ -69,12 +101,26 @@ public class RocksDBModuleBuilder {
         return this;
     }
 
+    public RocksDBModuleBuilder columnFamilyOptions(MapRole role, ColumnFamilyOptions options) {
+        if (options == null) {
+            roleColumnFamilyOptions.remove(role);
+        } else {
+            roleColumnFamilyOptions.put(role, options);
+        }
+        return this;
+    }
+
     public RocksDBModule build() {
         RocksDBModule module = new RocksDBModule(filePath());
 
         dbConfig.options(options());
         dbConfig.dbOptions(dbOptions());
         dbConfig.columnFamilyOptions(columnFamilyOptions());
+        dbConfig.roleColumnFamilyOptions(roleColumnFamilyOptions());
+        dbConfig.roleBasedTuning(roleBasedTuning());
+        dbConfig.blockCacheSize(blockCacheSize());
+        dbConfig.indexPrefixLength(indexPrefixLength());
+        dbConfig.minBlobSize(minBlobSize());
         dbConfig.filePath(filePath());
 
         if (objectFormatter() != null) {
@@ -16,6 +16,7 @@
 
 package org.dizitart.no2.rocksdb;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
@@ -39,6 +40,8 @@ public class RocksDBReference implements AutoCloseable {
     private Options options;
     private DBOptions dbOptions;
     private ColumnFamilyOptions columnFamilyOptions;
+    @Getter(AccessLevel.PACKAGE) @Setter(AccessLevel.PACKAGE)
+    private ColumnFamilyProfiles columnFamilyProfiles;
     private RocksDB rocksDB;
     private BytewiseComparator dbComparator;
 
@@ -60,6 +63,9 @@ public class RocksDBReference implements AutoCloseable {
         rocksDB.closeE();
         dbOptions.close();
         dbComparator.close();
+        if (columnFamilyProfiles != null) {
+            columnFamilyProfiles.close();
+        }
         columnFamilyOptions.close();
         options.close();
     }
@@ -70,7 +76,7 @@ public class RocksDBReference implements AutoCloseable {
         } else {
             try {
                 ColumnFamilyHandle handle = rocksDB.createColumnFamily(
-                    new ColumnFamilyDescriptor(name.getBytes(StandardCharsets.UTF_8), columnFamilyOptions));
+                    new ColumnFamilyDescriptor(name.getBytes(StandardCharsets.UTF_8), getColumnFamilyOptions(name)));
                 columnFamilyHandleRegistry.put(name, handle);
                 return handle;
             } catch (RocksDBException e) {
@@ -94,6 +100,16 @@ public class RocksDBReference implements AutoCloseable {
         }
     }
 
+    public ColumnFamilyOptions getColumnFamilyOptions(String name) {
+        return columnFamilyProfiles == null
+            ? columnFamilyOptions
+            : columnFamilyProfiles.getOptions(name);
+    }
+
+    ReadOptions getScanOptions(String name) {
+        return columnFamilyProfiles == null ? null : columnFamilyProfiles.getScanOptions(name);
+    }
+
     public BytewiseComparator getDbComparator() {
         // delayed initialization, otherwise initializing
         // it in ctor is throwing java.lang.UnsatisfiedLinkError
@@ -0,0 +1,127 @@
+package org.dizitart.no2.rocksdb;
+
+import org.dizitart.no2.exceptions.NitriteIOException;
+import org.dizitart.no2.store.StoreSnapshot;
+import org.rocksdb.ReadOptions;
+import org.rocksdb.RocksDB;
+import org.rocksdb.Snapshot;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.ReferenceQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * A {@link StoreSnapshot} backed by a native RocksDB snapshot. All
+ * reads of a {@link RocksDBMap} made while the snapshot is pinned use
+ * the {@link ReadOptions} of the snapshot.
+ * <p>
+ * The native snapshot is held by a {@link Handle}, which the store
+ * releases when the snapshot is closed, when it is no longer reachable
+ * or when the store is closed. Every native call which reads through
+ * the snapshot pins the handle, so the native resources are freed only
+ * after the last of them is done, even if it runs on another thread.
+ *
+ * @author Anindya Chatterjee
+ * @since 4.0
+ */
+class RocksDBSnapshot implements StoreSnapshot {
+    private final RocksDBStore store;
+    private final Handle handle;
+
+    RocksDBSnapshot(RocksDBStore store, RocksDB rocksDB, ReferenceQueue<RocksDBSnapshot> queue) {
+        this.store = store;
+        this.handle = new Handle(this, store, rocksDB, queue);
+    }
+
+    @Override
+    public <T> T read(Supplier<T> reader) {
+        if (handle.released.get()) {
+            // a released snapshot can not be pinned anymore
+            return reader.get();
+        }
+        return store.readAt(this, reader);
+    }
+
+    @Override
+    public void close() {
+        store.releaseSnapshot(handle);
+    }
+
+    Handle getHandle() {
+        return handle;
+    }
+
+    /**
+     * Holds the native resources of a snapshot. It must not refer
+     * to the snapshot itself, otherwise it would never be enqueued.
+     */
+    static class Handle extends PhantomReference<RocksDBSnapshot> {
+        private final RocksDBStore store;
+        private final RocksDB rocksDB;
+        private final Snapshot snapshot;
+        private final ReadOptions readOptions;
+        private final AtomicBoolean released;
+        // one for the snapshot itself, one for each native read in progress
+        private final AtomicInteger references;
+
+        private Handle(RocksDBSnapshot referent, RocksDBStore store,
+                       RocksDB rocksDB, ReferenceQueue<RocksDBSnapshot> queue) {
+            super(referent, queue);
+            this.store = store;
+            this.rocksDB = rocksDB;
+            this.snapshot = rocksDB.getSnapshot();
+            this.readOptions = new ReadOptions().setSnapshot(snapshot).setTotalOrderSeek(true);
+            this.released = new AtomicBoolean(false);
+            this.references = new AtomicInteger(1);
+        }
+
+        /**
+         * Pins the snapshot for a read and returns its read options, which
+         * stay valid until the read calls {@link #unpin()}.
+         *
+         * @throws NitriteIOException if the snapshot has been released
+         */
+        ReadOptions pin() {
+            if (!tryPin()) {
+                throw new NitriteIOException("snapshot has already been released");
+            }
+            return readOptions;
+        }
+
+        boolean tryPin() {
+            int count;
+            do {
+                count = references.get();
+                if (count == 0 || released.get()) {
+                    return false;
+                }
+            } while (!references.compareAndSet(count, count + 1));
+            return true;
+        }
+
+        ReadOptions getReadOptions() {
+            return readOptions;
+        }
+
+        void unpin() {
+            if (references.decrementAndGet() == 0) {
+                readOptions.close();
+                if (!store.isClosed()) {
+                    rocksDB.releaseSnapshot(snapshot);
+                }
+            }
+        }
+
+        boolean isReleased() {
+            return released.get();
+        }
+
+        void release() {
+            if (released.compareAndSet(false, true)) {
+                unpin();
+            }
+        }
+    }
+}
@@ -2,6 +2,8 @@ package org.dizitart.no2.rocksdb;
 
 import lombok.extern.slf4j.Slf4j;
 import org.dizitart.no2.common.UnknownType;
+import org.dizitart.no2.common.codec.DocumentCodec;
+import org.dizitart.no2.common.codec.FieldNameDictionary;
 import org.dizitart.no2.common.util.StringUtils;
 import org.dizitart.no2.exceptions.InvalidOperationException;
 import org.dizitart.no2.exceptions.NitriteException;
@@ -12,21 +14,44 @@ import org.dizitart.no2.store.NitriteMap;
 import org.dizitart.no2.store.NitriteRTree;
 import org.dizitart.no2.store.events.StoreEventListener;
 import org.dizitart.no2.store.events.StoreEvents;
+import org.dizitart.no2.rocksdb.formatter.ObjectFormatter;
+import org.dizitart.no2.store.StoreSnapshot;
+import org.rocksdb.ColumnFamilyHandle;
 import org.rocksdb.RocksDB;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.RocksIterator;
 
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import static org.dizitart.no2.common.Constants.FIELD_DICTIONARY_PREFIX;
+import static org.dizitart.no2.common.Constants.INTERNAL_NAME_SEPARATOR;
 
 @Slf4j
 public class RocksDBStore extends AbstractNitriteStore<RocksDBConfig> {
     private final AtomicBoolean closed;
     private final Map<String, NitriteMap<?, ?>> nitriteMapRegistry;
+    private final Map<String, DocumentCodec> documentCodecRegistry;
+    private final ThreadLocal<WriteUnit> currentWriteUnit;
+    private final ThreadLocal<RocksDBSnapshot> pinnedSnapshot;
+    private final Set<RocksDBSnapshot.Handle> openSnapshots;
+    private final ReferenceQueue<RocksDBSnapshot> unreachableSnapshots;
     private RocksDBReference reference;
 
     public RocksDBStore() {
         super();
         nitriteMapRegistry = new ConcurrentHashMap<>();
+        documentCodecRegistry = new ConcurrentHashMap<>();
+        currentWriteUnit = new ThreadLocal<>();
+        pinnedSnapshot = new ThreadLocal<>();
+        openSnapshots = ConcurrentHashMap.newKeySet();
+        unreachableSnapshots = new ReferenceQueue<>();
         closed = new AtomicBoolean(true);
     }
 
@@ -62,20 +87,65 @@ public class RocksDBStore extends AbstractNitriteStore<RocksDBConfig> {
         return false;
     }
 
+    @Override
+    public boolean hasNaturalKeyOrder() {
+        // keys are ordered by their serialized bytes, which is not
+        // the natural order for strings or numbers
+        return false;
+    }
+
     @Override
     public void commit() {
         alert(StoreEvents.Commit);
     }
 
+    @Override
+    public <T> T writeUnit(Supplier<T> unit) {
+        if (currentWriteUnit.get() != null) {
+            // join the outer unit
+            return unit.get();
+        }
+
+        try (WriteUnit writeUnit = new WriteUnit(reference.getRocksDB())) {
+            currentWriteUnit.set(writeUnit);
+            T result = unit.get();
+            writeUnit.write();
+            return result;
+        } catch (RocksDBException e) {
+            log.error("Error while writing batch", e);
+            throw new NitriteIOException("failed to write batch", e);
+        } finally {
+            currentWriteUnit.remove();
+        }
+    }
+
+    @Override
+    public StoreSnapshot openSnapshot() {
+        releaseUnreachableSnapshots();
+
+        RocksDBSnapshot snapshot = new RocksDBSnapshot(this, reference.getRocksDB(), unreachableSnapshots);
+        openSnapshots.add(snapshot.getHandle());
+        return snapshot;
+    }
+
     @Override
     public void close() {
         try {
             if (!closed.get()) {
+                // release snapshots of open cursors before the db goes away
+                synchronized (openSnapshots) {
+                    for (RocksDBSnapshot.Handle handle : openSnapshots) {
+                        handle.release();
+                    }
+                    openSnapshots.clear();
+                }
+
                 // close nitrite maps
                 for (NitriteMap<?, ?> nitriteMap : nitriteMapRegistry.values()) {
                     nitriteMap.close();
                 }
 
+                documentCodecRegistry.clear();
                 reference.close();
                 closed.compareAndSet(false, true);
             }
@@ -126,6 +196,8 @@ public class RocksDBStore extends AbstractNitriteStore<RocksDBConfig> {
     @Override
     public void removeMap(String mapName) {
         reference.dropColumnFamily(mapName);
+        reference.dropColumnFamily(fieldDictionaryName(mapName));
+        documentCodecRegistry.remove(mapName);
         getCatalog().remove(mapName);
         nitriteMapRegistry.remove(mapName);
     }
@@ -152,6 +224,88 @@ public class RocksDBStore extends AbstractNitriteStore<RocksDBConfig> {
         return "RocksDB/" + getRocksDbVersion();
     }
 
+    RocksDBReference getReference() {
+        return reference;
+    }
+
+    WriteUnit getCurrentWriteUnit() {
+        return currentWriteUnit.get();
+    }
+
+    RocksDBSnapshot.Handle getPinnedSnapshot() {
+        RocksDBSnapshot snapshot = pinnedSnapshot.get();
+        return snapshot == null ? null : snapshot.getHandle();
+    }
+
+    <T> T readAt(RocksDBSnapshot snapshot, Supplier<T> reader) {
+        RocksDBSnapshot previous = pinnedSnapshot.get();
+        pinnedSnapshot.set(snapshot);
+        try {
+            return reader.get();
+        } finally {
+            if (previous == null) {
+                pinnedSnapshot.remove();
+            } else {
+                pinnedSnapshot.set(previous);
+            }
+        }
+    }
+
+    void releaseSnapshot(RocksDBSnapshot.Handle handle) {
+        synchronized (openSnapshots) {
+            if (openSnapshots.remove(handle) && !closed.get()) {
+                handle.release();
+            }
+        }
+    }
+
+    void releaseUnreachableSnapshots() {
+        // snapshots of cursors which were dropped without being closed
+        Reference<? extends RocksDBSnapshot> unreachable;
+        while ((unreachable = unreachableSnapshots.poll()) != null) {
+            releaseSnapshot((RocksDBSnapshot.Handle) unreachable);
+        }
+    }
+
+    int getOpenSnapshotCount() {
+        return openSnapshots.size();
+    }
+
+    DocumentCodec getDocumentCodec(String mapName) {
+        // all instances of a map must share one dictionary
+        return documentCodecRegistry.computeIfAbsent(mapName, this::openDocumentCodec);
+    }
+
+    private DocumentCodec openDocumentCodec(String mapName) {
+        ObjectFormatter objectFormatter = getStoreConfig().objectFormatter();
+        RocksDB rocksDB = reference.getRocksDB();
+        ColumnFamilyHandle handle = reference.getOrCreateColumnFamily(fieldDictionaryName(mapName));
+
+        Map<Integer, String> entries = new HashMap<>();
+        try (RocksIterator iterator = rocksDB.newIterator(handle)) {
+            iterator.seekToFirst();
+            while (iterator.isValid()) {
+                entries.put(objectFormatter.decodeKey(iterator.key(), Integer.class),
+                    objectFormatter.decode(iterator.value(), String.class));
+                iterator.next();
+            }
+        }
+
+        // a new field name is written before the document which uses it
+        return new DocumentCodec(new FieldNameDictionary(entries, (id, fieldName) -> {
+            try {
+                rocksDB.put(handle, objectFormatter.encodeKey(id), objectFormatter.encode(fieldName));
+            } catch (RocksDBException e) {
+                log.error("Error while writing field name dictionary of " + mapName, e);
+                throw new NitriteIOException("failed to write field name dictionary", e);
+            }
+        }));
+    }
+
+    private String fieldDictionaryName(String mapName) {
+        return FIELD_DICTIONARY_PREFIX + INTERNAL_NAME_SEPARATOR + mapName;
+    }
+
     private void initEventBus() {
         if (getStoreConfig().eventListeners() != null) {
             for (StoreEventListener eventListener : getStoreConfig().eventListeners()) {
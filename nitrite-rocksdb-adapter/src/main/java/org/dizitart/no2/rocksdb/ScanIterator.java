@@ -0,0 +1,72 @@
+package org.dizitart.no2.rocksdb;
+
+import org.dizitart.no2.exceptions.NitriteIOException;
+import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.ReadOptions;
+import org.rocksdb.RocksDB;
+import org.rocksdb.RocksIterator;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Holds a raw {@link RocksIterator} of a column family, which reads either
+ * from a snapshot or the latest state. The snapshot is pinned while the
+ * native iterator is created from its read options, the iterator keeps
+ * its own copy of them and a consistent view of the snapshot afterwards,
+ * whichever thread it runs on.
+ *
+ * @author Anindya Chatterjee
+ * @since 4.0
+ */
+class ScanIterator implements AutoCloseable {
+    private final RocksIterator iterator;
+    private final RocksDBSnapshot.Handle snapshot;
+    private final AtomicBoolean closed;
+
+    /**
+     * Opens a raw iterator which reads from the snapshot if not null,
+     * otherwise from the latest state with the read options.
+     *
+     * @throws NitriteIOException if the snapshot has been released
+     */
+    ScanIterator(RocksDB rocksDB, ColumnFamilyHandle columnFamilyHandle,
+                 ReadOptions readOptions, RocksDBSnapshot.Handle snapshot) {
+        if (snapshot == null) {
+            this.iterator = readOptions == null
+                ? rocksDB.newIterator(columnFamilyHandle)
+                : rocksDB.newIterator(columnFamilyHandle, readOptions);
+        } else {
+            ReadOptions options = snapshot.pin();
+            try {
+                this.iterator = rocksDB.newIterator(columnFamilyHandle, options);
+            } finally {
+                snapshot.unpin();
+            }
+        }
+        this.snapshot = snapshot;
+        this.closed = new AtomicBoolean(false);
+    }
+
+    RocksIterator raw() {
+        return iterator;
+    }
+
+    /**
+     * Checks if the snapshot was released while the iterator is still open,
+     * i.e. the cursor which reads from it has been closed or abandoned.
+     */
+    boolean isCancelled() {
+        return snapshot != null && snapshot.isReleased();
+    }
+
+    boolean isClosed() {
+        return closed.get();
+    }
+
+    @Override
+    public void close() {
+        if (closed.compareAndSet(false, true)) {
+            iterator.close();
+        }
+    }
+}
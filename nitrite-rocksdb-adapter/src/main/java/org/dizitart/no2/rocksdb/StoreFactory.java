@@ -84,6 +84,7 @@ class StoreFactory {
         }
 
         reference.setColumnFamilyOptions(columnFamilyOptions);
+        reference.setColumnFamilyProfiles(new ColumnFamilyProfiles(dbConfig, columnFamilyOptions));
     }
 
     private static void createColumnFamilyDescriptors(RocksDBReference reference, RocksDBConfig dbConfig) {
@@ -95,7 +96,8 @@ class StoreFactory {
             List<byte[]> columnFamilies = RocksDB.listColumnFamilies(reference.getOptions(), dbConfig.filePath());
             for (byte[] columnFamily : columnFamilies) {
                 if (!Arrays.equals(RocksDB.DEFAULT_COLUMN_FAMILY, columnFamily)) {
-                    cfDescriptors.add(new ColumnFamilyDescriptor(columnFamily, reference.getColumnFamilyOptions()));
+                    String name = new String(columnFamily, StandardCharsets.UTF_8);
+                    cfDescriptors.add(new ColumnFamilyDescriptor(columnFamily, reference.getColumnFamilyOptions(name)));
                 }
             }
         } catch (RocksDBException e) {
@@ -1,7 +1,9 @@
 package org.dizitart.no2.rocksdb;
 
+import org.dizitart.no2.exceptions.NitriteIOException;
 import org.dizitart.no2.rocksdb.formatter.ObjectFormatter;
 import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.ReadOptions;
 import org.rocksdb.RocksDB;
 import org.rocksdb.RocksIterator;
 
@@ -12,9 +14,19 @@ class ValueSet<V> implements Iterable<V> {
     private final RocksDB rocksDB;
     private final ColumnFamilyHandle columnFamilyHandle;
     private final Class<?> valueType;
+    private final ReadOptions readOptions;
+    private final RocksDBSnapshot.Handle snapshot;
 
     public ValueSet(RocksDB rocksDB, ColumnFamilyHandle columnFamilyHandle,
                     ObjectFormatter objectFormatter, Class<?> valueType) {
+        this(rocksDB, columnFamilyHandle, objectFormatter, valueType, null, null);
+    }
+
+    public ValueSet(RocksDB rocksDB, ColumnFamilyHandle columnFamilyHandle,
+                    ObjectFormatter objectFormatter, Class<?> valueType, ReadOptions readOptions,
+                    RocksDBSnapshot.Handle snapshot) {
+        this.readOptions = readOptions;
+        this.snapshot = snapshot;
         this.rocksDB = rocksDB;
         this.columnFamilyHandle = columnFamilyHandle;
         this.objectFormatter = objectFormatter;
@@ -27,19 +39,30 @@ class ValueSet<V> implements Iterable<V> {
     }
 
     private class ValueIterator implements Iterator<V> {
+        private final ScanIterator scanIterator;
         private final RocksIterator rawEntryIterator;
 
         public ValueIterator() {
-            rawEntryIterator = rocksDB.newIterator(columnFamilyHandle);
+            scanIterator = new ScanIterator(rocksDB, columnFamilyHandle, readOptions, snapshot);
+            rawEntryIterator = scanIterator.raw();
             rawEntryIterator.seekToFirst();
         }
 
         @Override
         public boolean hasNext() {
+            if (scanIterator.isClosed()) {
+                return false;
+            }
+            if (scanIterator.isCancelled()) {
+                // the cursor is gone, stop reading from its snapshot
+                scanIterator.close();
+                throw new NitriteIOException("snapshot of the scan has been released");
+            }
+
             try {
                 boolean result = rawEntryIterator.isValid();
                 if (!result) {
-                    rawEntryIterator.close();
+                    scanIterator.close();
                 }
                 return result;
             } catch (AssertionError e) {
@@ -57,7 +80,7 @@ class ValueSet<V> implements Iterable<V> {
 
         @Override
         protected void finalize() throws Throwable {
-            rawEntryIterator.close();
+            scanIterator.close();
             super.finalize();
         }
     }
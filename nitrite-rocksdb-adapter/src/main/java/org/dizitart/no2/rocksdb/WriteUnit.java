@@ -0,0 +1,67 @@
+package org.dizitart.no2.rocksdb;
+
+import org.rocksdb.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects the writes of one logical change in a {@link WriteBatchWithIndex}
+ * and applies them to the database in a single atomic write.
+ * <p>
+ * Reads through a write unit see its pending writes on top of the database.
+ * In-memory bookkeeping, like map size counters, is registered via
+ * {@link #afterWrite(Runnable)} and only runs once the batch is written.
+ *
+ * @author Anindya Chatterjee
+ * @since 4.0
+ */
+class WriteUnit implements AutoCloseable {
+    private final RocksDB rocksDB;
+    private final WriteBatchWithIndex writeBatch;
+    private final ReadOptions readOptions;
+    private final WriteOptions writeOptions;
+    private final List<Runnable> afterWriteActions;
+
+    WriteUnit(RocksDB rocksDB) {
+        this.rocksDB = rocksDB;
+        // overwrite mode keeps only the latest write of a key in the batch index
+        this.writeBatch = new WriteBatchWithIndex(true);
+        this.readOptions = new ReadOptions();
+        this.writeOptions = new WriteOptions();
+        this.afterWriteActions = new ArrayList<>();
+    }
+
+    byte[] get(ColumnFamilyHandle columnFamilyHandle, byte[] key) throws RocksDBException {
+        return writeBatch.getFromBatchAndDB(rocksDB, columnFamilyHandle, readOptions, key);
+    }
+
+    void put(ColumnFamilyHandle columnFamilyHandle, byte[] key, byte[] value) throws RocksDBException {
+        writeBatch.put(columnFamilyHandle, key, value);
+    }
+
+    void delete(ColumnFamilyHandle columnFamilyHandle, byte[] key) throws RocksDBException {
+        writeBatch.delete(columnFamilyHandle, key);
+    }
+
+    void afterWrite(Runnable action) {
+        afterWriteActions.add(action);
+    }
+
+    void write() throws RocksDBException {
+        if (writeBatch.count() > 0) {
+            rocksDB.write(writeOptions, writeBatch);
+        }
+
+        for (Runnable action : afterWriteActions) {
+            action.run();
+        }
+    }
+
+    @Override
+    public void close() {
+        writeBatch.close();
+        readOptions.close();
+        writeOptions.close();
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.rocksdb.formatter;
+
+import org.dizitart.no2.collection.Document;
+import org.dizitart.no2.common.codec.DocumentCodec;
+import org.dizitart.no2.exceptions.NitriteIOException;
+
+/**
+ * An {@link ObjectFormatter} for the values of a document map, which
+ * encodes the {@link Document}s with a {@link DocumentCodec} and
+ * delegates everything else to another {@link ObjectFormatter}.
+ * <p>
+ * Encoded documents start with a zero byte, which the kryo map
+ * serializer never writes for a non null document, so documents
+ * written by an older version are still decoded by the delegate. A
+ * document which the codec cannot encode is written by the delegate too.
+ *
+ * @author Anindya Chatterjee
+ * @since 4.0
+ */
+public class DocumentFormatter implements ObjectFormatter {
+    private static final byte DOCUMENT_MARKER = 0;
+
+    private final ObjectFormatter objectFormatter;
+    private final DocumentCodec documentCodec;
+
+    /**
+     * Instantiates a new {@link DocumentFormatter}.
+     *
+     * @param objectFormatter the formatter for keys and non document values
+     * @param documentCodec   the document codec
+     */
+    public DocumentFormatter(ObjectFormatter objectFormatter, DocumentCodec documentCodec) {
+        this.objectFormatter = objectFormatter;
+        this.documentCodec = documentCodec;
+    }
+
+    @Override
+    public <T> byte[] encode(T object) {
+        if (object instanceof Document) {
+            byte[] encoded;
+            try {
+                encoded = documentCodec.encode((Document) object);
+            } catch (NitriteIOException e) {
+                // a value which is neither supported by the codec nor java
+                // serializable, kryo might still be able to write it
+                return objectFormatter.encode(object);
+            }
+            byte[] bytes = new byte[encoded.length + 1];
+            bytes[0] = DOCUMENT_MARKER;
+            System.arraycopy(encoded, 0, bytes, 1, encoded.length);
+            return bytes;
+        }
+        return objectFormatter.encode(object);
+    }
+
+    @Override
+    public <T> byte[] encodeKey(T object) {
+        return objectFormatter.encodeKey(object);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T decode(byte[] bytes, Class<T> type) {
+        if (bytes.length > 0 && bytes[0] == DOCUMENT_MARKER && Document.class.isAssignableFrom(type)) {
+            // fields are decoded only when accessed
+            return (T) documentCodec.decodeLazily(bytes, 1);
+        }
+        return objectFormatter.decode(bytes, type);
+    }
+
+    @Override
+    public <T> T decodeKey(byte[] bytes, Class<T> type) {
+        return objectFormatter.decodeKey(bytes, type);
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.dizitart.no2.integration.collection;
+
+import org.dizitart.no2.Nitrite;
+import org.dizitart.no2.collection.DocumentCursor;
+import org.dizitart.no2.collection.NitriteCollection;
+import org.dizitart.no2.index.IndexType;
+import org.dizitart.no2.transaction.Session;
+import org.dizitart.no2.transaction.Transaction;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.dizitart.no2.collection.Document.createDocument;
+import static org.dizitart.no2.filters.FluentFilter.where;
+import static org.dizitart.no2.index.IndexOptions.indexOptions;
+import static org.dizitart.no2.integration.TestUtil.*;
+import static org.junit.Assert.*;
+
+/**
+ * @author Anindya Chatterjee
+ */
+public class CollectionPrefixScanTest {
+    private String fileName;
+    private Nitrite db;
+    private NitriteCollection collection;
+
+    @Before
+    public void setUp() {
+        fileName = getRandomTempDbFile();
+        db = createDb(fileName);
+        collection = db.getCollection("test");
+        collection.createIndex(indexOptions(IndexType.NON_UNIQUE), "sku");
+        for (String sku : new String[]{"ABC-1", "ABC-22", "ABC-333", "ABC", "ABD", "AB"}) {
+            collection.insert(createDocument("sku", sku));
+        }
+    }
+
+    @After
+    public void tearDown() {
+        if (db != null && !db.isClosed()) {
+            db.close();
+        }
+        deleteDb(fileName);
+    }
+
+    @Test
+    public void testStartsWithOnIndex() {
+        // rocksdb orders the index keys by their serialized bytes, not as strings
+        DocumentCursor cursor = collection.find(where("sku").startsWith("ABC"));
+        assertEquals(4, cursor.size());
+        assertNull(cursor.getFindPlan().getIndexScanFilter());
+
+        assertEquals(6, collection.find(where("sku").startsWith("AB")).size());
+        assertEquals(3, collection.find(where("sku").startsWith("ABC-")).size());
+        assertEquals(0, collection.find(where("sku").startsWith("ABC-4")).size());
+    }
+
+    @Test
+    public void testAnchoredRegexOnIndex() {
+        DocumentCursor cursor = collection.find(where("sku").regex("^ABC"));
+        assertEquals(4, cursor.size());
+        assertNull(cursor.getFindPlan().getIndexScanFilter());
+
+        assertEquals(3, collection.find(where("sku").regex("^ABC-\\d+")).size());
+    }
+
+    @Test
+    public void testStartsWithInTransaction() {
+        try (Session session = db.createSession()) {
+            Transaction transaction = session.beginTransaction();
+            NitriteCollection txCol = transaction.getCollection("test");
+            txCol.insert(createDocument("sku", "ABC-4444"));
+
+            assertEquals(5, txCol.find(where("sku").startsWith("ABC")).size());
+            assertEquals(5, txCol.find(where("sku").regex("^ABC")).size());
+            transaction.rollback();
+        }
+    }
+}
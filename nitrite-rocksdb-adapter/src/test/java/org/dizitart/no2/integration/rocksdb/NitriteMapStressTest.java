@@ -20,6 +20,7 @@ package org.dizitart.no2.integration.rocksdb;
 import org.dizitart.no2.integration.Retry;
 import org.dizitart.no2.Nitrite;
 import org.dizitart.no2.collection.Document;
+import org.dizitart.no2.common.RecordStream;
 import org.dizitart.no2.common.tuples.Pair;
 import org.dizitart.no2.exceptions.ValidationException;
 import org.dizitart.no2.store.NitriteMap;
@@ -28,11 +29,14 @@ import org.junit.After;
 import org.junit.Rule;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 import static org.dizitart.no2.integration.TestUtil.*;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
 /**
  * @author Anindya Chatterjee.
@@ -75,6 +79,61 @@ public class NitriteMapStressTest {
         db.close();
     }
 
+    @Test
+    public void testSplitEntries() {
+        db = createDb(dbPath);
+        NitriteStore<?> nitriteStore = db.getStore();
+        NitriteMap<String, Document> nitriteMap = nitriteStore.openMap("testSplitEntries",
+            String.class, Document.class);
+
+        for (int i = 0; i < 1000; i++) {
+            nitriteMap.put(UUID.randomUUID().toString(), Document.createDocument("index", i));
+        }
+
+        List<String> keys = new ArrayList<>();
+        for (Pair<String, Document> entry : nitriteMap.entries()) {
+            keys.add(entry.getFirst());
+        }
+
+        List<RecordStream<Pair<String, Document>>> splits = nitriteMap.splitEntries(8);
+        assertEquals(8, splits.size());
+
+        // ranges are contiguous, non overlapping and in key order
+        List<String> splitKeys = new ArrayList<>();
+        for (RecordStream<Pair<String, Document>> split : splits) {
+            for (Pair<String, Document> entry : split) {
+                splitKeys.add(entry.getFirst());
+            }
+        }
+        assertEquals(keys, splitKeys);
+    }
+
+    @Test
+    public void testSplitEntriesWithSkewedKeys() {
+        db = createDb(dbPath);
+        NitriteStore<?> nitriteStore = db.getStore();
+        NitriteMap<String, Document> nitriteMap = nitriteStore.openMap("testSplitEntriesWithSkewedKeys",
+            String.class, Document.class);
+
+        // almost all keys are packed at the start of the key range
+        int count = 10000;
+        for (int i = 0; i < count; i++) {
+            nitriteMap.put(String.format("a-%06d", i), Document.createDocument("index", i));
+        }
+        nitriteMap.put("zzzz", Document.createDocument("index", count));
+
+        List<RecordStream<Pair<String, Document>>> splits = nitriteMap.splitEntries(8);
+        assertEquals(8, splits.size());
+
+        long total = 0;
+        for (RecordStream<Pair<String, Document>> split : splits) {
+            long size = split.size();
+            assertTrue(size < count / 2);
+            total += size;
+        }
+        assertEquals(count + 1, total);
+    }
+
     @Test
     public void testNullKey() {
         db = createDb(dbPath);
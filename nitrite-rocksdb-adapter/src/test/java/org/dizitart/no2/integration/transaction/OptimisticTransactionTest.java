@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.dizitart.no2.integration.transaction;
+
+import org.dizitart.no2.Nitrite;
+import org.dizitart.no2.collection.Document;
+import org.dizitart.no2.collection.NitriteCollection;
+import org.dizitart.no2.exceptions.TransactionException;
+import org.dizitart.no2.index.IndexType;
+import org.dizitart.no2.transaction.Session;
+import org.dizitart.no2.transaction.State;
+import org.dizitart.no2.transaction.Transaction;
+import org.dizitart.no2.transaction.TransactionMode;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.dizitart.no2.collection.Document.createDocument;
+import static org.dizitart.no2.filters.FluentFilter.where;
+import static org.dizitart.no2.integration.TestUtil.*;
+import static org.junit.Assert.*;
+
+/**
+ * @author Anindya Chatterjee
+ */
+public class OptimisticTransactionTest {
+    private String fileName;
+    private Nitrite db;
+
+    @Before
+    public void setUp() {
+        fileName = getRandomTempDbFile();
+        db = createDb(fileName);
+    }
+
+    @After
+    public void tearDown() {
+        if (db != null && !db.isClosed()) {
+            db.close();
+        }
+        deleteDb(fileName);
+    }
+
+    @Test
+    public void testCommit() {
+        NitriteCollection collection = db.getCollection("test");
+        Document john = createDocument("firstName", "John").put("age", 30);
+        john.getId();
+        collection.insert(john);
+
+        try (Session session = db.createSession()) {
+            Transaction transaction = session.beginTransaction(TransactionMode.Optimistic);
+            NitriteCollection txCol = transaction.getCollection("test");
+            txCol.update(where("firstName").eq("John"), createDocument("age", 31));
+            txCol.insert(createDocument("firstName", "Jane"));
+            transaction.commit();
+        }
+
+        assertEquals(2, collection.size());
+        assertEquals(31, (int) collection.getById(john.getId()).get("age", Integer.class));
+    }
+
+    @Test
+    public void testCommitIsAtomicAcrossCollections() {
+        NitriteCollection first = db.getCollection("first");
+        NitriteCollection second = db.getCollection("second");
+        second.createIndex(IndexType.UNIQUE, "name");
+        second.insert(createDocument("name", "John"));
+
+        try (Session session = db.createSession()) {
+            Transaction transaction = session.beginTransaction(TransactionMode.Optimistic);
+            transaction.getCollection("first").insert(createDocument("name", "Jane"));
+            transaction.getCollection("second").insert(createDocument("name", "Jim"));
+            transaction.getCollection("second").insert(createDocument("name", "Jack"));
+
+            // violates the unique index only at commit
+            second.insert(createDocument("name", "Jack"));
+
+            boolean failed = false;
+            try {
+                transaction.commit();
+            } catch (TransactionException e) {
+                failed = true;
+                assertEquals(State.Failed, transaction.getState());
+                transaction.rollback();
+            }
+            assertTrue(failed);
+        }
+
+        // none of the writes of the transaction is applied
+        assertEquals(0, first.size());
+        assertEquals(2, second.size());
+        assertEquals(0, second.find(where("name").eq("Jim")).size());
+    }
+}
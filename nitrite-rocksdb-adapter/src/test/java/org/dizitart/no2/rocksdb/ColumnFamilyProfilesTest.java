@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package org.dizitart.no2.rocksdb;
+
+import org.dizitart.no2.Nitrite;
+import org.dizitart.no2.collection.NitriteCollection;
+import org.dizitart.no2.index.IndexOptions;
+import org.dizitart.no2.index.IndexType;
+import org.dizitart.no2.store.NitriteMap;
+import org.junit.Test;
+import org.rocksdb.*;
+
+import static org.dizitart.no2.collection.Document.createDocument;
+import static org.dizitart.no2.filters.FluentFilter.where;
+import static org.dizitart.no2.integration.TestUtil.deleteDb;
+import static org.dizitart.no2.integration.TestUtil.getRandomTempDbFile;
+import static org.junit.Assert.*;
+
+public class ColumnFamilyProfilesTest {
+    private static final String INDEX_MAP = "$nitrite_index|bench|value|Unique";
+
+    @Test
+    public void testWithoutTuning() {
+        RocksDBConfig dbConfig = new RocksDBConfig();
+        try (ColumnFamilyOptions defaultOptions = new ColumnFamilyOptions();
+             ColumnFamilyProfiles profiles = new ColumnFamilyProfiles(dbConfig, defaultOptions)) {
+            assertSame(defaultOptions, profiles.getOptions("test"));
+            assertSame(defaultOptions, profiles.getOptions(INDEX_MAP));
+            assertSame(defaultOptions, profiles.getOptions("$nitrite_meta_map"));
+            assertNull(profiles.getScanOptions(INDEX_MAP));
+        }
+    }
+
+    @Test
+    public void testRoleOptions() {
+        RocksDBConfig dbConfig = new RocksDBConfig();
+        ColumnFamilyOptions indexOptions = new ColumnFamilyOptions().useCappedPrefixExtractor(4);
+        dbConfig.roleColumnFamilyOptions().put(MapRole.INDEXES, indexOptions);
+
+        try (ColumnFamilyOptions defaultOptions = new ColumnFamilyOptions();
+             ColumnFamilyProfiles profiles = new ColumnFamilyProfiles(dbConfig, defaultOptions)) {
+            assertSame(indexOptions, profiles.getOptions(INDEX_MAP));
+            assertSame(defaultOptions, profiles.getOptions("test"));
+            assertNull(profiles.getScanOptions("test"));
+            assertTrue(profiles.getScanOptions(INDEX_MAP).totalOrderSeek());
+        }
+        assertFalse(indexOptions.isOwningHandle());
+    }
+
+    @Test
+    public void testRoleBasedTuning() {
+        RocksDBConfig dbConfig = new RocksDBConfig();
+        dbConfig.roleBasedTuning(true);
+        dbConfig.minBlobSize(1024);
+
+        try (ColumnFamilyOptions defaultOptions = new ColumnFamilyOptions();
+             ColumnFamilyProfiles profiles = new ColumnFamilyProfiles(dbConfig, defaultOptions)) {
+            ColumnFamilyOptions documentOptions = profiles.getOptions("test");
+            ColumnFamilyOptions indexOptions = profiles.getOptions(INDEX_MAP);
+            ColumnFamilyOptions metadataOptions = profiles.getOptions("$nitrite_meta_map");
+
+            assertNotSame(defaultOptions, documentOptions);
+            assertNotSame(documentOptions, indexOptions);
+            assertNotSame(indexOptions, metadataOptions);
+
+            assertEquals(CompactionStyle.LEVEL, documentOptions.compactionStyle());
+            assertEquals(CompressionType.NO_COMPRESSION, documentOptions.compressionPerLevel().get(0));
+            assertEquals(CompressionType.ZSTD_COMPRESSION, documentOptions.bottommostCompressionType());
+            assertEquals(CompressionType.LZ4_COMPRESSION, indexOptions.compressionType());
+            assertEquals(CompressionType.NO_COMPRESSION, metadataOptions.compressionType());
+        }
+    }
+
+    @Test
+    public void testTunedDatabase() {
+        String fileName = getRandomTempDbFile();
+        try {
+            RocksDBModule module = RocksDBModule.withConfig()
+                .filePath(fileName)
+                .roleBasedTuning(true)
+                .indexPrefixLength(3)
+                .minBlobSize(256)
+                .build();
+
+            Nitrite db = Nitrite.builder().loadModule(module).fieldSeparator(".").openOrCreate();
+            NitriteCollection collection = db.getCollection("test");
+            collection.createIndex(IndexOptions.indexOptions(IndexType.NON_UNIQUE), "group");
+            collection.createIndex("name");
+
+            StringBuilder largeText = new StringBuilder();
+            for (int i = 0; i < 100; i++) {
+                largeText.append("lorem ipsum ");
+            }
+
+            for (int i = 0; i < 200; i++) {
+                collection.insert(createDocument("group", i % 10)
+                    .put("name", "name" + i)
+                    .put("text", i % 2 == 0 ? largeText.toString() : "short"));
+            }
+            db.close();
+
+            module = RocksDBModule.withConfig()
+                .filePath(fileName)
+                .roleBasedTuning(true)
+                .indexPrefixLength(3)
+                .minBlobSize(256)
+                .build();
+            db = Nitrite.builder().loadModule(module).fieldSeparator(".").openOrCreate();
+            collection = db.getCollection("test");
+
+            assertEquals(200, collection.size());
+            assertEquals(20, collection.find(where("group").eq(3)).size());
+            assertEquals(60, collection.find(where("group").gte(7)).size());
+            assertEquals(40, collection.find(where("group").lt(2)).size());
+            assertEquals(largeText.toString(),
+                collection.find(where("name").eq("name42")).firstOrNull().get("text", String.class));
+            db.close();
+        } finally {
+            deleteDb(fileName);
+        }
+    }
+
+    @Test
+    public void testReadAmplification() throws RocksDBException {
+        double defaultBlocks = blocksReadPerMissingKey(false);
+        double tunedBlocks = blocksReadPerMissingKey(true);
+
+        System.out.println("data blocks read per missing index key, default: "
+            + defaultBlocks + ", tuned: " + tunedBlocks);
+        assertTrue(defaultBlocks >= 1.0);
+        assertTrue(tunedBlocks < defaultBlocks / 4);
+    }
+
+    private double blocksReadPerMissingKey(boolean tuned) throws RocksDBException {
+        final int rounds = 3;
+        final int keysPerRound = 2000;
+        final int lookups = 2000;
+
+        String fileName = getRandomTempDbFile();
+        try (Statistics statistics = new Statistics()) {
+            DBOptions dbOptions = new DBOptions().setCreateIfMissing(true).setStatistics(statistics);
+            RocksDBModule module = RocksDBModule.withConfig()
+                .filePath(fileName)
+                .dbOptions(dbOptions)
+                .roleBasedTuning(tuned)
+                .build();
+
+            RocksDBStore store = (RocksDBStore) module.getStore();
+            store.openOrCreate();
+            NitriteMap<Integer, String> indexMap = store.openMap(INDEX_MAP, Integer.class, String.class);
+
+            // interleaved keys in every round, so that each flushed
+            // file covers the whole key range and no file can be
+            // skipped by its key range alone
+            RocksDBReference reference = store.getReference();
+            ColumnFamilyHandle handle = reference.getOrCreateColumnFamily(INDEX_MAP);
+            try (FlushOptions flushOptions = new FlushOptions().setWaitForFlush(true)) {
+                for (int round = 0; round < rounds; round++) {
+                    for (int i = 0; i < keysPerRound; i++) {
+                        int key = 2 * (i * rounds + round);
+                        indexMap.put(key, "value" + key);
+                    }
+                    reference.getRocksDB().flush(flushOptions, handle);
+                }
+            }
+
+            statistics.reset();
+            for (int i = 0; i < lookups; i++) {
+                assertNull(indexMap.get(2 * i + 1));
+            }
+
+            long blocks = statistics.getTickerCount(TickerType.BLOCK_CACHE_DATA_HIT)
+                + statistics.getTickerCount(TickerType.BLOCK_CACHE_DATA_MISS);
+            store.close();
+            return (double) blocks / lookups;
+        } finally {
+            deleteDb(fileName);
+        }
+    }
+}
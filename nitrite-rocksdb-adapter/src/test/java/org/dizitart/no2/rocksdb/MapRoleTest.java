@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package org.dizitart.no2.rocksdb;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class MapRoleTest {
+    @Test
+    public void testOf() {
+        assertEquals(MapRole.DOCUMENTS, MapRole.of("test"));
+        assertEquals(MapRole.DOCUMENTS, MapRole.of("com.example.Employee"));
+        assertEquals(MapRole.DOCUMENTS, MapRole.of("com.example.Employee+key"));
+        assertEquals(MapRole.INDEXES, MapRole.of("$nitrite_index|test|name|NonUnique"));
+        assertEquals(MapRole.METADATA, MapRole.of("$nitrite_index_meta|test"));
+        assertEquals(MapRole.METADATA, MapRole.of("$nitrite_meta_map"));
+        assertEquals(MapRole.METADATA, MapRole.of("$nitrite_catalog"));
+        assertEquals(MapRole.METADATA, MapRole.of("$nitrite_fields|test"));
+        assertEquals(MapRole.METADATA, MapRole.of("default"));
+        assertEquals(MapRole.METADATA, MapRole.of(null));
+    }
+}
@@ -18,6 +18,7 @@
 package org.dizitart.no2.rocksdb;
 
 import org.junit.Test;
+import org.rocksdb.ColumnFamilyOptions;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -60,5 +61,25 @@ public class RocksDBModuleBuilderTest {
         assertTrue(dbConfigResult.objectFormatter() instanceof org.dizitart.no2.rocksdb.formatter.KryoObjectFormatter);
         assertTrue(dbConfigResult.eventListeners().isEmpty());
     }
-}
 
+    @Test
+    public void testRoleColumnFamilyOptions() {
+        ColumnFamilyOptions indexOptions = new ColumnFamilyOptions();
+        RocksDBModuleBuilder builder = new RocksDBModuleBuilder()
+            .filePath("Path")
+            .columnFamilyOptions(MapRole.INDEXES, indexOptions)
+            .roleBasedTuning(true)
+            .indexPrefixLength(4)
+            .minBlobSize(4096);
+        builder.build();
+
+        RocksDBConfig dbConfig = builder.dbConfig();
+        assertSame(indexOptions, dbConfig.roleColumnFamilyOptions().get(MapRole.INDEXES));
+        assertNull(dbConfig.roleColumnFamilyOptions().get(MapRole.DOCUMENTS));
+        assertTrue(dbConfig.roleBasedTuning());
+        assertEquals(4, dbConfig.indexPrefixLength());
+        assertEquals(4096L, dbConfig.minBlobSize());
+        assertEquals(32 * 1024 * 1024L, dbConfig.blockCacheSize());
+        indexOptions.close();
+    }
+}
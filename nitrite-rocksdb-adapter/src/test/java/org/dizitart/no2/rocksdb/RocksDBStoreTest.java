@@ -19,8 +19,34 @@ package org.dizitart.no2.rocksdb;
 
 import org.dizitart.no2.exceptions.InvalidOperationException;
 import org.dizitart.no2.exceptions.NitriteException;
+import org.dizitart.no2.exceptions.NitriteIOException;
+import org.dizitart.no2.Nitrite;
+import org.dizitart.no2.collection.Document;
+import org.dizitart.no2.collection.DocumentCursor;
+import org.dizitart.no2.collection.FindOptions;
+import org.dizitart.no2.collection.NitriteCollection;
+import org.dizitart.no2.exceptions.UniqueConstraintException;
+import org.dizitart.no2.index.IndexOptions;
+import org.dizitart.no2.index.IndexType;
+import org.dizitart.no2.store.NitriteMap;
+import org.dizitart.no2.store.NitriteStore;
+import org.dizitart.no2.store.StoreSnapshot;
 import org.junit.Test;
+import org.rocksdb.ColumnFamilyHandle;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.dizitart.no2.collection.Document.createDocument;
+import static org.dizitart.no2.common.Constants.FIELD_DICTIONARY_PREFIX;
+import static org.dizitart.no2.common.Constants.INTERNAL_NAME_SEPARATOR;
+import static org.dizitart.no2.filters.FluentFilter.where;
+import static org.dizitart.no2.integration.TestUtil.createDb;
+import static org.dizitart.no2.integration.TestUtil.deleteDb;
+import static org.dizitart.no2.integration.TestUtil.getRandomTempDbFile;
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
 
@@ -57,5 +83,304 @@ public class RocksDBStoreTest {
         assertThrows(InvalidOperationException.class,
                 () -> rocksDBStore.openRTree("R Tree Name", keyType, Object.class));
     }
-}
 
+    @Test
+    public void testDocumentMapReopen() {
+        String fileName = getRandomTempDbFile();
+        try {
+            Nitrite db = createDb(fileName);
+            NitriteCollection collection = db.getCollection("test");
+            for (int i = 0; i < 100; i++) {
+                collection.insert(createDocument("index", i)
+                    .put("name", "name" + i)
+                    .put("address", createDocument("zip", 1000 + i)));
+            }
+            db.close();
+
+            db = createDb(fileName);
+            collection = db.getCollection("test");
+            assertEquals(100, collection.size());
+            for (Document document : collection.find()) {
+                int index = document.get("index", Integer.class);
+                assertEquals("name" + index, document.get("name"));
+                assertEquals(1000 + index, document.get("address.zip"));
+            }
+
+            String dictionaryName = FIELD_DICTIONARY_PREFIX + INTERNAL_NAME_SEPARATOR + "test";
+            assertTrue(db.getStore().hasMap(dictionaryName));
+
+            collection.drop();
+            assertFalse(db.getStore().hasMap(dictionaryName));
+            db.close();
+        } finally {
+            deleteDb(fileName);
+        }
+    }
+
+    @Test
+    public void testWriteUnit() {
+        String fileName = getRandomTempDbFile();
+        try {
+            Nitrite db = createDb(fileName);
+            NitriteStore<?> store = db.getStore();
+            NitriteMap<String, String> first = store.openMap("first", String.class, String.class);
+            NitriteMap<String, String> second = store.openMap("second", String.class, String.class);
+
+            String result = store.writeUnit(() -> {
+                first.put("a", "1");
+                second.put("b", "2");
+                assertEquals("1", first.get("a"));
+                assertTrue(second.containsKey("b"));
+
+                // other threads do not see the pending writes
+                assertNull(CompletableFuture.supplyAsync(() -> first.get("a")).join());
+                return second.remove("b");
+            });
+
+            assertEquals("2", result);
+            assertEquals("1", first.get("a"));
+            assertEquals(1, first.size());
+            assertFalse(second.containsKey("b"));
+            db.close();
+        } finally {
+            deleteDb(fileName);
+        }
+    }
+
+    @Test
+    public void testWriteUnitDiscardedOnError() {
+        String fileName = getRandomTempDbFile();
+        try {
+            Nitrite db = createDb(fileName);
+            NitriteStore<?> store = db.getStore();
+            NitriteMap<String, String> map = store.openMap("test", String.class, String.class);
+            map.put("a", "1");
+
+            assertThrows(IllegalStateException.class, () -> store.writeUnit(() -> {
+                map.put("b", "2");
+                map.remove("a");
+                throw new IllegalStateException("failed");
+            }));
+
+            assertEquals("1", map.get("a"));
+            assertNull(map.get("b"));
+            assertEquals(1, map.size());
+            db.close();
+        } finally {
+            deleteDb(fileName);
+        }
+    }
+
+    @Test
+    public void testFailedInsertLeavesNoIndexEntry() {
+        String fileName = getRandomTempDbFile();
+        try {
+            Nitrite db = createDb(fileName);
+            NitriteCollection collection = db.getCollection("test");
+            collection.createIndex(IndexOptions.indexOptions(IndexType.NON_UNIQUE), "group");
+            collection.createIndex("code");
+
+            collection.insert(createDocument("group", 1).put("code", "x"));
+            assertThrows(UniqueConstraintException.class,
+                () -> collection.insert(createDocument("group", 2).put("code", "x")));
+
+            assertEquals(1, collection.size());
+            assertEquals(0, collection.find(where("group").eq(2)).size());
+
+            NitriteMap<Object, Object> groupIndex = db.getStore().openMap(
+                "$nitrite_index|test|group|NonUnique", Object.class, Object.class);
+            assertEquals(1, groupIndex.size());
+            db.close();
+        } finally {
+            deleteDb(fileName);
+        }
+    }
+
+    @Test
+    public void testCursorReadsFromSnapshot() {
+        String fileName = getRandomTempDbFile();
+        try {
+            Nitrite db = createDb(fileName);
+            NitriteCollection collection = db.getCollection("test");
+            collection.createIndex(IndexOptions.indexOptions(IndexType.NON_UNIQUE), "group");
+            collection.insert(createDocument("group", 1).put("name", "a"));
+            collection.insert(createDocument("group", 1).put("name", "b"));
+
+            DocumentCursor cursor = collection.find(where("group").eq(1));
+            DocumentCursor fullScan = collection.find();
+            collection.insert(createDocument("group", 1).put("name", "c"));
+            collection.update(where("name").eq("a"), createDocument("name", "z"));
+
+            List<String> names = new ArrayList<>();
+            for (Document document : cursor) {
+                names.add(document.get("name", String.class));
+            }
+            assertEquals(Arrays.asList("a", "b"), names);
+            assertEquals(2, fullScan.size());
+
+            assertEquals(3, collection.find(where("group").eq(1)).size());
+            db.close();
+        } finally {
+            deleteDb(fileName);
+        }
+    }
+
+    @Test
+    public void testSnapshotsReleasedOnClose() {
+        String fileName = getRandomTempDbFile();
+        try {
+            Nitrite db = createDb(fileName);
+            NitriteCollection collection = db.getCollection("test");
+            collection.insert(createDocument("name", "a"));
+
+            RocksDBStore store = (RocksDBStore) db.getStore();
+            StoreSnapshot snapshot = store.openSnapshot();
+            DocumentCursor cursor = collection.find();
+            assertEquals(2, store.getOpenSnapshotCount());
+
+            snapshot.close();
+            assertEquals(1, store.getOpenSnapshotCount());
+
+            assertEquals(1, cursor.size());
+            db.close();
+            assertEquals(0, store.getOpenSnapshotCount());
+        } finally {
+            deleteDb(fileName);
+        }
+    }
+
+    @Test
+    public void testSnapshotReleasedWhenCursorExhausted() {
+        String fileName = getRandomTempDbFile();
+        try {
+            Nitrite db = createDb(fileName);
+            NitriteCollection collection = db.getCollection("test");
+            collection.insert(createDocument("name", "a"));
+            collection.insert(createDocument("name", "b"));
+
+            RocksDBStore store = (RocksDBStore) db.getStore();
+            DocumentCursor cursor = collection.find();
+            assertEquals(1, store.getOpenSnapshotCount());
+            Iterator<Document> first = cursor.iterator();
+            Iterator<Document> second = cursor.iterator();
+            first.next();
+            first.next();
+            assertFalse(first.hasNext());
+            assertEquals(1, store.getOpenSnapshotCount());
+
+            collection.insert(createDocument("name", "c"));
+            second.next();
+            second.next();
+            assertFalse(second.hasNext());
+            assertEquals(0, store.getOpenSnapshotCount());
+
+            // iterated again after the release, it reads the latest state
+            assertEquals(3, cursor.size());
+            assertEquals(3, collection.find().stream().count());
+            assertEquals(0, store.getOpenSnapshotCount());
+
+            try (DocumentCursor partial = collection.find()) {
+                assertNotNull(partial.firstOrNull());
+                assertEquals(1, store.getOpenSnapshotCount());
+            }
+            assertEquals(0, store.getOpenSnapshotCount());
+            db.close();
+        } finally {
+            deleteDb(fileName);
+        }
+    }
+
+    @Test
+    public void testParallelScanClosedEarly() {
+        String fileName = getRandomTempDbFile();
+        try {
+            Nitrite db = createDb(fileName);
+            NitriteCollection collection = db.getCollection("test");
+            Document[] documents = new Document[20000];
+            for (int i = 0; i < documents.length; i++) {
+                documents[i] = createDocument("n", i);
+            }
+            collection.insert(documents);
+
+            RocksDBStore store = (RocksDBStore) db.getStore();
+            for (int i = 0; i < 20; i++) {
+                // ranges still being scanned must not read freed snapshot options
+                try (DocumentCursor cursor = collection.find(where("n").gte(0), FindOptions.parallelScan(8))) {
+                    assertNotNull(cursor.iterator().next());
+                }
+                assertEquals(0, store.getOpenSnapshotCount());
+            }
+
+            assertEquals(20000, collection.find(where("n").gte(0), FindOptions.parallelScan(8)).size());
+            db.close();
+        } finally {
+            deleteDb(fileName);
+        }
+    }
+
+    @Test
+    public void testScanIteratorOutlivesSnapshot() {
+        String fileName = getRandomTempDbFile();
+        try {
+            Nitrite db = createDb(fileName);
+            NitriteCollection collection = db.getCollection("test");
+            collection.insert(createDocument("name", "a"));
+            collection.insert(createDocument("name", "b"));
+
+            RocksDBStore store = (RocksDBStore) db.getStore();
+            ColumnFamilyHandle columnFamily = store.getReference().getOrCreateColumnFamily("test");
+            RocksDBSnapshot snapshot = (RocksDBSnapshot) store.openSnapshot();
+            ScanIterator scanIterator = new ScanIterator(store.getReference().getRocksDB(),
+                columnFamily, null, snapshot.getHandle());
+            collection.insert(createDocument("name", "c"));
+            snapshot.close();
+
+            // the iterator keeps its view of the snapshot after the release
+            assertTrue(scanIterator.isCancelled());
+            int count = 0;
+            for (scanIterator.raw().seekToFirst(); scanIterator.raw().isValid(); scanIterator.raw().next()) {
+                count++;
+            }
+            assertEquals(2, count);
+            scanIterator.close();
+
+            try {
+                new ScanIterator(store.getReference().getRocksDB(),
+                    columnFamily, null, snapshot.getHandle());
+                fail("a released snapshot must not be pinned again");
+            } catch (NitriteIOException e) {
+                assertTrue(e.getMessage().contains("released"));
+            }
+            db.close();
+        } finally {
+            deleteDb(fileName);
+        }
+    }
+
+    @Test
+    public void testUnreachableSnapshotsReleased() throws InterruptedException {
+        String fileName = getRandomTempDbFile();
+        try {
+            Nitrite db = createDb(fileName);
+            NitriteCollection collection = db.getCollection("test");
+            collection.insert(createDocument("name", "a"));
+
+            RocksDBStore store = (RocksDBStore) db.getStore();
+            for (int i = 0; i < 10; i++) {
+                // abandoned before the end of the cursor
+                assertFalse(collection.find().isEmpty());
+            }
+            assertEquals(10, store.getOpenSnapshotCount());
+
+            for (int i = 0; i < 50 && store.getOpenSnapshotCount() > 0; i++) {
+                System.gc();
+                Thread.sleep(20);
+                store.releaseUnreachableSnapshots();
+            }
+            assertEquals(0, store.getOpenSnapshotCount());
+            db.close();
+        } finally {
+            deleteDb(fileName);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.rocksdb.formatter;
+
+import org.dizitart.no2.collection.Document;
+import org.dizitart.no2.collection.LazyDocument;
+import org.dizitart.no2.collection.NitriteId;
+import org.dizitart.no2.common.codec.DocumentCodec;
+import org.dizitart.no2.common.codec.FieldNameDictionary;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import static org.dizitart.no2.collection.Document.createDocument;
+import static org.junit.Assert.*;
+
+public class DocumentFormatterTest {
+    private KryoObjectFormatter kryoObjectFormatter;
+    private DocumentFormatter documentFormatter;
+
+    @Before
+    public void setUp() {
+        Map<Integer, String> dictionary = new HashMap<>();
+        kryoObjectFormatter = new KryoObjectFormatter();
+        documentFormatter = new DocumentFormatter(kryoObjectFormatter,
+            new DocumentCodec(new FieldNameDictionary(dictionary, dictionary::put)));
+    }
+
+    @Test
+    public void testEncodeDocument() {
+        Document document = createDocument("name", "John").put("age", 30);
+        document.getId();
+
+        byte[] bytes = documentFormatter.encode(document);
+        assertEquals(0, bytes[0]);
+        assertTrue(bytes.length < kryoObjectFormatter.encode(document).length);
+
+        Document decoded = documentFormatter.decode(bytes, Document.class);
+        assertTrue(decoded instanceof LazyDocument);
+        assertEquals(document, decoded);
+    }
+
+    @Test
+    public void testDecodeKryoDocument() {
+        Document document = createDocument("name", "Jane");
+        byte[] bytes = kryoObjectFormatter.encode(document);
+        assertEquals(document, documentFormatter.decode(bytes, Document.class));
+    }
+
+    @Test
+    public void testEncodeUnsupportedValue() {
+        // serializable, but holds a value which is not
+        Document document = createDocument("value", new Holder(new Opaque("data")));
+
+        byte[] bytes = documentFormatter.encode(document);
+        assertNotEquals(0, bytes[0]);
+        assertEquals(document, documentFormatter.decode(bytes, Document.class));
+    }
+
+    @Test
+    public void testDelegate() {
+        NitriteId id = NitriteId.newId();
+        assertArrayEquals(kryoObjectFormatter.encodeKey(id), documentFormatter.encodeKey(id));
+        assertEquals(id, documentFormatter.decodeKey(documentFormatter.encodeKey(id), NitriteId.class));
+        assertEquals("text", documentFormatter.decode(documentFormatter.encode("text"), String.class));
+        assertNull(documentFormatter.decode(documentFormatter.encode(null), Document.class));
+    }
+
+    private static class Holder implements Serializable {
+        private Opaque opaque;
+
+        Holder() {
+        }
+
+        Holder(Opaque opaque) {
+            this.opaque = opaque;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Holder && Objects.equals(opaque, ((Holder) obj).opaque);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(opaque);
+        }
+    }
+
+    private static class Opaque {
+        private String data;
+
+        Opaque() {
+        }
+
+        Opaque(String data) {
+            this.data = data;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Opaque && Objects.equals(data, ((Opaque) obj).data);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(data);
+        }
+    }
+}
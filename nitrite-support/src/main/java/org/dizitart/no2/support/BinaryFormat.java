@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2017-2020. Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dizitart.no2.support;
+
+/**
+ * Constants of the binary dump format.
+ * <p>
+ * A dump starts with {@link #MAGIC} and {@link #VERSION}, followed by one
+ * section per collection and a {@link #SECTION_END} byte. A section starts
+ * with its kind and name, the index descriptors and then the documents in
+ * chunks. Each chunk lists the field names it introduces, followed by the
+ * documents encoded with a {@link org.dizitart.no2.common.codec.DocumentCodec}.
+ * A chunk of zero documents ends a section.
+ *
+ * @author Anindya Chatterjee
+ * @since 4.0
+ */
+class BinaryFormat {
+    static final int MAGIC = 0x4e4f3242;
+    static final int VERSION = 1;
+
+    static final byte SECTION_END = 0;
+    static final byte SECTION_COLLECTION = 1;
+    static final byte SECTION_REPOSITORY = 2;
+    static final byte SECTION_KEYED_REPOSITORY = 3;
+
+    static final int CHUNK_DOCUMENTS = 1000;
+    static final int CHUNK_BYTES = 1024 * 1024;
+
+    private BinaryFormat() {
+    }
+}
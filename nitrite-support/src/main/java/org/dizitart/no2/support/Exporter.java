@@ -128,6 +128,49 @@ public class Exporter {
         }
     }
 
+    /**
+     * Exports data to a {@link File} in the compact binary dump format,
+     * which can be restored via {@link Importer#importBinaryFrom(File)}.
+     *
+     * @param file the file
+     * @throws NitriteIOException if there is any low-level I/O error.
+     */
+    public void exportBinaryTo(File file) {
+        try {
+            if (file.isDirectory()) {
+                throw new IOException(file.getPath() + " is not a file");
+            }
+
+            File parent = file.getParentFile();
+            // if parent dir does not exists, try to create it
+            if (parent != null && !parent.exists() && !parent.mkdirs()) {
+                throw new IOException("Failed to create parent directory " + parent.getPath());
+            }
+            try (FileOutputStream outputStream = new FileOutputStream(file)) {
+                exportBinaryTo(outputStream);
+            }
+        } catch (IOException ioe) {
+            throw new NitriteIOException("I/O error while writing content to file " + file, ioe);
+        }
+    }
+
+    /**
+     * Exports data to an {@link OutputStream} in the compact binary dump format.
+     * The stream is not closed.
+     *
+     * @param stream the stream
+     * @throws NitriteIOException if there is any error while writing the data.
+     */
+    public void exportBinaryTo(OutputStream stream) {
+        NitriteBinaryExporter binaryExporter = new NitriteBinaryExporter(db, options);
+        try {
+            DataOutputStream output = new DataOutputStream(new BufferedOutputStream(stream));
+            binaryExporter.exportData(output);
+        } catch (IOException | ClassNotFoundException e) {
+            throw new NitriteIOException("error while exporting data", e);
+        }
+    }
+
     /**
      * Exports data to an {@link OutputStream}.
      *
@@ -21,6 +21,7 @@ import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.dizitart.no2.Nitrite;
 import org.dizitart.no2.exceptions.NitriteIOException;
+import org.dizitart.no2.exceptions.ValidationException;
 
 import java.io.*;
 
@@ -41,6 +42,7 @@ import static org.dizitart.no2.support.Exporter.createObjectMapper;
 public class Importer {
     private Nitrite db;
     private JsonFactory jsonFactory;
+    private int parallelism = Runtime.getRuntime().availableProcessors();
 
     private Importer() {
     }
@@ -62,6 +64,23 @@ public class Importer {
         return importer;
     }
 
+    /**
+     * Sets the number of threads which restore a binary dump.
+     * <p>
+     * [icon="{@docRoot}/note.png"]
+     * NOTE: Default value is the number of available processors.
+     *
+     * @param parallelism the number of threads
+     * @return the importer
+     */
+    public Importer withParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new ValidationException("parallelism must be greater than 0");
+        }
+        this.parallelism = parallelism;
+        return this;
+    }
+
     /**
      * Imports data from a file path.
      *
@@ -85,6 +104,38 @@ public class Importer {
         }
     }
 
+    /**
+     * Imports data from a {@link File} in the binary dump format,
+     * written by {@link Exporter#exportBinaryTo(File)}.
+     *
+     * @param file the file
+     * @throws NitriteIOException if there is any low-level I/O error.
+     */
+    public void importBinaryFrom(File file) {
+        try (FileInputStream stream = new FileInputStream(file)) {
+            importBinaryFrom(stream);
+        } catch (IOException ioe) {
+            throw new NitriteIOException("I/O error while reading content from file " + file, ioe);
+        }
+    }
+
+    /**
+     * Imports data from an {@link InputStream} in the binary dump format.
+     * The stream is not closed.
+     *
+     * @param stream the stream
+     * @throws NitriteIOException if there is any error while reading the data.
+     */
+    public void importBinaryFrom(InputStream stream) {
+        NitriteBinaryImporter binaryImporter = new NitriteBinaryImporter(db, parallelism);
+        try {
+            DataInputStream input = new DataInputStream(new BufferedInputStream(stream));
+            binaryImporter.importData(input);
+        } catch (IOException | ClassNotFoundException e) {
+            throw new NitriteIOException("error while importing data", e);
+        }
+    }
+
     /**
      * Imports data from an {@link InputStream}.
      *
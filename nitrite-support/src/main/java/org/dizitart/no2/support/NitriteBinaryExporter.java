@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2017-2020. Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dizitart.no2.support;
+
+import org.dizitart.no2.Nitrite;
+import org.dizitart.no2.collection.Document;
+import org.dizitart.no2.collection.NitriteCollection;
+import org.dizitart.no2.common.PersistentCollection;
+import org.dizitart.no2.common.codec.DocumentCodec;
+import org.dizitart.no2.common.codec.FieldNameDictionary;
+import org.dizitart.no2.index.IndexDescriptor;
+import org.dizitart.no2.repository.ObjectRepository;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.*;
+
+import static org.dizitart.no2.common.Constants.KEY_OBJ_SEPARATOR;
+import static org.dizitart.no2.common.util.ObjectUtils.getKeyName;
+import static org.dizitart.no2.common.util.ObjectUtils.getKeyedRepositoryType;
+import static org.dizitart.no2.support.BinaryFormat.*;
+
+/**
+ * Writes the contents of a database in the binary dump format. The
+ * documents are written in chunks while iterating the collections, so
+ * memory usage does not grow with the size of the database.
+ *
+ * @author Anindya Chatterjee
+ * @since 4.0
+ */
+class NitriteBinaryExporter {
+    private final Nitrite db;
+    private final ExportOptions options;
+
+    NitriteBinaryExporter(Nitrite db, ExportOptions options) {
+        this.db = db;
+        this.options = options;
+    }
+
+    void exportData(DataOutputStream output) throws IOException, ClassNotFoundException {
+        output.writeInt(MAGIC);
+        output.writeInt(VERSION);
+
+        List<PersistentCollection<?>> collections = options.getCollections();
+        if (collections.isEmpty()) {
+            for (String collectionName : db.listCollectionNames()) {
+                writeSection(output, db.getCollection(collectionName));
+            }
+            for (String typeName : db.listRepositories()) {
+                writeSection(output, db.getRepository(Class.forName(typeName)));
+            }
+            for (Map.Entry<String, Set<String>> entry : db.listKeyedRepository().entrySet()) {
+                for (String typeName : entry.getValue()) {
+                    writeSection(output, db.getRepository(Class.forName(typeName), entry.getKey()));
+                }
+            }
+        } else {
+            for (PersistentCollection<?> collection : collections) {
+                writeSection(output, collection);
+            }
+        }
+
+        output.writeByte(SECTION_END);
+        output.flush();
+    }
+
+    private void writeSection(DataOutputStream output, PersistentCollection<?> collection) throws IOException {
+        NitriteCollection documentCollection;
+        if (collection instanceof NitriteCollection) {
+            documentCollection = (NitriteCollection) collection;
+            output.writeByte(SECTION_COLLECTION);
+            output.writeUTF(documentCollection.getName());
+        } else if (collection instanceof ObjectRepository) {
+            documentCollection = ((ObjectRepository<?>) collection).getDocumentCollection();
+            String name = documentCollection.getName();
+            if (name.contains(KEY_OBJ_SEPARATOR)) {
+                output.writeByte(SECTION_KEYED_REPOSITORY);
+                output.writeUTF(getKeyName(name));
+                output.writeUTF(getKeyedRepositoryType(name));
+            } else {
+                output.writeByte(SECTION_REPOSITORY);
+                output.writeUTF(name);
+            }
+        } else {
+            return;
+        }
+
+        writeIndices(output, options.isExportIndices()
+            ? collection.listIndices() : Collections.emptyList());
+        if (options.isExportData()) {
+            writeDocuments(output, documentCollection);
+        }
+        // end of section
+        output.writeInt(0);
+    }
+
+    private void writeIndices(DataOutputStream output, Collection<IndexDescriptor> indices) throws IOException {
+        output.writeInt(indices.size());
+        for (IndexDescriptor index : indices) {
+            List<String> fieldNames = index.getIndexFields().getFieldNames();
+            output.writeUTF(index.getIndexType());
+            output.writeInt(fieldNames.size());
+            for (String fieldName : fieldNames) {
+                output.writeUTF(fieldName);
+            }
+        }
+    }
+
+    private void writeDocuments(DataOutputStream output, NitriteCollection collection) throws IOException {
+        // field names are assigned per section and written with the first
+        // chunk which uses them
+        List<Map.Entry<Integer, String>> newFields = new ArrayList<>();
+        DocumentCodec codec = new DocumentCodec(new FieldNameDictionary(new HashMap<>(),
+            (id, name) -> newFields.add(new AbstractMap.SimpleImmutableEntry<>(id, name))));
+
+        ByteArrayOutputStream chunk = new ByteArrayOutputStream();
+        int count = 0;
+        for (Document document : collection.find()) {
+            chunk.write(codec.encode(document));
+            count++;
+
+            if (count == CHUNK_DOCUMENTS || chunk.size() >= CHUNK_BYTES) {
+                writeChunk(output, count, newFields, chunk);
+                count = 0;
+            }
+        }
+
+        if (count > 0) {
+            writeChunk(output, count, newFields, chunk);
+        }
+    }
+
+    private void writeChunk(DataOutputStream output, int count, List<Map.Entry<Integer, String>> newFields,
+                            ByteArrayOutputStream chunk) throws IOException {
+        output.writeInt(count);
+        output.writeInt(newFields.size());
+        for (Map.Entry<Integer, String> field : newFields) {
+            output.writeInt(field.getKey());
+            output.writeUTF(field.getValue());
+        }
+        output.writeInt(chunk.size());
+        chunk.writeTo(output);
+
+        newFields.clear();
+        chunk.reset();
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2017-2020. Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dizitart.no2.support;
+
+import org.dizitart.no2.Nitrite;
+import org.dizitart.no2.collection.Document;
+import org.dizitart.no2.collection.NitriteCollection;
+import org.dizitart.no2.common.Fields;
+import org.dizitart.no2.common.codec.DocumentCodec;
+import org.dizitart.no2.common.codec.FieldNameDictionary;
+import org.dizitart.no2.common.concurrent.ThreadPoolManager;
+import org.dizitart.no2.exceptions.NitriteException;
+import org.dizitart.no2.exceptions.NitriteIOException;
+import org.dizitart.no2.index.IndexDescriptor;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.dizitart.no2.index.IndexOptions.indexOptions;
+import static org.dizitart.no2.support.BinaryFormat.*;
+
+/**
+ * Restores a database from the binary dump format.
+ * <p>
+ * The indices of a collection are dropped before its documents are
+ * loaded and are built again once all of its documents are in, so that
+ * an insert does not have to update any index. The document chunks are
+ * decoded and inserted on a thread pool, so different collections are
+ * restored concurrently while the dump is still being read. At most two
+ * chunks per thread are held in memory at any time.
+ *
+ * @author Anindya Chatterjee
+ * @since 4.0
+ */
+class NitriteBinaryImporter {
+    private static final String IMPORT_THREAD_NAME = "Import.no2";
+
+    private final Nitrite db;
+    private final int parallelism;
+    private final AtomicReference<Throwable> failure;
+
+    NitriteBinaryImporter(Nitrite db, int parallelism) {
+        this.db = db;
+        this.parallelism = parallelism;
+        this.failure = new AtomicReference<>();
+    }
+
+    void importData(DataInputStream input) throws IOException, ClassNotFoundException {
+        if (input.readInt() != MAGIC) {
+            throw new NitriteIOException("not a nitrite binary dump");
+        }
+        int version = input.readInt();
+        if (version != VERSION) {
+            throw new NitriteIOException("unsupported binary dump version " + version);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism,
+            ThreadPoolManager.threadFactory(IMPORT_THREAD_NAME));
+        Semaphore chunkPermits = new Semaphore(parallelism * 2);
+        List<CompletableFuture<Void>> restores = new ArrayList<>();
+        try {
+            byte section;
+            while ((section = input.readByte()) != SECTION_END && failure.get() == null) {
+                NitriteCollection collection = openCollection(section, input);
+                restores.add(restoreSection(collection, input, executor, chunkPermits));
+            }
+
+            for (CompletableFuture<Void> restore : restores) {
+                restore.exceptionally(error -> null).join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new NitriteIOException("import interrupted", e);
+        } finally {
+            executor.shutdown();
+        }
+
+        Throwable error = failure.get();
+        if (error instanceof NitriteException) {
+            throw (NitriteException) error;
+        } else if (error != null) {
+            throw new NitriteIOException("error while importing data", error);
+        }
+    }
+
+    private NitriteCollection openCollection(byte section, DataInputStream input)
+        throws IOException, ClassNotFoundException {
+        switch (section) {
+            case SECTION_COLLECTION:
+                return db.getCollection(input.readUTF());
+            case SECTION_REPOSITORY:
+                return db.getRepository(Class.forName(input.readUTF())).getDocumentCollection();
+            case SECTION_KEYED_REPOSITORY:
+                String key = input.readUTF();
+                return db.getRepository(Class.forName(input.readUTF()), key).getDocumentCollection();
+            default:
+                throw new NitriteIOException("invalid section " + section + " in binary dump");
+        }
+    }
+
+    private CompletableFuture<Void> restoreSection(NitriteCollection collection, DataInputStream input,
+                                                   ExecutorService executor, Semaphore chunkPermits)
+        throws IOException, InterruptedException {
+        // rebuild the existing indices as well as the exported ones
+        Map<Fields, String> indices = new LinkedHashMap<>();
+        for (IndexDescriptor index : collection.listIndices()) {
+            indices.put(index.getIndexFields(), index.getIndexType());
+        }
+        int indexCount = input.readInt();
+        for (int i = 0; i < indexCount; i++) {
+            String indexType = input.readUTF();
+            String[] fieldNames = new String[input.readInt()];
+            for (int j = 0; j < fieldNames.length; j++) {
+                fieldNames[j] = input.readUTF();
+            }
+            indices.put(Fields.withNames(fieldNames), indexType);
+        }
+        collection.dropAllIndices();
+
+        Map<Integer, String> fieldNames = new HashMap<>();
+        DocumentCodec codec = null;
+        List<CompletableFuture<Void>> chunks = new ArrayList<>();
+
+        int count;
+        while ((count = input.readInt()) > 0) {
+            int newFields = input.readInt();
+            for (int i = 0; i < newFields; i++) {
+                fieldNames.put(input.readInt(), input.readUTF());
+            }
+            if (codec == null || newFields > 0) {
+                codec = new DocumentCodec(new FieldNameDictionary(fieldNames, (id, name) -> {
+                    throw new NitriteIOException("unknown field id " + id + " in binary dump");
+                }));
+            }
+
+            byte[] chunk = new byte[input.readInt()];
+            input.readFully(chunk);
+
+            if (failure.get() != null) {
+                // keep reading the section, but do not restore it anymore
+                continue;
+            }
+
+            chunkPermits.acquire();
+            DocumentCodec chunkCodec = codec;
+            int chunkSize = count;
+            chunks.add(CompletableFuture.runAsync(() -> {
+                try {
+                    insertChunk(collection, chunkCodec, chunk, chunkSize);
+                } finally {
+                    chunkPermits.release();
+                }
+            }, executor).whenComplete(this::recordFailure));
+        }
+
+        return CompletableFuture.allOf(chunks.toArray(new CompletableFuture<?>[0]))
+            .thenCompose(loaded -> {
+                List<CompletableFuture<Void>> builds = new ArrayList<>();
+                for (Map.Entry<Fields, String> index : indices.entrySet()) {
+                    builds.add(CompletableFuture.runAsync(() -> buildIndex(collection, index.getKey(),
+                        index.getValue()), executor).whenComplete(this::recordFailure));
+                }
+                return CompletableFuture.allOf(builds.toArray(new CompletableFuture<?>[0]));
+            });
+    }
+
+    private void insertChunk(NitriteCollection collection, DocumentCodec codec, byte[] chunk, int count) {
+        ByteBuffer buffer = ByteBuffer.wrap(chunk);
+        Document[] documents = new Document[count];
+        for (int i = 0; i < count; i++) {
+            documents[i] = codec.decode(buffer);
+        }
+        collection.insert(documents);
+    }
+
+    private void buildIndex(NitriteCollection collection, Fields fields, String indexType) {
+        String[] fieldNames = fields.getFieldNames().toArray(new String[0]);
+        if (!collection.hasIndex(fieldNames)) {
+            collection.createIndex(indexOptions(indexType), fieldNames);
+        }
+    }
+
+    private void recordFailure(Void result, Throwable error) {
+        if (error != null) {
+            failure.compareAndSet(null, error instanceof CompletionException ? error.getCause() : error);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2017-2020. Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dizitart.no2.support;
+
+import org.dizitart.no2.collection.Document;
+import org.dizitart.no2.collection.NitriteCollection;
+import org.dizitart.no2.exceptions.NitriteIOException;
+import org.dizitart.no2.index.IndexType;
+import org.dizitart.no2.repository.ObjectRepository;
+import org.junit.Test;
+
+import java.io.File;
+
+import static org.dizitart.no2.collection.Document.createDocument;
+import static org.dizitart.no2.filters.FluentFilter.where;
+import static org.dizitart.no2.index.IndexOptions.indexOptions;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Anindya Chatterjee.
+ */
+public class BinaryExporterImporterTest extends BaseExternalTest {
+
+    @Test
+    public void testImportExport() {
+        schemaFile = System.getProperty("java.io.tmpdir") + File.separator
+            + "nitrite" + File.separator + "schema.bin";
+
+        for (int i = 0; i < 5; i++) {
+            sourceEmpRepo.insert(DataGenerator.generateEmployee());
+            sourceKeyedEmpRepo.insert(DataGenerator.generateEmployee());
+            sourceCompRepo.insert(DataGenerator.generateCompanyRecord());
+        }
+
+        // enough documents for several chunks, with new fields in later chunks
+        sourceFirstColl.createIndex(indexOptions(IndexType.NON_UNIQUE), "group");
+        for (int i = 0; i < 2500; i++) {
+            Document document = createDocument("number", i).put("group", i % 10);
+            if (i >= 1500) {
+                document.put("late-field", "value" + i);
+            }
+            sourceFirstColl.insert(document);
+        }
+        sourceSecondColl.insert(createDocument("second-field", 42L));
+
+        Exporter.of(sourceDb).exportBinaryTo(new File(schemaFile));
+        Importer.of(destDb).withParallelism(3).importBinaryFrom(new File(schemaFile));
+
+        NitriteCollection destFirstColl = destDb.getCollection("first");
+        NitriteCollection destSecondColl = destDb.getCollection("second");
+        ObjectRepository<Employee> destEmpRepo = destDb.getRepository(Employee.class);
+        ObjectRepository<Employee> destKeyedEmpRepo = destDb.getRepository(Employee.class, "key");
+        ObjectRepository<Company> destCompRepo = destDb.getRepository(Company.class);
+
+        assertEquals(filter(sourceFirstColl.find().toList()),
+            filter(destFirstColl.find().toList()));
+        assertEquals(filter(sourceSecondColl.find().toList()),
+            filter(destSecondColl.find().toList()));
+
+        assertEquals(sourceEmpRepo.find().toList(),
+            destEmpRepo.find().toList());
+        assertEquals(sourceKeyedEmpRepo.find().toList(),
+            destKeyedEmpRepo.find().toList());
+        assertEquals(sourceCompRepo.find().toList(),
+            destCompRepo.find().toList());
+
+        assertEquals(sourceEmpRepo.listIndices(), destEmpRepo.listIndices());
+        assertEquals(sourceKeyedEmpRepo.listIndices(), destKeyedEmpRepo.listIndices());
+        assertEquals(sourceCompRepo.listIndices(), destCompRepo.listIndices());
+        assertEquals(sourceFirstColl.listIndices(), destFirstColl.listIndices());
+        assertEquals(sourceSecondColl.listIndices(), destSecondColl.listIndices());
+
+        // the index has been built after the documents were loaded
+        assertEquals(250, destFirstColl.find(where("group").eq(3)).size());
+        assertEquals(1000, destFirstColl.find(where("late-field").notEq(null)).size());
+    }
+
+    @Test(expected = NitriteIOException.class)
+    public void testImportInvalidDump() {
+        // a json dump is not a binary dump
+        schemaFile = System.getProperty("java.io.tmpdir") + File.separator
+            + "nitrite" + File.separator + "schema.json";
+        Exporter.of(sourceDb).exportTo(schemaFile);
+
+        Importer.of(destDb).importBinaryFrom(new File(schemaFile));
+    }
+}
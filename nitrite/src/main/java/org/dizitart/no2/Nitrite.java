@@ -27,6 +27,7 @@ import org.dizitart.no2.transaction.Session;
 
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 import static org.dizitart.no2.common.Constants.RESERVED_NAMES;
 import static org.dizitart.no2.common.util.ValidationUtils.notEmpty;
@@ -60,6 +61,17 @@ public interface Nitrite extends AutoCloseable {
      */
     void commit();
 
+    /**
+     * Commits the unsaved changes asynchronously. The returned future
+     * completes when the changes are durable.
+     * <p>
+     * If the store supports group commit, concurrent callers share
+     * a single write to disk.
+     *
+     * @return the future which completes after the commit
+     */
+    CompletableFuture<Void> commitAsync();
+
     /**
      * Opens a named collection from the store. If the collections does not
      * exist it will be created automatically and returned. If a collection
@@ -18,7 +18,9 @@ package org.dizitart.no2;
 
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import org.dizitart.no2.collection.IdGenerator;
 import org.dizitart.no2.common.concurrent.ThreadPoolManager;
+import org.dizitart.no2.common.event.BackpressurePolicy;
 import org.dizitart.no2.exceptions.NitriteSecurityException;
 import org.dizitart.no2.migration.Migration;
 import org.dizitart.no2.common.module.NitriteModule;
@@ -54,6 +56,20 @@ public class NitriteBuilder {
         return this;
     }
 
+    /**
+     * Sets the {@link IdGenerator} of the auto-generated ids. Default value
+     * is a {@link org.dizitart.no2.collection.SnowflakeIdGenerator}. A
+     * {@link org.dizitart.no2.collection.ConcurrentSnowflakeIdGenerator}
+     * scales better when many threads insert documents at once.
+     *
+     * @param generator the generator
+     * @return the {@link NitriteBuilder} instance.
+     */
+    public NitriteBuilder idGenerator(IdGenerator generator) {
+        this.nitriteConfig.idGenerator(generator);
+        return this;
+    }
+
     /**
      * Loads {@link NitriteModule} instance.
      *
@@ -89,6 +105,43 @@ public class NitriteBuilder {
         return this;
     }
 
+    /**
+     * Sets the maximum number of pending collection events per listener.
+     * Default value is 16384.
+     *
+     * @param capacity the capacity
+     * @return the nitrite builder
+     */
+    public NitriteBuilder eventQueueCapacity(int capacity) {
+        this.nitriteConfig.eventQueueCapacity(capacity);
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of collection events delivered to a
+     * listener in one go. Default value is 64.
+     *
+     * @param batchSize the batch size
+     * @return the nitrite builder
+     */
+    public NitriteBuilder eventBatchSize(int batchSize) {
+        this.nitriteConfig.eventBatchSize(batchSize);
+        return this;
+    }
+
+    /**
+     * Sets the {@link BackpressurePolicy} to apply when the event queue
+     * of a slow collection event listener is full. Default value is
+     * {@link BackpressurePolicy#Block}.
+     *
+     * @param policy the policy
+     * @return the nitrite builder
+     */
+    public NitriteBuilder eventBackpressure(BackpressurePolicy policy) {
+        this.nitriteConfig.eventBackpressure(policy);
+        return this;
+    }
+
     /**
      * Opens or creates a new nitrite database backed by mvstore. If it is an in-memory store,
      * then it will create a new one. If it is a file based store, and if the file does not
@@ -20,9 +20,13 @@ import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
+import org.dizitart.no2.collection.IdGenerator;
+import org.dizitart.no2.collection.SnowflakeIdGenerator;
 import org.dizitart.no2.common.Constants;
+import org.dizitart.no2.common.event.BackpressurePolicy;
 import org.dizitart.no2.exceptions.IndexingException;
 import org.dizitart.no2.exceptions.InvalidOperationException;
+import org.dizitart.no2.exceptions.ValidationException;
 import org.dizitart.no2.index.NitriteIndexer;
 import org.dizitart.no2.common.mapper.NitriteMapper;
 import org.dizitart.no2.migration.Migration;
@@ -35,6 +39,8 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.TreeMap;
 
+import static org.dizitart.no2.common.util.ValidationUtils.notNull;
+
 /**
  * A class to configure {@link Nitrite} database.
  *
@@ -58,12 +64,24 @@ public class NitriteConfig implements AutoCloseable {
     @Getter
     private static String fieldSeparator = ".";
 
+    @Getter
+    private static IdGenerator idGenerator = new SnowflakeIdGenerator();
+
     @Getter
     private final Map<Integer, TreeMap<Integer, Migration>> migrations;
 
     @Getter
     private Integer schemaVersion = Constants.INITIAL_SCHEMA_VERSION;
 
+    @Getter
+    private int eventQueueCapacity = Constants.DEFAULT_EVENT_QUEUE_CAPACITY;
+
+    @Getter
+    private int eventBatchSize = Constants.DEFAULT_EVENT_BATCH_SIZE;
+
+    @Getter
+    private BackpressurePolicy eventBackpressure = BackpressurePolicy.Block;
+
     /**
      * Instantiates a new {@link NitriteConfig}.
      */
@@ -86,6 +104,26 @@ public class NitriteConfig implements AutoCloseable {
         NitriteConfig.fieldSeparator = separator;
     }
 
+    /**
+     * Sets the {@link IdGenerator} of the auto-generated ids. Default
+     * value is a {@link SnowflakeIdGenerator}.
+     * <p>
+     * NOTE: Like the field separator, the generator is shared by all
+     * databases in the JVM.
+     *
+     * @param generator the generator
+     * @return the nitrite config
+     */
+    public NitriteConfig idGenerator(IdGenerator generator) {
+        if (configured) {
+            throw new InvalidOperationException("cannot change the id generator after database" +
+                " initialization");
+        }
+        notNull(generator, "id generator cannot be null");
+        NitriteConfig.idGenerator = generator;
+        return this;
+    }
+
     /**
      * Loads {@link NitritePlugin} instances defined in the {@link NitriteModule}.
      *
@@ -146,6 +184,60 @@ public class NitriteConfig implements AutoCloseable {
         return this;
     }
 
+    /**
+     * Sets the maximum number of pending collection events per listener.
+     *
+     * @param capacity the capacity
+     * @return the nitrite config
+     */
+    public NitriteConfig eventQueueCapacity(int capacity) {
+        if (configured) {
+            throw new InvalidOperationException("cannot change event queue capacity after database" +
+                " initialization");
+        }
+        if (capacity < 1) {
+            throw new ValidationException("event queue capacity must be greater than 0");
+        }
+        this.eventQueueCapacity = capacity;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of collection events delivered to a
+     * listener in one go before the thread moves on to other listeners.
+     *
+     * @param batchSize the batch size
+     * @return the nitrite config
+     */
+    public NitriteConfig eventBatchSize(int batchSize) {
+        if (configured) {
+            throw new InvalidOperationException("cannot change event batch size after database" +
+                " initialization");
+        }
+        if (batchSize < 1) {
+            throw new ValidationException("event batch size must be greater than 0");
+        }
+        this.eventBatchSize = batchSize;
+        return this;
+    }
+
+    /**
+     * Sets the {@link BackpressurePolicy} to apply when the event
+     * queue of a slow collection event listener is full.
+     *
+     * @param policy the policy
+     * @return the nitrite config
+     */
+    public NitriteConfig eventBackpressure(BackpressurePolicy policy) {
+        if (configured) {
+            throw new InvalidOperationException("cannot change event backpressure policy after database" +
+                " initialization");
+        }
+        notNull(policy, "policy cannot be null");
+        this.eventBackpressure = policy;
+        return this;
+    }
+
     /**
      * Auto configures nitrite database with default configuration values and
      * default built-in plugins.
@@ -36,6 +36,7 @@ import org.dizitart.no2.transaction.Session;
 import java.io.File;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 import static org.dizitart.no2.common.Constants.NITRITE_VERSION;
 import static org.dizitart.no2.common.Constants.STORE_INFO;
@@ -190,6 +191,15 @@ class NitriteDatabase implements Nitrite {
         }
     }
 
+    @Override
+    public CompletableFuture<Void> commitAsync() {
+        checkOpened();
+        if (store != null) {
+            return store.commitAsync();
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
     @Override
     public StoreMetaData getDatabaseMetaData() {
         Document document = storeInfo.get(STORE_INFO);
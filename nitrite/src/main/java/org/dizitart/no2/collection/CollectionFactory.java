@@ -24,9 +24,9 @@ import org.dizitart.no2.store.NitriteMap;
 import org.dizitart.no2.store.NitriteStore;
 import org.dizitart.no2.store.StoreCatalog;
 
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.locks.Lock;
 
 import static org.dizitart.no2.common.util.ValidationUtils.notEmpty;
@@ -34,11 +34,17 @@ import static org.dizitart.no2.common.util.ValidationUtils.notNull;
 
 /**
  * A factory class to create {@link NitriteCollection}.
+ * <p>
+ * An already opened collection is served from a concurrent registry
+ * without taking any lock. A lock, specific to the collection name, is
+ * only taken when the collection is opened for the first time or
+ * reopened after it has been closed or dropped.
+ * </p>
  * <p>NOTE: Internal API</p>
  * @author Anindya Chatterjee
  */
 public class CollectionFactory {
-    private final Map<String, NitriteCollection> collectionMap;
+    private final ConcurrentMap<String, NitriteCollection> collectionMap;
     private final LockService lockService;
 
     /**
@@ -47,7 +53,7 @@ public class CollectionFactory {
      * @param lockService the lock service
      */
     public CollectionFactory(LockService lockService) {
-        this.collectionMap = new HashMap<>();
+        this.collectionMap = new ConcurrentHashMap<>();
         this.lockService = lockService;
     }
 
@@ -63,19 +69,24 @@ public class CollectionFactory {
         notNull(nitriteConfig, "configuration is null while creating collection");
         notEmpty(name, "collection name is null or empty");
 
-        Lock lock = lockService.getWriteLock(this.getClass().getName());
+        NitriteCollection collection = collectionMap.get(name);
+        if (isAlive(collection)) {
+            return collection;
+        }
+
+        Lock lock = lockService.getWriteLock(creationLockName(name));
         try {
             lock.lock();
-            if (collectionMap.containsKey(name)) {
-                NitriteCollection collection = collectionMap.get(name);
-                if (collection.isDropped() || !collection.isOpen()) {
-                    collectionMap.remove(name);
-                    return createCollection(name, nitriteConfig, writeCatalogue);
-                }
-                return collectionMap.get(name);
-            } else {
-                return createCollection(name, nitriteConfig, writeCatalogue);
+            // another thread might have opened it while waiting for the lock
+            collection = collectionMap.get(name);
+            if (isAlive(collection)) {
+                return collection;
             }
+
+            if (collection != null) {
+                collectionMap.remove(name, collection);
+            }
+            return createCollection(name, nitriteConfig, writeCatalogue);
         } finally {
             lock.unlock();
         }
@@ -114,17 +125,29 @@ public class CollectionFactory {
      * Clears the internal registry holding collection information.
      */
     public void clear() {
-        Lock lock = lockService.getWriteLock(this.getClass().getName());
         try {
-            lock.lock();
-            for (NitriteCollection collection : collectionMap.values()) {
-                collection.close();
+            for (String name : collectionMap.keySet()) {
+                Lock lock = lockService.getWriteLock(creationLockName(name));
+                try {
+                    lock.lock();
+                    NitriteCollection collection = collectionMap.remove(name);
+                    if (collection != null) {
+                        collection.close();
+                    }
+                } finally {
+                    lock.unlock();
+                }
             }
-            collectionMap.clear();
         } catch (Exception e) {
             throw new NitriteIOException("failed to close a collection", e);
-        } finally {
-            lock.unlock();
         }
     }
+
+    private boolean isAlive(NitriteCollection collection) {
+        return collection != null && !collection.isDropped() && collection.isOpen();
+    }
+
+    private String creationLockName(String name) {
+        return this.getClass().getName() + "|" + name;
+    }
 }
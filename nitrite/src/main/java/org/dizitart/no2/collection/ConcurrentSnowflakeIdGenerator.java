@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2017-2020. Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dizitart.no2.collection;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A lock-free variant of the {@link SnowflakeIdGenerator}. The ids have
+ * the same layout, but the time stamp and the sequence number are kept
+ * packed in a single word, which is advanced by compare-and-set instead
+ * of a monitor.
+ * <p>
+ * When more than 4096 ids are requested within a millisecond, the
+ * sequence number carries over into the time stamp, so the generator
+ * borrows ids from the next milliseconds instead of waiting for the
+ * clock. For the same reason, it does not wait if the clock moves
+ * backwards. The ids generated by one instance are always increasing.
+ *
+ * @author Anindya Chatterjee
+ * @since 4.0
+ */
+public class ConcurrentSnowflakeIdGenerator extends SnowflakeIdGenerator {
+    private static final long SEQUENCE_MASK = ~(-1L << SEQUENCE_BITS);
+
+    // the time stamp since the epoch followed by the sequence number
+    private final AtomicLong state = new AtomicLong();
+
+    @Override
+    public long getId() {
+        long timestamp = System.currentTimeMillis() - EPOCH;
+        long current;
+        long next;
+        do {
+            current = state.get();
+            if (timestamp > current >>> SEQUENCE_BITS) {
+                next = timestamp << SEQUENCE_BITS;
+            } else {
+                next = current + 1;
+            }
+        } while (!state.compareAndSet(current, next));
+
+        return ((next >>> SEQUENCE_BITS) << (SEQUENCE_BITS + NODE_ID_BITS))
+            | (nodeId << SEQUENCE_BITS)
+            | (next & SEQUENCE_MASK);
+    }
+}
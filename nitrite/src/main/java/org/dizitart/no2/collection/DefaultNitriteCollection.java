@@ -18,15 +18,14 @@ package org.dizitart.no2.collection;
 
 import lombok.Getter;
 import org.dizitart.no2.NitriteConfig;
-import org.dizitart.no2.collection.events.CollectionEventInfo;
+import org.dizitart.no2.collection.events.CollectionEventBus;
 import org.dizitart.no2.collection.events.CollectionEventListener;
 import org.dizitart.no2.collection.meta.Attributes;
 import org.dizitart.no2.collection.operation.CollectionOperations;
 import org.dizitart.no2.common.Fields;
 import org.dizitart.no2.common.WriteResult;
 import org.dizitart.no2.common.concurrent.LockService;
-import org.dizitart.no2.common.event.EventBus;
-import org.dizitart.no2.common.event.NitriteEventBus;
+import org.dizitart.no2.common.event.EventQueueMetrics;
 import org.dizitart.no2.exceptions.IndexingException;
 import org.dizitart.no2.exceptions.InvalidOperationException;
 import org.dizitart.no2.exceptions.NitriteIOException;
@@ -57,12 +56,12 @@ class DefaultNitriteCollection implements NitriteCollection {
 
     protected NitriteMap<NitriteId, Document> nitriteMap;
     protected NitriteConfig nitriteConfig;
-    protected NitriteStore<?> nitriteStore;
+    protected volatile NitriteStore<?> nitriteStore;
 
     private Lock writeLock;
     private Lock readLock;
     private CollectionOperations collectionOperations;
-    private EventBus<CollectionEventInfo<?>, CollectionEventListener> eventBus;
+    private CollectionEventBus eventBus;
 
     @Getter
     private volatile boolean isDropped;
@@ -113,6 +112,7 @@ class DefaultNitriteCollection implements NitriteCollection {
             return collectionOperations.insert(documents);
         } finally {
             writeLock.unlock();
+            awaitEventCapacity();
         }
     }
 
@@ -140,6 +140,7 @@ class DefaultNitriteCollection implements NitriteCollection {
             return collectionOperations.update(filter, update, updateOptions);
         } finally {
             writeLock.unlock();
+            awaitEventCapacity();
         }
     }
 
@@ -153,6 +154,7 @@ class DefaultNitriteCollection implements NitriteCollection {
                 return collectionOperations.remove(document);
             } finally {
                 writeLock.unlock();
+                awaitEventCapacity();
             }
         } else {
             throw new NotIdentifiableException("remove operation failed as no id value found for the document");
@@ -170,6 +172,7 @@ class DefaultNitriteCollection implements NitriteCollection {
             return collectionOperations.remove(filter, justOne);
         } finally {
             writeLock.unlock();
+            awaitEventCapacity();
         }
     }
 
@@ -208,6 +211,7 @@ class DefaultNitriteCollection implements NitriteCollection {
             }
         } finally {
             writeLock.unlock();
+            awaitEventCapacity();
         }
     }
 
@@ -233,6 +237,7 @@ class DefaultNitriteCollection implements NitriteCollection {
                 collectionOperations.rebuildIndex(indexDescriptor);
             } finally {
                 writeLock.unlock();
+                awaitEventCapacity();
             }
         } else {
             throw new IndexingException(Arrays.toString(fields) + " is not indexed");
@@ -338,14 +343,10 @@ class DefaultNitriteCollection implements NitriteCollection {
     }
 
     public boolean isOpen() {
-        try {
-            readLock.lock();
-            return nitriteStore != null && !nitriteStore.isClosed() && !isDropped;
-        } catch (Exception e) {
-            throw new NitriteIOException("failed to close the database", e);
-        } finally {
-            readLock.unlock();
-        }
+        // the state is volatile, so the factories can check it without
+        // waiting behind a long running write on the collection lock
+        NitriteStore<?> store = nitriteStore;
+        return store != null && !store.isClosed() && !isDropped;
     }
 
     public void close() {
@@ -415,6 +416,12 @@ class DefaultNitriteCollection implements NitriteCollection {
         }
     }
 
+    @Override
+    public EventQueueMetrics getEventMetrics() {
+        CollectionEventBus bus = eventBus;
+        return bus == null ? new EventQueueMetrics(0, 0, 0, 0, 0) : bus.getMetrics();
+    }
+
     public Attributes getAttributes() {
         try {
             readLock.lock();
@@ -444,12 +451,21 @@ class DefaultNitriteCollection implements NitriteCollection {
         eventBus = null;
     }
 
+    private void awaitEventCapacity() {
+        CollectionEventBus bus = eventBus;
+        if (bus != null) {
+            // an event posted under the write lock is queued over the capacity
+            // if the listener waits for the lock, the writer is held back here
+            bus.awaitCapacity();
+        }
+    }
+
     private void initialize() {
         this.isDropped = false;
         this.readLock = lockService.getReadLock(collectionName);
         this.writeLock = lockService.getWriteLock(collectionName);
         this.nitriteStore = nitriteConfig.getNitriteStore();
-        this.eventBus = new CollectionEventBus();
+        this.eventBus = new CollectionEventBus(nitriteConfig, lockService.getLock(collectionName));
         this.collectionOperations = new CollectionOperations(collectionName, nitriteMap, nitriteConfig, eventBus);
     }
 
@@ -466,13 +482,4 @@ class DefaultNitriteCollection implements NitriteCollection {
             throw new IndexingException("indexing on value " + indexDescriptor.getIndexFields() + " is currently running");
         }
     }
-
-    private static class CollectionEventBus extends NitriteEventBus<CollectionEventInfo<?>, CollectionEventListener> {
-
-        public void post(CollectionEventInfo<?> collectionEventInfo) {
-            for (final CollectionEventListener listener : getListeners()) {
-                getEventExecutor().submit(() -> listener.onEvent(collectionEventInfo));
-            }
-        }
-    }
 }
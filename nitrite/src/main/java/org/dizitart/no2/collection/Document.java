@@ -16,6 +16,7 @@
 
 package org.dizitart.no2.collection;
 
+import org.dizitart.no2.common.FieldPath;
 import org.dizitart.no2.common.tuples.Pair;
 
 import java.io.Serializable;
@@ -87,6 +88,21 @@ public interface Document extends Iterable<Pair<String, Object>>, Cloneable, Ser
      */
     Object get(String key);
 
+    /**
+     * Returns the value to which the pre-compiled field path is associated with,
+     * or null if this document contains no mapping for the path.
+     * <p>
+     * NOTE: Use this method to access the same embedded field repeatedly
+     * over many documents.
+     * </p>
+     *
+     * @param fieldPath the field path
+     * @return the object
+     */
+    default Object getByPath(FieldPath fieldPath) {
+        return get(fieldPath.getPath());
+    }
+
     /**
      * Returns the value of type {@code <T>} to which the specified
      * key is associated, or null if this document contains no mapping
@@ -44,11 +44,15 @@ import org.dizitart.no2.common.RecordStream;
  *
  * }*
  * </pre>
+ * <p>
+ * A cursor holds on to a consistent view of the store until it has been
+ * iterated to the end. A cursor which is not consumed fully should be
+ * closed, so that the store can release the view early.
  *
  * @author Anindya Chatterjee
  * @since 4.0
  */
-public interface DocumentCursor extends RecordStream<Document> {
+public interface DocumentCursor extends RecordStream<Document>, AutoCloseable {
     /**
      * Gets a filter plan for the query.
      *
@@ -77,4 +81,11 @@ public interface DocumentCursor extends RecordStream<Document> {
      * @since 2.1.0
      */
     RecordStream<Document> join(DocumentCursor foreignCursor, Lookup lookup);
+
+    /**
+     * Releases the view of the store held by the cursor. The cursor can
+     * still be iterated afterwards, but it reads the latest state of the store.
+     */
+    @Override
+    void close();
 }
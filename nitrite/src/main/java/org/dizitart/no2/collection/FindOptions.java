@@ -23,6 +23,7 @@ import lombok.Setter;
 import lombok.experimental.Accessors;
 import org.dizitart.no2.common.SortOrder;
 import org.dizitart.no2.common.SortableFields;
+import org.dizitart.no2.exceptions.ValidationException;
 
 import java.text.Collator;
 
@@ -39,6 +40,7 @@ public class FindOptions {
     private SortableFields orderBy;
     private Long skip;
     private Long limit;
+    private Integer parallelism;
 
     /**
      * Specifies the {@link Collator}.
@@ -95,6 +97,39 @@ public class FindOptions {
         return findOptions;
     }
 
+    /**
+     * Parallel scan find options.
+     *
+     * @param parallelism the parallelism
+     * @return the find options
+     * @see #parallelism(Integer)
+     */
+    public static FindOptions parallelScan(int parallelism) {
+        FindOptions findOptions = new FindOptions();
+        findOptions.parallelism(parallelism);
+        return findOptions;
+    }
+
+    /**
+     * Sets the maximum number of key ranges to scan in parallel while
+     * scanning an unindexed collection. The key space of the collection is
+     * split into ranges and filters are evaluated on a worker pool sized
+     * to the number of available processors. A <code>null</code> or
+     * <code>1</code> value scans the collection sequentially.
+     * <p>
+     * Parallel scan is only used when no index can serve the filter.
+     *
+     * @param parallelism the parallelism
+     * @return the find options
+     */
+    public FindOptions parallelism(Integer parallelism) {
+        if (parallelism != null && parallelism < 1) {
+            throw new ValidationException("parallelism must be greater than 0");
+        }
+        this.parallelism = parallelism;
+        return this;
+    }
+
     /**
      * Skip find options.
      *
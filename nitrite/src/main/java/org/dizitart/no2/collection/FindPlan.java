@@ -48,6 +48,7 @@ public class FindPlan {
 
     private Long skip;
     private Long limit;
+    private Integer parallelism;
 
     private Collator collator;
 
@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2017-2020. Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dizitart.no2.collection;
+
+/**
+ * Generates the values of auto-generated {@link NitriteId}s. A generator
+ * must return unique, positive values, which are roughly ordered by the
+ * time of their generation.
+ *
+ * @author Anindya Chatterjee
+ * @see org.dizitart.no2.NitriteBuilder#idGenerator(IdGenerator)
+ * @since 4.0
+ */
+public interface IdGenerator {
+    /**
+     * Returns the next unique id.
+     *
+     * @return the next unique id
+     */
+    long getId();
+}
@@ -0,0 +1,388 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.collection;
+
+import org.dizitart.no2.NitriteConfig;
+import org.dizitart.no2.common.FieldPath;
+import org.dizitart.no2.common.codec.DocumentCodec;
+import org.dizitart.no2.common.tuples.Pair;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import static org.dizitart.no2.common.Constants.DOC_ID;
+
+/**
+ * A {@link Document} backed by the encoded bytes of a {@link DocumentCodec}.
+ * <p>
+ * The top level fields are decoded one at a time when they are read. The
+ * whole document is decoded only when it is modified or when all of its
+ * fields are needed, e.g. on iteration, clone or comparison. So a filter
+ * which reads a few fields of a document does not decode the rest of it.
+ * <p>
+ * A mutable field value, e.g. an embedded document or a list, is decoded
+ * only once and the same instance is returned on every read, so a change
+ * made to it is kept when the whole document is decoded later.
+ * <p>
+ * NOTE: This is an internal class of the storage layer, a store returns it
+ * for documents read via a {@link DocumentCodec}.
+ *
+ * @author Anindya Chatterjee
+ * @since 4.0
+ */
+public class LazyDocument extends NitriteDocument {
+    private static final long serialVersionUID = 1635229811L;
+
+    private final transient DocumentCodec documentCodec;
+    private final transient int offset;
+    private final transient int length;
+    private transient volatile byte[] encoded;
+    private transient volatile Map<String, Object> mutableFields;
+
+    /**
+     * Instantiates a new {@link LazyDocument}.
+     *
+     * @param documentCodec the document codec
+     * @param encoded       the buffer which contains the encoded document
+     * @param offset        the offset of the document in the buffer
+     * @param length        the length of the encoded document
+     */
+    public LazyDocument(DocumentCodec documentCodec, byte[] encoded, int offset, int length) {
+        super();
+        this.documentCodec = documentCodec;
+        this.encoded = encoded;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    /**
+     * Gets the encoded bytes of this document, if it has not been decoded
+     * or modified since it was read by the same codec.
+     *
+     * @param documentCodec the document codec
+     * @return the encoded bytes, or null
+     */
+    public byte[] getEncoded(DocumentCodec documentCodec) {
+        byte[] bytes = encoded;
+        if (bytes == null || this.documentCodec != documentCodec) {
+            return null;
+        }
+        if (offset == 0 && length == bytes.length) {
+            return bytes;
+        }
+        return Arrays.copyOfRange(bytes, offset, offset + length);
+    }
+
+    /**
+     * Checks if this document is still in its encoded form.
+     *
+     * @return the boolean
+     */
+    public boolean isEncoded() {
+        return encoded != null;
+    }
+
+    @Override
+    public Object get(String field) {
+        byte[] bytes = encoded;
+        if (bytes == null || field == null) {
+            return super.get(field);
+        }
+
+        Map<String, Object> decodedFields = mutableFields;
+        if (decodedFields != null) {
+            Object decoded = decodedFields.get(field);
+            if (decoded != null) {
+                return decoded;
+            }
+        }
+
+        Object value = documentCodec.readField(bytes, offset, field);
+        if (value == null && field.contains(NitriteConfig.getFieldSeparator())) {
+            // embedded field, the deep scan reads the top level field lazily
+            return super.get(field);
+        }
+
+        if (isMutable(value)) {
+            Object decoded = getMutableFields().putIfAbsent(field, value);
+            if (decoded != null) {
+                return decoded;
+            }
+        }
+        return value;
+    }
+
+    @Override
+    public Object getByPath(FieldPath fieldPath) {
+        if (encoded != null && fieldPath != null && !fieldPath.isEmbedded()) {
+            return get(fieldPath.getPath());
+        }
+        return super.getByPath(fieldPath);
+    }
+
+    @Override
+    public Object get(Object key) {
+        return key instanceof String ? get((String) key) : null;
+    }
+
+    @Override
+    public boolean containsKey(String key) {
+        byte[] bytes = encoded;
+        if (bytes == null) {
+            return super.containsKey(key);
+        }
+        return documentCodec.containsField(bytes, offset, key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof String && containsKey((String) key);
+    }
+
+    @Override
+    public boolean hasId() {
+        return containsKey(DOC_ID);
+    }
+
+    @Override
+    public NitriteId getId() {
+        if (!containsKey(DOC_ID)) {
+            // a new id will be put in the document
+            decode();
+        }
+        return super.getId();
+    }
+
+    @Override
+    public int size() {
+        byte[] bytes = encoded;
+        if (bytes == null) {
+            return super.size();
+        }
+        return documentCodec.fieldCount(bytes, offset);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public Document put(String field, Object value) {
+        decode();
+        return super.put(field, value);
+    }
+
+    @Override
+    public void remove(String field) {
+        decode();
+        super.remove(field);
+    }
+
+    @Override
+    public Document clone() {
+        decode();
+        return super.clone();
+    }
+
+    @Override
+    public Document merge(Document document) {
+        decode();
+        return super.merge(document);
+    }
+
+    @Override
+    public Iterator<Pair<String, Object>> iterator() {
+        decode();
+        return super.iterator();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        decode();
+        return super.equals(other);
+    }
+
+    @Override
+    public int hashCode() {
+        decode();
+        return super.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        decode();
+        return super.toString();
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        decode();
+        return super.containsValue(value);
+    }
+
+    @Override
+    public void putAll(Map<? extends String, ?> map) {
+        decode();
+        super.putAll(map);
+    }
+
+    @Override
+    public Object remove(Object key) {
+        decode();
+        return super.remove(key);
+    }
+
+    @Override
+    public boolean remove(Object key, Object value) {
+        decode();
+        return super.remove(key, value);
+    }
+
+    @Override
+    public void clear() {
+        decode();
+        super.clear();
+    }
+
+    @Override
+    public Set<String> keySet() {
+        decode();
+        return super.keySet();
+    }
+
+    @Override
+    public Collection<Object> values() {
+        decode();
+        return super.values();
+    }
+
+    @Override
+    public Set<Map.Entry<String, Object>> entrySet() {
+        decode();
+        return super.entrySet();
+    }
+
+    @Override
+    public Object getOrDefault(Object key, Object defaultValue) {
+        decode();
+        return super.getOrDefault(key, defaultValue);
+    }
+
+    @Override
+    public Object putIfAbsent(String key, Object value) {
+        decode();
+        return super.putIfAbsent(key, value);
+    }
+
+    @Override
+    public boolean replace(String key, Object oldValue, Object newValue) {
+        decode();
+        return super.replace(key, oldValue, newValue);
+    }
+
+    @Override
+    public Object replace(String key, Object value) {
+        decode();
+        return super.replace(key, value);
+    }
+
+    @Override
+    public Object computeIfAbsent(String key, Function<? super String, ?> mappingFunction) {
+        decode();
+        return super.computeIfAbsent(key, mappingFunction);
+    }
+
+    @Override
+    public Object computeIfPresent(String key,
+                                   BiFunction<? super String, ? super Object, ?> remappingFunction) {
+        decode();
+        return super.computeIfPresent(key, remappingFunction);
+    }
+
+    @Override
+    public Object compute(String key, BiFunction<? super String, ? super Object, ?> remappingFunction) {
+        decode();
+        return super.compute(key, remappingFunction);
+    }
+
+    @Override
+    public Object merge(String key, Object value,
+                        BiFunction<? super Object, ? super Object, ?> remappingFunction) {
+        decode();
+        return super.merge(key, value, remappingFunction);
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super String, ? super Object> action) {
+        decode();
+        super.forEach(action);
+    }
+
+    @Override
+    public void replaceAll(BiFunction<? super String, ? super Object, ?> function) {
+        decode();
+        super.replaceAll(function);
+    }
+
+    private Object writeReplace() {
+        decode();
+        return new NitriteDocument(this);
+    }
+
+    private void decode() {
+        if (encoded != null) {
+            synchronized (this) {
+                byte[] bytes = encoded;
+                if (bytes != null) {
+                    Map<String, Object> decodedFields = mutableFields;
+                    documentCodec.readFields(bytes, offset, (field, value) -> {
+                        // keep the instances already handed out to the readers
+                        Object decoded = decodedFields == null ? null : decodedFields.get(field);
+                        putDecoded(field, decoded != null ? decoded : value);
+                    });
+                    // readers switch over to the map only after it is complete
+                    encoded = null;
+                    mutableFields = null;
+                }
+            }
+        }
+    }
+
+    private Map<String, Object> getMutableFields() {
+        Map<String, Object> decodedFields = mutableFields;
+        if (decodedFields == null) {
+            synchronized (this) {
+                decodedFields = mutableFields;
+                if (decodedFields == null) {
+                    decodedFields = new ConcurrentHashMap<>();
+                    mutableFields = decodedFields;
+                }
+            }
+        }
+        return decodedFields;
+    }
+
+    private static boolean isMutable(Object value) {
+        return value instanceof Document || value instanceof Collection
+            || value instanceof Map || (value != null && value.getClass().isArray());
+    }
+}
@@ -17,6 +17,7 @@
 package org.dizitart.no2.collection;
 
 import org.dizitart.no2.NitriteConfig;
+import org.dizitart.no2.common.FieldPath;
 import org.dizitart.no2.common.tuples.Pair;
 import org.dizitart.no2.common.util.Iterables;
 import org.dizitart.no2.exceptions.InvalidIdException;
@@ -27,7 +28,6 @@ import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
-import java.text.MessageFormat;
 import java.util.*;
 
 import static org.dizitart.no2.collection.NitriteId.*;
@@ -76,9 +76,7 @@ class NitriteDocument extends LinkedHashMap<String, Object> implements Document
         // if field name contains field separator, split the fields, and put the value
         // accordingly associated with th embedded field.
         if (isEmbedded(field)) {
-            String regex = MessageFormat.format("\\{0}", NitriteConfig.getFieldSeparator());
-            String[] splits = field.split(regex);
-            deepPut(splits, value);
+            deepPut(FieldPath.of(field), 0, value);
         } else {
             super.put(field, value);
         }
@@ -96,6 +94,17 @@ class NitriteDocument extends LinkedHashMap<String, Object> implements Document
         return super.get(field);
     }
 
+    @Override
+    public Object getByPath(FieldPath fieldPath) {
+        notNull(fieldPath, "fieldPath cannot be null");
+        if (fieldPath.isEmbedded() && !containsKey(fieldPath.getPath())) {
+            // if field is an embedded field, get it by deep scan
+            // using the pre-compiled path
+            return getByEmbeddedKey(fieldPath);
+        }
+        return super.get(fieldPath.getPath());
+    }
+
     @Override
     public <T> T get(String field, Class<T> type) {
         notNull(type, "type cannot be null");
@@ -138,9 +147,7 @@ class NitriteDocument extends LinkedHashMap<String, Object> implements Document
         if (isEmbedded(field)) {
             // if the field is an embedded field,
             // run a deep scan and remove the last field
-            String regex = MessageFormat.format("\\{0}", NitriteConfig.getFieldSeparator());
-            String[] splits = field.split(regex);
-            deepRemove(splits);
+            deepRemove(FieldPath.of(field), 0);
         } else {
             // remove the field from this document
             super.remove(field);
@@ -217,6 +224,11 @@ class NitriteDocument extends LinkedHashMap<String, Object> implements Document
         return new PairIterator(super.entrySet().iterator());
     }
 
+    void putDecoded(String field, Object value) {
+        // values decoded from the store are already validated
+        super.put(field, value);
+    }
+
     private Set<String> getFieldsInternal(String prefix) {
         Set<String> fields = new HashSet<>();
 
@@ -254,35 +266,33 @@ class NitriteDocument extends LinkedHashMap<String, Object> implements Document
     private Object deepGet(String field) {
         if (isEmbedded(field)) {
             // for embedded field, run a deep scan
-            return getByEmbeddedKey(field);
+            return getByEmbeddedKey(FieldPath.of(field));
         } else {
             return null;
         }
     }
 
-    private void deepPut(String[] splits, Object value) {
-        if (splits.length == 0) {
+    private void deepPut(FieldPath path, int position, Object value) {
+        int remaining = path.length() - position;
+        if (remaining <= 0) {
             throw new ValidationException("invalid key provided");
         }
-        String key = splits[0];
-        if (splits.length == 1) {
+        String key = path.segment(position);
+        if (remaining == 1) {
             // if last key, simply put in the current document
             put(key, value);
         } else {
             // get the object for the current level
             Object val = get(key);
 
-            // get the remaining embedded fields for next level scan
-            String[] remaining = Arrays.copyOfRange(splits, 1, splits.length);
-
             if (val instanceof NitriteDocument) {
                 // if the current level value is embedded doc, scan to the next level
-                ((NitriteDocument) val).deepPut(remaining, value);
+                ((NitriteDocument) val).deepPut(path, position + 1, value);
             } else if (val == null) {
                 // if current level value is null, create a new document
                 // and try to create next level embedded doc by next level scan
                 NitriteDocument subDoc = new NitriteDocument();
-                subDoc.deepPut(remaining, value);
+                subDoc.deepPut(path, position + 1, value);
 
                 // put the newly created document in current level
                 put(key, subDoc);
@@ -290,25 +300,23 @@ class NitriteDocument extends LinkedHashMap<String, Object> implements Document
         }
     }
 
-    private void deepRemove(String[] splits) {
-        if (splits.length == 0) {
+    private void deepRemove(FieldPath path, int position) {
+        int remaining = path.length() - position;
+        if (remaining <= 0) {
             throw new ValidationException("invalid key provided");
         }
-        String key = splits[0];
-        if (splits.length == 1) {
+        String key = path.segment(position);
+        if (remaining == 1) {
             // if last key, simply remove the current document
             remove(key);
         } else {
             // get the object for the current level
             Object val = get(key);
 
-            // get the remaining embedded fields for next level scan
-            String[] remaining = Arrays.copyOfRange(splits, 1, splits.length);
-
             if (val instanceof NitriteDocument) {
                 // if the current level value is embedded doc, scan to the next level
                 NitriteDocument subDoc = (NitriteDocument) val;
-                subDoc.deepRemove(remaining);
+                subDoc.deepRemove(path, position + 1);
                 if (subDoc.size() == 0) {
                     // if the next level document is an empty one
                     // remove the current level document also
@@ -321,49 +329,41 @@ class NitriteDocument extends LinkedHashMap<String, Object> implements Document
         }
     }
 
-    private Object getByEmbeddedKey(String embeddedKey) {
-        String regex = MessageFormat.format("\\{0}", NitriteConfig.getFieldSeparator());
-
-        // split the key
-        String[] path = embeddedKey.split(regex);
-        if (path.length < 1) {
+    private Object getByEmbeddedKey(FieldPath path) {
+        if (path.length() < 1) {
             return null;
         }
 
         // get current level value and scan to next level using remaining keys
-        return recursiveGet(get(path[0]), Arrays.copyOfRange(path, 1, path.length));
+        return recursiveGet(get(path.segment(0)), path, 1);
     }
 
     @SuppressWarnings("unchecked")
-    private Object recursiveGet(Object object, String[] remainingPath) {
+    private Object recursiveGet(Object object, FieldPath path, int position) {
         if (object == null) {
             return null;
         }
 
-        if (remainingPath.length == 0) {
+        if (position >= path.length()) {
             return object;
         }
 
         if (object instanceof Document) {
             // if the current level value is document, scan to the next level with remaining keys
-            return recursiveGet(((Document) object).get(remainingPath[0]),
-                Arrays.copyOfRange(remainingPath, 1, remainingPath.length));
+            return recursiveGet(((Document) object).get(path.segment(position)), path, position + 1);
         }
 
         if (object.getClass().isArray()) {
             // if the current level value is an array
 
-            // get the first key
-            String accessor = remainingPath[0];
-
             // convert current value to object array
             Object[] array = convertToObjectArray(object);
 
-            if (isInteger(accessor)) {
+            if (path.isIndex(position)) {
                 // if the current key is an integer
 
-                // convert the key as an integer index
-                int index = asInteger(accessor);
+                // get the pre-parsed integer index
+                int index = path.index(position);
 
                 // check index lower bound
                 if (index < 0) {
@@ -378,33 +378,30 @@ class NitriteDocument extends LinkedHashMap<String, Object> implements Document
 
                 // get the value at the index from the array
                 // if there are remaining keys, scan to the next level
-                return recursiveGet(array[index], Arrays.copyOfRange(remainingPath, 1, remainingPath.length));
+                return recursiveGet(array[index], path, position + 1);
             } else {
                 // if the current key is not an integer, then decompose the
                 // object array into a list and scan each of the element of the
                 // list using remaining keys and return a list of all returned
                 // elements from each of the list items.
-                return decompose(listOf(array), remainingPath);
+                return decompose(listOf(array), path, position);
             }
         }
 
         if (object instanceof Iterable) {
             // if the current level value is an iterable
 
-            // get the first key
-            String accessor = remainingPath[0];
-
             // convert current value to object iterable
             Iterable<Object> iterable = (Iterable<Object>) object;
 
             // create a list from the iterable
             List<Object> collection = Iterables.toList(iterable);
 
-            if (isInteger(accessor)) {
+            if (path.isIndex(position)) {
                 // if the current key is an integer
 
-                // convert the key as an integer index
-                int index = asInteger(accessor);
+                // get the pre-parsed integer index
+                int index = path.index(position);
 
                 // check index lower bound
                 if (index < 0) {
@@ -413,19 +410,19 @@ class NitriteDocument extends LinkedHashMap<String, Object> implements Document
 
                 // check index upper bound
                 if (index >= collection.size()) {
-                    throw new ValidationException("index " + accessor +
+                    throw new ValidationException("index " + path.segment(position) +
                         " is not less than the size of the list " + collection.size());
                 }
 
                 // get the value at the index from the list
                 // if there are remaining keys, scan to the next level
-                return recursiveGet(collection.get(index), Arrays.copyOfRange(remainingPath, 1, remainingPath.length));
+                return recursiveGet(collection.get(index), path, position + 1);
             } else {
                 // if the current key is not an integer, then decompose the
                 // list and scan each of the element of the
                 // list using remaining keys and return a list of all returned
                 // elements from each of the list items.
-                return decompose(collection, remainingPath);
+                return decompose(collection, path, position);
             }
         }
 
@@ -434,14 +431,14 @@ class NitriteDocument extends LinkedHashMap<String, Object> implements Document
     }
 
     @SuppressWarnings("unchecked")
-    private List<Object> decompose(List<Object> collection, String[] remainingPath) {
+    private List<Object> decompose(List<Object> collection, FieldPath path, int position) {
         Set<Object> items = new HashSet<>();
 
         // iterate each item
         for (Object item : collection) {
 
             // scan the item using remaining keys
-            Object result = recursiveGet(item, remainingPath);
+            Object result = recursiveGet(item, path, position);
 
             if (result != null) {
                 if (result instanceof Iterable) {
@@ -461,27 +458,6 @@ class NitriteDocument extends LinkedHashMap<String, Object> implements Document
         return new ArrayList<>(items);
     }
 
-    private int asInteger(String number) {
-        try {
-            // parse the string as an integer
-            return Integer.parseInt(number);
-        } catch (NumberFormatException e) {
-            // if parsing fails, return invalid integer for document access
-            return -1;
-        }
-    }
-
-    private boolean isInteger(String value) {
-        try {
-            // try parse the string as an integer
-            Integer.parseInt(value);
-            return true;
-        } catch (NumberFormatException e) {
-            // if parsing fails, then value is not an integer
-            return false;
-        }
-    }
-
     private boolean isEmbedded(String field) {
         // if the field contains separator character, then it is an embedded field
         return field.contains(NitriteConfig.getFieldSeparator());
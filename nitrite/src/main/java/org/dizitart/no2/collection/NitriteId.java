@@ -17,6 +17,7 @@
 package org.dizitart.no2.collection;
 
 import lombok.EqualsAndHashCode;
+import org.dizitart.no2.NitriteConfig;
 import org.dizitart.no2.exceptions.InvalidIdException;
 
 import java.io.IOException;
@@ -43,12 +44,11 @@ import static org.dizitart.no2.common.Constants.ID_SUFFIX;
 @EqualsAndHashCode
 public final class NitriteId implements Comparable<NitriteId>, Serializable {
     private static final long serialVersionUID = 1477462375L;
-    private transient static final SnowflakeIdGenerator generator = new SnowflakeIdGenerator();
 
     private String idValue;
 
     private NitriteId() {
-        this.idValue = Long.toString(generator.getId());
+        this.idValue = Long.toString(NitriteConfig.getIdGenerator().getId());
     }
 
     private NitriteId(String value) {
@@ -43,11 +43,14 @@ import java.util.NoSuchElementException;
  * @since 4.0
  */
 @Slf4j
-public class SnowflakeIdGenerator {
+public class SnowflakeIdGenerator implements IdGenerator {
+    static final long EPOCH = 1288834974657L;
+    static final long NODE_ID_BITS = 10L;
+    static final long SEQUENCE_BITS = 12L;
+
     private final SecureRandom random;
-    private final long nodeIdBits = 10L;
 
-    private long nodeId;
+    long nodeId;
 
     private volatile long lastTimestamp = -1L;
     private volatile long sequence = 0L;
@@ -55,7 +58,7 @@ public class SnowflakeIdGenerator {
 
     public SnowflakeIdGenerator() {
         random = new SecureRandom();
-        long maxNodeId = ~(-1L << nodeIdBits);
+        long maxNodeId = ~(-1L << NODE_ID_BITS);
         try {
             this.nodeId = getNodeId();
         } catch (SocketException | NoSuchElementException | NullPointerException e) {
@@ -107,6 +110,7 @@ public class SnowflakeIdGenerator {
      *
      * @return next unique id
      */
+    @Override
     public synchronized long getId() {
         long timestamp = System.currentTimeMillis();
         if (timestamp < lastTimestamp) {
@@ -116,9 +120,8 @@ public class SnowflakeIdGenerator {
             } catch (InterruptedException ignore) {
             }
         }
-        long sequenceBits = 12L;
         if (lastTimestamp == timestamp) {
-            long sequenceMask = ~(-1L << sequenceBits);
+            long sequenceMask = ~(-1L << SEQUENCE_BITS);
             sequence = (sequence + 1) & sequenceMask;
             if (sequence == 0) {
                 timestamp = tillNextMillis(lastTimestamp);
@@ -127,9 +130,8 @@ public class SnowflakeIdGenerator {
             sequence = 0;
         }
         lastTimestamp = timestamp;
-        long timestampLeftShift = sequenceBits + nodeIdBits;
-        long twepoch = 1288834974657L;
-        long id = ((timestamp - twepoch) << timestampLeftShift) | (nodeId << sequenceBits) | sequence;
+        long timestampLeftShift = SEQUENCE_BITS + NODE_ID_BITS;
+        long id = ((timestamp - EPOCH) << timestampLeftShift) | (nodeId << SEQUENCE_BITS) | sequence;
 
         if (id < 0) {
             log.warn("Id is smaller than 0: {}", id);
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.collection.events;
+
+import org.dizitart.no2.NitriteConfig;
+import org.dizitart.no2.collection.Document;
+import org.dizitart.no2.common.event.BackpressurePolicy;
+import org.dizitart.no2.common.event.NitriteEventBus;
+
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static org.dizitart.no2.common.Constants.DOC_ID;
+import static org.dizitart.no2.common.tuples.Pair.pair;
+
+/**
+ * The event bus of a collection, which delivers {@link CollectionEventInfo}s
+ * to the {@link CollectionEventListener}s.
+ *
+ * @author Anindya Chatterjee
+ * @since 4.0
+ */
+public class CollectionEventBus extends NitriteEventBus<CollectionEventInfo<?>, CollectionEventListener> {
+    private final ReentrantReadWriteLock collectionLock;
+
+    /**
+     * Instantiates a new {@link CollectionEventBus} with the event
+     * queue settings of a {@link NitriteConfig}.
+     *
+     * @param nitriteConfig the nitrite config
+     */
+    public CollectionEventBus(NitriteConfig nitriteConfig) {
+        this(nitriteConfig, null);
+    }
+
+    /**
+     * Instantiates a new {@link CollectionEventBus} with the event
+     * queue settings of a {@link NitriteConfig}. A thread posting events
+     * while it holds the write lock of the collection waits for a full
+     * listener queue, unless the listener is waiting for that lock.
+     *
+     * @param nitriteConfig  the nitrite config
+     * @param collectionLock the read write lock of the collection
+     */
+    public CollectionEventBus(NitriteConfig nitriteConfig, ReentrantReadWriteLock collectionLock) {
+        super(nitriteConfig.getEventQueueCapacity(), nitriteConfig.getEventBatchSize(),
+            backpressurePolicy(nitriteConfig));
+        this.collectionLock = collectionLock;
+    }
+
+    @Override
+    public void post(CollectionEventInfo<?> collectionEventInfo) {
+        dispatch(collectionEventInfo, CollectionEventListener::onEvent);
+    }
+
+    @Override
+    protected boolean canWait(Thread deliveringThread) {
+        if (collectionLock == null || !collectionLock.isWriteLockedByCurrentThread()) {
+            return true;
+        }
+
+        if (deliveringThread != null) {
+            return !collectionLock.hasQueuedThread(deliveringThread);
+        }
+        // the delivery has not started yet, the event threads might all
+        // be taken by listeners waiting for the lock
+        return !collectionLock.hasQueuedThreads();
+    }
+
+    @Override
+    protected Object coalescingKey(CollectionEventInfo<?> eventInfo) {
+        // events of the same type about the same document can be merged
+        if (eventInfo.getItem() instanceof Document) {
+            Object id = ((Document) eventInfo.getItem()).get(DOC_ID);
+            if (id != null) {
+                return pair(eventInfo.getEventType(), id);
+            }
+        }
+        return null;
+    }
+
+    private static BackpressurePolicy backpressurePolicy(NitriteConfig nitriteConfig) {
+        BackpressurePolicy policy = nitriteConfig.getEventBackpressure();
+        return policy == null ? BackpressurePolicy.Block : policy;
+    }
+}
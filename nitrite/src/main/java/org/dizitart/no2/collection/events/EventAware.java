@@ -16,6 +16,8 @@
 
 package org.dizitart.no2.collection.events;
 
+import org.dizitart.no2.common.event.EventQueueMetrics;
+
 /**
  * Interface to be implemented by collections that wish to be aware
  * of any event.
@@ -39,4 +41,14 @@ public interface EventAware {
      * @param listener the listener.
      */
     void unsubscribe(CollectionEventListener listener);
+
+    /**
+     * Gets a snapshot of the queues of events waiting to be
+     * delivered to the subscribed listeners.
+     *
+     * @return the event queue metrics
+     */
+    default EventQueueMetrics getEventMetrics() {
+        return new EventQueueMetrics(0, 0, 0, 0, 0);
+    }
 }
@@ -71,6 +71,14 @@ public class Attributes implements Serializable {
      * The constant REPLICA.
      */
     public static final String REPLICA = "replica";
+    /**
+     * The constant CHECKPOINT.
+     */
+    public static final String CHECKPOINT = "checkpoint";
+    /**
+     * The constant LAST_RECORDED.
+     */
+    public static final String LAST_RECORDED = "lastRecorded";
     private static final long serialVersionUID = 1481284930L;
 
     @Getter @Setter
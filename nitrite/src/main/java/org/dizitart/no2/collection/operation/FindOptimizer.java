@@ -24,6 +24,7 @@ import org.dizitart.no2.common.tuples.Pair;
 import org.dizitart.no2.exceptions.FilterException;
 import org.dizitart.no2.filters.*;
 import org.dizitart.no2.index.IndexDescriptor;
+import org.dizitart.no2.store.NitriteStore;
 
 import java.util.*;
 
@@ -39,6 +40,17 @@ import static org.dizitart.no2.filters.Filter.or;
  * @author Anindya Chatterjee
  */
 class FindOptimizer {
+    private final boolean prefixScanSupported;
+
+    FindOptimizer() {
+        this(null);
+    }
+
+    FindOptimizer(NitriteStore<?> nitriteStore) {
+        // strings sharing a prefix are a contiguous range of index keys only in
+        // their natural order, otherwise a prefix is matched by a collection scan
+        this.prefixScanSupported = nitriteStore == null || nitriteStore.hasNaturalKeyOrder();
+    }
 
     public FindPlan optimize(Filter filter,
                              FindOptions findOptions,
@@ -46,6 +58,7 @@ class FindOptimizer {
         FindPlan findPlan = createFilterPlan(indexDescriptors, filter);
         readSortOption(findOptions, findPlan);
         readLimitOption(findOptions, findPlan);
+        readParallelOption(findOptions, findPlan);
 
         if (findOptions != null) {
             findPlan.setCollator(findOptions.collator());
@@ -219,6 +232,7 @@ class FindOptimizer {
                                              Collection<IndexDescriptor> indexDescriptors, List<Filter> filters) {
         // descending sort based on cardinality of indices, consider the higher cardinality index first
         NavigableMap<IndexDescriptor, List<ComparableFilter>> indexFilterMap = new TreeMap<>(Collections.reverseOrder());
+        List<Filter> indexableFilters = indexableFilters(filters);
 
         for (IndexDescriptor indexDescriptor : indexDescriptors) {
             List<String> fieldNames = indexDescriptor.getIndexFields().getFieldNames();
@@ -226,7 +240,7 @@ class FindOptimizer {
             List<ComparableFilter> indexedFilters = new ArrayList<>();
             for (String fieldName : fieldNames) {
                 boolean matchFound = false;
-                for (Filter filter : filters) {
+                for (Filter filter : indexableFilters) {
                     if (filter instanceof ComparableFilter) {
                         String filterFieldName = ((ComparableFilter) filter).getField();
                         if (filterFieldName.equals(fieldName)) {
@@ -259,6 +273,29 @@ class FindOptimizer {
         }
     }
 
+    private List<Filter> indexableFilters(List<Filter> filters) {
+        List<Filter> indexableFilters = new ArrayList<>(filters.size());
+        for (Filter filter : filters) {
+            if (filter instanceof StartsWithFilter && !prefixScanSupported) {
+                continue;
+            }
+
+            StringFilter prefixFilter = null;
+            if (filter instanceof RegexFilter && prefixScanSupported) {
+                prefixFilter = ((RegexFilter) filter).getPrefixFilter();
+            }
+
+            if (prefixFilter != null) {
+                // an anchored regex is scanned on index by its literal prefix, the
+                // regex itself remains as a collection scan filter on the range
+                indexableFilters.add(prefixFilter);
+            } else {
+                indexableFilters.add(filter);
+            }
+        }
+        return indexableFilters;
+    }
+
     private void planForCollectionScanningFilters(FindPlan findPlan, Set<ComparableFilter> indexScanFilters,
                                                   Set<Filter> columnScanFilters, List<Filter> filters) {
         for (Filter filter : filters) {
@@ -350,4 +387,14 @@ class FindOptimizer {
         }
     }
 
+    private void readParallelOption(FindOptions findOptions, FindPlan findPlan) {
+        if (findOptions != null) {
+            findPlan.setParallelism(findOptions.parallelism());
+            for (FindPlan subPlan : findPlan.getSubPlans()) {
+                // collection scans of an or filter can be parallel too
+                subPlan.setParallelism(findOptions.parallelism());
+            }
+        }
+    }
+
 }
@@ -29,6 +29,8 @@ import org.dizitart.no2.index.IndexDescriptor;
 import org.dizitart.no2.index.NitriteIndexer;
 import org.dizitart.no2.common.processors.ProcessorChain;
 import org.dizitart.no2.store.NitriteMap;
+import org.dizitart.no2.store.NitriteStore;
+import org.dizitart.no2.store.StoreSnapshot;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -57,7 +59,7 @@ class ReadOperations {
         this.nitriteConfig = nitriteConfig;
         this.collectionName = collectionName;
         this.indexOperations = indexOperations;
-        this.findOptimizer = new FindOptimizer();
+        this.findOptimizer = new FindOptimizer(nitriteMap == null ? null : nitriteMap.getStore());
         this.processorChain = processorChain;
     }
 
@@ -69,7 +71,15 @@ class ReadOperations {
         prepareFilter(filter);
         Collection<IndexDescriptor> indexDescriptors = indexOperations.listIndexes();
         FindPlan findPlan = findOptimizer.optimize(filter, findOptions, indexDescriptors);
-        return createCursor(findPlan);
+
+        // index and document reads of the cursor share one view of the store
+        StoreSnapshot snapshot = openSnapshot();
+        try {
+            return createCursor(findPlan, snapshot);
+        } catch (RuntimeException e) {
+            snapshot.close();
+            throw e;
+        }
     }
 
     Document getById(NitriteId nitriteId) {
@@ -134,12 +144,16 @@ class ReadOperations {
 
                     // create indexed stream from optimized filter
                     rawStream = new IndexedStream(nitriteIds, nitriteMap);
+                } else if (isParallelScan(findPlan)) {
+                    // scan the key ranges on worker threads and evaluate the filter there
+                    rawStream = new ParallelScanStream(nitriteMap, findPlan.getCollectionScanFilter(),
+                        findPlan.getParallelism(), isOrderedScan(findPlan));
                 } else {
-                    rawStream = nitriteMap.entries();
+                    rawStream = new MapEntryStream<>(nitriteMap);
                 }
             }
 
-            if (findPlan.getCollectionScanFilter() != null) {
+            if (findPlan.getCollectionScanFilter() != null && !(rawStream instanceof ParallelScanStream)) {
                 rawStream = new FilteredStream(rawStream, findPlan.getCollectionScanFilter());
             }
         }
@@ -160,8 +174,31 @@ class ReadOperations {
         return rawStream;
     }
 
-    private DocumentCursor createCursor(FindPlan findPlan) {
-        RecordStream<Pair<NitriteId, Document>> recordStream = findSuitableStream(findPlan);
+    private boolean isParallelScan(FindPlan findPlan) {
+        return findPlan.getParallelism() != null && findPlan.getParallelism() > 1
+            && findPlan.getCollectionScanFilter() != null;
+    }
+
+    private boolean isOrderedScan(FindPlan findPlan) {
+        // keep the key order for sorting and paging, so that the
+        // result is the same as a sequential scan
+        return (findPlan.getBlockingSortOrder() != null && !findPlan.getBlockingSortOrder().isEmpty())
+            || findPlan.getSkip() != null || findPlan.getLimit() != null;
+    }
+
+    private StoreSnapshot openSnapshot() {
+        NitriteStore<?> nitriteStore = nitriteMap.getStore();
+        return nitriteStore == null ? StoreSnapshot.LATEST : nitriteStore.openSnapshot();
+    }
+
+    private DocumentCursor createCursor(FindPlan findPlan, StoreSnapshot snapshot) {
+        RecordStream<Pair<NitriteId, Document>> recordStream = snapshot.read(() -> findSuitableStream(findPlan));
+        if (recordStream == null) {
+            snapshot.close();
+        } else if (snapshot != StoreSnapshot.LATEST) {
+            recordStream = new SnapshotStream<>(recordStream, snapshot);
+        }
+
         DocumentStream cursor = new DocumentStream(recordStream, processorChain);
         cursor.setFindPlan(findPlan);
         return cursor;
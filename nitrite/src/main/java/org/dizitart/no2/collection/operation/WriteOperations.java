@@ -88,23 +88,27 @@ class WriteOperations {
             log.debug("Document processed from {} to {} before insert", newDoc, processed);
 
             log.debug("Inserting processed document {} in {}", processed, nitriteMap.getName());
-            Document already = nitriteMap.putIfAbsent(nitriteId, processed);
+            // the document and its index entries are written as one unit
+            nitriteMap.getStore().writeUnit(() -> {
+                Document already = nitriteMap.putIfAbsent(nitriteId, processed);
 
-            if (already != null) {
-                log.warn("Another document {} already exists with same id {}", already, nitriteId);
+                if (already != null) {
+                    log.warn("Another document {} already exists with same id {}", already, nitriteId);
 
-                throw new UniqueConstraintException("id constraint violation, " +
-                    "entry with same id already exists in " + nitriteMap.getName());
-            } else {
-                try {
-                    documentIndexWriter.writeIndexEntry(processed);
-                } catch (UniqueConstraintException | IndexingException e) {
-                    log.error("Index operation has failed during insertion for the document "
-                        + document + " in " + nitriteMap.getName(), e);
-                    nitriteMap.remove(nitriteId);
-                    throw e;
+                    throw new UniqueConstraintException("id constraint violation, " +
+                        "entry with same id already exists in " + nitriteMap.getName());
+                } else {
+                    try {
+                        documentIndexWriter.writeIndexEntry(processed);
+                    } catch (UniqueConstraintException | IndexingException e) {
+                        log.error("Index operation has failed during insertion for the document "
+                            + document + " in " + nitriteMap.getName(), e);
+                        nitriteMap.remove(nitriteId);
+                        throw e;
+                    }
                 }
-            }
+                return null;
+            });
 
             nitriteIds.add(nitriteId);
 
@@ -135,6 +139,7 @@ class WriteOperations {
         }
 
         if (document.size() == 0) {
+            cursor.close();
             alert(EventType.Update, new CollectionEventInfo<>());
             return writeResult;
         }
@@ -172,24 +177,27 @@ class WriteOperations {
                 Document processed = processorChain.processBeforeWrite(unprocessed);
                 log.debug("Document processed from {} to {} before update", newDoc, processed);
 
-                nitriteMap.put(nitriteId, processed);
-                log.debug("Document {} updated in {}", processed, nitriteMap.getName());
+                nitriteMap.getStore().writeUnit(() -> {
+                    nitriteMap.put(nitriteId, processed);
+                    log.debug("Document {} updated in {}", processed, nitriteMap.getName());
+
+                    try {
+                        documentIndexWriter.updateIndexEntry(oldDocument, processed);
+                    } catch (UniqueConstraintException | IndexingException e) {
+                        log.error("Index operation failed during update, reverting changes for the document "
+                            + oldDocument + " in " + nitriteMap.getName(), e);
+                        nitriteMap.put(nitriteId, oldDocument);
+                        documentIndexWriter.updateIndexEntry(processed, oldDocument);
+                        throw e;
+                    }
+                    return null;
+                });
 
                 // if 'update' only contains id value, affected count = 0
                 if (document.size() > 0) {
                     writeResult.addToList(nitriteId);
                 }
 
-                try {
-                    documentIndexWriter.updateIndexEntry(oldDocument, processed);
-                } catch (UniqueConstraintException | IndexingException e) {
-                    log.error("Index operation failed during update, reverting changes for the document "
-                        + oldDocument + " in " + nitriteMap.getName(), e);
-                    nitriteMap.put(nitriteId, oldDocument);
-                    documentIndexWriter.updateIndexEntry(processed, oldDocument);
-                    throw e;
-                }
-
                 CollectionEventInfo<Document> eventInfo = new CollectionEventInfo<>();
                 eventInfo.setItem(newDoc);
                 eventInfo.setEventType(EventType.Update);
@@ -198,6 +206,8 @@ class WriteOperations {
                 alert(EventType.Update, eventInfo);
             }
         }
+        // a single update stops before the end of the cursor
+        cursor.close();
 
         if (count == 0) {
             log.debug("No document found to update by the filter {} in {}", filter, nitriteMap.getName());
@@ -239,6 +249,7 @@ class WriteOperations {
                 }
             }
         }
+        cursor.close();
 
         if (count == 0) {
             log.debug("No document found to remove by the filter {} in {}", filter, nitriteMap.getName());
@@ -264,10 +275,16 @@ class WriteOperations {
 
     private CollectionEventInfo<Document> removeAndCreateEvent(Document document, WriteResultImpl writeResult) {
         NitriteId nitriteId = document.getId();
-        document = nitriteMap.remove(nitriteId);
+        document = nitriteMap.getStore().writeUnit(() -> {
+            Document removed = nitriteMap.remove(nitriteId);
+            if (removed != null) {
+                documentIndexWriter.removeIndexEntry(removed);
+            }
+            return removed;
+        });
+
         if (document != null) {
             long time = System.currentTimeMillis();
-            documentIndexWriter.removeIndexEntry(document);
             writeResult.addToList(nitriteId);
 
             int rev = document.getRevision();
@@ -90,6 +90,11 @@ public class Constants {
      */
     public static final String STORE_INFO = "$nitrite_store_info";
 
+    /**
+     * The constant FIELD_DICTIONARY_PREFIX.
+     */
+    public static final String FIELD_DICTIONARY_PREFIX = "$nitrite_fields";
+
     /**
      * The constant COLLECTION_CATALOG.
      */
@@ -230,9 +235,29 @@ public class Constants {
      */
     public static final String SYNC_THREAD_NAME = "Sync." + NO2;
 
+    /**
+     * The constant SCAN_THREAD_NAME.
+     */
+    public static final String SCAN_THREAD_NAME = "Scan." + NO2;
+
     /**
      * The constant INITIAL_REVISION.
      */
     public static final Integer INITIAL_SCHEMA_VERSION = 1;
 
+    /**
+     * The constant EVENT_THREAD_NAME.
+     */
+    public static final String EVENT_THREAD_NAME = "Event." + NO2;
+
+    /**
+     * The constant DEFAULT_EVENT_QUEUE_CAPACITY.
+     */
+    public static final int DEFAULT_EVENT_QUEUE_CAPACITY = 16384;
+
+    /**
+     * The constant DEFAULT_EVENT_BATCH_SIZE.
+     */
+    public static final int DEFAULT_EVENT_BATCH_SIZE = 64;
+
 }
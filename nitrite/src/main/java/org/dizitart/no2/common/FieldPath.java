@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.common;
+
+import org.dizitart.no2.NitriteConfig;
+
+import java.text.MessageFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.dizitart.no2.common.util.ValidationUtils.notNull;
+
+/**
+ * Represents a pre-compiled path of a document field.
+ * <p>
+ * An embedded field like {@code address.city} is split into its
+ * segments only once and any array/list index in the path is parsed
+ * upfront, so that repeated access of the same field from a filter,
+ * a sorter or an index writer does not need to parse the path again.
+ * <p>
+ * Compiled paths are interned by their string value, use {@link #of(String)}
+ * to get an instance.
+ *
+ * @author Anindya Chatterjee
+ * @since 4.0
+ */
+public final class FieldPath {
+    private static final int MAX_INTERNED_PATHS = 10000;
+    private static final int NOT_AN_INDEX = Integer.MIN_VALUE;
+    private static final Map<String, FieldPath> internedPaths = new ConcurrentHashMap<>();
+
+    private final String path;
+    private final String separator;
+    private final String[] segments;
+    private final int[] indices;
+    private final boolean embedded;
+
+    private FieldPath(String path, String separator) {
+        this.path = path;
+        this.separator = separator;
+        this.embedded = path.contains(separator);
+
+        if (embedded) {
+            String regex = MessageFormat.format("\\{0}", separator);
+            this.segments = path.split(regex);
+        } else {
+            this.segments = new String[]{path};
+        }
+
+        this.indices = new int[segments.length];
+        for (int i = 0; i < segments.length; i++) {
+            indices[i] = parseIndex(segments[i]);
+        }
+    }
+
+    /**
+     * Gets the compiled {@link FieldPath} for a field.
+     *
+     * @param field the field
+     * @return the field path
+     */
+    public static FieldPath of(String field) {
+        notNull(field, "field cannot be null");
+
+        String separator = NitriteConfig.getFieldSeparator();
+        FieldPath fieldPath = internedPaths.get(field);
+        if (fieldPath == null || !fieldPath.separator.equals(separator)) {
+            // a stale entry compiled with an older separator gets replaced
+            fieldPath = new FieldPath(field, separator);
+            if (internedPaths.size() >= MAX_INTERNED_PATHS) {
+                // documents with arbitrary field names should not grow the cache unbounded
+                internedPaths.clear();
+            }
+            internedPaths.put(field, fieldPath);
+        }
+        return fieldPath;
+    }
+
+    /**
+     * Gets the field name this path is compiled from.
+     *
+     * @return the path
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Indicates if the path denotes an embedded field.
+     *
+     * @return the boolean
+     */
+    public boolean isEmbedded() {
+        return embedded;
+    }
+
+    /**
+     * Gets the number of segments in the path.
+     *
+     * @return the length
+     */
+    public int length() {
+        return segments.length;
+    }
+
+    /**
+     * Gets the segment at the position.
+     *
+     * @param position the position
+     * @return the segment
+     */
+    public String segment(int position) {
+        return segments[position];
+    }
+
+    /**
+     * Checks if the segment at the position is an array/list index.
+     *
+     * @param position the position
+     * @return the boolean
+     */
+    public boolean isIndex(int position) {
+        return indices[position] != NOT_AN_INDEX;
+    }
+
+    /**
+     * Gets the pre-parsed array/list index of the segment at the position.
+     *
+     * @param position the position
+     * @return the index
+     */
+    public int index(int position) {
+        return indices[position];
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) return true;
+        if (!(other instanceof FieldPath)) return false;
+        FieldPath that = (FieldPath) other;
+        return path.equals(that.path) && separator.equals(that.separator);
+    }
+
+    @Override
+    public int hashCode() {
+        return path.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return path;
+    }
+
+    private static int parseIndex(String segment) {
+        try {
+            int index = Integer.parseInt(segment);
+            // Integer.MIN_VALUE is a valid but negative index, which is
+            // rejected during access anyway, so map it to -1
+            return index == NOT_AN_INDEX ? -1 : index;
+        } catch (NumberFormatException e) {
+            return NOT_AN_INDEX;
+        }
+    }
+}
@@ -1,8 +1,6 @@
 package org.dizitart.no2.common;
 
-import lombok.AccessLevel;
 import lombok.EqualsAndHashCode;
-import lombok.Setter;
 import org.dizitart.no2.common.util.StringUtils;
 
 import java.io.IOException;
@@ -31,9 +29,10 @@ public class Fields implements Comparable<Fields>, Serializable {
     /**
      * The Field names.
      */
-    @Setter(AccessLevel.PACKAGE)
     protected List<String> fieldNames;
 
+    private transient List<FieldPath> fieldPaths;
+
     /**
      * Instantiates a new Fields.
      */
@@ -65,6 +64,7 @@ public class Fields implements Comparable<Fields>, Serializable {
      */
     public Fields addField(String field) {
         fieldNames.add(field);
+        fieldPaths = null;
         return this;
     }
 
@@ -77,6 +77,36 @@ public class Fields implements Comparable<Fields>, Serializable {
         return Collections.unmodifiableList(fieldNames);
     }
 
+    /**
+     * Sets the field names.
+     *
+     * @param fieldNames the field names
+     */
+    void setFieldNames(List<String> fieldNames) {
+        this.fieldNames = fieldNames;
+        this.fieldPaths = null;
+    }
+
+    /**
+     * Gets the pre-compiled paths of the fields. The paths are
+     * compiled once and reused for every subsequent call.
+     *
+     * @return the field paths
+     */
+    public List<FieldPath> getFieldPaths() {
+        List<FieldPath> paths = fieldPaths;
+        if (paths == null || paths.size() != fieldNames.size()) {
+            paths = new ArrayList<>(fieldNames.size());
+            for (String fieldName : fieldNames) {
+                // a null field name has no path, but keeps its position
+                paths.add(fieldName == null ? null : FieldPath.of(fieldName));
+            }
+            paths = Collections.unmodifiableList(paths);
+            fieldPaths = paths;
+        }
+        return paths;
+    }
+
     /**
      * Starts with boolean.
      *
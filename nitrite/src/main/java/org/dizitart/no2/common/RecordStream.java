@@ -19,6 +19,8 @@ package org.dizitart.no2.common;
 import org.dizitart.no2.common.util.Iterables;
 
 import java.util.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Represents a record stream which can be iterated in a for loop.
@@ -171,6 +173,29 @@ public interface RecordStream<T> extends Iterable<T> {
         return !iterator().hasNext();
     }
 
+    /**
+     * Creates a sequential {@link Stream} over the elements of this {@link RecordStream}
+     * without copying them into a collection first.
+     *
+     * @return the stream
+     */
+    default Stream<T> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Creates a parallel {@link Stream} over the elements of this {@link RecordStream}.
+     * <p>
+     * Streams backed by a collection scan or an index scan split into key
+     * ranges or posting list segments, so that each worker reads its own
+     * part of the store.
+     *
+     * @return the stream
+     */
+    default Stream<T> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
     /**
      * Gets the first element of the result or <code>null</code> if it is empty.
      *
@@ -0,0 +1,614 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.common.codec;
+
+import org.dizitart.no2.collection.Document;
+import org.dizitart.no2.collection.LazyDocument;
+import org.dizitart.no2.common.tuples.Pair;
+import org.dizitart.no2.exceptions.NitriteIOException;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.dizitart.no2.common.util.ValidationUtils.notNull;
+
+/**
+ * A compact binary codec for {@link Document}s.
+ * <p>
+ * Every value is written with a one byte type tag. Integral values are
+ * written as zig-zag encoded varints, strings as length prefixed UTF-8 and
+ * field names as varint ids of a {@link FieldNameDictionary}, so a field
+ * name is stored only once per map instead of once per document.
+ * Embedded documents and {@link ArrayList}s are encoded recursively, any
+ * other value falls back to java serialization, unless the codec is created
+ * without it to read documents from an untrusted source.
+ * <p>
+ * A document starts with a header which lists the id and the encoded
+ * length of each of its fields, followed by the values in the same order.
+ * So a single field can be located and decoded without decoding the fields
+ * before it, which is what a {@link LazyDocument} does.
+ * <p>
+ * The format is self delimiting, a document can be decoded directly from
+ * a buffer which contains more data after it.
+ *
+ * @author Anindya Chatterjee
+ * @since 4.0
+ */
+public class DocumentCodec {
+    private static final byte TAG_NULL = 0;
+    private static final byte TAG_TRUE = 1;
+    private static final byte TAG_FALSE = 2;
+    private static final byte TAG_INT = 3;
+    private static final byte TAG_LONG = 4;
+    private static final byte TAG_DOUBLE = 5;
+    private static final byte TAG_FLOAT = 6;
+    private static final byte TAG_STRING = 7;
+    private static final byte TAG_DOCUMENT = 8;
+    private static final byte TAG_LIST = 9;
+    private static final byte TAG_BYTES = 10;
+    private static final byte TAG_SHORT = 11;
+    private static final byte TAG_BYTE = 12;
+    private static final byte TAG_CHAR = 13;
+    private static final byte TAG_DATE = 14;
+    private static final byte TAG_BIG_INTEGER = 15;
+    private static final byte TAG_BIG_DECIMAL = 16;
+    private static final byte TAG_SERIALIZED = 17;
+
+    private final FieldNameDictionary dictionary;
+    private final boolean serializationAllowed;
+
+    /**
+     * Instantiates a new {@link DocumentCodec}.
+     *
+     * @param dictionary the field name dictionary
+     */
+    public DocumentCodec(FieldNameDictionary dictionary) {
+        this(dictionary, true);
+    }
+
+    /**
+     * Instantiates a new {@link DocumentCodec}.
+     * <p>
+     * If java serialization is not allowed, encoding a value which has no
+     * tag of its own fails, and so does decoding a serialized value.
+     *
+     * @param dictionary           the field name dictionary
+     * @param serializationAllowed if values can fall back to java serialization
+     */
+    public DocumentCodec(FieldNameDictionary dictionary, boolean serializationAllowed) {
+        notNull(dictionary, "dictionary cannot be null");
+        this.dictionary = dictionary;
+        this.serializationAllowed = serializationAllowed;
+    }
+
+    /**
+     * Assigns dictionary ids to all field names of a document, including
+     * the field names of its embedded documents.
+     * <p>
+     * A store which encodes the documents lazily, after they have been
+     * put into a map, must call this before putting the document.
+     *
+     * @param document the document
+     */
+    public void registerFields(Document document) {
+        if (document instanceof LazyDocument && ((LazyDocument) document).getEncoded(this) != null) {
+            // read by this codec, so all its field names are known already
+            return;
+        }
+        for (Pair<String, Object> pair : document) {
+            dictionary.getId(pair.getFirst());
+            registerValue(pair.getSecond());
+        }
+    }
+
+    /**
+     * Encodes a document.
+     *
+     * @param document the document
+     * @return the encoded bytes
+     */
+    public byte[] encode(Document document) {
+        if (document instanceof LazyDocument) {
+            byte[] encoded = ((LazyDocument) document).getEncoded(this);
+            if (encoded != null) {
+                return encoded;
+            }
+        }
+        Output output = new Output();
+        writeDocument(output, document);
+        return output.toByteArray();
+    }
+
+    /**
+     * Decodes a document from the current position of a buffer. After
+     * decoding the buffer is positioned right after the document.
+     *
+     * @param buffer the buffer
+     * @return the document
+     */
+    public Document decode(ByteBuffer buffer) {
+        try {
+            return readDocument(buffer);
+        } catch (RuntimeException e) {
+            throw decodeError(e);
+        }
+    }
+
+    /**
+     * Decodes a document lazily from the current position of a buffer.
+     * The encoded document is copied out of the buffer and its fields are
+     * decoded only when they are accessed. After decoding the buffer is
+     * positioned right after the document.
+     *
+     * @param buffer the buffer
+     * @return the lazily decoded document
+     */
+    public Document decodeLazily(ByteBuffer buffer) {
+        try {
+            int length = encodedLength(buffer.duplicate());
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            return new LazyDocument(this, bytes, 0, length);
+        } catch (RuntimeException e) {
+            throw decodeError(e);
+        }
+    }
+
+    /**
+     * Decodes a document lazily from a byte array. The array is referred
+     * by the returned document and must not be modified afterwards.
+     *
+     * @param bytes  the bytes
+     * @param offset the offset of the document in the array
+     * @return the lazily decoded document
+     */
+    public Document decodeLazily(byte[] bytes, int offset) {
+        try {
+            int length = encodedLength(ByteBuffer.wrap(bytes, offset, bytes.length - offset));
+            return new LazyDocument(this, bytes, offset, length);
+        } catch (RuntimeException e) {
+            throw decodeError(e);
+        }
+    }
+
+    /**
+     * Gets the number of fields of an encoded document.
+     *
+     * @param bytes  the bytes
+     * @param offset the offset of the document
+     * @return the number of fields
+     */
+    public int fieldCount(byte[] bytes, int offset) {
+        try {
+            return readVarInt(ByteBuffer.wrap(bytes, offset, bytes.length - offset));
+        } catch (RuntimeException e) {
+            throw decodeError(e);
+        }
+    }
+
+    /**
+     * Checks if an encoded document contains a top level field.
+     *
+     * @param bytes     the bytes
+     * @param offset    the offset of the document
+     * @param fieldName the field name
+     * @return the boolean
+     */
+    public boolean containsField(byte[] bytes, int offset, String fieldName) {
+        Integer fieldId = dictionary.findId(fieldName);
+        if (fieldId == null) {
+            return false;
+        }
+
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes, offset, bytes.length - offset);
+            int size = readVarInt(buffer);
+            for (int i = 0; i < size; i++) {
+                if (readVarInt(buffer) == fieldId) {
+                    return true;
+                }
+                readVarInt(buffer);
+            }
+            return false;
+        } catch (RuntimeException e) {
+            throw decodeError(e);
+        }
+    }
+
+    /**
+     * Decodes the value of a top level field of an encoded document,
+     * without decoding any other field.
+     *
+     * @param bytes     the bytes
+     * @param offset    the offset of the document
+     * @param fieldName the field name
+     * @return the value, or null if the field is not found
+     */
+    public Object readField(byte[] bytes, int offset, String fieldName) {
+        Integer fieldId = dictionary.findId(fieldName);
+        if (fieldId == null) {
+            return null;
+        }
+
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes, offset, bytes.length - offset);
+            int size = readVarInt(buffer);
+            int valueOffset = -1;
+            int skipped = 0;
+            for (int i = 0; i < size; i++) {
+                int id = readVarInt(buffer);
+                int length = readVarInt(buffer);
+                if (valueOffset < 0) {
+                    if (id == fieldId) {
+                        valueOffset = skipped;
+                    } else {
+                        skipped += length;
+                    }
+                }
+            }
+
+            if (valueOffset < 0) {
+                return null;
+            }
+            // the values start right after the header
+            buffer.position(buffer.position() + valueOffset);
+            return readValue(buffer);
+        } catch (RuntimeException e) {
+            throw decodeError(e);
+        }
+    }
+
+    /**
+     * Decodes all top level fields of an encoded document in order.
+     *
+     * @param bytes    the bytes
+     * @param offset   the offset of the document
+     * @param consumer the consumer of the field names and values
+     */
+    public void readFields(byte[] bytes, int offset, BiConsumer<String, Object> consumer) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes, offset, bytes.length - offset);
+            for (Pair<String, Object> pair : readFields(buffer)) {
+                consumer.accept(pair.getFirst(), pair.getSecond());
+            }
+        } catch (RuntimeException e) {
+            throw decodeError(e);
+        }
+    }
+
+    /**
+     * Decodes a document from a byte array.
+     *
+     * @param bytes the bytes
+     * @return the document
+     */
+    public Document decode(byte[] bytes) {
+        return decode(ByteBuffer.wrap(bytes));
+    }
+
+    private void registerValue(Object value) {
+        if (value instanceof Document) {
+            registerFields((Document) value);
+        } else if (value != null && value.getClass() == ArrayList.class) {
+            for (Object item : (List<?>) value) {
+                registerValue(item);
+            }
+        }
+    }
+
+    private void writeDocument(Output output, Document document) {
+        // values are written first, the header needs their lengths
+        int size = document.size();
+        int[] fieldIds = new int[size];
+        int[] lengths = new int[size];
+        Output values = new Output();
+
+        int index = 0;
+        for (Pair<String, Object> pair : document) {
+            int start = values.position;
+            fieldIds[index] = dictionary.getId(pair.getFirst());
+            writeValue(values, pair.getSecond());
+            lengths[index++] = values.position - start;
+        }
+
+        output.writeVarInt(size);
+        for (int i = 0; i < size; i++) {
+            output.writeVarInt(fieldIds[i]);
+            output.writeVarInt(lengths[i]);
+        }
+        output.writeRaw(values);
+    }
+
+    private void writeValue(Output output, Object value) {
+        if (value == null) {
+            output.write(TAG_NULL);
+        } else if (value instanceof String) {
+            output.write(TAG_STRING);
+            output.writeBytes(((String) value).getBytes(UTF_8));
+        } else if (value instanceof Integer) {
+            output.write(TAG_INT);
+            output.writeVarLong(zigzag((Integer) value));
+        } else if (value instanceof Long) {
+            output.write(TAG_LONG);
+            output.writeVarLong(zigzag((Long) value));
+        } else if (value instanceof Double) {
+            output.write(TAG_DOUBLE);
+            output.writeLong(Double.doubleToLongBits((Double) value));
+        } else if (value instanceof Boolean) {
+            output.write((Boolean) value ? TAG_TRUE : TAG_FALSE);
+        } else if (value instanceof Document) {
+            output.write(TAG_DOCUMENT);
+            writeDocument(output, (Document) value);
+        } else if (value.getClass() == ArrayList.class) {
+            List<?> list = (List<?>) value;
+            output.write(TAG_LIST);
+            output.writeVarInt(list.size());
+            for (Object item : list) {
+                writeValue(output, item);
+            }
+        } else if (value instanceof byte[]) {
+            output.write(TAG_BYTES);
+            output.writeBytes((byte[]) value);
+        } else if (value instanceof Float) {
+            output.write(TAG_FLOAT);
+            output.writeInt(Float.floatToIntBits((Float) value));
+        } else if (value instanceof Short) {
+            output.write(TAG_SHORT);
+            output.writeVarLong(zigzag((Short) value));
+        } else if (value instanceof Byte) {
+            output.write(TAG_BYTE);
+            output.write((Byte) value);
+        } else if (value instanceof Character) {
+            output.write(TAG_CHAR);
+            output.writeVarInt((Character) value);
+        } else if (value.getClass() == Date.class) {
+            output.write(TAG_DATE);
+            output.writeVarLong(zigzag(((Date) value).getTime()));
+        } else if (value instanceof BigInteger) {
+            output.write(TAG_BIG_INTEGER);
+            output.writeBytes(((BigInteger) value).toByteArray());
+        } else if (value.getClass() == BigDecimal.class) {
+            BigDecimal decimal = (BigDecimal) value;
+            output.write(TAG_BIG_DECIMAL);
+            output.writeVarLong(zigzag(decimal.scale()));
+            output.writeBytes(decimal.unscaledValue().toByteArray());
+        } else if (serializationAllowed) {
+            output.write(TAG_SERIALIZED);
+            output.writeBytes(serialize(value));
+        } else {
+            throw new NitriteIOException("cannot encode " + value.getClass().getName()
+                + " without java serialization");
+        }
+    }
+
+    private Document readDocument(ByteBuffer buffer) {
+        Document document = Document.createDocument();
+        for (Pair<String, Object> pair : readFields(buffer)) {
+            document.put(pair.getFirst(), pair.getSecond());
+        }
+        return document;
+    }
+
+    private List<Pair<String, Object>> readFields(ByteBuffer buffer) {
+        int size = readVarInt(buffer);
+        String[] fieldNames = new String[size];
+        for (int i = 0; i < size; i++) {
+            fieldNames[i] = dictionary.getName(readVarInt(buffer));
+            readVarInt(buffer);
+        }
+
+        List<Pair<String, Object>> fields = new ArrayList<>(size);
+        for (String fieldName : fieldNames) {
+            fields.add(new Pair<>(fieldName, readValue(buffer)));
+        }
+        return fields;
+    }
+
+    private int encodedLength(ByteBuffer buffer) {
+        int start = buffer.position();
+        int size = readVarInt(buffer);
+        long valuesLength = 0;
+        for (int i = 0; i < size; i++) {
+            readVarInt(buffer);
+            valuesLength += readVarInt(buffer);
+        }
+
+        long length = buffer.position() - start + valuesLength;
+        if (length > buffer.limit() - start) {
+            throw new NitriteIOException("truncated document");
+        }
+        return (int) length;
+    }
+
+    private static NitriteIOException decodeError(RuntimeException e) {
+        if (e instanceof NitriteIOException) {
+            return (NitriteIOException) e;
+        }
+        return new NitriteIOException("failed to decode document", e);
+    }
+
+    private Object readValue(ByteBuffer buffer) {
+        byte tag = buffer.get();
+        switch (tag) {
+            case TAG_NULL:
+                return null;
+            case TAG_TRUE:
+                return Boolean.TRUE;
+            case TAG_FALSE:
+                return Boolean.FALSE;
+            case TAG_INT:
+                return (int) unzigzag(readVarLong(buffer));
+            case TAG_LONG:
+                return unzigzag(readVarLong(buffer));
+            case TAG_DOUBLE:
+                return Double.longBitsToDouble(buffer.getLong());
+            case TAG_FLOAT:
+                return Float.intBitsToFloat(buffer.getInt());
+            case TAG_STRING:
+                return new String(readBytes(buffer), UTF_8);
+            case TAG_DOCUMENT:
+                return readDocument(buffer);
+            case TAG_LIST:
+                int size = readVarInt(buffer);
+                List<Object> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    list.add(readValue(buffer));
+                }
+                return list;
+            case TAG_BYTES:
+                return readBytes(buffer);
+            case TAG_SHORT:
+                return (short) unzigzag(readVarLong(buffer));
+            case TAG_BYTE:
+                return buffer.get();
+            case TAG_CHAR:
+                return (char) readVarInt(buffer);
+            case TAG_DATE:
+                return new Date(unzigzag(readVarLong(buffer)));
+            case TAG_BIG_INTEGER:
+                return new BigInteger(readBytes(buffer));
+            case TAG_BIG_DECIMAL:
+                int scale = (int) unzigzag(readVarLong(buffer));
+                return new BigDecimal(new BigInteger(readBytes(buffer)), scale);
+            case TAG_SERIALIZED:
+                if (!serializationAllowed) {
+                    throw new NitriteIOException("java serialized value is not allowed");
+                }
+                return deserialize(readBytes(buffer));
+            default:
+                throw new NitriteIOException("unknown value tag " + tag);
+        }
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static int readVarInt(ByteBuffer buffer) {
+        return (int) readVarLong(buffer);
+    }
+
+    private static long readVarLong(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7f) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new NitriteIOException("malformed varint");
+    }
+
+    private static byte[] readBytes(ByteBuffer buffer) {
+        byte[] bytes = new byte[readVarInt(buffer)];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    private static byte[] serialize(Object value) {
+        try (ByteArrayOutputStream bos = new ByteArrayOutputStream();
+             ObjectOutputStream oos = new ObjectOutputStream(bos)) {
+            oos.writeObject(value);
+            oos.flush();
+            return bos.toByteArray();
+        } catch (IOException e) {
+            throw new NitriteIOException("failed to serialize " + value.getClass().getName(), e);
+        }
+    }
+
+    private static Object deserialize(byte[] bytes) {
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return ois.readObject();
+        } catch (IOException | ClassNotFoundException e) {
+            throw new NitriteIOException("failed to deserialize value", e);
+        }
+    }
+
+    private static class Output {
+        private byte[] buffer = new byte[128];
+        private int position;
+
+        void write(int b) {
+            ensureCapacity(1);
+            buffer[position++] = (byte) b;
+        }
+
+        void writeVarInt(int value) {
+            writeVarLong(value & 0xffffffffL);
+        }
+
+        void writeVarLong(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7fL) != 0) {
+                buffer[position++] = (byte) ((value & 0x7f) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        void writeInt(int value) {
+            ensureCapacity(4);
+            for (int shift = 24; shift >= 0; shift -= 8) {
+                buffer[position++] = (byte) (value >>> shift);
+            }
+        }
+
+        void writeLong(long value) {
+            ensureCapacity(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                buffer[position++] = (byte) (value >>> shift);
+            }
+        }
+
+        void writeBytes(byte[] bytes) {
+            writeVarInt(bytes.length);
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+
+        void writeRaw(Output output) {
+            ensureCapacity(output.position);
+            System.arraycopy(output.buffer, 0, buffer, position, output.position);
+            position += output.position;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, position);
+        }
+
+        private void ensureCapacity(int length) {
+            if (position + length > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + length));
+            }
+        }
+    }
+}
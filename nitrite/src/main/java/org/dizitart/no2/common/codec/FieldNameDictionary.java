@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.common.codec;
+
+import org.dizitart.no2.exceptions.NitriteIOException;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+import static org.dizitart.no2.common.util.ValidationUtils.notNull;
+
+/**
+ * Represents a dictionary of field names of a nitrite map. Every field
+ * name gets a small integer id, which is stored in place of the field name
+ * by the {@link DocumentCodec}.
+ * <p>
+ * Ids are never reused or reassigned. A new id is handed over to the
+ * persister before it is used by any encoded document, so a store must
+ * make the persisted entry at least as durable as the documents which
+ * refer to it.
+ *
+ * @author Anindya Chatterjee
+ * @since 4.0
+ */
+public class FieldNameDictionary {
+    private final Map<String, Integer> fieldIds;
+    private final Map<Integer, String> fieldNames;
+    private final BiConsumer<Integer, String> persister;
+    private int nextId;
+
+    /**
+     * Instantiates a new {@link FieldNameDictionary}.
+     *
+     * @param entries   the already persisted entries
+     * @param persister the persister for newly assigned entries
+     */
+    public FieldNameDictionary(Map<Integer, String> entries, BiConsumer<Integer, String> persister) {
+        notNull(entries, "entries cannot be null");
+        notNull(persister, "persister cannot be null");
+
+        this.fieldIds = new ConcurrentHashMap<>();
+        this.fieldNames = new ConcurrentHashMap<>();
+        this.persister = persister;
+
+        for (Map.Entry<Integer, String> entry : entries.entrySet()) {
+            fieldIds.put(entry.getValue(), entry.getKey());
+            fieldNames.put(entry.getKey(), entry.getValue());
+            nextId = Math.max(nextId, entry.getKey() + 1);
+        }
+    }
+
+    /**
+     * Gets the id of a field name, assigns a new id if
+     * the field name is not in the dictionary yet.
+     *
+     * @param fieldName the field name
+     * @return the id
+     */
+    public int getId(String fieldName) {
+        Integer id = fieldIds.get(fieldName);
+        if (id != null) {
+            return id;
+        }
+        return assignId(fieldName);
+    }
+
+    /**
+     * Finds the id of a field name, without assigning a new one.
+     *
+     * @param fieldName the field name
+     * @return the id, or null if the field name is not in the dictionary
+     */
+    public Integer findId(String fieldName) {
+        return fieldName == null ? null : fieldIds.get(fieldName);
+    }
+
+    /**
+     * Gets the field name of an id.
+     *
+     * @param id the id
+     * @return the field name
+     */
+    public String getName(int id) {
+        String fieldName = fieldNames.get(id);
+        if (fieldName == null) {
+            throw new NitriteIOException("no field name found for id " + id);
+        }
+        return fieldName;
+    }
+
+    /**
+     * Gets the number of field names in the dictionary.
+     *
+     * @return the size
+     */
+    public int size() {
+        return fieldNames.size();
+    }
+
+    private synchronized int assignId(String fieldName) {
+        Integer id = fieldIds.get(fieldName);
+        if (id != null) {
+            return id;
+        }
+
+        int newId = nextId;
+        persister.accept(newId, fieldName);
+        nextId++;
+
+        // publish the name before the id, so that a reader which sees the
+        // id in an encoded document can always resolve it
+        fieldNames.put(newId, fieldName);
+        fieldIds.put(fieldName, newId);
+        return newId;
+    }
+}
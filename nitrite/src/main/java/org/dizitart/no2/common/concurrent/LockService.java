@@ -1,7 +1,7 @@
 package org.dizitart.no2.common.concurrent;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
@@ -18,7 +18,7 @@ public class LockService {
      * Instantiates a new Lock service.
      */
     public LockService() {
-        this.lockRegistry = new HashMap<>();
+        this.lockRegistry = new ConcurrentHashMap<>();
     }
 
     /**
@@ -27,14 +27,8 @@ public class LockService {
      * @param name the name
      * @return the read lock
      */
-    public synchronized Lock getReadLock(String name) {
-        if (lockRegistry.containsKey(name)) {
-            ReentrantReadWriteLock rwLock = lockRegistry.get(name);
-            return rwLock.readLock();
-        }
-        ReentrantReadWriteLock rwLock = new ReentrantReadWriteLock();
-        lockRegistry.put(name, rwLock);
-        return rwLock.readLock();
+    public Lock getReadLock(String name) {
+        return getLock(name).readLock();
     }
 
     /**
@@ -43,13 +37,17 @@ public class LockService {
      * @param name the name
      * @return the write lock
      */
-    public synchronized Lock getWriteLock(String name) {
-        if (lockRegistry.containsKey(name)) {
-            ReentrantReadWriteLock rwLock = lockRegistry.get(name);
-            return rwLock.writeLock();
-        }
-        ReentrantReadWriteLock rwLock = new ReentrantReadWriteLock();
-        lockRegistry.put(name, rwLock);
-        return rwLock.writeLock();
+    public Lock getWriteLock(String name) {
+        return getLock(name).writeLock();
+    }
+
+    /**
+     * Gets the read write lock.
+     *
+     * @param name the name
+     * @return the read write lock
+     */
+    public ReentrantReadWriteLock getLock(String name) {
+        return lockRegistry.computeIfAbsent(name, k -> new ReentrantReadWriteLock());
     }
 }
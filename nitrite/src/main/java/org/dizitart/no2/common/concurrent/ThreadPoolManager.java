@@ -20,12 +20,15 @@ import lombok.extern.slf4j.Slf4j;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 import static org.dizitart.no2.common.Constants.DAEMON_THREAD_NAME;
+import static org.dizitart.no2.common.Constants.EVENT_THREAD_NAME;
+import static org.dizitart.no2.common.Constants.SCAN_THREAD_NAME;
 
 /**
  * A factory class for creating {@link ExecutorService}.
@@ -37,13 +40,16 @@ import static org.dizitart.no2.common.Constants.DAEMON_THREAD_NAME;
 public class ThreadPoolManager {
     private final static List<ExecutorService> threadPools;
     private final static ExecutorService commonPool;
+    private final static ExecutorService eventPool;
     private final static Object lock;
+    private static ExecutorService scanPool;
 
     static {
+        lock = new Object();
         threadPools = new ArrayList<>();
         commonPool = workerPool();
         threadPools.add(commonPool);
-        lock = new Object();
+        eventPool = getThreadPool(Runtime.getRuntime().availableProcessors(), EVENT_THREAD_NAME);
     }
 
     /**
@@ -66,7 +72,9 @@ public class ThreadPoolManager {
      */
     public static ExecutorService getThreadPool(int size, String threadName) {
         ExecutorService threadPool = Executors.newFixedThreadPool(size, threadFactory(threadName));
-        threadPools.add(threadPool);
+        synchronized (lock) {
+            threadPools.add(threadPool);
+        }
         return threadPool;
     }
 
@@ -99,11 +107,52 @@ public class ThreadPoolManager {
         return commonPool.submit(runnable);
     }
 
+    /**
+     * Submits a collection scan task asynchronously on the scan pool.
+     * <p>
+     * Scan tasks are kept away from the common pool, so that a scan
+     * started from a common pool task can never wait on itself.
+     *
+     * @param <T>      the type parameter
+     * @param callable the scan task
+     * @return the future
+     */
+    public static <T> Future<T> runScanAsync(Callable<T> callable) {
+        return getScanPool().submit(callable);
+    }
+
+    /**
+     * Submits an event delivery task asynchronously on the event pool,
+     * which is shared by all event buses.
+     *
+     * @param runnable the event delivery task
+     */
+    public static void runEventAsync(Runnable runnable) {
+        eventPool.execute(runnable);
+    }
+
+    /**
+     * Gets the event pool, which is shared by all event buses.
+     *
+     * @return the event pool
+     */
+    public static ExecutorService getEventPool() {
+        return eventPool;
+    }
+
     /**
      * Shuts down all thread pools.
+     * <p>
+     * The scan pool is created again on the next scan, as a database can
+     * still be opened after the pools have been shut down.
      */
     public synchronized static void shutdownThreadPools() {
-        for (ExecutorService threadPool : threadPools) {
+        List<ExecutorService> pools;
+        synchronized (lock) {
+            pools = new ArrayList<>(threadPools);
+        }
+
+        for (ExecutorService threadPool : pools) {
             synchronized (lock) {
                 if (threadPool != null) {
                     threadPool.shutdown();
@@ -127,4 +176,18 @@ public class ThreadPoolManager {
             }
         }
     }
+
+    private static ExecutorService getScanPool() {
+        synchronized (lock) {
+            if (scanPool == null || scanPool.isShutdown()) {
+                if (scanPool != null) {
+                    threadPools.remove(scanPool);
+                }
+                scanPool = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(),
+                    threadFactory(SCAN_THREAD_NAME));
+                threadPools.add(scanPool);
+            }
+            return scanPool;
+        }
+    }
 }
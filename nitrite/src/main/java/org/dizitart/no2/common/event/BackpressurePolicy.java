@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.common.event;
+
+/**
+ * Specifies what an {@link EventBus} does when the event queue
+ * of a slow listener is full.
+ *
+ * @author Anindya Chatterjee
+ * @since 4.0
+ */
+public enum BackpressurePolicy {
+    /**
+     * The posting thread waits until the listener has consumed
+     * some of its pending events. No event is lost.
+     */
+    Block,
+
+    /**
+     * The oldest pending event of the listener is discarded
+     * to make room for the new event.
+     */
+    DropOldest,
+
+    /**
+     * A pending event about the same item is replaced by the new event,
+     * so that the listener only receives the latest change of an item.
+     * If no such event is pending and the queue is full, the posting
+     * thread waits like {@link #Block}.
+     */
+    Coalesce
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.common.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Represents a snapshot of the event queues of an {@link EventBus}.
+ *
+ * @author Anindya Chatterjee
+ * @since 4.0
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class EventQueueMetrics {
+    /**
+     * The number of registered listeners.
+     *
+     * @return the listener count
+     */
+    private final int listenerCount;
+
+    /**
+     * The number of events waiting to be delivered, summed over all listeners.
+     *
+     * @return the queue depth
+     */
+    private final int queueDepth;
+
+    /**
+     * The deepest queue of a single listener.
+     *
+     * @return the max queue depth
+     */
+    private final int maxQueueDepth;
+
+    /**
+     * The number of events discarded by {@link BackpressurePolicy#DropOldest}.
+     *
+     * @return the dropped event count
+     */
+    private final long droppedEventCount;
+
+    /**
+     * The number of events replaced by {@link BackpressurePolicy#Coalesce}.
+     *
+     * @return the coalesced event count
+     */
+    private final long coalescedEventCount;
+}
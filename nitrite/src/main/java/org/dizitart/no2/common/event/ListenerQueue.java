@@ -0,0 +1,264 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.common.event;
+
+import lombok.extern.slf4j.Slf4j;
+import org.dizitart.no2.common.concurrent.ThreadPoolManager;
+import org.dizitart.no2.exceptions.NitriteException;
+
+import java.util.*;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * A bounded, ordered queue of events for a single listener.
+ * <p>
+ * At most one drain task per queue runs on the shared event pool at any
+ * time, so the listener receives its events one by one in posting order.
+ * A drain task delivers up to <code>batchSize</code> events and then
+ * yields the pool thread to the queues of other listeners.
+ * <p>
+ * A poster which finds the queue full waits for room, unless the
+ * <code>canWait</code> predicate tells it that the thread delivering to
+ * the listener (<code>null</code> if no delivery is running) can only
+ * make progress once the poster goes on, e.g. as it waits for a lock
+ * which the poster holds. The predicate is checked again periodically,
+ * as the delivering thread does not signal when it gets blocked.
+ *
+ * @param <EventInfo> the event information type parameter
+ * @author Anindya Chatterjee
+ * @since 4.0
+ */
+@Slf4j
+class ListenerQueue<EventInfo> {
+    private static final long RECHECK_MILLIS = 10;
+
+    private final Consumer<EventInfo> listener;
+    private final Function<EventInfo, Object> keyFunction;
+    private final int capacity;
+    private final int batchSize;
+    private final BackpressurePolicy policy;
+
+    private final ReentrantLock lock;
+    private final Condition notFull;
+    private final Deque<Slot<EventInfo>> slots;
+    private final Map<Object, Slot<EventInfo>> pendingByKey;
+    private final AtomicLong droppedCount;
+    private final AtomicLong coalescedCount;
+    private volatile Thread drainingThread;
+    private boolean scheduled;
+    private boolean closed;
+
+    ListenerQueue(Consumer<EventInfo> listener, Function<EventInfo, Object> keyFunction,
+                  int capacity, int batchSize, BackpressurePolicy policy) {
+        this.listener = listener;
+        this.keyFunction = keyFunction;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.policy = policy;
+        this.lock = new ReentrantLock();
+        this.notFull = lock.newCondition();
+        this.slots = new ArrayDeque<>();
+        this.pendingByKey = new HashMap<>();
+        this.droppedCount = new AtomicLong();
+        this.coalescedCount = new AtomicLong();
+    }
+
+    void offer(EventInfo eventInfo) {
+        offer(eventInfo, thread -> true);
+    }
+
+    void offer(EventInfo eventInfo, Predicate<Thread> canWait) {
+        Object key = policy == BackpressurePolicy.Coalesce ? keyFunction.apply(eventInfo) : null;
+
+        lock.lock();
+        try {
+            if (closed) return;
+
+            if (key != null) {
+                Slot<EventInfo> pending = pendingByKey.get(key);
+                if (pending != null) {
+                    // the listener gets the latest event at the position of the older one
+                    pending.eventInfo = eventInfo;
+                    coalescedCount.incrementAndGet();
+                    return;
+                }
+            }
+
+            while (slots.size() >= capacity && !closed) {
+                if (Thread.currentThread() == drainingThread) {
+                    // the listener itself posts an event, waiting for its
+                    // own queue to drain would never end
+                    break;
+                } else if (policy == BackpressurePolicy.DropOldest) {
+                    removeSlot(slots.pollFirst());
+                    droppedCount.incrementAndGet();
+                } else if (!canWait.test(drainingThread)) {
+                    // the listener is blocked by the poster, which waits
+                    // in awaitCapacity() once it has released the block
+                    break;
+                } else {
+                    awaitNotFull();
+                }
+            }
+            if (closed) return;
+
+            Slot<EventInfo> slot = new Slot<>(key, eventInfo);
+            slots.addLast(slot);
+            if (key != null) {
+                pendingByKey.put(key, slot);
+            }
+
+            if (!scheduled) {
+                scheduled = true;
+                schedule();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void awaitCapacity() {
+        awaitCapacity(thread -> true);
+    }
+
+    void awaitCapacity(Predicate<Thread> canWait) {
+        lock.lock();
+        try {
+            while (slots.size() >= capacity && !closed
+                && Thread.currentThread() != drainingThread
+                && canWait.test(drainingThread)) {
+                awaitNotFull();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int size() {
+        lock.lock();
+        try {
+            return slots.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    long getCoalescedCount() {
+        return coalescedCount.get();
+    }
+
+    void close() {
+        lock.lock();
+        try {
+            // stop accepting events, already queued events are still delivered
+            closed = true;
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void drain() {
+        List<EventInfo> batch = new ArrayList<>(batchSize);
+        lock.lock();
+        try {
+            while (batch.size() < batchSize && !slots.isEmpty()) {
+                Slot<EventInfo> slot = slots.pollFirst();
+                removeSlot(slot);
+                batch.add(slot.eventInfo);
+            }
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        drainingThread = Thread.currentThread();
+        try {
+            for (EventInfo eventInfo : batch) {
+                try {
+                    listener.accept(eventInfo);
+                } catch (Throwable t) {
+                    // a failing listener must not stop the delivery of later events
+                    log.error("Error while delivering event " + eventInfo, t);
+                }
+            }
+        } finally {
+            drainingThread = null;
+        }
+
+        lock.lock();
+        try {
+            if (slots.isEmpty()) {
+                scheduled = false;
+            } else {
+                schedule();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void schedule() {
+        try {
+            ThreadPoolManager.runEventAsync(this::drain);
+        } catch (RejectedExecutionException e) {
+            // event pool has been shut down along with the jvm
+            log.warn("Event pool is not accepting tasks, discarding pending events");
+            scheduled = false;
+            slots.clear();
+            pendingByKey.clear();
+            notFull.signalAll();
+        }
+    }
+
+    private void removeSlot(Slot<EventInfo> slot) {
+        if (slot.key != null) {
+            pendingByKey.remove(slot.key, slot);
+        }
+    }
+
+    private void awaitNotFull() {
+        try {
+            notFull.await(RECHECK_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new NitriteException("interrupted while waiting for event queue", e);
+        }
+    }
+
+    private static class Slot<EventInfo> {
+        private final Object key;
+        private EventInfo eventInfo;
+
+        Slot(Object key, EventInfo eventInfo) {
+            this.key = key;
+            this.eventInfo = eventInfo;
+        }
+    }
+}
@@ -18,12 +18,27 @@ package org.dizitart.no2.common.event;
 
 import org.dizitart.no2.common.concurrent.ThreadPoolManager;
 
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.ExecutorService;
+import java.util.function.BiConsumer;
+
+import static org.dizitart.no2.common.Constants.DEFAULT_EVENT_BATCH_SIZE;
+import static org.dizitart.no2.common.Constants.DEFAULT_EVENT_QUEUE_CAPACITY;
+import static org.dizitart.no2.common.util.ValidationUtils.notNull;
 
 /**
  * An abstract implementation of {@link EventBus}.
+ * <p>
+ * Events posted via {@link #dispatch(Object, BiConsumer)} are delivered on
+ * a thread pool shared by all event buses. Every listener has its own bounded
+ * queue and receives its events in posting order. When a queue is full, the
+ * {@link BackpressurePolicy} of the bus decides what happens to a new event.
+ * Only if the listener is blocked by the posting thread, see
+ * {@link #canWait(Thread)}, the event is queued over the capacity and
+ * the posting thread waits later in {@link #awaitCapacity()}.
  *
  * @param <EventInfo>     the event information type parameter
  * @param <EventListener> the event listener type parameter
@@ -34,13 +49,32 @@ public abstract class NitriteEventBus<EventInfo, EventListener>
     implements EventBus<EventInfo, EventListener>, AutoCloseable {
 
     private final Set<EventListener> listeners;
-    private ExecutorService eventExecutor;
+    private final Map<EventListener, ListenerQueue<EventInfo>> listenerQueues;
+    private final int queueCapacity;
+    private final int batchSize;
+    private final BackpressurePolicy backpressurePolicy;
 
     /**
-     * Instantiates a new Nitrite event bus.
+     * Instantiates a new Nitrite event bus with default queue settings.
      */
     public NitriteEventBus() {
+        this(DEFAULT_EVENT_QUEUE_CAPACITY, DEFAULT_EVENT_BATCH_SIZE, BackpressurePolicy.Block);
+    }
+
+    /**
+     * Instantiates a new Nitrite event bus.
+     *
+     * @param queueCapacity      the maximum number of pending events per listener
+     * @param batchSize          the maximum number of events delivered per dispatch task
+     * @param backpressurePolicy the policy to apply when a listener queue is full
+     */
+    public NitriteEventBus(int queueCapacity, int batchSize, BackpressurePolicy backpressurePolicy) {
+        notNull(backpressurePolicy, "backpressurePolicy cannot be null");
         this.listeners = new CopyOnWriteArraySet<>();
+        this.listenerQueues = new ConcurrentHashMap<>();
+        this.queueCapacity = Math.max(1, queueCapacity);
+        this.batchSize = Math.max(1, batchSize);
+        this.backpressurePolicy = backpressurePolicy;
     }
 
     @Override
@@ -54,29 +88,102 @@ public abstract class NitriteEventBus<EventInfo, EventListener>
     public void deregister(EventListener eventListener) {
         if (eventListener != null) {
             listeners.remove(eventListener);
+            ListenerQueue<EventInfo> queue = listenerQueues.remove(eventListener);
+            if (queue != null) {
+                queue.close();
+            }
         }
     }
 
     @Override
     public void close() {
         listeners.clear();
-        if (eventExecutor != null) {
-            eventExecutor.shutdown();
+        for (ListenerQueue<EventInfo> queue : listenerQueues.values()) {
+            queue.close();
+        }
+        listenerQueues.clear();
+    }
+
+    /**
+     * Gets a snapshot of the listener queues of this bus.
+     *
+     * @return the event queue metrics
+     */
+    public EventQueueMetrics getMetrics() {
+        int depth = 0, maxDepth = 0;
+        long dropped = 0, coalesced = 0;
+        for (ListenerQueue<EventInfo> queue : listenerQueues.values()) {
+            int size = queue.size();
+            depth += size;
+            maxDepth = Math.max(maxDepth, size);
+            dropped += queue.getDroppedCount();
+            coalesced += queue.getCoalescedCount();
+        }
+        return new EventQueueMetrics(listeners.size(), depth, maxDepth, dropped, coalesced);
+    }
+
+    /**
+     * Queues an event for all registered listeners. The <code>notifier</code>
+     * is invoked on the shared event pool to deliver the event to a listener.
+     *
+     * @param eventInfo the event information
+     * @param notifier  the function to deliver an event to a listener
+     */
+    protected void dispatch(EventInfo eventInfo, BiConsumer<EventListener, EventInfo> notifier) {
+        for (final EventListener listener : listeners) {
+            ListenerQueue<EventInfo> queue = listenerQueues.computeIfAbsent(listener,
+                key -> new ListenerQueue<>(event -> notifier.accept(key, event),
+                    this::coalescingKey, queueCapacity, batchSize, backpressurePolicy));
+            queue.offer(eventInfo, this::canWait);
         }
     }
 
     /**
-     * Gets the {@link ExecutorService} that executes listeners' code.
+     * Waits until the queues of all listeners have room for a new event. An
+     * event posted while {@link #canWait(Thread)} was <code>false</code> is
+     * queued even if the queue is full, the posting thread is expected to
+     * call this method once it no longer blocks the listener.
+     */
+    public void awaitCapacity() {
+        for (ListenerQueue<EventInfo> queue : listenerQueues.values()) {
+            queue.awaitCapacity(this::canWait);
+        }
+    }
+
+    /**
+     * Checks if the posting thread can wait for a full listener queue. It
+     * must not wait if the thread delivering the events to the listener
+     * waits for the posting thread, e.g. for a lock which it holds.
+     *
+     * @param deliveringThread the thread delivering events to the listener,
+     *                         <code>null</code> if no delivery is running
+     * @return <code>true</code> if the posting thread can wait
+     */
+    protected boolean canWait(Thread deliveringThread) {
+        return true;
+    }
+
+    /**
+     * Gets the key identifying the item an event is about. Pending events
+     * with the same key are merged under {@link BackpressurePolicy#Coalesce}.
+     * A <code>null</code> key means the event is never merged.
+     *
+     * @param eventInfo the event information
+     * @return the coalescing key
+     */
+    protected Object coalescingKey(EventInfo eventInfo) {
+        return null;
+    }
+
+    /**
+     * Gets the {@link ExecutorService} that executes listeners' code. It is
+     * the event pool shared by all event buses, closing a bus does not
+     * shut it down.
      *
      * @return the {@link ExecutorService}.
      */
     protected ExecutorService getEventExecutor() {
-        if (eventExecutor == null
-            || eventExecutor.isShutdown()
-            || eventExecutor.isTerminated()) {
-            eventExecutor = ThreadPoolManager.workerPool();
-        }
-        return eventExecutor;
+        return ThreadPoolManager.getEventPool();
     }
 
     /**
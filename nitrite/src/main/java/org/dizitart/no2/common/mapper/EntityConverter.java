@@ -0,0 +1,303 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.common.mapper;
+
+import org.dizitart.no2.collection.Document;
+import org.dizitart.no2.exceptions.ObjectMappingException;
+import org.dizitart.no2.repository.annotations.Entity;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.*;
+
+/**
+ * A converter between an {@link Entity} class and {@link Document}, which
+ * is built once per class and then reads and writes the fields directly via
+ * {@link MethodHandle}s, without any intermediate representation.
+ * <p>
+ * A converter is only built for a class if every non static, non transient
+ * field of it is a string, an int, a long, a double, a boolean, an enum or a
+ * nested object, and the class has a no-arg constructor. The documents
+ * written are the same as the ones a field based object mapper writes, so
+ * any other class is left to the {@link NitriteMapper} itself.
+ *
+ * @author Anindya Chatterjee
+ * @since 4.0
+ */
+class EntityConverter {
+    private static final MethodHandles.Lookup lookup = MethodHandles.lookup();
+    private static final String JACKSON_PACKAGE = "com.fasterxml.jackson";
+
+    private final Class<?> type;
+    private final MethodHandle constructor;
+    private final List<Property> properties;
+
+    private EntityConverter(Class<?> type, MethodHandle constructor, List<Property> properties) {
+        this.type = type;
+        this.constructor = constructor;
+        this.properties = properties;
+    }
+
+    /**
+     * Builds a converter for an {@link Entity} class.
+     *
+     * @param type   the entity type
+     * @param mapper the mapper to classify the field types
+     * @return the converter, or null if the type is not supported
+     */
+    static EntityConverter create(Class<?> type, NitriteMapper mapper) {
+        if (!type.isAnnotationPresent(Entity.class)
+            || type.isInterface()
+            || Modifier.isAbstract(type.getModifiers())
+            || (type.isMemberClass() && !Modifier.isStatic(type.getModifiers()))
+            || hasForeignAnnotation(type.getAnnotations())) {
+            return null;
+        }
+
+        try {
+            Constructor<?> noArgConstructor = type.getDeclaredConstructor();
+            noArgConstructor.setAccessible(true);
+            MethodHandle constructor = lookup.unreflectConstructor(noArgConstructor)
+                .asType(MethodType.methodType(Object.class));
+
+            List<Property> properties = new ArrayList<>();
+            Set<String> names = new HashSet<>();
+            for (Field field : fieldsOf(type)) {
+                PropertyKind kind = kindOf(type, field, mapper);
+                if (kind == null || !names.add(field.getName())) {
+                    // unsupported or shadowed field
+                    return null;
+                }
+                properties.add(new Property(field, kind));
+            }
+            return new EntityConverter(type, constructor, properties);
+        } catch (NoSuchMethodException | IllegalAccessException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Writes an entity to a document.
+     *
+     * @param source the entity
+     * @param mapper the mapper for nested objects
+     * @return the document
+     */
+    Document write(Object source, NitriteMapper mapper) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        try {
+            for (Property property : properties) {
+                Object value = property.getter.invokeExact(source);
+                fields.put(property.name, property.write(value, mapper));
+            }
+        } catch (ObjectMappingException e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new ObjectMappingException("failed to write " + type.getName(), t);
+        }
+        return Document.createDocument(fields);
+    }
+
+    /**
+     * Reads an entity from a document. Fields which are not in the
+     * document are left to the value of the no-arg constructor.
+     *
+     * @param document the document
+     * @param mapper   the mapper for nested objects
+     * @return the entity
+     */
+    Object read(Document document, NitriteMapper mapper) {
+        try {
+            Object target = constructor.invokeExact();
+            for (Property property : properties) {
+                if (document.containsKey(property.name)) {
+                    Object value = property.read(document.get(property.name), mapper);
+                    property.setter.invokeExact(target, value);
+                }
+            }
+            return target;
+        } catch (ObjectMappingException e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new ObjectMappingException("failed to read " + type.getName(), t);
+        }
+    }
+
+    private static List<Field> fieldsOf(Class<?> type) {
+        // fields of the super classes come first
+        Deque<Class<?>> hierarchy = new ArrayDeque<>();
+        for (Class<?> current = type; current != null && current != Object.class;
+             current = current.getSuperclass()) {
+            hierarchy.push(current);
+        }
+
+        List<Field> fields = new ArrayList<>();
+        for (Class<?> current : hierarchy) {
+            for (Field field : current.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+                if (!Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers) && !field.isSynthetic()) {
+                    fields.add(field);
+                }
+            }
+        }
+        return fields;
+    }
+
+    private static PropertyKind kindOf(Class<?> entityType, Field field, NitriteMapper mapper) {
+        if (Modifier.isFinal(field.getModifiers()) || hasForeignAnnotation(field.getAnnotations())) {
+            return null;
+        }
+
+        Class<?> fieldType = field.getType();
+        if (fieldType == String.class) return PropertyKind.STRING;
+        if (fieldType == int.class || fieldType == Integer.class) return PropertyKind.INT;
+        if (fieldType == long.class || fieldType == Long.class) return PropertyKind.LONG;
+        if (fieldType == double.class || fieldType == Double.class) return PropertyKind.DOUBLE;
+        if (fieldType == boolean.class || fieldType == Boolean.class) return PropertyKind.BOOLEAN;
+        if (fieldType.isEnum()) return PropertyKind.ENUM;
+
+        if (fieldType.isPrimitive()
+            || fieldType.isArray()
+            || fieldType.isInterface()
+            || Modifier.isAbstract(fieldType.getModifiers())
+            || fieldType == Object.class
+            || fieldType == entityType
+            || Collection.class.isAssignableFrom(fieldType)
+            || Map.class.isAssignableFrom(fieldType)
+            || mapper.isValueType(fieldType)) {
+            return null;
+        }
+        return PropertyKind.OBJECT;
+    }
+
+    private static boolean hasForeignAnnotation(Annotation[] annotations) {
+        // mapping annotations of jackson change the document layout
+        for (Annotation annotation : annotations) {
+            if (annotation.annotationType().getName().startsWith(JACKSON_PACKAGE)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private enum PropertyKind {
+        STRING, INT, LONG, DOUBLE, BOOLEAN, ENUM, OBJECT
+    }
+
+    private static class Property {
+        private final String name;
+        private final Class<?> type;
+        private final PropertyKind kind;
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+
+        Property(Field field, PropertyKind kind) throws IllegalAccessException {
+            field.setAccessible(true);
+            this.name = field.getName();
+            this.type = field.getType();
+            this.kind = kind;
+            this.getter = lookup.unreflectGetter(field)
+                .asType(MethodType.methodType(Object.class, Object.class));
+            this.setter = createSetter(field)
+                .asType(MethodType.methodType(void.class, Object.class, Object.class));
+        }
+
+        private static MethodHandle createSetter(Field field) throws IllegalAccessException {
+            // a setter method takes precedence over the field, like in a field based object mapper
+            String name = field.getName();
+            String setterName = "set" + Character.toUpperCase(name.charAt(0)) + name.substring(1);
+            for (Class<?> current = field.getDeclaringClass(); current != null && current != Object.class;
+                 current = current.getSuperclass()) {
+                try {
+                    Method method = current.getDeclaredMethod(setterName, field.getType());
+                    if (Modifier.isStatic(method.getModifiers())) {
+                        break;
+                    }
+                    if (hasForeignAnnotation(method.getAnnotations())) {
+                        throw new IllegalAccessException("unsupported setter " + setterName);
+                    }
+                    method.setAccessible(true);
+                    return lookup.unreflect(method);
+                } catch (NoSuchMethodException e) {
+                    // look up in the super class
+                }
+            }
+            return lookup.unreflectSetter(field);
+        }
+
+        Object write(Object value, NitriteMapper mapper) {
+            if (value == null) {
+                return null;
+            }
+            switch (kind) {
+                case ENUM:
+                    return ((Enum<?>) value).name();
+                case OBJECT:
+                    return mapper.convert(value, Document.class);
+                default:
+                    return value;
+            }
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Object read(Object value, NitriteMapper mapper) {
+            if (value == null) {
+                // a primitive field is reset to its default value
+                return type.isPrimitive() ? defaultValue() : null;
+            }
+
+            switch (kind) {
+                case STRING:
+                    return (String) value;
+                case INT:
+                    return ((Number) value).intValue();
+                case LONG:
+                    return ((Number) value).longValue();
+                case DOUBLE:
+                    return ((Number) value).doubleValue();
+                case BOOLEAN:
+                    return (Boolean) value;
+                case ENUM:
+                    return Enum.valueOf((Class<? extends Enum>) type, (String) value);
+                case OBJECT:
+                    return mapper.convert((Document) value, type);
+                default:
+                    throw new ObjectMappingException("unsupported field " + name);
+            }
+        }
+
+        private Object defaultValue() {
+            switch (kind) {
+                case INT:
+                    return 0;
+                case LONG:
+                    return 0L;
+                case DOUBLE:
+                    return 0.0d;
+                default:
+                    return false;
+            }
+        }
+    }
+}
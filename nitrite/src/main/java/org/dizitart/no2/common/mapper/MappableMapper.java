@@ -22,18 +22,24 @@ import org.dizitart.no2.collection.NitriteId;
 import org.dizitart.no2.exceptions.ObjectMappingException;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static org.dizitart.no2.common.util.Iterables.listOf;
 import static org.dizitart.no2.common.util.ObjectUtils.newInstance;
 
 /**
  * A {@link NitriteMapper} based on {@link Mappable} implementation.
+ * <p>
+ * An {@link org.dizitart.no2.repository.annotations.Entity} class which does
+ * not implement {@link Mappable} is converted by an {@link EntityConverter},
+ * if all of its fields are supported by it.
  *
  * @author Anindya Chatterjee.
  * @since 4.0
  */
 public class MappableMapper implements NitriteMapper {
     private final Set<Class<?>> valueTypes;
+    private final Map<Class<?>, Optional<EntityConverter>> entityConverters;
 
     /**
      * Instantiates a new {@link MappableMapper}.
@@ -42,6 +48,7 @@ public class MappableMapper implements NitriteMapper {
      */
     public MappableMapper(Class<?>... valueTypes) {
         this.valueTypes = new HashSet<>();
+        this.entityConverters = new ConcurrentHashMap<>();
         init(listOf(valueTypes));
     }
 
@@ -66,6 +73,11 @@ public class MappableMapper implements NitriteMapper {
             return item;
         }
 
+        EntityConverter entityConverter = findEntityConverter(type);
+        if (entityConverter != null) {
+            return type.cast(entityConverter.read(source, this));
+        }
+
         throw new ObjectMappingException("object must implements Mappable");
     }
 
@@ -82,6 +94,11 @@ public class MappableMapper implements NitriteMapper {
             return mappable.write(this);
         }
 
+        EntityConverter entityConverter = source == null ? null : findEntityConverter(source.getClass());
+        if (entityConverter != null) {
+            return entityConverter.write(source, this);
+        }
+
         throw new ObjectMappingException("object must implements Mappable");
     }
 
@@ -134,6 +151,12 @@ public class MappableMapper implements NitriteMapper {
 
     }
 
+    private EntityConverter findEntityConverter(Class<?> type) {
+        // built once per type, an unsupported type is remembered as well
+        return entityConverters.computeIfAbsent(type,
+            key -> Optional.ofNullable(EntityConverter.create(key, this))).orElse(null);
+    }
+
     private void init(List<Class<?>> valueTypes) {
         this.valueTypes.add(Number.class);
         this.valueTypes.add(Boolean.class);
@@ -20,11 +20,13 @@ package org.dizitart.no2.common.streams;
 import org.dizitart.no2.collection.Document;
 import org.dizitart.no2.collection.NitriteId;
 import org.dizitart.no2.common.DBNull;
+import org.dizitart.no2.common.FieldPath;
 import org.dizitart.no2.common.SortOrder;
 import org.dizitart.no2.common.tuples.Pair;
 import org.dizitart.no2.exceptions.ValidationException;
 
 import java.text.Collator;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 
@@ -40,7 +42,7 @@ import java.util.List;
  */
 public class DocumentSorter implements Comparator<Pair<NitriteId, Document>> {
     private final Collator collator;
-    private final List<Pair<String, SortOrder>> sortOrder;
+    private final List<Pair<FieldPath, SortOrder>> sortOrder;
 
     /**
      * Instantiates a new Document sorter.
@@ -50,19 +52,25 @@ public class DocumentSorter implements Comparator<Pair<NitriteId, Document>> {
      */
     public DocumentSorter(Collator collator, List<Pair<String, SortOrder>> sortOrder) {
         this.collator = collator;
-        this.sortOrder = sortOrder;
+        this.sortOrder = new ArrayList<>();
+        if (sortOrder != null) {
+            // compile the field paths once for the whole sort
+            for (Pair<String, SortOrder> pair : sortOrder) {
+                this.sortOrder.add(new Pair<>(FieldPath.of(pair.getFirst()), pair.getSecond()));
+            }
+        }
     }
 
     @Override
     @SuppressWarnings({"rawtypes", "unchecked"})
     public int compare(Pair<NitriteId, Document> pair1, Pair<NitriteId, Document> pair2) {
-        if (sortOrder != null && !sortOrder.isEmpty()) {
-            for (Pair<String, SortOrder> pair : sortOrder) {
+        if (!sortOrder.isEmpty()) {
+            for (Pair<FieldPath, SortOrder> pair : sortOrder) {
                 Document doc1 = pair1.getSecond();
                 Document doc2 = pair2.getSecond();
 
-                Object value1 = doc1.get(pair.getFirst());
-                Object value2 = doc2.get(pair.getFirst());
+                Object value1 = doc1.getByPath(pair.getFirst());
+                Object value2 = doc2.getByPath(pair.getFirst());
 
                 // handle null values
                 int result;
@@ -32,6 +32,7 @@ import org.dizitart.no2.common.processors.ProcessorChain;
 
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.Spliterator;
 
 /**
  * Represents a nitrite document stream.
@@ -76,6 +77,31 @@ public class DocumentStream implements DocumentCursor {
         return new DocumentCursorIterator(iterator, processorChain);
     }
 
+    @Override
+    public Spliterator<Document> spliterator() {
+        Spliterator<Pair<NitriteId, Document>> spliterator = recordStream == null
+            ? RecordStream.<Pair<NitriteId, Document>>empty().spliterator()
+            : recordStream.spliterator();
+        return new MappedSpliterator<>(spliterator, pair -> processDocument(pair, processorChain));
+    }
+
+    @Override
+    public void close() {
+        if (recordStream instanceof SnapshotStream) {
+            ((SnapshotStream<?>) recordStream).close();
+        }
+    }
+
+    private static Document processDocument(Pair<NitriteId, Document> pair, ProcessorChain processorChain) {
+        Document document = pair.getSecond();
+        if (document != null) {
+            Document copy = document.clone();
+            copy = processorChain.processAfterRead(copy);
+            return copy;
+        }
+        return null;
+    }
+
     private void validateProjection(Document projection) {
         for (Pair<String, Object> kvp : projection) {
             validateKeyValuePair(kvp);
@@ -115,14 +141,7 @@ public class DocumentStream implements DocumentCursor {
 
         @Override
         public Document next() {
-            Pair<NitriteId, Document> next = iterator.next();
-            Document document = next.getSecond();
-            if (document != null) {
-                Document copy = document.clone();
-                copy = processorChain.processAfterRead(copy);
-                return copy;
-            }
-            return null;
+            return processDocument(iterator.next(), processorChain);
         }
 
         @Override
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.common.streams;
+
+import java.util.Comparator;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * A {@link Spliterator} which only accepts the elements of a source
+ * spliterator matching a predicate.
+ * <p>
+ * The predicate is evaluated on each split separately, so that in a
+ * parallel stream every worker filters only the elements of its own split.
+ *
+ * @param <T> the type parameter
+ * @author Anindya Chatterjee
+ * @since 4.0
+ */
+public class FilteredSpliterator<T> implements Spliterator<T> {
+    private final Spliterator<T> source;
+    private final Predicate<? super T> predicate;
+    private T current;
+
+    /**
+     * Instantiates a new {@link FilteredSpliterator}.
+     *
+     * @param source    the source spliterator
+     * @param predicate the predicate
+     */
+    public FilteredSpliterator(Spliterator<T> source, Predicate<? super T> predicate) {
+        this.source = source;
+        this.predicate = predicate;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        while (source.tryAdvance(this::setCurrent)) {
+            T element = current;
+            current = null;
+            if (predicate.test(element)) {
+                action.accept(element);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super T> action) {
+        source.forEachRemaining(element -> {
+            if (predicate.test(element)) {
+                action.accept(element);
+            }
+        });
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        Spliterator<T> prefix = source.trySplit();
+        return prefix == null ? null : new FilteredSpliterator<>(prefix, predicate);
+    }
+
+    @Override
+    public long estimateSize() {
+        // upper bound, the number of matching elements is not known
+        return source.estimateSize();
+    }
+
+    @Override
+    public int characteristics() {
+        return source.characteristics() & ~(SIZED | SUBSIZED);
+    }
+
+    @Override
+    public Comparator<? super T> getComparator() {
+        return source.getComparator();
+    }
+
+    private void setCurrent(T element) {
+        this.current = element;
+    }
+}
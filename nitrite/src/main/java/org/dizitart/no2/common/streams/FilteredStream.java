@@ -23,10 +23,12 @@ import org.dizitart.no2.common.RecordStream;
 import org.dizitart.no2.common.tuples.Pair;
 import org.dizitart.no2.exceptions.InvalidOperationException;
 import org.dizitart.no2.filters.Filter;
+import org.dizitart.no2.filters.FilterCompiler;
 
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
 
 /**
  * Represents a filtered nitrite document stream.
@@ -37,6 +39,7 @@ import java.util.NoSuchElementException;
 public class FilteredStream implements RecordStream<Pair<NitriteId, Document>> {
     private final RecordStream<Pair<NitriteId, Document>> recordStream;
     private final Filter filter;
+    private Filter compiledFilter;
 
     /**
      * Instantiates a new Filtered stream.
@@ -58,7 +61,28 @@ public class FilteredStream implements RecordStream<Pair<NitriteId, Document>> {
         if (filter == null || filter == Filter.ALL) {
             return iterator;
         }
-        return new FilteredIterator(iterator, filter);
+
+        // compile the filter tree once and reuse it for every iteration
+        if (compiledFilter == null) {
+            compiledFilter = FilterCompiler.compile(filter);
+        }
+        return new FilteredIterator(iterator, compiledFilter);
+    }
+
+    @Override
+    public Spliterator<Pair<NitriteId, Document>> spliterator() {
+        Spliterator<Pair<NitriteId, Document>> spliterator = recordStream == null
+            ? RecordStream.<Pair<NitriteId, Document>>empty().spliterator()
+            : recordStream.spliterator();
+
+        if (filter == null || filter == Filter.ALL) {
+            return spliterator;
+        }
+
+        if (compiledFilter == null) {
+            compiledFilter = FilterCompiler.compile(filter);
+        }
+        return new FilteredSpliterator<>(spliterator, compiledFilter::apply);
     }
 
     /**
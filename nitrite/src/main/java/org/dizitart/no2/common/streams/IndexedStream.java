@@ -25,6 +25,7 @@ import org.dizitart.no2.store.NitriteMap;
 
 import java.util.Iterator;
 import java.util.Set;
+import java.util.Spliterator;
 
 /**
  * Represents a nitrite nitrite stream backed by an index.
@@ -53,6 +54,13 @@ public class IndexedStream implements RecordStream<Pair<NitriteId, Document>> {
         return new IndexedStreamIterator(nitriteIds.iterator(), nitriteMap);
     }
 
+    @Override
+    public Spliterator<Pair<NitriteId, Document>> spliterator() {
+        // split the posting list and look up the documents per split
+        return new MappedSpliterator<>(nitriteIds.spliterator(),
+            id -> new Pair<>(id, nitriteMap.get(id)));
+    }
+
     /**
      * The type Indexed stream iterator.
      */
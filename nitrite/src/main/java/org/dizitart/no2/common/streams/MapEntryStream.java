@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.common.streams;
+
+import org.dizitart.no2.common.RecordStream;
+import org.dizitart.no2.common.tuples.Pair;
+import org.dizitart.no2.store.NitriteMap;
+
+import java.util.Iterator;
+import java.util.Spliterator;
+
+/**
+ * Represents a stream of all entries of a {@link NitriteMap}, which can be
+ * split into the key ranges of the map for a parallel {@link java.util.stream.Stream}.
+ *
+ * @param <Key>   the type parameter
+ * @param <Value> the type parameter
+ * @author Anindya Chatterjee
+ * @since 4.0
+ */
+public class MapEntryStream<Key, Value> implements RecordStream<Pair<Key, Value>> {
+    private final NitriteMap<Key, Value> nitriteMap;
+
+    /**
+     * Instantiates a new Map entry stream.
+     *
+     * @param nitriteMap the nitrite map
+     */
+    public MapEntryStream(NitriteMap<Key, Value> nitriteMap) {
+        this.nitriteMap = nitriteMap;
+    }
+
+    @Override
+    public Iterator<Pair<Key, Value>> iterator() {
+        return nitriteMap.entries().iterator();
+    }
+
+    @Override
+    public Spliterator<Pair<Key, Value>> spliterator() {
+        return new RangeSpliterator<>(nitriteMap.entries(), nitriteMap::splitEntries, nitriteMap::size);
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.common.streams;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * A {@link Spliterator} which maps the elements of a source spliterator.
+ * <p>
+ * The mapping is applied on each split separately, so that in a parallel
+ * stream every worker maps only the elements of its own split.
+ *
+ * @param <S> the source type parameter
+ * @param <T> the target type parameter
+ * @author Anindya Chatterjee
+ * @since 4.0
+ */
+public class MappedSpliterator<S, T> implements Spliterator<T> {
+    private final Spliterator<S> source;
+    private final Function<? super S, ? extends T> mapper;
+
+    /**
+     * Instantiates a new {@link MappedSpliterator}.
+     *
+     * @param source the source spliterator
+     * @param mapper the mapper
+     */
+    public MappedSpliterator(Spliterator<S> source, Function<? super S, ? extends T> mapper) {
+        this.source = source;
+        this.mapper = mapper;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        return source.tryAdvance(element -> action.accept(mapper.apply(element)));
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super T> action) {
+        source.forEachRemaining(element -> action.accept(mapper.apply(element)));
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        Spliterator<S> prefix = source.trySplit();
+        return prefix == null ? null : new MappedSpliterator<>(prefix, mapper);
+    }
+
+    @Override
+    public long estimateSize() {
+        return source.estimateSize();
+    }
+
+    @Override
+    public int characteristics() {
+        // mapped values can be null, equal or unsorted
+        return source.characteristics() & ~(DISTINCT | SORTED | NONNULL);
+    }
+}
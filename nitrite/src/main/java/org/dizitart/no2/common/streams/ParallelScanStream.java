@@ -0,0 +1,274 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.common.streams;
+
+import org.dizitart.no2.collection.Document;
+import org.dizitart.no2.collection.NitriteId;
+import org.dizitart.no2.common.RecordStream;
+import org.dizitart.no2.common.concurrent.ThreadPoolManager;
+import org.dizitart.no2.common.tuples.Pair;
+import org.dizitart.no2.exceptions.NitriteException;
+import org.dizitart.no2.filters.Filter;
+import org.dizitart.no2.filters.FilterCompiler;
+import org.dizitart.no2.store.NitriteMap;
+
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Represents a nitrite document stream which scans the key ranges
+ * of a collection in parallel on the scan pool of {@link ThreadPoolManager}.
+ * <p>
+ * The key space of the collection map is split into ranges via
+ * {@link NitriteMap#splitEntries(int)} and the filter is evaluated on each
+ * range by a worker thread. A range is scanned in chunks of at most
+ * {@value #CHUNK_SIZE} matching documents, and a range pauses once
+ * {@value #CHUNKS_PER_RANGE} of its chunks wait to be read, until the reader
+ * takes one of them. At most <code>parallelism</code> ranges are scanned at
+ * any time, so the documents held in memory are bounded regardless of the
+ * size of the collection. A worker never blocks on a slow or abandoned reader.
+ * <p>
+ * An ordered stream returns the documents in the key order of the map,
+ * exactly like a sequential scan. An unordered stream returns the documents
+ * of a chunk as soon as the chunk has been scanned.
+ *
+ * @author Anindya Chatterjee.
+ * @since 4.0
+ */
+public class ParallelScanStream implements RecordStream<Pair<NitriteId, Document>> {
+    private static final int SPLITS_PER_THREAD = 4;
+    private static final int CHUNK_SIZE = 256;
+    private static final int CHUNKS_PER_RANGE = 2;
+
+    private final NitriteMap<NitriteId, Document> nitriteMap;
+    private final Filter filter;
+    private final int parallelism;
+    private final boolean ordered;
+
+    /**
+     * Instantiates a new Parallel scan stream.
+     *
+     * @param nitriteMap  the nitrite map
+     * @param filter      the filter
+     * @param parallelism the parallelism
+     * @param ordered     if the documents should be returned in key order
+     */
+    public ParallelScanStream(NitriteMap<NitriteId, Document> nitriteMap, Filter filter,
+                              int parallelism, boolean ordered) {
+        this.nitriteMap = nitriteMap;
+        this.filter = filter;
+        this.parallelism = parallelism;
+        this.ordered = ordered;
+    }
+
+    @Override
+    public Iterator<Pair<NitriteId, Document>> iterator() {
+        if (parallelism <= 1) {
+            return new FilteredStream(nitriteMap.entries(), filter).iterator();
+        }
+
+        List<RecordStream<Pair<NitriteId, Document>>> splits
+            = nitriteMap.splitEntries(parallelism * SPLITS_PER_THREAD);
+        if (splits.size() <= 1) {
+            return new FilteredStream(nitriteMap.entries(), filter).iterator();
+        }
+
+        // compile once on the calling thread, the compiled filter is shared by all workers
+        Filter compiledFilter = filter == null || filter == Filter.ALL ? null : FilterCompiler.compile(filter);
+        return new ParallelScanIterator(splits, compiledFilter);
+    }
+
+    private static class Chunk {
+        private final RangeScan range;
+        private final List<Pair<NitriteId, Document>> records;
+        private final boolean last;
+        private final Throwable error;
+
+        Chunk(RangeScan range, List<Pair<NitriteId, Document>> records, boolean last, Throwable error) {
+            this.range = range;
+            this.records = records;
+            this.last = last;
+            this.error = error;
+        }
+    }
+
+    private static class RangeScan {
+        private final int index;
+        private final RecordStream<Pair<NitriteId, Document>> split;
+        private Iterator<Pair<NitriteId, Document>> iterator;
+        // guarded by this
+        private int unread;
+        private boolean paused;
+
+        RangeScan(int index, RecordStream<Pair<NitriteId, Document>> split) {
+            this.index = index;
+            this.split = split;
+        }
+    }
+
+    private class ParallelScanIterator implements Iterator<Pair<NitriteId, Document>> {
+        private final List<RecordStream<Pair<NitriteId, Document>>> splits;
+        private final Filter compiledFilter;
+        private final BlockingQueue<Chunk> completed;
+        private final Map<Integer, Deque<Chunk>> pending;
+        private Iterator<Pair<NitriteId, Document>> current;
+        private int submitted;
+        private int consumed;
+
+        ParallelScanIterator(List<RecordStream<Pair<NitriteId, Document>>> splits, Filter compiledFilter) {
+            this.splits = splits;
+            this.compiledFilter = compiledFilter;
+            this.completed = new LinkedBlockingQueue<>();
+            this.pending = new HashMap<>();
+            this.current = Collections.emptyIterator();
+            fillWindow();
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!current.hasNext()) {
+                if (consumed == splits.size()) {
+                    return false;
+                }
+                current = nextChunk().iterator();
+            }
+            return true;
+        }
+
+        @Override
+        public Pair<NitriteId, Document> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return current.next();
+        }
+
+        private List<Pair<NitriteId, Document>> nextChunk() {
+            Chunk chunk = null;
+            if (ordered) {
+                Deque<Chunk> held = pending.get(consumed);
+                chunk = held == null ? null : held.pollFirst();
+            }
+
+            while (chunk == null) {
+                Chunk taken = take();
+                if (!ordered || taken.range.index == consumed) {
+                    chunk = taken;
+                } else {
+                    // hold a chunk of a range which is ahead of its turn
+                    pending.computeIfAbsent(taken.range.index, k -> new ArrayDeque<>()).addLast(taken);
+                }
+            }
+
+            if (chunk.last) {
+                pending.remove(chunk.range.index);
+                consumed++;
+                fillWindow();
+            } else {
+                resume(chunk.range);
+            }
+
+            if (chunk.error != null) {
+                if (chunk.error instanceof RuntimeException) {
+                    throw (RuntimeException) chunk.error;
+                }
+                if (chunk.error instanceof Error) {
+                    throw (Error) chunk.error;
+                }
+                throw new NitriteException("failed to scan collection", chunk.error);
+            }
+            return chunk.records;
+        }
+
+        private Chunk take() {
+            try {
+                return completed.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new NitriteException("collection scan interrupted", e);
+            }
+        }
+
+        private void fillWindow() {
+            // the window bounds the ranges being scanned or holding unread chunks
+            while (submitted < splits.size() && submitted - consumed < parallelism) {
+                int index = submitted++;
+                submit(new RangeScan(index, splits.get(index)));
+            }
+        }
+
+        private void resume(RangeScan range) {
+            boolean resume;
+            synchronized (range) {
+                range.unread--;
+                resume = range.paused;
+                range.paused = false;
+            }
+
+            if (resume) {
+                submit(range);
+            }
+        }
+
+        private void submit(RangeScan range) {
+            try {
+                ThreadPoolManager.runScanAsync(() -> {
+                    scanChunk(range);
+                    return null;
+                });
+            } catch (RejectedExecutionException e) {
+                // the scan pool is shutting down, the reader scans the chunk itself
+                scanChunk(range);
+            }
+        }
+
+        private void scanChunk(RangeScan range) {
+            Chunk chunk;
+            try {
+                if (range.iterator == null) {
+                    range.iterator = range.split.iterator();
+                }
+
+                List<Pair<NitriteId, Document>> records = new ArrayList<>();
+                while (records.size() < CHUNK_SIZE && range.iterator.hasNext()) {
+                    Pair<NitriteId, Document> pair = range.iterator.next();
+                    if (compiledFilter == null || compiledFilter.apply(pair)) {
+                        records.add(pair);
+                    }
+                }
+                chunk = new Chunk(range, records, !range.iterator.hasNext(), null);
+            } catch (Throwable t) {
+                chunk = new Chunk(range, null, true, t);
+            }
+
+            boolean next;
+            synchronized (range) {
+                range.unread++;
+                completed.add(chunk);
+                next = !chunk.last && range.unread < CHUNKS_PER_RANGE;
+                range.paused = !chunk.last && !next;
+            }
+
+            if (next) {
+                submit(range);
+            }
+        }
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.common.streams;
+
+import org.dizitart.no2.common.RecordStream;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.function.LongSupplier;
+
+/**
+ * A {@link Spliterator} over a {@link RecordStream} which splits
+ * into contiguous key ranges of the underlying store.
+ * <p>
+ * The ranges are only computed on the first call to {@link #trySplit()},
+ * so a sequential traversal costs the same as iterating the stream. A
+ * single range is never split further, which avoids buffering records
+ * into arrays like an iterator based spliterator does.
+ *
+ * @param <T> the type parameter
+ * @author Anindya Chatterjee
+ * @since 4.0
+ */
+public class RangeSpliterator<T> implements Spliterator<T> {
+    private static final int SPLITS_PER_THREAD = 4;
+
+    private final RecordStream<T> source;
+    private final IntFunction<List<RecordStream<T>>> splitter;
+    private final LongSupplier sizeSupplier;
+
+    private List<RecordStream<T>> ranges;
+    private int from;
+    private Iterator<T> iterator;
+    private long estimatedSize = -1;
+
+    /**
+     * Instantiates a new {@link RangeSpliterator}.
+     *
+     * @param source       the whole record stream
+     * @param splitter     the function to split the source into a number of ranges
+     * @param sizeSupplier the supplier of the size of the source
+     */
+    public RangeSpliterator(RecordStream<T> source, IntFunction<List<RecordStream<T>>> splitter,
+                            LongSupplier sizeSupplier) {
+        this.source = source;
+        this.splitter = splitter;
+        this.sizeSupplier = sizeSupplier;
+    }
+
+    private RangeSpliterator(List<RecordStream<T>> ranges, long estimatedSize) {
+        this.source = null;
+        this.splitter = null;
+        this.sizeSupplier = null;
+        this.ranges = ranges;
+        this.estimatedSize = estimatedSize;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        while (true) {
+            if (iterator == null) {
+                if (!nextIterator()) return false;
+            }
+
+            if (iterator.hasNext()) {
+                action.accept(iterator.next());
+                return true;
+            }
+            iterator = null;
+        }
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        if (iterator != null) {
+            // traversal has already started
+            return null;
+        }
+
+        if (ranges == null) {
+            long size = estimateSize();
+            int splitCount = Math.max(2, ForkJoinPool.getCommonPoolParallelism() * SPLITS_PER_THREAD);
+            ranges = splitter.apply(splitCount);
+            if (ranges.size() > 1) {
+                estimatedSize = size;
+            }
+        }
+
+        int remaining = ranges.size() - from;
+        if (remaining <= 1) {
+            return null;
+        }
+
+        int mid = from + remaining / 2;
+        long prefixSize = estimatedSize / remaining * (mid - from);
+        Spliterator<T> prefix = new RangeSpliterator<>(ranges.subList(from, mid), prefixSize);
+        from = mid;
+        estimatedSize -= prefixSize;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        if (estimatedSize < 0) {
+            estimatedSize = sizeSupplier == null ? Long.MAX_VALUE : sizeSupplier.getAsLong();
+        }
+        return estimatedSize;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL;
+    }
+
+    private boolean nextIterator() {
+        if (ranges == null) {
+            // never split, traverse the source as a whole
+            ranges = Collections.singletonList(source);
+        }
+
+        if (from >= ranges.size()) {
+            return false;
+        }
+        iterator = ranges.get(from++).iterator();
+        return true;
+    }
+}
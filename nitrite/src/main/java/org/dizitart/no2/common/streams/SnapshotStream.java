@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.common.streams;
+
+import org.dizitart.no2.common.RecordStream;
+import org.dizitart.no2.store.StoreSnapshot;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Represents a record stream which reads all its records
+ * from a single {@link StoreSnapshot}.
+ * <p>
+ * The snapshot is pinned around every call to the underlying iterators and
+ * spliterators, so that the stream can be consumed lazily, even from other
+ * threads, and still see one consistent state of the store.
+ * <p>
+ * The snapshot is closed as soon as every iteration started on the stream
+ * is exhausted, or when the stream is closed. An iteration started after
+ * that reads the latest state of the store. Stores also release snapshots
+ * of streams which are abandoned half way and no longer reachable.
+ *
+ * @param <T> the type parameter
+ * @author Anindya Chatterjee
+ * @since 4.0
+ */
+public class SnapshotStream<T> implements RecordStream<T>, AutoCloseable {
+    private final RecordStream<T> recordStream;
+    private final StoreSnapshot snapshot;
+    private final AtomicInteger openIterations;
+
+    /**
+     * Instantiates a new Snapshot stream.
+     *
+     * @param recordStream the record stream
+     * @param snapshot     the snapshot
+     */
+    public SnapshotStream(RecordStream<T> recordStream, StoreSnapshot snapshot) {
+        this.recordStream = recordStream;
+        this.snapshot = snapshot;
+        this.openIterations = new AtomicInteger(0);
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new SnapshotIterator(snapshot.read(recordStream::iterator));
+    }
+
+    @Override
+    public Spliterator<T> spliterator() {
+        return new SnapshotSpliterator(snapshot.read(recordStream::spliterator));
+    }
+
+    /**
+     * Closes the snapshot of the stream.
+     */
+    @Override
+    public void close() {
+        snapshot.close();
+    }
+
+    private void exhausted() {
+        if (openIterations.decrementAndGet() == 0) {
+            snapshot.close();
+        }
+    }
+
+    private class SnapshotIterator implements Iterator<T> {
+        private final Iterator<T> iterator;
+        private boolean exhausted;
+
+        SnapshotIterator(Iterator<T> iterator) {
+            this.iterator = iterator;
+            openIterations.incrementAndGet();
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (exhausted) {
+                return false;
+            }
+
+            boolean hasNext = snapshot.read(iterator::hasNext);
+            if (!hasNext) {
+                exhausted = true;
+                exhausted();
+            }
+            return hasNext;
+        }
+
+        @Override
+        public T next() {
+            return snapshot.read(iterator::next);
+        }
+
+        @Override
+        public void remove() {
+            iterator.remove();
+        }
+    }
+
+    private class SnapshotSpliterator implements Spliterator<T> {
+        private final Spliterator<T> spliterator;
+        private boolean exhausted;
+
+        SnapshotSpliterator(Spliterator<T> spliterator) {
+            this.spliterator = spliterator;
+            openIterations.incrementAndGet();
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (exhausted) {
+                return false;
+            }
+
+            boolean advanced = snapshot.read(() -> spliterator.tryAdvance(action));
+            if (!advanced) {
+                finish();
+            }
+            return advanced;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            if (exhausted) {
+                return;
+            }
+
+            snapshot.read(() -> {
+                spliterator.forEachRemaining(action);
+                return null;
+            });
+            finish();
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            Spliterator<T> split = snapshot.read(spliterator::trySplit);
+            return split == null ? null : new SnapshotSpliterator(split);
+        }
+
+        @Override
+        public long estimateSize() {
+            return snapshot.read(spliterator::estimateSize);
+        }
+
+        @Override
+        public int characteristics() {
+            return spliterator.characteristics();
+        }
+
+        @Override
+        public Comparator<? super T> getComparator() {
+            return spliterator.getComparator();
+        }
+
+        private void finish() {
+            exhausted = true;
+            exhausted();
+        }
+    }
+}
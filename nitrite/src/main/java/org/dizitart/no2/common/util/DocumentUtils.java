@@ -17,6 +17,7 @@
 package org.dizitart.no2.common.util;
 
 import org.dizitart.no2.collection.Document;
+import org.dizitart.no2.common.FieldPath;
 import org.dizitart.no2.common.FieldValues;
 import org.dizitart.no2.common.Fields;
 import org.dizitart.no2.common.tuples.Pair;
@@ -24,6 +25,7 @@ import org.dizitart.no2.filters.Filter;
 import org.dizitart.no2.common.mapper.NitriteMapper;
 
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 
 import static org.dizitart.no2.common.util.ObjectUtils.newInstance;
@@ -96,9 +98,12 @@ public class DocumentUtils {
         fieldValues.setFields(fields);
         fieldValues.setValues(new ArrayList<>());
 
-        for (String field : fields.getFieldNames()) {
-            Object value = document.get(field);
-            fieldValues.getValues().add(new Pair<>(field, value));
+        List<String> fieldNames = fields.getFieldNames();
+        List<FieldPath> fieldPaths = fields.getFieldPaths();
+        for (int i = 0; i < fieldNames.size(); i++) {
+            FieldPath fieldPath = fieldPaths.get(i);
+            Object value = fieldPath == null ? null : document.getByPath(fieldPath);
+            fieldValues.getValues().add(new Pair<>(fieldNames.get(i), value));
         }
 
         return fieldValues;
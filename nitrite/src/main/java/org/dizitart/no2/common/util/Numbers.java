@@ -33,6 +33,11 @@ public class Numbers {
 
     /**
      * Compare two numbers.
+     * <p>
+     * Integral and floating point numbers of the primitive wrapper types are
+     * compared as primitives, mixed integral and floating point numbers are
+     * compared exactly without any rounding. Any other {@link Number} is
+     * converted to {@link BigDecimal} for comparison.
      *
      * @param x first number.
      * @param y second number.
@@ -41,11 +46,28 @@ public class Numbers {
      * than `0` if `x` is numerically greater than `y`.
      */
     public static int compare(Number x, Number y) {
+        boolean integralX = isIntegral(x);
+        boolean integralY = isIntegral(y);
+        if (integralX && integralY) {
+            // widening to long is lossless for all integral wrappers
+            return Long.compare(x.longValue(), y.longValue());
+        }
+
         if (isSpecial(x) || isSpecial(y)) {
             return Double.compare(x.doubleValue(), y.doubleValue());
-        } else {
-            return toBigDecimal(x).compareTo(toBigDecimal(y));
         }
+
+        boolean floatingX = isFloatingPoint(x);
+        boolean floatingY = isFloatingPoint(y);
+        if (floatingX && floatingY) {
+            // unlike Double.compare, -0.0 and 0.0 are equal here
+            return compareDoubles(x.doubleValue(), y.doubleValue());
+        } else if (integralX && floatingY) {
+            return compareLongToDouble(x.longValue(), y.doubleValue());
+        } else if (floatingX && integralY) {
+            return -compareLongToDouble(y.longValue(), x.doubleValue());
+        }
+        return toBigDecimal(x).compareTo(toBigDecimal(y));
     }
 
     public static Object castNumber(Object value, Class<?> type) {
@@ -69,6 +91,37 @@ public class Numbers {
             + " to " + type.getName());
     }
 
+    private static boolean isIntegral(Number number) {
+        return number instanceof Integer || number instanceof Long
+            || number instanceof Short || number instanceof Byte;
+    }
+
+    private static boolean isFloatingPoint(Number number) {
+        return number instanceof Double || number instanceof Float;
+    }
+
+    private static int compareDoubles(double x, double y) {
+        return x < y ? -1 : (x > y ? 1 : 0);
+    }
+
+    private static int compareLongToDouble(long x, double y) {
+        // y is finite here, outside the long range it decides on its own
+        if (y < -0x1p63) {
+            return 1;
+        }
+        if (y >= 0x1p63) {
+            return -1;
+        }
+
+        // the integral part of y fits into a long, the fraction is exact
+        long integral = (long) y;
+        if (x != integral) {
+            return x < integral ? -1 : 1;
+        }
+        double fraction = y - integral;
+        return fraction > 0 ? -1 : (fraction < 0 ? 1 : 0);
+    }
+
     private static boolean isSpecial(Number number) {
         boolean specialDouble = number instanceof Double
             && (Double.isNaN((Double) number) || Double.isInfinite((Double) number));
@@ -17,11 +17,13 @@
 package org.dizitart.no2.filters;
 
 import org.dizitart.no2.collection.NitriteId;
+import org.dizitart.no2.common.tuples.Pair;
 import org.dizitart.no2.exceptions.FilterException;
+import org.dizitart.no2.index.DBValue;
 import org.dizitart.no2.index.IndexMap;
 
-import java.util.List;
-import java.util.NavigableMap;
+import java.util.*;
+import java.util.function.Predicate;
 
 /**
  * Represents a filter based on document field holding {@link Comparable} values.
@@ -30,6 +32,12 @@ import java.util.NavigableMap;
  * @since 4.0
  */
 public abstract class ComparableFilter extends FieldBasedFilter {
+    /**
+     * The cost of a point lookup on an index, relative to reading
+     * the next entry during a sequential index scan.
+     */
+    protected static final int INDEX_LOOKUP_COST = 4;
+
     /**
      * Instantiates a new Comparable filter.
      *
@@ -61,6 +69,95 @@ public abstract class ComparableFilter extends FieldBasedFilter {
      */
     public abstract List<?> applyOnIndex(IndexMap indexMap);
 
+    /**
+     * Checks if reading the given number of keys with point lookups is
+     * cheaper than scanning the whole index map.
+     *
+     * @param indexMap    the index map
+     * @param lookupCount the number of keys to look up
+     * @return <code>true</code> if lookups should be used
+     */
+    protected boolean preferLookups(IndexMap indexMap, long lookupCount) {
+        return indexMap.hasMoreKeysThan(lookupCount * INDEX_LOOKUP_COST);
+    }
+
+    /**
+     * Checks if walking the complement ranges of the excluded keys is cheaper
+     * than scanning the whole index map, i.e. if the seeks of the remaining keys
+     * cost less than reading the values of the excluded keys.
+     *
+     * @param indexMap      the index map
+     * @param excludedCount the number of excluded keys
+     * @return <code>true</code> if the complement ranges should be walked
+     */
+    protected boolean preferComplementRanges(IndexMap indexMap, long excludedCount) {
+        return excludedCount > 0
+            && !indexMap.hasMoreKeysThan(excludedCount + excludedCount / INDEX_LOOKUP_COST);
+    }
+
+    /**
+     * Reads the values of the given keys from an index map with point lookups.
+     * The keys are looked up in the scan order of the index map, so the result
+     * is in the same order as that of a scan.
+     *
+     * @param indexMap the index map
+     * @param keys     the keys
+     * @return the list of nitrite ids or sub-maps
+     */
+    protected List<?> lookupOnIndex(IndexMap indexMap, Collection<Comparable<?>> keys) {
+        List<NavigableMap<Comparable<?>, Object>> subMap = new ArrayList<>();
+        List<NitriteId> nitriteIds = new ArrayList<>();
+
+        for (Comparable<?> key : sortForScan(keys, indexMap.isReverseScan())) {
+            processIndexValue(indexMap.get(key), subMap, nitriteIds);
+        }
+        return subMap.isEmpty() ? nitriteIds : subMap;
+    }
+
+    /**
+     * Reads the values of all keys of an index map, except the excluded ones.
+     * <p>
+     * If nearly all keys of the index map are excluded, only the complement
+     * ranges around the excluded keys are walked with key seeks, and the values
+     * of the excluded keys are never read. Otherwise the index map is scanned
+     * once, as seeking every remaining key costs more than reading it next.
+     *
+     * @param indexMap     the index map
+     * @param excludedKeys the excluded keys
+     * @param excluded     the predicate matching an excluded key during a scan
+     * @return the list of nitrite ids or sub-maps
+     */
+    protected List<?> excludeOnIndex(IndexMap indexMap, Collection<Comparable<?>> excludedKeys,
+                                     Predicate<Comparable<?>> excluded) {
+        List<NavigableMap<Comparable<?>, Object>> subMap = new ArrayList<>();
+        List<NitriteId> nitriteIds = new ArrayList<>();
+
+        if (preferComplementRanges(indexMap, excludedKeys.size())) {
+            List<Object> values = null;
+            try {
+                values = indexMap.valuesExcept(excludedKeys);
+            } catch (ClassCastException e) {
+                // keys of different types can not be ordered into ranges
+            }
+
+            if (values != null) {
+                for (Object value : values) {
+                    processIndexValue(value, subMap, nitriteIds);
+                }
+                return subMap.isEmpty() ? nitriteIds : subMap;
+            }
+        }
+
+        for (Pair<Comparable<?>, ?> entry : indexMap.entries()) {
+            if (!excluded.test(entry.getFirst())) {
+                processIndexValue(entry.getSecond(), subMap, nitriteIds);
+            }
+        }
+
+        // sub-maps are returned for compound index, nitrite ids otherwise
+        return subMap.isEmpty() ? nitriteIds : subMap;
+    }
+
     /**
      * Process values after index scanning.
      *
@@ -82,4 +179,24 @@ public abstract class ComparableFilter extends FieldBasedFilter {
             subMap.add((NavigableMap<Comparable<?>, Object>) value);
         }
     }
+
+    private List<Comparable<?>> sortForScan(Collection<Comparable<?>> keys, boolean reverse) {
+        List<DBValue> dbKeys = new ArrayList<>(keys.size());
+        for (Comparable<?> key : keys) {
+            dbKeys.add(new DBValue(key));
+        }
+
+        try {
+            dbKeys.sort(reverse ? Comparator.reverseOrder() : Comparator.naturalOrder());
+        } catch (ClassCastException e) {
+            // keys of different types can not be ordered, the
+            // lookups still find them in any order
+        }
+
+        List<Comparable<?>> sorted = new ArrayList<>(dbKeys.size());
+        for (DBValue dbKey : dbKeys) {
+            sorted.add(dbKey.getValue());
+        }
+        return sorted;
+    }
 }
@@ -18,6 +18,7 @@ package org.dizitart.no2.filters;
 
 import org.dizitart.no2.collection.Document;
 import org.dizitart.no2.collection.NitriteId;
+import org.dizitart.no2.common.FieldPath;
 import org.dizitart.no2.common.tuples.Pair;
 import org.dizitart.no2.exceptions.FilterException;
 
@@ -37,6 +38,7 @@ import static org.dizitart.no2.common.util.ObjectUtils.deepEquals;
 class ElementMatchFilter extends NitriteFilter {
     private final String field;
     private final Filter elementFilter;
+    private FieldPath fieldPath;
 
     ElementMatchFilter(String field, Filter elementFilter) {
         this.elementFilter = elementFilter;
@@ -55,7 +57,10 @@ class ElementMatchFilter extends NitriteFilter {
         }
 
         Document document = element.getSecond();
-        Object fieldValue = document.get(field);
+        if (fieldPath == null) {
+            fieldPath = FieldPath.of(field);
+        }
+        Object fieldValue = document.getByPath(fieldPath);
         if (fieldValue == null) {
             return false;
         }
@@ -137,7 +142,7 @@ class ElementMatchFilter extends NitriteFilter {
         Object value = ((EqualsFilter) filter).getValue();
         if (item instanceof Document) {
             Document document = (Document) item;
-            Object docValue = document.get(((EqualsFilter) filter).getField());
+            Object docValue = document.getByPath(((EqualsFilter) filter).getFieldPath());
             return deepEquals(value, docValue);
         } else {
             return deepEquals(item, value);
@@ -155,7 +160,7 @@ class ElementMatchFilter extends NitriteFilter {
             return arg.compareTo(comparable) > 0;
         } else if (item instanceof Document) {
             Document document = (Document) item;
-            Object docValue = document.get(((GreaterThanFilter) filter).getField());
+            Object docValue = document.getByPath(((GreaterThanFilter) filter).getFieldPath());
             if (docValue instanceof Comparable) {
                 Comparable arg = (Comparable) docValue;
                 return arg.compareTo(comparable) > 0;
@@ -179,7 +184,7 @@ class ElementMatchFilter extends NitriteFilter {
             return arg.compareTo(comparable) >= 0;
         } else if (item instanceof Document) {
             Document document = (Document) item;
-            Object docValue = document.get(((GreaterEqualFilter) filter).getField());
+            Object docValue = document.getByPath(((GreaterEqualFilter) filter).getFieldPath());
             if (docValue instanceof Comparable) {
                 Comparable arg = (Comparable) docValue;
                 return arg.compareTo(comparable) >= 0;
@@ -202,7 +207,7 @@ class ElementMatchFilter extends NitriteFilter {
             return arg.compareTo(comparable) <= 0;
         } else if (item instanceof Document) {
             Document document = (Document) item;
-            Object docValue = document.get(((LesserEqualFilter) filter).getField());
+            Object docValue = document.getByPath(((LesserEqualFilter) filter).getFieldPath());
             if (docValue instanceof Comparable) {
                 Comparable arg = (Comparable) docValue;
                 return arg.compareTo(comparable) <= 0;
@@ -225,7 +230,7 @@ class ElementMatchFilter extends NitriteFilter {
             return arg.compareTo(comparable) < 0;
         } else if (item instanceof Document) {
             Document document = (Document) item;
-            Object docValue = document.get(((LesserThanFilter) filter).getField());
+            Object docValue = document.getByPath(((LesserThanFilter) filter).getFieldPath());
             if (docValue instanceof Comparable) {
                 Comparable arg = (Comparable) docValue;
                 return arg.compareTo(comparable) < 0;
@@ -242,7 +247,7 @@ class ElementMatchFilter extends NitriteFilter {
         if (values != null) {
             if (item instanceof Document) {
                 Document document = (Document) item;
-                Object docValue = document.get(((InFilter) filter).getField());
+                Object docValue = document.getByPath(((InFilter) filter).getFieldPath());
                 if (docValue instanceof Comparable) {
                     return values.contains(docValue);
                 }
@@ -258,7 +263,7 @@ class ElementMatchFilter extends NitriteFilter {
         if (values != null) {
             if (item instanceof Document) {
                 Document document = (Document) item;
-                Object docValue = document.get(((NotInFilter) filter).getField());
+                Object docValue = document.getByPath(((NotInFilter) filter).getFieldPath());
                 if (docValue instanceof Comparable) {
                     return !values.contains(docValue);
                 }
@@ -277,7 +282,7 @@ class ElementMatchFilter extends NitriteFilter {
             return matcher.find();
         } else if (item instanceof Document) {
             Document document = (Document) item;
-            Object docValue = document.get(((RegexFilter) filter).getField());
+            Object docValue = document.getByPath(((RegexFilter) filter).getFieldPath());
             if (docValue instanceof String) {
                 Pattern pattern = Pattern.compile(value);
                 Matcher matcher = pattern.matcher((String) docValue);
@@ -37,7 +37,7 @@ public class EqualsFilter extends ComparableFilter {
     @Override
     public boolean apply(Pair<NitriteId, Document> element) {
         Document document = element.getSecond();
-        Object fieldValue = document.get(getField());
+        Object fieldValue = document.getByPath(getFieldPath());
         return deepEquals(fieldValue, getValue());
     }
 
@@ -20,6 +20,9 @@ import lombok.AccessLevel;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import org.dizitart.no2.common.FieldPath;
 import org.dizitart.no2.exceptions.ValidationException;
 import org.dizitart.no2.common.mapper.NitriteMapper;
 
@@ -43,6 +46,11 @@ public abstract class FieldBasedFilter extends NitriteFilter {
     @Getter(AccessLevel.NONE)
     private boolean processed = false;
 
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private transient FieldPath fieldPath;
+
     /**
      * Instantiates a new Field based filter.
      *
@@ -76,6 +84,19 @@ public abstract class FieldBasedFilter extends NitriteFilter {
         return value;
     }
 
+    /**
+     * Gets the pre-compiled path of the field. The path is compiled
+     * only once per filter and reused for every document it is applied on.
+     *
+     * @return the field path
+     */
+    public FieldPath getFieldPath() {
+        if (fieldPath == null || !fieldPath.getPath().equals(field)) {
+            fieldPath = FieldPath.of(field);
+        }
+        return fieldPath;
+    }
+
     protected void validateSearchTerm(NitriteMapper nitriteMapper, String field, Object value) {
         notNull(field, "field cannot be null");
         notEmpty(field, "field cannot be empty");
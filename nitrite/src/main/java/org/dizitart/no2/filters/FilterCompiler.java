@@ -0,0 +1,498 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.filters;
+
+import org.dizitart.no2.collection.Document;
+import org.dizitart.no2.collection.NitriteId;
+import org.dizitart.no2.common.FieldPath;
+import org.dizitart.no2.common.tuples.Pair;
+import org.dizitart.no2.exceptions.FilterException;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+import static org.dizitart.no2.common.util.Numbers.compare;
+import static org.dizitart.no2.common.util.ObjectUtils.deepEquals;
+
+/**
+ * Compiles a prepared filter tree into a flattened predicate pipeline
+ * for collection scans.
+ * <p>
+ * Nested AND and OR filters are flattened, each leaf filter is turned into
+ * a predicate specialized for the type of its search value and the operands
+ * of every AND/OR are reordered by their estimated cost and selectivity, so
+ * that cheap and selective predicates short-circuit the evaluation early.
+ * Regex, text and element match predicates are always evaluated last.
+ * <p>
+ * A compiled filter gives the same result as the original filter, it should
+ * only be compiled after the filter has been prepared for a collection.
+ *
+ * @author Anindya Chatterjee
+ * @since 4.0
+ */
+public final class FilterCompiler {
+    private static final int COST_COMPARE = 1;
+    private static final int COST_SET_LOOKUP = 2;
+    private static final int COST_OPAQUE = 10;
+    private static final int COST_REGEX = 50;
+    private static final int COST_ELEMENT_MATCH = 100;
+    private static final int COST_TEXT = 100;
+
+    private FilterCompiler() {
+    }
+
+    /**
+     * Compiles a prepared filter into an equivalent filter optimized
+     * for repeated evaluation during a collection scan.
+     *
+     * @param filter the filter
+     * @return the compiled filter
+     */
+    public static Filter compile(Filter filter) {
+        if (filter == null || filter == Filter.ALL || filter instanceof CompiledFilter) {
+            return filter;
+        }
+        return compileFilter(filter);
+    }
+
+    private static CompiledFilter compileFilter(Filter filter) {
+        Class<?> type = filter.getClass();
+        if (filter instanceof AndFilter && (type == AndFilter.class || type == BetweenFilter.class)) {
+            List<CompiledFilter> operands = new ArrayList<>();
+            flatten(filter, AndFilter.class, operands);
+            return new Conjunction(operands);
+        } else if (type == OrFilter.class) {
+            List<CompiledFilter> operands = new ArrayList<>();
+            flatten(filter, OrFilter.class, operands);
+            return new Disjunction(operands);
+        } else if (type == NotFilter.class) {
+            return new Negation(compileFilter(((NotFilter) filter).getFilter()));
+        } else if (type == EqualsFilter.class) {
+            EqualsFilter equalsFilter = (EqualsFilter) filter;
+            return new EqualsPredicate(equalsFilter.getFieldPath(), equalsFilter.getValue(), false);
+        } else if (type == NotEqualsFilter.class) {
+            NotEqualsFilter notEqualsFilter = (NotEqualsFilter) filter;
+            return new EqualsPredicate(notEqualsFilter.getFieldPath(), notEqualsFilter.getValue(), true);
+        } else if (type == GreaterThanFilter.class) {
+            return compileRange((ComparableFilter) filter, Operator.GREATER);
+        } else if (type == GreaterEqualFilter.class) {
+            return compileRange((ComparableFilter) filter, Operator.GREATER_EQUAL);
+        } else if (type == LesserThanFilter.class) {
+            return compileRange((ComparableFilter) filter, Operator.LESSER);
+        } else if (type == LesserEqualFilter.class) {
+            return compileRange((ComparableFilter) filter, Operator.LESSER_EQUAL);
+        } else if (type == InFilter.class) {
+            InFilter inFilter = (InFilter) filter;
+            return new SetPredicate(inFilter.getFieldPath(), inFilter.getComparableSet(), false);
+        } else if (type == NotInFilter.class) {
+            NotInFilter notInFilter = (NotInFilter) filter;
+            return new SetPredicate(notInFilter.getFieldPath(), notInFilter.getComparableSet(), true);
+        } else if (type == StartsWithFilter.class) {
+            return new OpaquePredicate(filter, COST_COMPARE, 0.5, false);
+        } else if (type == RegexFilter.class) {
+            return new OpaquePredicate(filter, COST_REGEX, 0.5, true);
+        } else if (filter instanceof TextFilter) {
+            return new OpaquePredicate(filter, COST_TEXT, 0.5, true);
+        } else if (type == ElementMatchFilter.class) {
+            return new OpaquePredicate(filter, COST_ELEMENT_MATCH, 0.5, true);
+        }
+
+        // custom filters are evaluated as is
+        return new OpaquePredicate(filter, COST_OPAQUE, 0.5, false);
+    }
+
+    private static void flatten(Filter filter, Class<? extends LogicalFilter> logicalType,
+                                List<CompiledFilter> operands) {
+        for (Filter operand : ((LogicalFilter) filter).getFilters()) {
+            Class<?> type = operand.getClass();
+            boolean sameLogic = logicalType == AndFilter.class
+                ? type == AndFilter.class || type == BetweenFilter.class
+                : type == OrFilter.class;
+
+            if (sameLogic) {
+                // (a && (b && c)) is evaluated as (a && b && c)
+                flatten(operand, logicalType, operands);
+            } else {
+                operands.add(compileFilter(operand));
+            }
+        }
+    }
+
+    private static CompiledFilter compileRange(ComparableFilter filter, Operator operator) {
+        Object value = filter.getValue();
+        if (!(value instanceof Comparable)) {
+            // let the original filter report the invalid value during evaluation
+            return new OpaquePredicate(filter, COST_COMPARE, 0.4, false);
+        }
+        return new RangePredicate(filter.getFieldPath(), (Comparable<?>) value, operator);
+    }
+
+    private static boolean isIntegral(Object value) {
+        return value instanceof Long || value instanceof Integer
+            || value instanceof Short || value instanceof Byte;
+    }
+
+    private static boolean isDecimal(Object value) {
+        if (value instanceof Double || value instanceof Float) {
+            double number = ((Number) value).doubleValue();
+            return !Double.isNaN(number) && !Double.isInfinite(number);
+        }
+        return false;
+    }
+
+    private enum Operator {
+        GREATER, GREATER_EQUAL, LESSER, LESSER_EQUAL;
+
+        boolean test(int comparison) {
+            switch (this) {
+                case GREATER:
+                    return comparison > 0;
+                case GREATER_EQUAL:
+                    return comparison >= 0;
+                case LESSER:
+                    return comparison < 0;
+                default:
+                    return comparison <= 0;
+            }
+        }
+    }
+
+    /**
+     * Represents a compiled predicate with its estimated evaluation
+     * cost and selectivity (estimated fraction of matching documents).
+     */
+    private abstract static class CompiledFilter implements Filter {
+        abstract int cost();
+
+        abstract double selectivity();
+
+        boolean deferred() {
+            return false;
+        }
+
+        @Override
+        public String toString() {
+            return getClass().getSimpleName();
+        }
+    }
+
+    private static class Conjunction extends CompiledFilter {
+        private final CompiledFilter[] operands;
+        private final int cost;
+        private final double selectivity;
+
+        Conjunction(List<CompiledFilter> operands) {
+            // the cheapest predicate which rejects most documents goes first
+            operands.sort(Comparator.comparing(CompiledFilter::deferred)
+                .thenComparingDouble(f -> f.cost() / Math.max(1.0 - f.selectivity(), 0.01)));
+            this.operands = operands.toArray(new CompiledFilter[0]);
+
+            int totalCost = 0;
+            double totalSelectivity = 1.0;
+            for (CompiledFilter operand : this.operands) {
+                totalCost += operand.cost();
+                totalSelectivity *= operand.selectivity();
+            }
+            this.cost = totalCost;
+            this.selectivity = totalSelectivity;
+        }
+
+        @Override
+        public boolean apply(Pair<NitriteId, Document> element) {
+            for (CompiledFilter operand : operands) {
+                if (!operand.apply(element)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        int cost() {
+            return cost;
+        }
+
+        @Override
+        double selectivity() {
+            return selectivity;
+        }
+
+        @Override
+        boolean deferred() {
+            return operands.length > 0 && operands[operands.length - 1].deferred();
+        }
+    }
+
+    private static class Disjunction extends CompiledFilter {
+        private final CompiledFilter[] operands;
+        private final int cost;
+        private final double selectivity;
+
+        Disjunction(List<CompiledFilter> operands) {
+            // the cheapest predicate which accepts most documents goes first
+            operands.sort(Comparator.comparing(CompiledFilter::deferred)
+                .thenComparingDouble(f -> f.cost() / Math.max(f.selectivity(), 0.01)));
+            this.operands = operands.toArray(new CompiledFilter[0]);
+
+            int totalCost = 0;
+            double rejected = 1.0;
+            for (CompiledFilter operand : this.operands) {
+                totalCost += operand.cost();
+                rejected *= 1.0 - operand.selectivity();
+            }
+            this.cost = totalCost;
+            this.selectivity = 1.0 - rejected;
+        }
+
+        @Override
+        public boolean apply(Pair<NitriteId, Document> element) {
+            for (CompiledFilter operand : operands) {
+                if (operand.apply(element)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        int cost() {
+            return cost;
+        }
+
+        @Override
+        double selectivity() {
+            return selectivity;
+        }
+
+        @Override
+        boolean deferred() {
+            for (CompiledFilter operand : operands) {
+                if (operand.deferred()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static class Negation extends CompiledFilter {
+        private final CompiledFilter operand;
+
+        Negation(CompiledFilter operand) {
+            this.operand = operand;
+        }
+
+        @Override
+        public boolean apply(Pair<NitriteId, Document> element) {
+            return !operand.apply(element);
+        }
+
+        @Override
+        int cost() {
+            return operand.cost();
+        }
+
+        @Override
+        double selectivity() {
+            return 1.0 - operand.selectivity();
+        }
+
+        @Override
+        boolean deferred() {
+            return operand.deferred();
+        }
+    }
+
+    private static class EqualsPredicate extends CompiledFilter {
+        private final FieldPath fieldPath;
+        private final Object value;
+        private final boolean negate;
+        private final boolean simpleEquality;
+        private final boolean decimal;
+
+        EqualsPredicate(FieldPath fieldPath, Object value, boolean negate) {
+            this.fieldPath = fieldPath;
+            this.value = value;
+            this.negate = negate;
+            // for these types deepEquals falls back to a type-strict equals() check
+            this.simpleEquality = value instanceof String || value instanceof Boolean
+                || isIntegral(value) || value instanceof Character;
+            this.decimal = value instanceof Double;
+        }
+
+        @Override
+        public boolean apply(Pair<NitriteId, Document> element) {
+            Object fieldValue = element.getSecond().getByPath(fieldPath);
+            boolean equal;
+            if (simpleEquality) {
+                equal = value.equals(fieldValue);
+            } else if (decimal) {
+                equal = fieldValue instanceof Double && equalDecimals((Double) value, (Double) fieldValue);
+            } else {
+                equal = deepEquals(fieldValue, value);
+            }
+            return negate != equal;
+        }
+
+        @Override
+        int cost() {
+            return COST_COMPARE;
+        }
+
+        @Override
+        double selectivity() {
+            return negate ? 0.9 : 0.1;
+        }
+
+        private boolean equalDecimals(double x, double y) {
+            // numerically equal, or both NaN as in Numbers.compare
+            return x == y || (Double.isNaN(x) && Double.isNaN(y));
+        }
+    }
+
+    private static class RangePredicate extends CompiledFilter {
+        private final FieldPath fieldPath;
+        private final Comparable<?> comparable;
+        private final Operator operator;
+        private final boolean integral;
+        private final boolean decimal;
+        private final boolean string;
+        private final long longBound;
+        private final double doubleBound;
+
+        RangePredicate(FieldPath fieldPath, Comparable<?> comparable, Operator operator) {
+            this.fieldPath = fieldPath;
+            this.comparable = comparable;
+            this.operator = operator;
+            this.integral = isIntegral(comparable);
+            this.decimal = isDecimal(comparable);
+            this.string = comparable instanceof String;
+            this.longBound = integral ? ((Number) comparable).longValue() : 0L;
+            this.doubleBound = decimal ? ((Number) comparable).doubleValue() : 0.0;
+        }
+
+        @Override
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        public boolean apply(Pair<NitriteId, Document> element) {
+            Object fieldValue = element.getSecond().getByPath(fieldPath);
+            if (fieldValue == null) {
+                return false;
+            }
+
+            int comparison;
+            if (integral && isIntegral(fieldValue)) {
+                comparison = Long.compare(((Number) fieldValue).longValue(), longBound);
+            } else if (decimal && isDecimal(fieldValue)) {
+                double number = ((Number) fieldValue).doubleValue();
+                comparison = number < doubleBound ? -1 : (number > doubleBound ? 1 : 0);
+            } else if (string && fieldValue instanceof String) {
+                comparison = ((String) fieldValue).compareTo((String) comparable);
+            } else if (fieldValue instanceof Number && comparable instanceof Number) {
+                comparison = compare((Number) fieldValue, (Number) comparable);
+            } else if (fieldValue instanceof Comparable) {
+                comparison = ((Comparable) fieldValue).compareTo(comparable);
+            } else {
+                throw new FilterException(fieldValue + " is not comparable");
+            }
+            return operator.test(comparison);
+        }
+
+        @Override
+        int cost() {
+            return COST_COMPARE;
+        }
+
+        @Override
+        double selectivity() {
+            return 0.4;
+        }
+    }
+
+    private static class SetPredicate extends CompiledFilter {
+        private final FieldPath fieldPath;
+        private final Set<Comparable<?>> comparableSet;
+        private final boolean negate;
+
+        SetPredicate(FieldPath fieldPath, Set<Comparable<?>> comparableSet, boolean negate) {
+            this.fieldPath = fieldPath;
+            this.comparableSet = comparableSet;
+            this.negate = negate;
+        }
+
+        @Override
+        public boolean apply(Pair<NitriteId, Document> element) {
+            Object fieldValue = element.getSecond().getByPath(fieldPath);
+            if (fieldValue instanceof Comparable) {
+                return negate != comparableSet.contains(fieldValue);
+            }
+            return negate;
+        }
+
+        @Override
+        int cost() {
+            return COST_SET_LOOKUP;
+        }
+
+        @Override
+        double selectivity() {
+            double matching = Math.min(0.1 * comparableSet.size(), 0.9);
+            return negate ? 1.0 - matching : matching;
+        }
+    }
+
+    private static class OpaquePredicate extends CompiledFilter {
+        private final Filter filter;
+        private final int cost;
+        private final double selectivity;
+        private final boolean deferred;
+
+        OpaquePredicate(Filter filter, int cost, double selectivity, boolean deferred) {
+            this.filter = filter;
+            this.cost = cost;
+            this.selectivity = selectivity;
+            this.deferred = deferred;
+        }
+
+        @Override
+        public boolean apply(Pair<NitriteId, Document> element) {
+            return filter.apply(element);
+        }
+
+        @Override
+        int cost() {
+            return cost;
+        }
+
+        @Override
+        double selectivity() {
+            return selectivity;
+        }
+
+        @Override
+        boolean deferred() {
+            return deferred;
+        }
+
+        @Override
+        public String toString() {
+            return filter.toString();
+        }
+    }
+}
@@ -174,6 +174,12 @@ public final class FluentFilter {
     /**
      * Creates a text filter which performs a text search on the content of the fields
      * indexed with a full-text index.
+     * <p>
+     * On a field indexed by a {@link org.dizitart.no2.index.ScoredTextIndexer}, a quoted
+     * phrase like <code>"red apple"</code> matches the terms next to each other in the same
+     * order, and <code>"red apple"~2</code> allows up to two other terms in between.
+     * Without a full-text index, a proximity phrase is matched the same way on the
+     * words of the field, while other search strings are matched as substrings.
      *
      * @param value the text value
      * @return the text filter
@@ -194,6 +200,18 @@ public final class FluentFilter {
         return new RegexFilter(field, value);
     }
 
+    /**
+     * Creates a string filter which matches the documents where the value
+     * of a field starts with the specified prefix. On an indexed field, only
+     * the range of index keys starting with the prefix is scanned.
+     *
+     * @param value the prefix
+     * @return the prefix filter
+     */
+    public NitriteFilter startsWith(String value) {
+        return new StartsWithFilter(field, value);
+    }
+
     /**
      * Creates an in filter which matches the documents where
      * the value of a field equals any value in the specified array.
@@ -40,7 +40,7 @@ class InFilter extends ComparableArrayFilter {
     @Override
     public boolean apply(Pair<NitriteId, Document> element) {
         Document document = element.getSecond();
-        Object fieldValue = document.get(getField());
+        Object fieldValue = document.getByPath(getFieldPath());
 
         if (fieldValue instanceof Comparable) {
             Comparable<?> comparable = (Comparable<?>) fieldValue;
@@ -50,6 +50,10 @@ class InFilter extends ComparableArrayFilter {
     }
 
     public List<?> applyOnIndex(IndexMap indexMap) {
+        if (preferLookups(indexMap, comparableSet.size())) {
+            return lookupOnIndex(indexMap, comparableSet);
+        }
+
         List<NavigableMap<Comparable<?>, Object>> subMap = new ArrayList<>();
         List<NitriteId> nitriteIds = new ArrayList<>();
 
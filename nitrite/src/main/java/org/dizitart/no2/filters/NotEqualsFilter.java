@@ -5,9 +5,8 @@ import org.dizitart.no2.collection.NitriteId;
 import org.dizitart.no2.common.tuples.Pair;
 import org.dizitart.no2.index.IndexMap;
 
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.NavigableMap;
 
 import static org.dizitart.no2.common.util.ObjectUtils.deepEquals;
 
@@ -22,28 +21,15 @@ class NotEqualsFilter extends ComparableFilter {
     @Override
     public boolean apply(Pair<NitriteId, Document> element) {
         Document document = element.getSecond();
-        Object fieldValue = document.get(getField());
+        Object fieldValue = document.getByPath(getFieldPath());
         return !deepEquals(fieldValue, getValue());
     }
 
     public List<?> applyOnIndex(IndexMap indexMap) {
-        List<NavigableMap<Comparable<?>, Object>> subMap = new ArrayList<>();
-        List<NitriteId> nitriteIds = new ArrayList<>();
-
-        for (Pair<Comparable<?>, ?> entry : indexMap.entries()) {
-            if (!deepEquals(getValue(), entry.getFirst())) {
-                processIndexValue(entry.getSecond(), subMap, nitriteIds);
-            }
-        }
-
-        if (!subMap.isEmpty()) {
-            // if sub-map is populated then filtering on compound index, return sub-map
-            return subMap;
-        } else {
-            // else it is filtering on either single field index,
-            // or it is a terminal filter on compound index, return only nitrite-ids
-            return nitriteIds;
-        }
+        Object value = getValue();
+        List<Comparable<?>> excludedKeys = value == null || value instanceof Comparable
+            ? Collections.singletonList((Comparable<?>) value) : Collections.emptyList();
+        return excludeOnIndex(indexMap, excludedKeys, key -> deepEquals(value, key));
     }
 
     @Override
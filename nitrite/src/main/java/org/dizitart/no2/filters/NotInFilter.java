@@ -40,7 +40,7 @@ class NotInFilter extends ComparableArrayFilter {
     @Override
     public boolean apply(Pair<NitriteId, Document> element) {
         Document document = element.getSecond();
-        Object fieldValue = document.get(getField());
+        Object fieldValue = document.getByPath(getFieldPath());
 
         if (fieldValue instanceof Comparable) {
             Comparable<?> comparable = (Comparable<?>) fieldValue;
@@ -50,23 +50,7 @@ class NotInFilter extends ComparableArrayFilter {
     }
 
     public List<?> applyOnIndex(IndexMap indexMap) {
-        List<NavigableMap<Comparable<?>, Object>> subMap = new ArrayList<>();
-        List<NitriteId> nitriteIds = new ArrayList<>();
-
-        for (Pair<Comparable<?>, ?> entry : indexMap.entries()) {
-            if (!comparableSet.contains(entry.getFirst())) {
-                processIndexValue(entry.getSecond(), subMap, nitriteIds);
-            }
-        }
-
-        if (!subMap.isEmpty()) {
-            // if sub-map is populated then filtering on compound index, return sub-map
-            return subMap;
-        } else {
-            // else it is filtering on either single field index,
-            // or it is a terminal filter on compound index, return only nitrite-ids
-            return nitriteIds;
-        }
+        return excludeOnIndex(indexMap, comparableSet, comparableSet::contains);
     }
 
     @Override
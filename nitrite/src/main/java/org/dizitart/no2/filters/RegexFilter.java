@@ -25,20 +25,52 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
+ * Represents a filter which matches string values with a regular expression.
+ * <p>
+ * If the expression is anchored at the start and begins with a literal
+ * prefix, like <code>^ABC-\d+</code>, the prefix can be scanned on an
+ * index of the field and the expression is only applied on the documents
+ * found in that range.
+ *
  * @author Anindya Chatterjee
+ * @since 1.0
  */
-class RegexFilter extends FieldBasedFilter {
+public class RegexFilter extends FieldBasedFilter {
+    private static final String META_CHARACTERS = "\\^$.|?*+()[]{}";
+
     private final Pattern pattern;
+    private final String literalPrefix;
 
     RegexFilter(String field, String value) {
         super(field, value);
         pattern = Pattern.compile(value);
+        literalPrefix = findLiteralPrefix(value);
+    }
+
+    /**
+     * Gets a filter matching the literal prefix of the anchored regular
+     * expression, or <code>null</code> if the expression has no such prefix.
+     * The prefix filter matches a superset of the documents matched by
+     * this filter.
+     *
+     * @return the prefix filter
+     */
+    public StringFilter getPrefixFilter() {
+        if (literalPrefix == null) {
+            return null;
+        }
+
+        StartsWithFilter prefixFilter = new StartsWithFilter(getField(), literalPrefix);
+        prefixFilter.setNitriteConfig(getNitriteConfig());
+        prefixFilter.setCollectionName(getCollectionName());
+        prefixFilter.setObjectFilter(getObjectFilter());
+        return prefixFilter;
     }
 
     @Override
     public boolean apply(Pair<NitriteId, Document> element) {
         Document document = element.getSecond();
-        Object fieldValue = document.get(getField());
+        Object fieldValue = document.getByPath(getFieldPath());
         if (fieldValue != null) {
             if (fieldValue instanceof String) {
                 Matcher matcher = pattern.matcher((String) fieldValue);
@@ -53,6 +85,71 @@ class RegexFilter extends FieldBasedFilter {
         return false;
     }
 
+    private static String findLiteralPrefix(String regex) {
+        if (!regex.startsWith("^") || hasTopLevelAlternation(regex)) {
+            return null;
+        }
+
+        StringBuilder prefix = new StringBuilder();
+        int index = 1;
+        while (index < regex.length()) {
+            char c = regex.charAt(index);
+            int next = index + 1;
+            if (c == '\\') {
+                // only an escaped non-alphanumeric character is a literal
+                if (next >= regex.length() || Character.isLetterOrDigit(regex.charAt(next))) {
+                    break;
+                }
+                c = regex.charAt(next);
+                next++;
+            } else if (META_CHARACTERS.indexOf(c) >= 0) {
+                break;
+            }
+
+            if (next < regex.length()) {
+                char quantifier = regex.charAt(next);
+                if (quantifier == '?' || quantifier == '*' || quantifier == '{') {
+                    // the character is optional
+                    break;
+                } else if (quantifier == '+') {
+                    // the character is present at least once, but
+                    // nothing after it is a part of the prefix
+                    prefix.append(c);
+                    break;
+                }
+            }
+
+            prefix.append(c);
+            index = next;
+        }
+
+        return prefix.length() == 0 ? null : prefix.toString();
+    }
+
+    private static boolean hasTopLevelAlternation(String regex) {
+        int depth = 0;
+        boolean inClass = false;
+        for (int i = 0; i < regex.length(); i++) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (inClass) {
+                if (c == ']') {
+                    inClass = false;
+                }
+            } else if (c == '[') {
+                inClass = true;
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (c == '|' && depth == 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Override
     public String toString() {
         return "(" + getField() + " regex " + getValue() + ")";
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2017-2020. Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dizitart.no2.filters;
+
+import org.dizitart.no2.collection.Document;
+import org.dizitart.no2.collection.NitriteId;
+import org.dizitart.no2.common.tuples.Pair;
+import org.dizitart.no2.index.IndexMap;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NavigableMap;
+
+import static org.dizitart.no2.common.util.ValidationUtils.notNull;
+
+/**
+ * Represents a filter which matches the string values starting with a prefix.
+ * On an index it only walks the contiguous range of keys holding the prefix.
+ *
+ * @author Anindya Chatterjee
+ * @since 4.0
+ */
+public class StartsWithFilter extends StringFilter {
+    StartsWithFilter(String field, String value) {
+        super(field, value);
+        notNull(value, "prefix cannot be null");
+    }
+
+    @Override
+    public boolean apply(Pair<NitriteId, Document> element) {
+        Document document = element.getSecond();
+        Object fieldValue = document.getByPath(getFieldPath());
+        if (fieldValue instanceof String) {
+            return ((String) fieldValue).startsWith(getStringValue());
+        }
+        return false;
+    }
+
+    @Override
+    public List<?> applyOnIndex(IndexMap indexMap) {
+        String prefix = getStringValue();
+        List<NavigableMap<Comparable<?>, Object>> subMap = new ArrayList<>();
+        List<NitriteId> nitriteIds = new ArrayList<>();
+
+        // the range is always walked in ascending order, as the
+        // prefix itself is the lower bound of the range
+        boolean reverseScan = indexMap.isReverseScan();
+        List<Object> values = new ArrayList<>();
+        try {
+            indexMap.setReverseScan(false);
+            Comparable<?> key = indexMap.ceilingKey(prefix);
+            while (key instanceof String && ((String) key).startsWith(prefix)) {
+                // get the value, it can be a navigable-map (compound index)
+                // or list (single field index)
+                values.add(indexMap.get(key));
+                key = indexMap.higherKey((String) key);
+            }
+        } finally {
+            indexMap.setReverseScan(reverseScan);
+        }
+
+        if (reverseScan) {
+            Collections.reverse(values);
+        }
+
+        for (Object value : values) {
+            processIndexValue(value, subMap, nitriteIds);
+        }
+
+        // sub-maps are returned for compound index, nitrite ids otherwise
+        return subMap.isEmpty() ? nitriteIds : subMap;
+    }
+
+    @Override
+    public String toString() {
+        return "(" + getField() + " startsWith " + getValue() + ")";
+    }
+}
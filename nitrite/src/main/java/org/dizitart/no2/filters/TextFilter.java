@@ -26,17 +26,26 @@ import org.dizitart.no2.index.fulltext.TextTokenizer;
 import org.dizitart.no2.store.NitriteMap;
 
 import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import static org.dizitart.no2.common.util.StringUtils.stringTokenizer;
 import static org.dizitart.no2.common.util.ValidationUtils.notNull;
 
 /**
  * Represents a nitrite full-text search filter.
+ * <p>
+ * Without a full-text index, a document matches if its field contains the
+ * search string, ignoring the case and the quotes of a phrase. A proximity
+ * phrase like <code>"red apple"~2</code> matches the words of the phrase in
+ * the same order with up to the given number of other words in between.
  *
  * @author Anindya Chatterjee
  * @since 1.0
  */
 public class TextFilter extends StringFilter {
+    private static final Pattern PROXIMITY_PHRASE = Pattern.compile("\"([^\"]*)\"~(\\d{1,9})");
+
     @Setter
     private TextTokenizer textTokenizer;
 
@@ -55,7 +64,7 @@ public class TextFilter extends StringFilter {
         notNull(getField(), "field cannot be null");
         notNull(getStringValue(), "search term cannot be null");
         String searchString = getStringValue();
-        Object docValue = element.getSecond().get(getField());
+        Object docValue = element.getSecond().getByPath(getFieldPath());
 
         if (!(docValue instanceof String)) {
             throw new FilterException("text filter can not be applied on non string field " + getField());
@@ -67,6 +76,26 @@ public class TextFilter extends StringFilter {
             searchString = searchString.replace("*", "");
         }
 
+        if (searchString.indexOf('"') >= 0) {
+            Matcher matcher = PROXIMITY_PHRASE.matcher(searchString);
+            List<String> words = null;
+            while (matcher.find()) {
+                if (words == null) {
+                    words = words(docString);
+                }
+                if (!containsNear(words, words(matcher.group(1)), Integer.parseInt(matcher.group(2)))) {
+                    return false;
+                }
+            }
+
+            // any other quoted phrase is searched as it is, without the quotes
+            searchString = matcher.replaceAll(" ").replaceAll("\"([^\"]*)\"", "$1")
+                .replaceAll("\\s+", " ").trim();
+            if (searchString.isEmpty()) {
+                return true;
+            }
+        }
+
         return docString.toLowerCase().contains(searchString.toLowerCase());
     }
 
@@ -75,6 +104,46 @@ public class TextFilter extends StringFilter {
         return "(" + getField() + " like " + getValue() + ")";
     }
 
+    private static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        StringTokenizer tokenizer = stringTokenizer(text.toLowerCase());
+        while (tokenizer.hasMoreTokens()) {
+            words.add(tokenizer.nextToken());
+        }
+        return words;
+    }
+
+    private static boolean containsNear(List<String> words, List<String> phrase, int slop) {
+        if (phrase.isEmpty()) {
+            return true;
+        }
+
+        // from every occurrence of the first word, take the nearest following
+        // occurrence of each next word, which gives the shortest span in order
+        for (int start = 0; start < words.size(); start++) {
+            if (!words.get(start).equals(phrase.get(0))) continue;
+
+            int previous = start;
+            boolean matched = true;
+            for (int term = 1; term < phrase.size(); term++) {
+                int next = previous + 1;
+                while (next < words.size() && !words.get(next).equals(phrase.get(term))) {
+                    next++;
+                }
+                if (next == words.size() || next - start - term > slop) {
+                    matched = false;
+                    break;
+                }
+                previous = next;
+            }
+
+            if (matched) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Apply on index linked hash set.
      *
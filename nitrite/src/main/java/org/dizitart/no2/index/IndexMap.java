@@ -182,6 +182,65 @@ public class IndexMap {
         return null;
     }
 
+    /**
+     * Checks if the index map has more keys than the given count. At most
+     * <code>count + 1</code> keys are visited, so that the check stays cheap
+     * for a small count even if the size of the map is not known upfront.
+     *
+     * @param count the count
+     * @return <code>true</code> if there are more keys than the count
+     */
+    public boolean hasMoreKeysThan(long count) {
+        Iterator<DBValue> keyIterator;
+        if (nitriteMap != null) {
+            keyIterator = nitriteMap.keys().iterator();
+        } else if (navigableMap != null) {
+            keyIterator = navigableMap.keySet().iterator();
+        } else {
+            return false;
+        }
+
+        long visited = 0;
+        while (keyIterator.hasNext()) {
+            keyIterator.next();
+            if (++visited > count) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the values of all keys except the excluded ones, in scan order.
+     * <p>
+     * The key ranges between the excluded keys are walked with key seeks and
+     * an excluded key is skipped with a single seek, so that the values of the
+     * excluded keys are never read.
+     *
+     * @param excludedKeys the excluded keys
+     * @return the values of the remaining keys
+     * @throws ClassCastException if the keys can not be ordered
+     */
+    public List<Object> valuesExcept(Collection<Comparable<?>> excludedKeys) {
+        TreeSet<DBValue> excluded = new TreeSet<>();
+        for (Comparable<?> key : excludedKeys) {
+            excluded.add(key == null ? DBNull.getInstance() : new DBValue(key));
+        }
+
+        List<Object> values = new ArrayList<>();
+        DBValue lower = null;
+        for (DBValue upper : excluded) {
+            readRange(lower, upper, values);
+            lower = upper;
+        }
+        readRange(lower, null, values);
+
+        if (reverseScan) {
+            Collections.reverse(values);
+        }
+        return values;
+    }
+
     /**
      * Returns the iterable entries of the indexed items.
      *
@@ -269,4 +328,31 @@ public class IndexMap {
 
         return terminalResult;
     }
+
+    private void readRange(DBValue lower, DBValue upper, List<Object> values) {
+        // reads the values of the keys between lower and upper, both exclusive
+        DBValue dbKey = lower == null ? ceilingDbKey(DBNull.getInstance()) : higherDbKey(lower);
+        while (dbKey != null && (upper == null || dbKey.compareTo(upper) < 0)) {
+            values.add(nitriteMap != null ? nitriteMap.get(dbKey) : navigableMap.get(dbKey));
+            dbKey = higherDbKey(dbKey);
+        }
+    }
+
+    private DBValue higherDbKey(DBValue dbKey) {
+        if (nitriteMap != null) {
+            return nitriteMap.higherKey(dbKey);
+        } else if (navigableMap != null) {
+            return navigableMap.higherKey(dbKey);
+        }
+        return null;
+    }
+
+    private DBValue ceilingDbKey(DBValue dbKey) {
+        if (nitriteMap != null) {
+            return nitriteMap.ceilingKey(dbKey);
+        } else if (navigableMap != null) {
+            return navigableMap.ceilingKey(dbKey);
+        }
+        return null;
+    }
 }
@@ -24,6 +24,7 @@ import org.dizitart.no2.common.Fields;
 import org.dizitart.no2.exceptions.IndexingException;
 import org.dizitart.no2.index.fulltext.EnglishTextTokenizer;
 import org.dizitart.no2.index.fulltext.TextTokenizer;
+import org.dizitart.no2.store.NitriteStore;
 
 import java.util.LinkedHashSet;
 import java.util.Map;
@@ -31,13 +32,18 @@ import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Represents a nitrite text indexer.
+ * <p>
+ * It creates a {@link TextIndex} for new indexes, subclasses can plug in
+ * another text index implementation via
+ * {@link #createTextIndex(TextTokenizer, IndexDescriptor, NitriteStore)}.
+ * An existing {@link ScoredTextIndex} is always opened as such.
  *
  * @author Anindya Chatterjee
  * @since 4.0
  */
 public class NitriteTextIndexer implements NitriteIndexer {
     private final TextTokenizer textTokenizer;
-    private final Map<IndexDescriptor, TextIndex> indexRegistry;
+    private final Map<IndexDescriptor, NitriteIndex> indexRegistry;
 
     /**
      * Instantiates a new {@link NitriteTextIndexer}.
@@ -75,25 +81,28 @@ public class NitriteTextIndexer implements NitriteIndexer {
 
     @Override
     public void dropIndex(IndexDescriptor indexDescriptor, NitriteConfig nitriteConfig) {
-        TextIndex textIndex = findTextIndex(indexDescriptor, nitriteConfig);
+        NitriteIndex textIndex = findTextIndex(indexDescriptor, nitriteConfig);
         textIndex.drop();
+
+        // the index is created afresh for the next entry
+        indexRegistry.remove(indexDescriptor);
     }
 
     @Override
     public void writeIndexEntry(FieldValues fieldValues, IndexDescriptor indexDescriptor, NitriteConfig nitriteConfig) {
-        TextIndex textIndex = findTextIndex(indexDescriptor, nitriteConfig);
+        NitriteIndex textIndex = findTextIndex(indexDescriptor, nitriteConfig);
         textIndex.write(fieldValues);
     }
 
     @Override
     public void removeIndexEntry(FieldValues fieldValues, IndexDescriptor indexDescriptor, NitriteConfig nitriteConfig) {
-        TextIndex textIndex = findTextIndex(indexDescriptor, nitriteConfig);
+        NitriteIndex textIndex = findTextIndex(indexDescriptor, nitriteConfig);
         textIndex.remove(fieldValues);
     }
 
     @Override
     public LinkedHashSet<NitriteId> findByFilter(FindPlan findPlan, NitriteConfig nitriteConfig) {
-        TextIndex textIndex = findTextIndex(findPlan.getIndexDescriptor(), nitriteConfig);
+        NitriteIndex textIndex = findTextIndex(findPlan.getIndexDescriptor(), nitriteConfig);
         return textIndex.findNitriteIds(findPlan);
     }
 
@@ -102,12 +111,33 @@ public class NitriteTextIndexer implements NitriteIndexer {
         indexRegistry.clear();
     }
 
-    private TextIndex findTextIndex(IndexDescriptor indexDescriptor, NitriteConfig nitriteConfig) {
+    /**
+     * Creates the text index for an index descriptor, which does not
+     * exist in the store as a {@link ScoredTextIndex}.
+     *
+     * @param textTokenizer   the text tokenizer
+     * @param indexDescriptor the index descriptor
+     * @param nitriteStore    the nitrite store
+     * @return the text index
+     */
+    protected NitriteIndex createTextIndex(TextTokenizer textTokenizer,
+                                           IndexDescriptor indexDescriptor,
+                                           NitriteStore<?> nitriteStore) {
+        return new TextIndex(textTokenizer, indexDescriptor, nitriteStore);
+    }
+
+    private NitriteIndex findTextIndex(IndexDescriptor indexDescriptor, NitriteConfig nitriteConfig) {
         if (indexRegistry.containsKey(indexDescriptor)) {
             return indexRegistry.get(indexDescriptor);
         }
 
-        TextIndex textIndex = new TextIndex(textTokenizer, indexDescriptor, nitriteConfig.getNitriteStore());
+        NitriteStore<?> nitriteStore = nitriteConfig.getNitriteStore();
+        NitriteIndex textIndex;
+        if (ScoredTextIndex.exists(indexDescriptor, nitriteStore)) {
+            textIndex = new ScoredTextIndex(textTokenizer, indexDescriptor, nitriteStore);
+        } else {
+            textIndex = createTextIndex(textTokenizer, indexDescriptor, nitriteStore);
+        }
         indexRegistry.put(indexDescriptor, textIndex);
         return textIndex;
     }
@@ -0,0 +1,566 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.dizitart.no2.index;
+
+import lombok.Getter;
+import org.dizitart.no2.collection.FindPlan;
+import org.dizitart.no2.collection.NitriteId;
+import org.dizitart.no2.common.FieldValues;
+import org.dizitart.no2.exceptions.FilterException;
+import org.dizitart.no2.exceptions.IndexingException;
+import org.dizitart.no2.filters.ComparableFilter;
+import org.dizitart.no2.filters.TextFilter;
+import org.dizitart.no2.index.fulltext.TextTokenizer;
+import org.dizitart.no2.store.NitriteMap;
+import org.dizitart.no2.store.NitriteStore;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.dizitart.no2.common.Constants.INTERNAL_NAME_SEPARATOR;
+import static org.dizitart.no2.common.util.IndexUtils.deriveIndexMapName;
+import static org.dizitart.no2.common.util.ObjectUtils.convertToObjectArray;
+import static org.dizitart.no2.common.util.StringUtils.stringTokenizer;
+import static org.dizitart.no2.common.util.ValidationUtils.*;
+
+/**
+ * Represents a nitrite full-text index which ranks the search results.
+ * <p>
+ * For every term, the index stores a posting list which maps the id of a
+ * matching document to its length in tokens and the positions of the term
+ * in it. The results of a search are ranked by their BM25 score, and if the
+ * find plan has a limit, only the top results are selected.
+ * <p>
+ * Wildcard and fuzzy search terms are expanded with an in-memory dictionary
+ * of the indexed terms, which is built on first use. Besides the plain and
+ * wildcard search terms of a {@link TextIndex}, it supports fuzzy search
+ * terms like <code>colour~</code> or <code>colour~1</code>, which match the
+ * terms within two or the given number of edits.
+ * <p>
+ * A quoted phrase like <code>"red apple"</code> matches the documents which
+ * contain its terms next to each other and in the same order. A proximity
+ * phrase like <code>"red apple"~2</code> allows up to the given number of
+ * other terms in between. A document must match all phrases of a search
+ * string, the remaining terms only add to its score. A stop word is not
+ * indexed but keeps its position, and the values of an array field are
+ * kept apart from each other.
+ *
+ * @author Anindya Chatterjee
+ * @since 4.0
+ */
+public class ScoredTextIndex implements NitriteIndex {
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int MAX_EDITS = 2;
+    private static final Pattern FUZZY_TERM = Pattern.compile("(.+)~([0-2])?");
+    private static final Pattern PHRASE = Pattern.compile("\"([^\"]*)\"(?:~(\\d{1,9}))?");
+    private static final int POSITION_GAP = 100;
+
+    private static final String POSTINGS = "postings";
+    private static final String STATISTICS = "statistics";
+    private static final String DOCUMENT_COUNT = "documents";
+    private static final String TOKEN_COUNT = "tokens";
+
+    @Getter
+    private final IndexDescriptor indexDescriptor;
+    private final NitriteStore<?> nitriteStore;
+    private final TextTokenizer textTokenizer;
+    private TermDictionary termDictionary;
+
+    /**
+     * Instantiates a new {@link ScoredTextIndex}.
+     *
+     * @param textTokenizer   the text tokenizer
+     * @param indexDescriptor the index descriptor
+     * @param nitriteStore    the nitrite store
+     */
+    public ScoredTextIndex(TextTokenizer textTokenizer,
+                           IndexDescriptor indexDescriptor,
+                           NitriteStore<?> nitriteStore) {
+        this.textTokenizer = textTokenizer;
+        this.indexDescriptor = indexDescriptor;
+        this.nitriteStore = nitriteStore;
+    }
+
+    /**
+     * Checks if a scored text index exists in the store for the index descriptor.
+     *
+     * @param indexDescriptor the index descriptor
+     * @param nitriteStore    the nitrite store
+     * @return <code>true</code> if the index exists
+     */
+    public static boolean exists(IndexDescriptor indexDescriptor, NitriteStore<?> nitriteStore) {
+        return nitriteStore != null && nitriteStore.hasMap(deriveMapName(indexDescriptor, POSTINGS));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void write(FieldValues fieldValues) {
+        List<List<String>> texts = tokenize(fieldValues);
+        int length = length(texts);
+        if (length == 0) return;
+
+        NitriteMap<String, ConcurrentHashMap<NitriteId, int[]>> postings = findPostingsMap();
+        for (Map.Entry<String, List<Integer>> entry : termPositions(texts).entrySet()) {
+            String term = entry.getKey();
+            // the posting is changed in place like the id lists of the other
+            // indexes, a transaction reads its own copy of the posting
+            ConcurrentHashMap<NitriteId, int[]> posting = postings.get(term);
+            boolean newTerm = posting == null;
+            if (newTerm) {
+                posting = new ConcurrentHashMap<>();
+            }
+
+            // the document length followed by the ascending positions of the term
+            List<Integer> positions = entry.getValue();
+            int[] value = new int[positions.size() + 1];
+            value[0] = length;
+            for (int i = 0; i < positions.size(); i++) {
+                value[i + 1] = positions.get(i);
+            }
+
+            posting.put(fieldValues.getNitriteId(), value);
+            postings.put(term, posting);
+
+            if (newTerm) {
+                updateDictionary(term, true);
+            }
+        }
+
+        updateStatistics(1, length);
+    }
+
+    @Override
+    public void remove(FieldValues fieldValues) {
+        List<List<String>> texts = tokenize(fieldValues);
+        int length = length(texts);
+        if (length == 0) return;
+
+        NitriteMap<String, ConcurrentHashMap<NitriteId, int[]>> postings = findPostingsMap();
+        boolean removed = false;
+        for (String term : termPositions(texts).keySet()) {
+            ConcurrentHashMap<NitriteId, int[]> posting = postings.get(term);
+            if (posting != null && posting.remove(fieldValues.getNitriteId()) != null) {
+                removed = true;
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                    updateDictionary(term, false);
+                } else {
+                    postings.put(term, posting);
+                }
+            }
+        }
+
+        if (removed) {
+            updateStatistics(-1, -length);
+        }
+    }
+
+    @Override
+    public void drop() {
+        NitriteMap<String, ConcurrentHashMap<NitriteId, int[]>> postings = findPostingsMap();
+        postings.clear();
+        postings.drop();
+
+        NitriteMap<String, Long> statistics = findStatisticsMap();
+        statistics.clear();
+        statistics.drop();
+
+        synchronized (this) {
+            termDictionary = null;
+        }
+    }
+
+    @Override
+    public LinkedHashSet<NitriteId> findNitriteIds(FindPlan findPlan) {
+        if (findPlan.getIndexScanFilter() == null) return new LinkedHashSet<>();
+
+        List<ComparableFilter> filters = findPlan.getIndexScanFilter().getFilters();
+        if (filters.size() == 1 && filters.get(0) instanceof TextFilter) {
+            TextFilter textFilter = (TextFilter) filters.get(0);
+            textFilter.setTextTokenizer(textTokenizer);
+            return search(expandQuery(textFilter), topResultCount(findPlan));
+        }
+        throw new FilterException("invalid filter found for full-text index");
+    }
+
+    private Query expandQuery(TextFilter textFilter) {
+        notNull(textFilter.getField(), "field cannot be null");
+        notNull(textFilter.getStringValue(), "search term cannot be null");
+        String searchString = textFilter.getStringValue();
+
+        Query query = new Query();
+        Map<String, Double> terms = query.terms;
+        if (searchString.indexOf('"') < 0 && (searchString.startsWith("*") || searchString.endsWith("*"))) {
+            for (String term : expandWildCard(searchString)) {
+                terms.put(term, 1.0);
+            }
+        } else {
+            Matcher phraseMatcher = PHRASE.matcher(searchString);
+            while (phraseMatcher.find()) {
+                int slop = phraseMatcher.group(2) == null ? 0 : Integer.parseInt(phraseMatcher.group(2));
+                Phrase phrase = new Phrase(tokenizeWithGaps(phraseMatcher.group(1)), slop);
+                if (phrase.terms.isEmpty()) continue;
+
+                query.phrases.add(phrase);
+                for (String term : phrase.terms) {
+                    terms.put(term, 1.0);
+                }
+            }
+
+            String remaining = phraseMatcher.replaceAll(" ").trim();
+            for (String word : remaining.isEmpty() ? new String[0] : remaining.split("\\s+")) {
+                Matcher matcher = FUZZY_TERM.matcher(word);
+                if (matcher.matches()) {
+                    int maxEdits = matcher.group(2) == null ? MAX_EDITS : Integer.parseInt(matcher.group(2));
+                    for (String token : textTokenizer.tokenize(matcher.group(1))) {
+                        Map<String, Integer> similarTerms = termDictionary().similarTo(token, maxEdits);
+                        for (Map.Entry<String, Integer> entry : similarTerms.entrySet()) {
+                            // a closer match weighs more
+                            terms.merge(entry.getKey(), 1.0 / (1 + entry.getValue()), Math::max);
+                        }
+                    }
+                } else {
+                    for (String token : textTokenizer.tokenize(word)) {
+                        terms.put(token, 1.0);
+                    }
+                }
+            }
+        }
+        return query;
+    }
+
+    private List<String> expandWildCard(String searchString) {
+        if (searchString.contentEquals("*")) {
+            throw new FilterException("* is not a valid search string");
+        }
+
+        StringTokenizer stringTokenizer = stringTokenizer(searchString);
+        if (stringTokenizer.countTokens() > 1) {
+            throw new FilterException("multiple words with wildcard is not supported");
+        }
+
+        if (searchString.startsWith("*") && !searchString.endsWith("*")) {
+            return termDictionary().withSuffix(searchString.substring(1).toLowerCase());
+        } else if (searchString.endsWith("*") && !searchString.startsWith("*")) {
+            return termDictionary().withPrefix(searchString.substring(0, searchString.length() - 1).toLowerCase());
+        } else {
+            String term = searchString.substring(1, searchString.length() - 1);
+            return termDictionary().containing(term.toLowerCase());
+        }
+    }
+
+    private LinkedHashSet<NitriteId> search(Query query, long topResultCount) {
+        NitriteMap<String, ConcurrentHashMap<NitriteId, int[]>> postings = findPostingsMap();
+        NitriteMap<String, Long> statistics = findStatisticsMap();
+        long documentCount = statistic(statistics, DOCUMENT_COUNT);
+        long tokenCount = statistic(statistics, TOKEN_COUNT);
+        double averageLength = documentCount == 0 || tokenCount == 0 ? 1.0 : (double) tokenCount / documentCount;
+
+        // the documents matching all phrases, null if there is no phrase
+        Set<NitriteId> phraseMatches = null;
+        for (Phrase phrase : query.phrases) {
+            Set<NitriteId> matches = matchPhrase(postings, phrase);
+            if (phraseMatches == null) {
+                phraseMatches = matches;
+            } else {
+                phraseMatches.retainAll(matches);
+            }
+
+            if (phraseMatches.isEmpty()) {
+                return new LinkedHashSet<>();
+            }
+        }
+
+        Map<NitriteId, Double> scores = new HashMap<>();
+        for (Map.Entry<String, Double> entry : query.terms.entrySet()) {
+            ConcurrentHashMap<NitriteId, int[]> posting = postings.get(entry.getKey());
+            if (posting == null || posting.isEmpty()) continue;
+
+            double idf = Math.log(1 + (documentCount - posting.size() + 0.5) / (posting.size() + 0.5));
+            double weight = entry.getValue() * idf;
+            for (Map.Entry<NitriteId, int[]> match : posting.entrySet()) {
+                if (phraseMatches != null && !phraseMatches.contains(match.getKey())) continue;
+
+                double length = match.getValue()[0];
+                double frequency = match.getValue().length - 1;
+                double score = weight * frequency * (K1 + 1)
+                    / (frequency + K1 * (1 - B + B * length / averageLength));
+                scores.merge(match.getKey(), score, Double::sum);
+            }
+        }
+
+        return rank(scores, topResultCount);
+    }
+
+    private Set<NitriteId> matchPhrase(NitriteMap<String, ConcurrentHashMap<NitriteId, int[]>> postings,
+                                       Phrase phrase) {
+        List<ConcurrentHashMap<NitriteId, int[]>> termPostings = new ArrayList<>();
+        ConcurrentHashMap<NitriteId, int[]> smallest = null;
+        for (String term : phrase.terms) {
+            ConcurrentHashMap<NitriteId, int[]> posting = postings.get(term);
+            if (posting == null || posting.isEmpty()) {
+                return new HashSet<>();
+            }
+
+            termPostings.add(posting);
+            if (smallest == null || posting.size() < smallest.size()) {
+                smallest = posting;
+            }
+        }
+
+        // only the documents of the rarest term can contain the phrase
+        Set<NitriteId> matches = new HashSet<>();
+        List<int[]> positions = new ArrayList<>(termPostings.size());
+        for (NitriteId nitriteId : smallest.keySet()) {
+            positions.clear();
+            for (ConcurrentHashMap<NitriteId, int[]> posting : termPostings) {
+                int[] value = posting.get(nitriteId);
+                if (value == null) break;
+                positions.add(value);
+            }
+
+            if (positions.size() == termPostings.size() && inOrder(positions, phrase)) {
+                matches.add(nitriteId);
+            }
+        }
+        return matches;
+    }
+
+    private boolean inOrder(List<int[]> positions, Phrase phrase) {
+        // for every position of the first term, take the nearest following
+        // position of each next term, which gives the shortest span in order
+        int[] first = positions.get(0);
+        for (int i = 1; i < first.length; i++) {
+            int start = first[i];
+            int previous = start;
+            boolean matched = true;
+            for (int term = 1; term < positions.size(); term++) {
+                int offset = phrase.offsets[term];
+                int next = nextPosition(positions.get(term), Math.max(previous, start + offset - phrase.slop - 1));
+                if (next < 0 || next - start - offset > phrase.slop) {
+                    matched = false;
+                    break;
+                }
+                previous = next;
+            }
+
+            if (matched) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int nextPosition(int[] value, int position) {
+        // binary search of the first position after the given one, skipping the length
+        int low = 1;
+        int high = value.length - 1;
+        int next = -1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (value[middle] > position) {
+                next = value[middle];
+                high = middle - 1;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return next;
+    }
+
+    private LinkedHashSet<NitriteId> rank(Map<NitriteId, Double> scores, long topResultCount) {
+        // higher score first, ties are broken by id to keep the order stable
+        Comparator<Map.Entry<NitriteId, Double>> ranking = Map.Entry.<NitriteId, Double>comparingByValue()
+            .reversed().thenComparing(Map.Entry.comparingByKey());
+
+        List<Map.Entry<NitriteId, Double>> ranked;
+        if (topResultCount < scores.size()) {
+            // keep the top results in a bounded heap, the lowest ranked one on top
+            PriorityQueue<Map.Entry<NitriteId, Double>> heap =
+                new PriorityQueue<>((int) topResultCount + 1, ranking.reversed());
+            for (Map.Entry<NitriteId, Double> entry : scores.entrySet()) {
+                heap.offer(entry);
+                if (heap.size() > topResultCount) {
+                    heap.poll();
+                }
+            }
+            ranked = new ArrayList<>(heap);
+        } else {
+            ranked = new ArrayList<>(scores.entrySet());
+        }
+        ranked.sort(ranking);
+
+        LinkedHashSet<NitriteId> result = new LinkedHashSet<>();
+        for (Map.Entry<NitriteId, Double> entry : ranked) {
+            result.add(entry.getKey());
+        }
+        return result;
+    }
+
+    private long topResultCount(FindPlan findPlan) {
+        // only the top results can be selected if nothing but
+        // skip and limit is applied on the result of the index
+        boolean unsorted = findPlan.getBlockingSortOrder() == null || findPlan.getBlockingSortOrder().isEmpty();
+        if (findPlan.getLimit() != null && findPlan.getCollectionScanFilter() == null && unsorted) {
+            long skip = findPlan.getSkip() == null ? 0 : findPlan.getSkip();
+            return Math.max(skip + findPlan.getLimit(), 0);
+        }
+        return Long.MAX_VALUE;
+    }
+
+    private List<List<String>> tokenize(FieldValues fieldValues) {
+        String firstField = fieldValues.getFields().getFieldNames().get(0);
+        Object element = fieldValues.get(firstField);
+
+        List<List<String>> texts = new ArrayList<>();
+        if (element == null) {
+            return texts;
+        } else if (element instanceof String) {
+            texts.add(tokenizeWithGaps((String) element));
+        } else if (element.getClass().isArray()) {
+            validateStringArrayIndexField(element, firstField);
+            for (Object item : convertToObjectArray(element)) {
+                texts.add(tokenizeWithGaps((String) item));
+            }
+        } else if (element instanceof Iterable) {
+            validateStringIterableIndexField((Iterable<?>) element, firstField);
+            for (Object item : (Iterable<?>) element) {
+                texts.add(tokenizeWithGaps((String) item));
+            }
+        } else {
+            throw new IndexingException("string data is expected");
+        }
+        return texts;
+    }
+
+    private List<String> tokenizeWithGaps(String text) {
+        // a discarded stop word leaves a null in its place, so that
+        // a phrase does not match across it
+        List<String> tokens = new ArrayList<>();
+        StringTokenizer tokenizer = stringTokenizer(text);
+        while (tokenizer.hasMoreTokens()) {
+            List<String> wordTokens = textTokenizer.tokenizeAll(tokenizer.nextToken());
+            if (wordTokens.isEmpty()) {
+                tokens.add(null);
+            } else {
+                tokens.addAll(wordTokens);
+            }
+        }
+        return tokens;
+    }
+
+    private int length(List<List<String>> texts) {
+        int length = 0;
+        for (List<String> tokens : texts) {
+            for (String token : tokens) {
+                if (token != null) length++;
+            }
+        }
+        return length;
+    }
+
+    private Map<String, List<Integer>> termPositions(List<List<String>> texts) {
+        Map<String, List<Integer>> positions = new HashMap<>();
+        int position = 0;
+        for (List<String> tokens : texts) {
+            for (String token : tokens) {
+                if (token != null) {
+                    positions.computeIfAbsent(token, k -> new ArrayList<>()).add(position);
+                }
+                position++;
+            }
+            // keeps a phrase from matching across the values of an array
+            position += POSITION_GAP;
+        }
+        return positions;
+    }
+
+    private void updateStatistics(long documentDelta, long tokenDelta) {
+        NitriteMap<String, Long> statistics = findStatisticsMap();
+        statistics.put(DOCUMENT_COUNT, Math.max(statistic(statistics, DOCUMENT_COUNT) + documentDelta, 0));
+        statistics.put(TOKEN_COUNT, Math.max(statistic(statistics, TOKEN_COUNT) + tokenDelta, 0));
+    }
+
+    private long statistic(NitriteMap<String, Long> statistics, String name) {
+        Long value = statistics.get(name);
+        return value == null ? 0 : value;
+    }
+
+    private synchronized void updateDictionary(String term, boolean added) {
+        // a dictionary which is not built yet will read the term from the store
+        if (termDictionary != null) {
+            if (added) {
+                termDictionary.add(term);
+            } else {
+                termDictionary.remove(term);
+            }
+        }
+    }
+
+    private synchronized TermDictionary termDictionary() {
+        if (termDictionary == null) {
+            TermDictionary dictionary = new TermDictionary();
+            for (String term : findPostingsMap().keys()) {
+                dictionary.add(term);
+            }
+            termDictionary = dictionary;
+        }
+        return termDictionary;
+    }
+
+    private NitriteMap<String, ConcurrentHashMap<NitriteId, int[]>> findPostingsMap() {
+        return nitriteStore.openMap(deriveMapName(indexDescriptor, POSTINGS), String.class, ConcurrentHashMap.class);
+    }
+
+    private NitriteMap<String, Long> findStatisticsMap() {
+        return nitriteStore.openMap(deriveMapName(indexDescriptor, STATISTICS), String.class, Long.class);
+    }
+
+    private static String deriveMapName(IndexDescriptor indexDescriptor, String suffix) {
+        return deriveIndexMapName(indexDescriptor) + INTERNAL_NAME_SEPARATOR + suffix;
+    }
+
+    private static class Query {
+        // maps the terms to search to their weights
+        private final Map<String, Double> terms = new HashMap<>();
+        private final List<Phrase> phrases = new ArrayList<>();
+    }
+
+    private static class Phrase {
+        private final List<String> terms;
+        // the position of each term relative to the first one
+        private final int[] offsets;
+        private final int slop;
+
+        private Phrase(List<String> tokens, int slop) {
+            this.terms = new ArrayList<>();
+            this.offsets = new int[tokens.size()];
+            this.slop = slop;
+
+            int first = -1;
+            for (int i = 0; i < tokens.size(); i++) {
+                if (tokens.get(i) == null) continue;
+                if (first < 0) first = i;
+                offsets[terms.size()] = i - first;
+                terms.add(tokens.get(i));
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.dizitart.no2.index;
+
+import org.dizitart.no2.index.fulltext.EnglishTextTokenizer;
+import org.dizitart.no2.index.fulltext.TextTokenizer;
+import org.dizitart.no2.store.NitriteStore;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.dizitart.no2.common.util.IndexUtils.deriveIndexMapName;
+
+/**
+ * Represents a nitrite text indexer which creates a {@link ScoredTextIndex}
+ * for new indexes. An existing non-empty {@link TextIndex} is still used
+ * until the index is rebuilt.
+ *
+ * @author Anindya Chatterjee
+ * @since 4.0
+ */
+public class ScoredTextIndexer extends NitriteTextIndexer {
+    /**
+     * Instantiates a new {@link ScoredTextIndexer}.
+     */
+    public ScoredTextIndexer() {
+        super(new EnglishTextTokenizer());
+    }
+
+    /**
+     * Instantiates a new {@link ScoredTextIndexer}.
+     *
+     * @param textTokenizer the text tokenizer
+     */
+    public ScoredTextIndexer(TextTokenizer textTokenizer) {
+        super(textTokenizer);
+    }
+
+    @Override
+    protected NitriteIndex createTextIndex(TextTokenizer textTokenizer,
+                                           IndexDescriptor indexDescriptor,
+                                           NitriteStore<?> nitriteStore) {
+        String mapName = deriveIndexMapName(indexDescriptor);
+        if (nitriteStore.hasMap(mapName)
+            && !nitriteStore.openMap(mapName, String.class, CopyOnWriteArrayList.class).isEmpty()) {
+            // an existing text index is used until it is rebuilt
+            return new TextIndex(textTokenizer, indexDescriptor, nitriteStore);
+        }
+        return new ScoredTextIndex(textTokenizer, indexDescriptor, nitriteStore);
+    }
+}
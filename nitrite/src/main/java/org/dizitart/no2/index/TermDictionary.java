@@ -0,0 +1,255 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.dizitart.no2.index;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * An in-memory dictionary of the terms of a full-text index. It answers
+ * prefix and suffix lookups with range scans on sorted term sets, infix
+ * lookups with a trigram index and fuzzy lookups by edit distance.
+ * <p>
+ * The dictionary holds only the terms, the postings of a term
+ * stay in the store.
+ *
+ * @author Anindya Chatterjee
+ * @since 4.0
+ */
+class TermDictionary {
+    private static final int GRAM_LENGTH = 3;
+
+    private final NavigableSet<String> terms;
+    private final NavigableSet<String> reversedTerms;
+    private final Map<String, Set<String>> grams;
+
+    /**
+     * Instantiates a new empty {@link TermDictionary}.
+     */
+    TermDictionary() {
+        this.terms = new ConcurrentSkipListSet<>();
+        this.reversedTerms = new ConcurrentSkipListSet<>();
+        this.grams = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Adds a term to the dictionary.
+     *
+     * @param term the term
+     */
+    void add(String term) {
+        if (terms.add(term)) {
+            reversedTerms.add(reverse(term));
+            for (String gram : grams(term)) {
+                grams.computeIfAbsent(gram, k -> ConcurrentHashMap.newKeySet()).add(term);
+            }
+        }
+    }
+
+    /**
+     * Removes a term from the dictionary.
+     *
+     * @param term the term
+     */
+    void remove(String term) {
+        if (terms.remove(term)) {
+            reversedTerms.remove(reverse(term));
+            for (String gram : grams(term)) {
+                Set<String> gramTerms = grams.get(gram);
+                if (gramTerms != null) {
+                    gramTerms.remove(term);
+                    if (gramTerms.isEmpty()) {
+                        grams.remove(gram);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes all terms from the dictionary.
+     */
+    void clear() {
+        terms.clear();
+        reversedTerms.clear();
+        grams.clear();
+    }
+
+    /**
+     * Gets the number of terms in the dictionary.
+     *
+     * @return the size
+     */
+    int size() {
+        return terms.size();
+    }
+
+    /**
+     * Finds the terms starting with a prefix, in sorted order.
+     *
+     * @param prefix the prefix
+     * @return the terms
+     */
+    List<String> withPrefix(String prefix) {
+        List<String> result = new ArrayList<>();
+        for (String term : terms.tailSet(prefix, true)) {
+            if (!term.startsWith(prefix)) break;
+            result.add(term);
+        }
+        return result;
+    }
+
+    /**
+     * Finds the terms ending with a suffix.
+     *
+     * @param suffix the suffix
+     * @return the terms
+     */
+    List<String> withSuffix(String suffix) {
+        String reversedSuffix = reverse(suffix);
+        List<String> result = new ArrayList<>();
+        for (String reversedTerm : reversedTerms.tailSet(reversedSuffix, true)) {
+            if (!reversedTerm.startsWith(reversedSuffix)) break;
+            result.add(reverse(reversedTerm));
+        }
+        return result;
+    }
+
+    /**
+     * Finds the terms containing an infix.
+     *
+     * @param infix the infix
+     * @return the terms
+     */
+    List<String> containing(String infix) {
+        Collection<String> candidates = terms;
+        if (infix.length() >= GRAM_LENGTH) {
+            // every term containing the infix is in the posting of each of its
+            // grams, the smallest such posting is the cheapest to verify
+            for (String gram : grams(infix)) {
+                Set<String> gramTerms = grams.getOrDefault(gram, Collections.emptySet());
+                if (gramTerms.size() < candidates.size()) {
+                    candidates = gramTerms;
+                }
+            }
+        }
+
+        List<String> result = new ArrayList<>();
+        for (String term : candidates) {
+            if (term.contains(infix)) {
+                result.add(term);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds the terms within the given edit distance of a term,
+     * along with their edit distances.
+     *
+     * @param term     the term
+     * @param maxEdits the maximum number of edits
+     * @return the map of terms and their edit distances
+     */
+    Map<String, Integer> similarTo(String term, int maxEdits) {
+        Collection<String> candidates = terms;
+
+        // an edit destroys at most q grams, so a term within k edits shares at
+        // least (n - k * q) of the n distinct grams of the query term (q-gram
+        // lemma), only the terms sharing that many grams need to be verified
+        Set<String> termGrams = new HashSet<>(grams(term));
+        int minSharedGrams = termGrams.size() - maxEdits * GRAM_LENGTH;
+        if (minSharedGrams > 0) {
+            Map<String, Integer> sharedGrams = new HashMap<>();
+            for (String gram : termGrams) {
+                for (String candidate : grams.getOrDefault(gram, Collections.emptySet())) {
+                    sharedGrams.merge(candidate, 1, Integer::sum);
+                }
+            }
+
+            List<String> filtered = new ArrayList<>();
+            for (Map.Entry<String, Integer> entry : sharedGrams.entrySet()) {
+                if (entry.getValue() >= minSharedGrams) {
+                    filtered.add(entry.getKey());
+                }
+            }
+            candidates = filtered;
+        }
+
+        Map<String, Integer> result = new HashMap<>();
+        for (String candidate : candidates) {
+            if (Math.abs(candidate.length() - term.length()) <= maxEdits) {
+                int distance = editDistance(term, candidate, maxEdits);
+                if (distance <= maxEdits) {
+                    result.put(candidate, distance);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Computes the Levenshtein distance of two strings, it stops early
+     * and returns <code>maxEdits + 1</code> once the distance exceeds
+     * <code>maxEdits</code>.
+     *
+     * @param source   the source
+     * @param target   the target
+     * @param maxEdits the maximum number of edits
+     * @return the edit distance
+     */
+    static int editDistance(String source, String target, int maxEdits) {
+        int[] previous = new int[target.length() + 1];
+        int[] current = new int[target.length() + 1];
+        for (int j = 0; j <= target.length(); j++) {
+            previous[j] = j;
+        }
+
+        for (int i = 1; i <= source.length(); i++) {
+            current[0] = i;
+            int rowMinimum = current[0];
+            for (int j = 1; j <= target.length(); j++) {
+                int cost = source.charAt(i - 1) == target.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1),
+                    previous[j - 1] + cost);
+                rowMinimum = Math.min(rowMinimum, current[j]);
+            }
+
+            if (rowMinimum > maxEdits) {
+                return maxEdits + 1;
+            }
+
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return Math.min(previous[target.length()], maxEdits + 1);
+    }
+
+    private static List<String> grams(String term) {
+        List<String> result = new ArrayList<>();
+        for (int i = 0; i + GRAM_LENGTH <= term.length(); i++) {
+            result.add(term.substring(i, i + GRAM_LENGTH));
+        }
+        return result;
+    }
+
+    private static String reverse(String term) {
+        return new StringBuilder(term).reverse().toString();
+    }
+}
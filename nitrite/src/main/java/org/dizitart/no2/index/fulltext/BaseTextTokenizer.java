@@ -18,7 +18,9 @@ package org.dizitart.no2.index.fulltext;
 
 import org.dizitart.no2.common.util.StringUtils;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.StringTokenizer;
 
@@ -49,6 +51,21 @@ public abstract class BaseTextTokenizer implements TextTokenizer {
         return words;
     }
 
+    @Override
+    public List<String> tokenizeAll(String text) {
+        List<String> words = new ArrayList<>();
+        if (StringUtils.isNullOrEmpty(text)) return words;
+
+        StringTokenizer tokenizer = stringTokenizer(text);
+        while (tokenizer.hasMoreTokens()) {
+            String word = convertWord(tokenizer.nextToken());
+            if (word != null) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
     /**
      * Converts a `word` into all lower case and checks if it
      * is a known stop word. If it is, then the `word` will be
@@ -16,6 +16,8 @@
 
 package org.dizitart.no2.index.fulltext;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -42,6 +44,20 @@ public interface TextTokenizer {
      */
     Set<String> tokenize(String text);
 
+    /**
+     * Tokenize a `text` into the sequence of its tokens, keeping the order
+     * and the repetitions of the tokens, and discards all stop-words from it.
+     * <p>
+     * The default implementation returns the distinct tokens of
+     * {@link #tokenize(String)}.
+     *
+     * @param text the text to tokenize
+     * @return the list of tokens.
+     */
+    default List<String> tokenizeAll(String text) {
+        return new ArrayList<>(tokenize(text));
+    }
+
     /**
      * Gets all stop-words for a language.
      *
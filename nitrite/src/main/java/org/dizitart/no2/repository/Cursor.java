@@ -24,11 +24,14 @@ import org.dizitart.no2.common.RecordStream;
 /**
  * A collection of {@link NitriteId}s of the database records,
  * as a result of a find operation.
+ * <p>
+ * A cursor which is not iterated to the end should be closed, so that
+ * the store can release the view of the store it holds on to.
  *
  * @author Anindya Chatterjee
  * @since 1.0
  */
-public interface Cursor<T> extends RecordStream<T> {
+public interface Cursor<T> extends RecordStream<T>, AutoCloseable {
     /**
      * Gets a filter plan for the query.
      *
@@ -61,4 +64,10 @@ public interface Cursor<T> extends RecordStream<T> {
      * @since 2.1.0
      */
     <Foreign, Joined> RecordStream<Joined> join(Cursor<Foreign> foreignCursor, Lookup lookup, Class<Joined> type);
+
+    /**
+     * Releases the view of the store held by the cursor.
+     */
+    @Override
+    void close();
 }
@@ -21,6 +21,7 @@ import org.dizitart.no2.collection.Document;
 import org.dizitart.no2.collection.FindOptions;
 import org.dizitart.no2.collection.NitriteCollection;
 import org.dizitart.no2.collection.events.CollectionEventListener;
+import org.dizitart.no2.common.event.EventQueueMetrics;
 import org.dizitart.no2.collection.meta.Attributes;
 import org.dizitart.no2.common.WriteResult;
 import org.dizitart.no2.filters.Filter;
@@ -157,7 +158,9 @@ class DefaultObjectRepository<T> implements ObjectRepository<T> {
     @Override
     public <I> T getById(I id) {
         Filter idFilter = operations.createIdFilter(id);
-        return find(idFilter).firstOrNull();
+        try (Cursor<T> cursor = find(idFilter)) {
+            return cursor.firstOrNull();
+        }
     }
 
     @Override
@@ -200,6 +203,11 @@ class DefaultObjectRepository<T> implements ObjectRepository<T> {
         collection.unsubscribe(listener);
     }
 
+    @Override
+    public EventQueueMetrics getEventMetrics() {
+        return collection.getEventMetrics();
+    }
+
     @Override
     public Attributes getAttributes() {
         return collection.getAttributes();
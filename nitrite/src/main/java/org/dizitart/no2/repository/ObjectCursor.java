@@ -21,12 +21,14 @@ import org.dizitart.no2.collection.DocumentCursor;
 import org.dizitart.no2.collection.FindPlan;
 import org.dizitart.no2.common.Lookup;
 import org.dizitart.no2.common.RecordStream;
+import org.dizitart.no2.common.streams.MappedSpliterator;
 import org.dizitart.no2.exceptions.InvalidOperationException;
 import org.dizitart.no2.exceptions.ValidationException;
 import org.dizitart.no2.common.mapper.NitriteMapper;
 
 import java.lang.reflect.Modifier;
 import java.util.Iterator;
+import java.util.Spliterator;
 
 import static org.dizitart.no2.common.util.DocumentUtils.skeletonDocument;
 import static org.dizitart.no2.common.util.ValidationUtils.notNull;
@@ -73,6 +75,17 @@ class ObjectCursor<T> implements Cursor<T> {
         return new ObjectCursorIterator(cursor.iterator());
     }
 
+    @Override
+    public Spliterator<T> spliterator() {
+        // each split converts its own documents
+        return new MappedSpliterator<>(cursor.spliterator(), document -> nitriteMapper.convert(document, type));
+    }
+
+    @Override
+    public void close() {
+        cursor.close();
+    }
+
     private <D> Document emptyDocument(NitriteMapper nitriteMapper, Class<D> type) {
         if (type.isPrimitive()) {
             throw new ValidationException("cannot project to primitive type");
@@ -26,22 +26,27 @@ import org.dizitart.no2.common.mapper.NitriteMapper;
 import org.dizitart.no2.store.NitriteStore;
 import org.dizitart.no2.store.StoreCatalog;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.locks.ReentrantLock;
 
 import static org.dizitart.no2.common.util.ObjectUtils.findRepositoryName;
 
 /**
  * The {@link ObjectRepository} factory.
+ * <p>
+ * An already opened repository is served from a concurrent registry
+ * without taking any lock. A lock, specific to the repository name, is
+ * only taken when the repository is opened for the first time or
+ * reopened after it has been closed or dropped.
  *
  * @author Anindya Chatterjee
  * @since 1.0
  */
 public class RepositoryFactory {
-    private final Map<String, ObjectRepository<?>> repositoryMap;
+    private final ConcurrentMap<String, ObjectRepository<?>> repositoryMap;
+    private final ConcurrentMap<String, ReentrantLock> creationLocks;
     private final CollectionFactory collectionFactory;
-    private final ReentrantLock lock;
 
     /**
      * Instantiates a new {@link RepositoryFactory}.
@@ -50,8 +55,8 @@ public class RepositoryFactory {
      */
     public RepositoryFactory(CollectionFactory collectionFactory) {
         this.collectionFactory = collectionFactory;
-        this.repositoryMap = new HashMap<>();
-        this.lock = new ReentrantLock();
+        this.repositoryMap = new ConcurrentHashMap<>();
+        this.creationLocks = new ConcurrentHashMap<>();
     }
 
     /**
@@ -87,19 +92,24 @@ public class RepositoryFactory {
 
         String collectionName = findRepositoryName(type, key);
 
+        ObjectRepository<T> repository = (ObjectRepository<T>) repositoryMap.get(collectionName);
+        if (isAlive(repository)) {
+            return repository;
+        }
+
+        ReentrantLock lock = creationLock(collectionName);
         try {
             lock.lock();
-            if (repositoryMap.containsKey(collectionName)) {
-                ObjectRepository<T> repository = (ObjectRepository<T>) repositoryMap.get(collectionName);
-                if (repository.isDropped() || !repository.isOpen()) {
-                    repositoryMap.remove(collectionName);
-                    return createRepository(nitriteConfig, type, collectionName, key);
-                } else {
-                    return repository;
-                }
-            } else {
-                return createRepository(nitriteConfig, type, collectionName, key);
+            // another thread might have opened it while waiting for the lock
+            repository = (ObjectRepository<T>) repositoryMap.get(collectionName);
+            if (isAlive(repository)) {
+                return repository;
             }
+
+            if (repository != null) {
+                repositoryMap.remove(collectionName, repository);
+            }
+            return createRepository(nitriteConfig, type, collectionName, key);
         } finally {
             lock.unlock();
         }
@@ -110,15 +120,20 @@ public class RepositoryFactory {
      */
     public void clear() {
         try {
-            lock.lock();
-            for (ObjectRepository<?> repository : repositoryMap.values()) {
-                repository.close();
+            for (String name : repositoryMap.keySet()) {
+                ReentrantLock lock = creationLock(name);
+                try {
+                    lock.lock();
+                    ObjectRepository<?> repository = repositoryMap.remove(name);
+                    if (repository != null) {
+                        repository.close();
+                    }
+                } finally {
+                    lock.unlock();
+                }
             }
-            repositoryMap.clear();
         } catch (Exception e) {
             throw new NitriteIOException("failed to close an object repository", e);
-        } finally {
-            lock.unlock();
         }
     }
 
@@ -143,6 +158,14 @@ public class RepositoryFactory {
         return repository;
     }
 
+    private boolean isAlive(ObjectRepository<?> repository) {
+        return repository != null && !repository.isDropped() && repository.isOpen();
+    }
+
+    private ReentrantLock creationLock(String name) {
+        return creationLocks.computeIfAbsent(name, k -> new ReentrantLock());
+    }
+
     private void writeCatalog(NitriteStore<?> store, String name, String key) {
         StoreCatalog storeCatalog = store.getCatalog();
         if (StringUtils.isNullOrEmpty(key)) {
@@ -97,7 +97,7 @@ public abstract class AbstractNitriteStore<Config extends StoreConfig>
     }
 
     @Override
-    public StoreCatalog getCatalog() {
+    public synchronized StoreCatalog getCatalog() {
         if (storeCatalog == null) {
             this.storeCatalog = new StoreCatalog(this);
         }
@@ -21,6 +21,9 @@ import org.dizitart.no2.collection.meta.MetadataAware;
 import org.dizitart.no2.common.RecordStream;
 import org.dizitart.no2.common.tuples.Pair;
 
+import java.util.Collections;
+import java.util.List;
+
 import static org.dizitart.no2.common.Constants.META_MAP_NAME;
 import static org.dizitart.no2.common.util.StringUtils.isNullOrEmpty;
 
@@ -180,6 +183,22 @@ public interface NitriteMap<Key, Value> extends MetadataAware, AutoCloseable {
      */
     RecordStream<Pair<Key, Value>> reversedEntries();
 
+    /**
+     * Splits the mappings contained in this map into contiguous, non-overlapping
+     * ranges of keys, in the key order of this map. Each range can be scanned
+     * independently, e.g. by different threads, and the ranges together
+     * contain all the mappings of this map.
+     * <p>
+     * The default implementation does not split the map and returns
+     * {@link #entries()} as the only range.
+     *
+     * @param splitCount the maximum number of ranges
+     * @return the list of ranges
+     */
+    default List<RecordStream<Pair<Key, Value>>> splitEntries(int splitCount) {
+        return Collections.singletonList(entries());
+    }
+
     /**
      * Deletes the map from the store.
      */
@@ -24,6 +24,8 @@ import org.dizitart.no2.store.events.StoreEventListener;
 
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 /**
  * Represents a storage for Nitrite database.
@@ -87,6 +89,70 @@ public interface NitriteStore<Config extends StoreConfig> extends NitritePlugin
      */
     void commit();
 
+    /**
+     * Commits the changes asynchronously. The returned future completes
+     * once the changes are durable. By default the changes are
+     * committed synchronously and a completed future is returned.
+     *
+     * @return the future which completes after the commit
+     */
+    default CompletableFuture<Void> commitAsync() {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        try {
+            commit();
+            future.complete(null);
+        } catch (Exception e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Executes the writes of one logical change, e.g. a document together
+     * with all its index entries, as a single unit.
+     * <p>
+     * A store which can write multiple maps atomically applies all writes
+     * made by the current thread inside <code>unit</code> at once after it
+     * returns, and discards them if it throws. Reads made by the current
+     * thread inside <code>unit</code> see its own pending writes. A unit
+     * started inside another unit joins the outer one.
+     * <p>
+     * By default the writes are applied as they are made.
+     *
+     * @param <T>  the result type
+     * @param unit the writes to execute
+     * @return the result of the unit
+     */
+    default <T> T writeUnit(Supplier<T> unit) {
+        return unit.get();
+    }
+
+    /**
+     * Opens a consistent read view of the store. Reads made through
+     * {@link StoreSnapshot#read(Supplier)} see the store
+     * as it was when the snapshot was opened.
+     * <p>
+     * By default {@link StoreSnapshot#LATEST} is returned, which always
+     * reads the latest state.
+     *
+     * @return the store snapshot
+     */
+    default StoreSnapshot openSnapshot() {
+        return StoreSnapshot.LATEST;
+    }
+
+    /**
+     * Checks if the keys of the maps of this store are ordered by their natural
+     * order, e.g. the strings sharing a prefix are a contiguous range of keys.
+     * <p>
+     * By default it returns <code>true</code>.
+     *
+     * @return <code>true</code> if the keys are in their natural order
+     */
+    default boolean hasNaturalKeyOrder() {
+        return true;
+    }
+
     /**
      * This method runs before store {@link #close()}, to run cleanup routines.
      */
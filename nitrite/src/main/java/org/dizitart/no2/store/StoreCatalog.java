@@ -53,7 +53,7 @@ public class StoreCatalog {
      *
      * @param name the name
      */
-    public void writeCollectionEntry(String name) {
+    public synchronized void writeCollectionEntry(String name) {
         Document document = catalogMap.get(TAG_COLLECTIONS);
         if (document == null) {
             document = Document.createDocument();
@@ -72,7 +72,7 @@ public class StoreCatalog {
      *
      * @param name the name
      */
-    public void writeRepositoryEntry(String name) {
+    public synchronized void writeRepositoryEntry(String name) {
         Document document = catalogMap.get(TAG_REPOSITORIES);
         if (document == null) {
             document = Document.createDocument();
@@ -91,7 +91,7 @@ public class StoreCatalog {
      *
      * @param name the name
      */
-    public void writeKeyedRepositoryEntries(String name) {
+    public synchronized void writeKeyedRepositoryEntries(String name) {
         Document document = catalogMap.get(TAG_KEYED_REPOSITORIES);
         if (document == null) {
             document = Document.createDocument();
@@ -164,7 +164,7 @@ public class StoreCatalog {
      *
      * @param name the name
      */
-    public void remove(String name) {
+    public synchronized void remove(String name) {
         // iterate over all types of catalog and find which type contains the name
         // remove the name from there
         for (Pair<String, Document> entry : catalogMap.entries()) {
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.store;
+
+import java.util.function.Supplier;
+
+/**
+ * Represents a consistent point-in-time view of a {@link NitriteStore}.
+ * <p>
+ * Reads made inside {@link #read(Supplier)} on any map of the store see
+ * the state of the store at the time the snapshot was opened. Closing a
+ * snapshot lets the store discard the versions it holds on to, stores
+ * also release snapshots which are no longer reachable.
+ *
+ * @author Anindya Chatterjee
+ * @see NitriteStore#openSnapshot()
+ * @since 4.0
+ */
+public interface StoreSnapshot extends AutoCloseable {
+    /**
+     * A snapshot which always reads the latest state of the store,
+     * used by stores which do not support snapshots.
+     */
+    StoreSnapshot LATEST = new StoreSnapshot() {
+        @Override
+        public <T> T read(Supplier<T> reader) {
+            return reader.get();
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    /**
+     * Runs the reader with this snapshot pinned on the current thread.
+     *
+     * @param <T>    the result type
+     * @param reader the reader
+     * @return the result of the reader
+     */
+    <T> T read(Supplier<T> reader);
+
+    /**
+     * Releases the snapshot.
+     */
+    @Override
+    void close();
+}
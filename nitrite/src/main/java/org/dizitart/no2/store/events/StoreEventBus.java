@@ -28,8 +28,6 @@ import org.dizitart.no2.common.event.NitriteEventBus;
 public class StoreEventBus extends NitriteEventBus<EventInfo, StoreEventListener> {
     @Override
     public void post(EventInfo storeEvent) {
-        for (final StoreEventListener listener : getListeners()) {
-            getEventExecutor().submit(() -> listener.onEvent(storeEvent));
-        }
+        dispatch(storeEvent, StoreEventListener::onEvent);
     }
 }
@@ -6,7 +6,10 @@ import org.dizitart.no2.common.util.Comparables;
 import org.dizitart.no2.store.NitriteMap;
 import org.dizitart.no2.store.NitriteStore;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.NavigableMap;
 import java.util.concurrent.ConcurrentSkipListMap;
@@ -122,6 +125,37 @@ public class InMemoryMap<Key, Value> implements NitriteMap<Key, Value> {
         return getStream(backingMap.descendingMap());
     }
 
+    @Override
+    public List<RecordStream<Pair<Key, Value>>> splitEntries(int splitCount) {
+        int size = backingMap.size();
+        if (splitCount <= 1 || size < splitCount) {
+            return Collections.singletonList(entries());
+        }
+
+        // walk the keys once to find the range boundaries, the
+        // ranges are then served as sub map views of the backing map
+        List<Key> boundaries = new ArrayList<>(splitCount - 1);
+        int rangeSize = size / splitCount;
+        int position = 0;
+        for (Key key : backingMap.keySet()) {
+            if (position > 0 && position % rangeSize == 0) {
+                boundaries.add(key);
+                if (boundaries.size() == splitCount - 1) break;
+            }
+            position++;
+        }
+
+        List<RecordStream<Pair<Key, Value>>> splits = new ArrayList<>(boundaries.size() + 1);
+        Key from = null;
+        for (Key to : boundaries) {
+            splits.add(getStream(from == null ? backingMap.headMap(to, false)
+                : backingMap.subMap(from, true, to, false)));
+            from = to;
+        }
+        splits.add(from == null ? entries() : getStream(backingMap.tailMap(from, true)));
+        return splits;
+    }
+
     @Override
     public Key higherKey(Key key) {
         if (key == null) {
@@ -6,14 +6,13 @@ import lombok.Setter;
 import org.dizitart.no2.Nitrite;
 import org.dizitart.no2.NitriteConfig;
 import org.dizitart.no2.collection.*;
-import org.dizitart.no2.collection.events.CollectionEventInfo;
+import org.dizitart.no2.collection.events.CollectionEventBus;
 import org.dizitart.no2.collection.events.CollectionEventListener;
 import org.dizitart.no2.collection.meta.Attributes;
 import org.dizitart.no2.collection.operation.CollectionOperations;
 import org.dizitart.no2.common.Fields;
 import org.dizitart.no2.common.WriteResult;
-import org.dizitart.no2.common.event.EventBus;
-import org.dizitart.no2.common.event.NitriteEventBus;
+import org.dizitart.no2.common.event.EventQueueMetrics;
 import org.dizitart.no2.common.processors.Processor;
 import org.dizitart.no2.exceptions.*;
 import org.dizitart.no2.filters.Filter;
@@ -30,6 +29,7 @@ import java.util.List;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
 
 import static org.dizitart.no2.collection.UpdateOptions.updateOptions;
 import static org.dizitart.no2.common.util.DocumentUtils.createUniqueFilter;
@@ -64,7 +64,7 @@ class DefaultTransactionalCollection implements NitriteCollection {
 
     @Getter(AccessLevel.NONE)
     @Setter(AccessLevel.NONE)
-    private EventBus<CollectionEventInfo<?>, CollectionEventListener> eventBus;
+    private CollectionEventBus eventBus;
 
     public DefaultTransactionalCollection(NitriteCollection primary,
                                           TransactionContext transactionContext,
@@ -90,9 +90,13 @@ class DefaultTransactionalCollection implements NitriteCollection {
         try {
             writeLock.lock();
             checkOpened();
+            if (isOptimistic()) {
+                return trackWrites(() -> collectionOperations.insert(documents));
+            }
             result = collectionOperations.insert(documents);
         } finally {
             writeLock.unlock();
+            awaitEventCapacity();
         }
 
         JournalEntry journalEntry = new JournalEntry();
@@ -117,9 +121,13 @@ class DefaultTransactionalCollection implements NitriteCollection {
         try {
             writeLock.lock();
             checkOpened();
+            if (isOptimistic()) {
+                return trackWrites(() -> collectionOperations.update(filter, update, updateOptions));
+            }
             result = collectionOperations.update(filter, update, updateOptions);
         } finally {
             writeLock.unlock();
+            awaitEventCapacity();
         }
 
         List<Document> documentList = new ArrayList<>();
@@ -127,13 +135,13 @@ class DefaultTransactionalCollection implements NitriteCollection {
         JournalEntry journalEntry = new JournalEntry();
         journalEntry.setChangeType(ChangeType.Update);
         journalEntry.setCommit(() -> {
-            DocumentCursor cursor = primary.find(filter);
-
-            if (!cursor.isEmpty()) {
-                if (updateOptions.isJustOnce()) {
-                    documentList.add(cursor.firstOrNull());
-                } else {
-                    documentList.addAll(cursor.toList());
+            try (DocumentCursor cursor = primary.find(filter)) {
+                if (!cursor.isEmpty()) {
+                    if (updateOptions.isJustOnce()) {
+                        documentList.add(cursor.firstOrNull());
+                    } else {
+                        documentList.addAll(cursor.toList());
+                    }
                 }
             }
             primary.update(filter, update, updateOptions);
@@ -173,9 +181,13 @@ class DefaultTransactionalCollection implements NitriteCollection {
             try {
                 writeLock.lock();
                 checkOpened();
+                if (isOptimistic()) {
+                    return trackWrites(() -> collectionOperations.remove(document));
+                }
                 result = collectionOperations.remove(document);
             } finally {
                 writeLock.unlock();
+                awaitEventCapacity();
             }
         } else {
             throw new NotIdentifiableException("remove operation failed as no id value found for the document");
@@ -209,9 +221,13 @@ class DefaultTransactionalCollection implements NitriteCollection {
         try {
             writeLock.lock();
             checkOpened();
+            if (isOptimistic()) {
+                return trackWrites(() -> collectionOperations.remove(filter, justOne));
+            }
             result = collectionOperations.remove(filter, justOne);
         } finally {
             writeLock.unlock();
+            awaitEventCapacity();
         }
 
         List<Document> documentList = new ArrayList<>();
@@ -219,13 +235,13 @@ class DefaultTransactionalCollection implements NitriteCollection {
         JournalEntry journalEntry = new JournalEntry();
         journalEntry.setChangeType(ChangeType.Remove);
         journalEntry.setCommit(() -> {
-            DocumentCursor cursor = primary.find(filter);
-
-            if (!cursor.isEmpty()) {
-                if (justOne) {
-                    documentList.add(cursor.firstOrNull());
-                } else {
-                    documentList.addAll(cursor.toList());
+            try (DocumentCursor cursor = primary.find(filter)) {
+                if (!cursor.isEmpty()) {
+                    if (justOne) {
+                        documentList.add(cursor.firstOrNull());
+                    } else {
+                        documentList.addAll(cursor.toList());
+                    }
                 }
             }
             primary.remove(filter, justOne);
@@ -258,6 +274,9 @@ class DefaultTransactionalCollection implements NitriteCollection {
         try {
             readLock.lock();
             checkOpened();
+            if (isOptimistic()) {
+                return trackRead(nitriteId);
+            }
             return collectionOperations.getById(nitriteId);
         } finally {
             readLock.unlock();
@@ -470,6 +489,10 @@ class DefaultTransactionalCollection implements NitriteCollection {
         try {
             writeLock.lock();
             checkOpened();
+            if (isOptimistic()) {
+                clearTracked();
+                return;
+            }
             nitriteMap.clear();
         } finally {
             writeLock.unlock();
@@ -589,6 +612,12 @@ class DefaultTransactionalCollection implements NitriteCollection {
         }
     }
 
+    @Override
+    public EventQueueMetrics getEventMetrics() {
+        CollectionEventBus bus = eventBus;
+        return bus == null ? new EventQueueMetrics(0, 0, 0, 0, 0) : bus.getMetrics();
+    }
+
     @Override
     public Attributes getAttributes() {
         try {
@@ -628,6 +657,13 @@ class DefaultTransactionalCollection implements NitriteCollection {
         transactionContext.getJournal().add(journalEntry);
     }
 
+    private void awaitEventCapacity() {
+        CollectionEventBus bus = eventBus;
+        if (bus != null) {
+            bus.awaitCapacity();
+        }
+    }
+
     private void initialize() {
         this.collectionName = transactionContext.getCollectionName();
         this.nitriteMap = transactionContext.getNitriteMap();
@@ -639,16 +675,52 @@ class DefaultTransactionalCollection implements NitriteCollection {
         this.readLock = rwLock.readLock();
         this.writeLock = rwLock.writeLock();
 
-        this.eventBus = new CollectionEventBus();
+        this.eventBus = new CollectionEventBus(nitriteConfig, rwLock);
         this.collectionOperations = new CollectionOperations(collectionName, nitriteMap, nitriteConfig, eventBus);
     }
 
-    private static class CollectionEventBus extends NitriteEventBus<CollectionEventInfo<?>, CollectionEventListener> {
+    private boolean isOptimistic() {
+        return transactionContext.getMode() == TransactionMode.Optimistic;
+    }
 
-        public void post(CollectionEventInfo<?> collectionEventInfo) {
-            for (final CollectionEventListener listener : getListeners()) {
-                getEventExecutor().submit(() -> listener.onEvent(collectionEventInfo));
+    private WriteResult trackWrites(Supplier<WriteResult> operation) {
+        // the primary collection can not change between the operation
+        // and the recording of the committed versions it has seen
+        Lock primaryLock = transactionContext.primaryReadLock();
+        try {
+            primaryLock.lock();
+            WriteResult result = operation.get();
+            for (NitriteId nitriteId : result) {
+                transactionContext.recordWrite(nitriteId, primary::getById);
+            }
+            return result;
+        } finally {
+            primaryLock.unlock();
+        }
+    }
+
+    private Document trackRead(NitriteId nitriteId) {
+        Lock primaryLock = transactionContext.primaryReadLock();
+        try {
+            primaryLock.lock();
+            Document document = collectionOperations.getById(nitriteId);
+            transactionContext.recordRead(nitriteId, primary::getById);
+            return document;
+        } finally {
+            primaryLock.unlock();
+        }
+    }
+
+    private void clearTracked() {
+        Lock primaryLock = transactionContext.primaryReadLock();
+        try {
+            primaryLock.lock();
+            for (NitriteId nitriteId : nitriteMap.keys()) {
+                transactionContext.recordWrite(nitriteId, primary::getById);
             }
+            nitriteMap.clear();
+        } finally {
+            primaryLock.unlock();
         }
     }
 
@@ -5,6 +5,7 @@ import org.dizitart.no2.collection.Document;
 import org.dizitart.no2.collection.FindOptions;
 import org.dizitart.no2.collection.NitriteCollection;
 import org.dizitart.no2.collection.events.CollectionEventListener;
+import org.dizitart.no2.common.event.EventQueueMetrics;
 import org.dizitart.no2.collection.meta.Attributes;
 import org.dizitart.no2.common.WriteResult;
 import org.dizitart.no2.filters.Filter;
@@ -152,7 +153,9 @@ class DefaultTransactionalRepository<T> implements ObjectRepository<T> {
         T item = primary == null ? null : primary.getById(id);
         if (item == null) {
             Filter idFilter = operations.createIdFilter(id);
-            return find(idFilter).firstOrNull();
+            try (Cursor<T> cursor = find(idFilter)) {
+                return cursor.firstOrNull();
+            }
         }
         return item;
     }
@@ -197,6 +200,11 @@ class DefaultTransactionalRepository<T> implements ObjectRepository<T> {
         backingCollection.unsubscribe(listener);
     }
 
+    @Override
+    public EventQueueMetrics getEventMetrics() {
+        return backingCollection.getEventMetrics();
+    }
+
     @Override
     public Attributes getAttributes() {
         return backingCollection.getAttributes();
@@ -18,6 +18,8 @@ import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.Lock;
 
+import static org.dizitart.no2.common.Constants.DOC_SOURCE;
+import static org.dizitart.no2.common.Constants.REPLICATOR;
 import static org.dizitart.no2.common.util.ObjectUtils.findRepositoryName;
 
 /**
@@ -28,6 +30,7 @@ import static org.dizitart.no2.common.util.ObjectUtils.findRepositoryName;
 class NitriteTransaction implements Transaction {
     private final Nitrite nitrite;
     private final LockService lockService;
+    private final TransactionMode mode;
 
     private TransactionStore<?> transactionStore;
     private TransactionConfig transactionConfig;
@@ -42,8 +45,13 @@ class NitriteTransaction implements Transaction {
     private State state;
 
     public NitriteTransaction(Nitrite nitrite, LockService lockService) {
+        this(nitrite, lockService, TransactionMode.Journal);
+    }
+
+    public NitriteTransaction(Nitrite nitrite, LockService lockService, TransactionMode mode) {
         this.nitrite = nitrite;
         this.lockService = lockService;
+        this.mode = mode;
         prepare();
     }
 
@@ -62,15 +70,7 @@ class NitriteTransaction implements Transaction {
             throw new TransactionException("collection " + name + " does not exists");
         }
 
-        NitriteMap<NitriteId, Document> txMap = transactionStore.openMap(name,
-            NitriteId.class, Document.class);
-
-        TransactionContext context = new TransactionContext();
-        context.setCollectionName(name);
-        context.setNitriteMap(txMap);
-        context.setJournal(new LinkedList<>());
-        context.setConfig(transactionConfig);
-
+        TransactionContext context = createContext(name, primary);
         NitriteCollection txCollection = new DefaultTransactionalCollection(primary, context, nitrite);
         collectionRegistry.put(name, txCollection);
         contextMap.put(name, context);
@@ -94,16 +94,8 @@ class NitriteTransaction implements Transaction {
             throw new TransactionException("repository of type " + type.getName() + " does not exists");
         }
 
-        NitriteMap<NitriteId, Document> txMap = transactionStore.openMap(name,
-            NitriteId.class, Document.class);
-
-        TransactionContext context = new TransactionContext();
-        context.setCollectionName(name);
-        context.setNitriteMap(txMap);
-        context.setJournal(new LinkedList<>());
-        context.setConfig(transactionConfig);
-
         NitriteCollection primaryCollection = primary.getDocumentCollection();
+        TransactionContext context = createContext(name, primaryCollection);
         NitriteCollection backingCollection = new DefaultTransactionalCollection(primaryCollection, context, nitrite);
         ObjectRepository<T> txRepository = new DefaultTransactionalRepository<>(type,
             primary, backingCollection, transactionConfig);
@@ -131,16 +123,8 @@ class NitriteTransaction implements Transaction {
                 + " and key " + key + " does not exists");
         }
 
-        NitriteMap<NitriteId, Document> txMap = transactionStore.openMap(name,
-            NitriteId.class, Document.class);
-
-        TransactionContext context = new TransactionContext();
-        context.setCollectionName(name);
-        context.setNitriteMap(txMap);
-        context.setJournal(new LinkedList<>());
-        context.setConfig(transactionConfig);
-
         NitriteCollection primaryCollection = primary.getDocumentCollection();
+        TransactionContext context = createContext(name, primaryCollection);
         NitriteCollection backingCollection = new DefaultTransactionalCollection(primaryCollection, context, nitrite);
         ObjectRepository<T> txRepository = new DefaultTransactionalRepository<>(type,
             primary, backingCollection, transactionConfig);
@@ -154,6 +138,11 @@ class NitriteTransaction implements Transaction {
         checkState();
         this.state = State.PartiallyCommitted;
 
+        if (mode == TransactionMode.Optimistic) {
+            commitOptimistic();
+            return;
+        }
+
         for (Map.Entry<String, TransactionContext> contextEntry : contextMap.entrySet()) {
             String collectionName = contextEntry.getKey();
             TransactionContext transactionContext = contextEntry.getValue();
@@ -254,6 +243,184 @@ class NitriteTransaction implements Transaction {
         return state;
     }
 
+    private TransactionContext createContext(String name, NitriteCollection primary) {
+        NitriteMap<NitriteId, Document> txMap = transactionStore.openMap(name,
+            NitriteId.class, Document.class);
+
+        TransactionContext context = new TransactionContext();
+        context.setCollectionName(name);
+        context.setNitriteMap(txMap);
+        context.setJournal(new LinkedList<>());
+        context.setConfig(transactionConfig);
+        context.setMode(mode);
+        context.setPrimary(primary);
+        context.setLockService(lockService);
+        return context;
+    }
+
+    private void commitOptimistic() {
+        // lock all collections in a fixed order to avoid deadlocks
+        // between transactions committing at the same time
+        List<String> collectionNames = new ArrayList<>(contextMap.keySet());
+        Collections.sort(collectionNames);
+
+        List<Lock> locks = new ArrayList<>();
+        try {
+            for (String collectionName : collectionNames) {
+                Lock lock = lockService.getWriteLock(collectionName);
+                lock.lock();
+                locks.add(lock);
+            }
+
+            for (String collectionName : collectionNames) {
+                validate(contextMap.get(collectionName));
+            }
+
+            // only the non-document operations are in the journal
+            for (String collectionName : collectionNames) {
+                Queue<JournalEntry> commitLog = contextMap.get(collectionName).getJournal();
+                Stack<UndoEntry> undoLog = undoRegistry.containsKey(collectionName)
+                    ? undoRegistry.get(collectionName) : new Stack<>();
+                try {
+                    int length = commitLog.size();
+                    for (int i = 0; i < length; i++) {
+                        JournalEntry entry = commitLog.poll();
+                        if (entry != null && entry.getCommit() != null) {
+                            try {
+                                entry.getCommit().execute();
+                            } finally {
+                                UndoEntry undoEntry = new UndoEntry();
+                                undoEntry.setCollectionName(collectionName);
+                                undoEntry.setRollback(entry.getRollback());
+                                undoLog.push(undoEntry);
+                            }
+                        }
+                    }
+                } finally {
+                    undoRegistry.put(collectionName, undoLog);
+                }
+            }
+
+            Stack<UndoEntry> appliedLog = new Stack<>();
+            nitrite.getStore().writeUnit(() -> {
+                try {
+                    for (String collectionName : collectionNames) {
+                        apply(contextMap.get(collectionName), appliedLog);
+                    }
+                } catch (RuntimeException e) {
+                    // a store without write batches has already written the
+                    // documents applied before the failure, so they are reverted
+                    revert(appliedLog);
+                    throw e;
+                }
+                return null;
+            });
+        } catch (TransactionException te) {
+            state = State.Failed;
+            log.error("Error while committing transaction", te);
+            throw te;
+        } catch (Exception e) {
+            state = State.Failed;
+            log.error("Error while committing transaction", e);
+            throw new TransactionException("failed to commit transaction", e);
+        } finally {
+            for (TransactionContext context : contextMap.values()) {
+                context.getActive().set(false);
+            }
+
+            for (int i = locks.size() - 1; i >= 0; i--) {
+                locks.get(i).unlock();
+            }
+        }
+
+        state = State.Committed;
+        close();
+    }
+
+    private void validate(TransactionContext context) {
+        NitriteCollection primary = context.getPrimary();
+        synchronized (context) {
+            for (Map.Entry<NitriteId, Document> entry : context.getReadSet().entrySet()) {
+                Document current = primary.isDropped() ? null : primary.getById(entry.getKey());
+                if (!sameVersion(entry.getValue(), current)) {
+                    throw new TransactionException("document " + entry.getKey() + " in "
+                        + context.getCollectionName() + " has been modified by another transaction");
+                }
+            }
+        }
+    }
+
+    private void apply(TransactionContext context, Stack<UndoEntry> appliedLog) {
+        NitriteCollection primary = context.getPrimary();
+        if (primary.isDropped()) {
+            return;
+        }
+
+        NitriteMap<NitriteId, Document> txMap = context.getNitriteMap();
+        synchronized (context) {
+            for (NitriteId nitriteId : context.getWriteSet()) {
+                Document base = context.getReadSet().get(nitriteId);
+                Document current = txMap.get(nitriteId);
+
+                if (current == null) {
+                    if (base != null) {
+                        primary.remove(base);
+                        appliedLog.push(undoEntry(context, () -> restore(primary, base)));
+                    }
+                } else if (base == null) {
+                    primary.insert(current);
+                    appliedLog.push(undoEntry(context, () -> primary.remove(current)));
+                } else if (current.getFields().containsAll(base.getFields())) {
+                    primary.update(current, false);
+                    appliedLog.push(undoEntry(context, () -> {
+                        primary.remove(current);
+                        restore(primary, base);
+                    }));
+                } else {
+                    // a field has been removed, which an update can not express
+                    primary.remove(base);
+                    appliedLog.push(undoEntry(context, () -> restore(primary, base)));
+                    primary.insert(current);
+                    appliedLog.push(undoEntry(context, () -> primary.remove(current)));
+                }
+            }
+        }
+    }
+
+    private void revert(Stack<UndoEntry> appliedLog) {
+        while (!appliedLog.isEmpty()) {
+            UndoEntry undoEntry = appliedLog.pop();
+            try {
+                undoEntry.getRollback().execute();
+            } catch (Exception e) {
+                log.error("Error while reverting a failed commit in " + undoEntry.getCollectionName(), e);
+            }
+        }
+    }
+
+    private void restore(NitriteCollection primary, Document base) {
+        // inserted as the replicator so that the revision and the
+        // modified time of the document are kept as they were read
+        Document document = base.clone();
+        document.put(DOC_SOURCE, REPLICATOR);
+        primary.insert(document);
+    }
+
+    private UndoEntry undoEntry(TransactionContext context, Command rollback) {
+        UndoEntry undoEntry = new UndoEntry();
+        undoEntry.setCollectionName(context.getCollectionName());
+        undoEntry.setRollback(rollback);
+        return undoEntry;
+    }
+
+    private boolean sameVersion(Document base, Document current) {
+        if (base == null || current == null) {
+            return base == current;
+        }
+        return Objects.equals(base.getRevision(), current.getRevision())
+            && Objects.equals(base.getLastModifiedSinceEpoch(), current.getLastModifiedSinceEpoch());
+    }
+
     private void prepare() {
         this.contextMap = new ConcurrentHashMap<>();
         this.collectionRegistry = new ConcurrentHashMap<>();
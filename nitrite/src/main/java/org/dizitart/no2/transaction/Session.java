@@ -8,6 +8,8 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import static org.dizitart.no2.common.util.ValidationUtils.notNull;
+
 /**
  * A nitrite transaction session. A session is needed to
  * initiate a transaction in nitrite database.
@@ -41,14 +43,25 @@ public class Session implements AutoCloseable {
     }
 
     /**
-     * Begins a new transaction.
+     * Begins a new transaction in {@link TransactionMode#Journal} mode.
      *
      * @return the transaction
      */
     public Transaction beginTransaction() {
+        return beginTransaction(TransactionMode.Journal);
+    }
+
+    /**
+     * Begins a new transaction with the given concurrency control mode.
+     *
+     * @param mode the transaction mode
+     * @return the transaction
+     */
+    public Transaction beginTransaction(TransactionMode mode) {
         checkState();
+        notNull(mode, "transaction mode cannot be null");
 
-        Transaction tx = new NitriteTransaction(nitrite, lockService);
+        Transaction tx = new NitriteTransaction(nitrite, lockService, mode);
         transactionMap.put(tx.getId(), tx);
         return tx;
     }
@@ -1,12 +1,17 @@
 package org.dizitart.no2.transaction;
 
 import lombok.Data;
+import lombok.ToString;
 import org.dizitart.no2.collection.Document;
+import org.dizitart.no2.collection.NitriteCollection;
 import org.dizitart.no2.collection.NitriteId;
+import org.dizitart.no2.common.concurrent.LockService;
 import org.dizitart.no2.store.NitriteMap;
 
-import java.util.Queue;
+import java.util.*;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Function;
 
 /**
  * @author Anindya Chatterjee
@@ -20,13 +25,64 @@ class TransactionContext implements AutoCloseable {
     private TransactionConfig config;
     private AtomicBoolean active;
 
+    @ToString.Exclude
+    private TransactionMode mode;
+
+    @ToString.Exclude
+    private NitriteCollection primary;
+
+    @ToString.Exclude
+    private LockService lockService;
+
+    // the committed documents as first seen by the transaction, null if absent
+    @ToString.Exclude
+    private final Map<NitriteId, Document> readSet;
+
+    @ToString.Exclude
+    private final Set<NitriteId> writeSet;
+
     public TransactionContext() {
         active = new AtomicBoolean(true);
+        mode = TransactionMode.Journal;
+        readSet = new HashMap<>();
+        writeSet = new LinkedHashSet<>();
+    }
+
+    /**
+     * Returns the lock which keeps the primary collection from being
+     * modified while the transaction reads it and records the versions.
+     */
+    Lock primaryReadLock() {
+        return lockService.getReadLock(collectionName);
+    }
+
+    /**
+     * Records the committed version of a document read by the transaction,
+     * unless it has been read before.
+     */
+    synchronized void recordRead(NitriteId nitriteId, Function<NitriteId, Document> committed) {
+        if (!readSet.containsKey(nitriteId)) {
+            Document document = committed.apply(nitriteId);
+            readSet.put(nitriteId, document == null ? null : document.clone());
+        }
+    }
+
+    /**
+     * Records the committed version of a document written by the transaction,
+     * unless it has been read before.
+     */
+    synchronized void recordWrite(NitriteId nitriteId, Function<NitriteId, Document> committed) {
+        recordRead(nitriteId, committed);
+        writeSet.add(nitriteId);
     }
 
     @Override
     public void close() throws Exception {
         journal.clear();
+        synchronized (this) {
+            readSet.clear();
+            writeSet.clear();
+        }
         nitriteMap.clear();
         nitriteMap.close();
         active.compareAndSet(true, false);
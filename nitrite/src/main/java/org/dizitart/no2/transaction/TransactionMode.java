@@ -0,0 +1,28 @@
+package org.dizitart.no2.transaction;
+
+/**
+ * The concurrency control mode of a transaction.
+ *
+ * @author Anindya Chatterjee
+ * @see Session#beginTransaction(TransactionMode)
+ * @since 4.0
+ */
+public enum TransactionMode {
+    /**
+     * The operations of the transaction are recorded in a journal and
+     * replayed on the collections at commit. If the commit fails, the
+     * replayed operations are undone on rollback.
+     */
+    Journal,
+
+    /**
+     * The transaction records the committed version of every document it
+     * reads by id or writes. At commit, these versions are validated
+     * against the collections, and the transaction fails if another
+     * transaction has committed a change to any of those documents in the
+     * meantime (first committer wins). Otherwise the final state of the
+     * written documents is applied to the collections in a single write
+     * unit of the store, without replaying the operations.
+     */
+    Optimistic,
+}
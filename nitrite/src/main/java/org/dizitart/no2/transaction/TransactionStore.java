@@ -43,6 +43,11 @@ class TransactionStore<T extends StoreConfig> extends AbstractNitriteStore<T> {
         return false;
     }
 
+    @Override
+    public boolean hasNaturalKeyOrder() {
+        return primaryStore.hasNaturalKeyOrder();
+    }
+
     @Override
     public void commit() {
         throw new InvalidOperationException("call commit on transaction");
@@ -0,0 +1,138 @@
+package org.dizitart.no2.transaction;
+
+import java.util.*;
+
+/**
+ * A list value of a primary map, as seen by a transaction. Instead of
+ * copying the elements of the primary list, it keeps the array of the
+ * primary list as it was when the transaction first read it, along with
+ * the elements added and removed by the transaction, which are merged
+ * while the list is read. Changes committed to the primary list by other
+ * transactions afterwards are not visible.
+ * <p>
+ * It is used for the lists of nitrite ids of the index maps, where a
+ * transaction changes a few ids of a list which may hold a lot of them.
+ * The ids of an index list are unique, so membership is checked against a
+ * hash set of the primary elements, which is built on the first check.
+ * The primary list itself is updated id by id when the operations of the
+ * transaction are applied to the primary collection at commit.
+ *
+ * @author Anindya Chatterjee
+ * @since 4.0
+ */
+class TransactionalList<E> extends AbstractList<E> {
+    private final Object[] primary;
+    private final Set<E> added;
+    // only elements of the primary list, so the size is known without a scan
+    private final Set<Object> removed;
+    private Set<Object> primaryElements;
+
+    TransactionalList(List<E> primary) {
+        this.primary = primary.toArray();
+        this.added = new LinkedHashSet<>();
+        this.removed = new HashSet<>();
+    }
+
+    @Override
+    public boolean add(E element) {
+        if (removed.remove(element)) {
+            // the element of the primary list is visible again
+            return true;
+        }
+        return added.add(element);
+    }
+
+    @Override
+    public boolean remove(Object element) {
+        if (added.remove(element)) {
+            return true;
+        }
+        return primaryContains(element) && removed.add(element);
+    }
+
+    @Override
+    public boolean contains(Object element) {
+        return added.contains(element)
+            || (!removed.contains(element) && primaryContains(element));
+    }
+
+    @Override
+    public int size() {
+        return primary.length - removed.size() + added.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index);
+        }
+
+        if (removed.isEmpty() && index < primary.length) {
+            return (E) primary[index];
+        }
+
+        int position = 0;
+        for (E element : this) {
+            if (position++ == index) {
+                return element;
+            }
+        }
+        throw new IndexOutOfBoundsException("Index: " + index);
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<E>() {
+            private final Iterator<E> addedIterator = added.iterator();
+            private int primaryIndex = 0;
+            private E next;
+            private boolean nextSet = false;
+
+            @Override
+            public boolean hasNext() {
+                return nextSet || setNext();
+            }
+
+            @Override
+            public E next() {
+                if (!nextSet && !setNext()) {
+                    throw new NoSuchElementException();
+                }
+                nextSet = false;
+                return next;
+            }
+
+            @SuppressWarnings("unchecked")
+            private boolean setNext() {
+                while (primaryIndex < primary.length) {
+                    E element = (E) primary[primaryIndex++];
+                    if (removed.isEmpty() || !removed.contains(element)) {
+                        next = element;
+                        nextSet = true;
+                        return true;
+                    }
+                }
+
+                if (addedIterator.hasNext()) {
+                    next = addedIterator.next();
+                    nextSet = true;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    private boolean primaryContains(Object element) {
+        if (primaryElements == null) {
+            primaryElements = new HashSet<>(Arrays.asList(primary));
+        }
+        return primaryElements.contains(element);
+    }
+}
@@ -1,5 +1,6 @@
 package org.dizitart.no2.transaction;
 
+import org.dizitart.no2.collection.Document;
 import org.dizitart.no2.common.RecordStream;
 import org.dizitart.no2.common.tuples.Pair;
 import org.dizitart.no2.store.NitriteMap;
@@ -7,10 +8,9 @@ import org.dizitart.no2.store.NitriteStore;
 import org.dizitart.no2.store.memory.InMemoryMap;
 
 import java.util.*;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
-
-import static org.dizitart.no2.common.util.ObjectUtils.deepCopy;
+import java.util.function.Function;
 
 /**
  * @author Anindya Chatterjee
@@ -63,11 +63,17 @@ class TransactionalMap<K, V> implements NitriteMap<K, V> {
         V result = backingMap.get(k);
         if (result == null) {
             result = primary.get(k);
-            if (result instanceof CopyOnWriteArrayList) {
-                // create a deep copy of the list so that it does not effect the original one
-                List<?> list = deepCopy((CopyOnWriteArrayList<?>) result);
+            if (result instanceof List) {
+                // record the changes to the list instead of changing or copying the original one
+                List<?> list = new TransactionalList<>((List<?>) result);
                 backingMap.put(k, (V) list);
                 result = (V) list;
+            } else if (result instanceof ConcurrentHashMap) {
+                // a posting of a scored text index is changed in place, the
+                // transaction changes its own copy, made on the first read
+                Map<?, ?> posting = new ConcurrentHashMap<>((Map<?, ?>) result);
+                backingMap.put(k, (V) posting);
+                result = (V) posting;
             }
         }
 
@@ -111,6 +117,7 @@ class TransactionalMap<K, V> implements NitriteMap<K, V> {
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public V remove(K k) {
         V item = null;
         if (cleared || tombstones.contains(k)) {
@@ -121,6 +128,11 @@ class TransactionalMap<K, V> implements NitriteMap<K, V> {
             item = backingMap.remove(k);
         } else if (primary.containsKey(k)) {
             item = primary.get(k);
+            if (item instanceof Document) {
+                // the caller may modify the removed document, which
+                // must not change the one in the primary map
+                item = (V) ((Document) item).clone();
+            }
         }
         tombstones.add(k);
         return item;
@@ -132,13 +144,12 @@ class TransactionalMap<K, V> implements NitriteMap<K, V> {
             return RecordStream.empty();
         }
 
-        return RecordStream.fromCombined(RecordStream.except(primary.keys(), tombstones),
-            backingMap.keys());
+        return RecordStream.fromCombined(visible(primary.keys(), key -> key), backingMap.keys());
     }
 
     @Override
     public void put(K k, V v) {
-        cleared = false;
+        resetCleared();
         tombstones.remove(k);
         backingMap.put(k, v);
     }
@@ -153,7 +164,7 @@ class TransactionalMap<K, V> implements NitriteMap<K, V> {
 
     @Override
     public V putIfAbsent(K key, V value) {
-        cleared = false;
+        resetCleared();
         V v = get(key);
         if (v == null) {
             put(key, value);
@@ -308,44 +319,53 @@ class TransactionalMap<K, V> implements NitriteMap<K, V> {
             return RecordStream.empty();
         }
 
-        return () -> new Iterator<Pair<K, V>>() {
-            private final Iterator<Pair<K, V>> primaryIterator = primaryStream.iterator();
-            private final Iterator<Pair<K, V>> iterator = backingStream.iterator();
-            private Pair<K, V> nextPair;
-            private boolean nextPairSet = false;
+        return RecordStream.fromCombined(backingStream, visible(primaryStream, Pair::getFirst));
+    }
+
+    private <T> RecordStream<T> visible(Iterable<T> primaryStream, Function<T, K> keyOf) {
+        // skips the removed keys and the keys changed by the transaction,
+        // which are read from the backing map instead
+        return RecordStream.fromIterable(() -> new Iterator<T>() {
+            private final Iterator<T> iterator = primaryStream.iterator();
+            private T nextItem;
+            private boolean nextItemSet = false;
 
             @Override
             public boolean hasNext() {
-                return nextPairSet || setNextId();
+                return nextItemSet || setNextItem();
             }
 
             @Override
-            public Pair<K, V> next() {
-                if (!nextPairSet && !setNextId()) {
+            public T next() {
+                if (!nextItemSet && !setNextItem()) {
                     throw new NoSuchElementException();
                 }
-                nextPairSet = false;
-                return nextPair;
+                nextItemSet = false;
+                return nextItem;
             }
 
-            private boolean setNextId() {
-                if (iterator.hasNext()) {
-                    nextPair = iterator.next();
-                    nextPairSet = true;
-                    return true;
-                }
-
-                while (primaryIterator.hasNext()) {
-                    final Pair<K, V> pair = primaryIterator.next();
-                    if (!tombstones.contains(pair.getFirst())) {
-                        nextPair = pair;
-                        nextPairSet = true;
+            private boolean setNextItem() {
+                while (iterator.hasNext()) {
+                    T item = iterator.next();
+                    K key = keyOf.apply(item);
+                    if (!tombstones.contains(key) && !backingMap.containsKey(key)) {
+                        nextItem = item;
+                        nextItemSet = true;
                         return true;
                     }
                 }
-
                 return false;
             }
-        };
+        });
+    }
+
+    private void resetCleared() {
+        if (cleared) {
+            // the entries of the primary map remain removed after a clear
+            for (K key : primary.keys()) {
+                tombstones.add(key);
+            }
+            cleared = false;
+        }
     }
 }
@@ -17,10 +17,12 @@
 
 package org.dizitart.no2;
 
+import org.dizitart.no2.collection.ConcurrentSnowflakeIdGenerator;
 import org.dizitart.no2.collection.Document;
 import org.dizitart.no2.collection.FindPlan;
 import org.dizitart.no2.collection.NitriteCollection;
 import org.dizitart.no2.collection.NitriteId;
+import org.dizitart.no2.collection.SnowflakeIdGenerator;
 import org.dizitart.no2.common.FieldValues;
 import org.dizitart.no2.common.Fields;
 import org.dizitart.no2.common.mapper.NitriteMapper;
@@ -57,6 +59,7 @@ public class NitriteBuilderTest {
     @After
     public void cleanup() {
         (new NitriteConfig()).fieldSeparator(".");
+        (new NitriteConfig()).idGenerator(new SnowflakeIdGenerator());
 
         if (db != null && !db.isClosed()) {
             db.close();
@@ -98,6 +101,20 @@ public class NitriteBuilderTest {
         assertEquals(document.get("colorCodes::1::color"), "Green");
     }
 
+    @Test
+    public void testIdGenerator() {
+        ConcurrentSnowflakeIdGenerator generator = spy(new ConcurrentSnowflakeIdGenerator());
+        db = Nitrite.builder()
+            .idGenerator(generator)
+            .openOrCreate();
+
+        NitriteCollection collection = db.getCollection("test");
+        collection.insert(createDocument("firstName", "John"));
+        collection.insert(createDocument("firstName", "Jane"));
+        verify(generator, times(2)).getId();
+        assertEquals(2, collection.find().size());
+    }
+
     @Test
     public void testLoadModule() {
         NitriteBuilder builderResult = Nitrite.builder();
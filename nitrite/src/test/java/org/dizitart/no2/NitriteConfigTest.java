@@ -17,11 +17,17 @@
 
 package org.dizitart.no2;
 
+import org.dizitart.no2.collection.ConcurrentSnowflakeIdGenerator;
+import org.dizitart.no2.collection.IdGenerator;
+import org.dizitart.no2.collection.SnowflakeIdGenerator;
 import org.dizitart.no2.common.module.NitriteModule;
 import org.dizitart.no2.common.module.NitritePlugin;
 import org.dizitart.no2.common.module.PluginManager;
+import org.dizitart.no2.common.event.BackpressurePolicy;
 import org.dizitart.no2.exceptions.IndexingException;
+import org.dizitart.no2.exceptions.InvalidOperationException;
 import org.dizitart.no2.exceptions.NitriteIOException;
+import org.dizitart.no2.exceptions.ValidationException;
 import org.dizitart.no2.migration.Migration;
 import org.dizitart.no2.store.NitriteStore;
 import org.dizitart.no2.store.memory.InMemoryConfig;
@@ -146,5 +152,56 @@ public class NitriteConfigTest {
         nitriteConfig.initialize();
         assertTrue(nitriteConfig.configured);
     }
-}
 
+    @Test
+    public void testEventSettings() {
+        NitriteConfig nitriteConfig = new NitriteConfig();
+        assertEquals(16384, nitriteConfig.getEventQueueCapacity());
+        assertEquals(64, nitriteConfig.getEventBatchSize());
+        assertEquals(BackpressurePolicy.Block, nitriteConfig.getEventBackpressure());
+
+        nitriteConfig.eventQueueCapacity(10).eventBatchSize(5).eventBackpressure(BackpressurePolicy.DropOldest);
+        assertEquals(10, nitriteConfig.getEventQueueCapacity());
+        assertEquals(5, nitriteConfig.getEventBatchSize());
+        assertEquals(BackpressurePolicy.DropOldest, nitriteConfig.getEventBackpressure());
+    }
+
+    @Test(expected = ValidationException.class)
+    public void testInvalidEventQueueCapacity() {
+        new NitriteConfig().eventQueueCapacity(0);
+    }
+
+    @Test(expected = InvalidOperationException.class)
+    public void testEventSettingsAfterInitialization() {
+        NitriteConfig nitriteConfig = new NitriteConfig();
+        nitriteConfig.configured = true;
+        nitriteConfig.eventBackpressure(BackpressurePolicy.Coalesce);
+    }
+
+    @Test
+    public void testIdGenerator() {
+        IdGenerator defaultGenerator = NitriteConfig.getIdGenerator();
+        assertTrue(defaultGenerator instanceof SnowflakeIdGenerator);
+
+        try {
+            ConcurrentSnowflakeIdGenerator generator = new ConcurrentSnowflakeIdGenerator();
+            NitriteConfig nitriteConfig = new NitriteConfig();
+            assertSame(nitriteConfig, nitriteConfig.idGenerator(generator));
+            assertSame(generator, NitriteConfig.getIdGenerator());
+        } finally {
+            new NitriteConfig().idGenerator(defaultGenerator);
+        }
+    }
+
+    @Test(expected = ValidationException.class)
+    public void testNullIdGenerator() {
+        new NitriteConfig().idGenerator(null);
+    }
+
+    @Test(expected = InvalidOperationException.class)
+    public void testIdGeneratorAfterInitialization() {
+        NitriteConfig nitriteConfig = new NitriteConfig();
+        nitriteConfig.configured = true;
+        nitriteConfig.idGenerator(new ConcurrentSnowflakeIdGenerator());
+    }
+}
@@ -16,23 +16,49 @@
 
 package org.dizitart.no2.collection;
 
+import org.dizitart.no2.Nitrite;
 import org.dizitart.no2.NitriteConfig;
 import org.dizitart.no2.integration.Retry;
 import org.dizitart.no2.common.concurrent.LockService;
 import org.dizitart.no2.exceptions.ValidationException;
+import org.junit.After;
+import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 
-import static org.junit.Assert.assertNotNull;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+import static org.junit.Assert.*;
 
 /**
  * @author Anindya Chatterjee
  */
 public class CollectionFactoryTest {
 
+    private Nitrite db;
+
     @Rule
     public Retry retry = new Retry(3);
 
+    @Before
+    public void setUp() {
+        db = Nitrite.builder().openOrCreate();
+    }
+
+    @After
+    public void tearDown() {
+        if (db != null && !db.isClosed()) {
+            db.close();
+        }
+    }
+
     @Test(expected = ValidationException.class)
     public void testGetCollectionMapStoreNull() {
         CollectionFactory factory = new CollectionFactory(new LockService());
@@ -47,4 +73,121 @@ public class CollectionFactoryTest {
         CollectionFactory factory = new CollectionFactory(new LockService());
         factory.getCollection("test", null, false);
     }
+
+    @Test
+    public void testGetOpenedCollection() {
+        CollectionFactory factory = new CollectionFactory(new LockService());
+        NitriteCollection collection = factory.getCollection("test", db.getConfig(), true);
+        assertSame(collection, factory.getCollection("test", db.getConfig(), true));
+        assertTrue(db.getStore().getCollectionNames().contains("test"));
+    }
+
+    @Test
+    public void testGetClosedCollection() {
+        CollectionFactory factory = new CollectionFactory(new LockService());
+        NitriteCollection collection = factory.getCollection("test", db.getConfig(), true);
+        collection.close();
+
+        NitriteCollection reopened = factory.getCollection("test", db.getConfig(), true);
+        assertNotSame(collection, reopened);
+        assertTrue(reopened.isOpen());
+        assertSame(reopened, factory.getCollection("test", db.getConfig(), true));
+    }
+
+    @Test
+    public void testGetDroppedCollection() {
+        CollectionFactory factory = new CollectionFactory(new LockService());
+        NitriteCollection collection = factory.getCollection("test", db.getConfig(), true);
+        collection.drop();
+
+        NitriteCollection recreated = factory.getCollection("test", db.getConfig(), true);
+        assertNotSame(collection, recreated);
+        assertFalse(recreated.isDropped());
+    }
+
+    @Test
+    public void testClear() {
+        CollectionFactory factory = new CollectionFactory(new LockService());
+        NitriteCollection first = factory.getCollection("first", db.getConfig(), true);
+        NitriteCollection second = factory.getCollection("second", db.getConfig(), true);
+
+        factory.clear();
+        assertFalse(first.isOpen());
+        assertFalse(second.isOpen());
+        assertNotSame(first, factory.getCollection("first", db.getConfig(), true));
+    }
+
+    @Test
+    public void testGetCollectionWhileWriteLocked() throws Exception {
+        LockService lockService = new LockService();
+        CollectionFactory factory = new CollectionFactory(lockService);
+        NitriteCollection collection = factory.getCollection("test", db.getConfig(), true);
+
+        // a long running write on the collection must not block its lookup
+        Lock writeLock = lockService.getWriteLock("test");
+        writeLock.lock();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<NitriteCollection> lookup = executor.submit(() ->
+                factory.getCollection("test", db.getConfig(), true));
+            assertSame(collection, lookup.get(5, TimeUnit.SECONDS));
+        } finally {
+            writeLock.unlock();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testGetCollectionUnderContention() throws Exception {
+        // doubles as a contention benchmark of the lookup path
+        // of already opened collections
+        CollectionFactory factory = new CollectionFactory(new LockService());
+        NitriteConfig config = db.getConfig();
+        int threadCount = 16;
+        int iterationCount = 20000;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threadCount);
+        List<NitriteCollection> opened = new CopyOnWriteArrayList<>();
+        List<Throwable> errors = new CopyOnWriteArrayList<>();
+
+        try {
+            for (int i = 0; i < threadCount; i++) {
+                executor.submit(() -> {
+                    try {
+                        start.await();
+                        for (int j = 0; j < iterationCount; j++) {
+                            NitriteCollection collection = factory.getCollection("test" + (j % 4),
+                                config, true);
+                            if (j < 4) {
+                                opened.add(collection);
+                            }
+                        }
+                    } catch (Throwable t) {
+                        errors.add(t);
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            }
+
+            long begin = System.nanoTime();
+            start.countDown();
+            assertTrue(done.await(1, TimeUnit.MINUTES));
+            long elapsed = System.nanoTime() - begin;
+
+            System.out.println((threadCount * iterationCount * 1_000_000_000L / Math.max(elapsed, 1))
+                + " collection lookups per second with " + threadCount + " threads");
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertTrue(errors.isEmpty());
+        // every thread must have got the same instance per collection name
+        for (NitriteCollection collection : opened) {
+            assertSame(collection, factory.getCollection(collection.getName(), config, true));
+        }
+        assertEquals(4, opened.stream().distinct().count());
+    }
 }
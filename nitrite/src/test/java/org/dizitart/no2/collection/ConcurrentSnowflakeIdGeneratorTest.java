@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.dizitart.no2.collection;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class ConcurrentSnowflakeIdGeneratorTest {
+
+    @Test
+    public void testGetId() {
+        ConcurrentSnowflakeIdGenerator generator = new ConcurrentSnowflakeIdGenerator();
+        long first = generator.getId();
+        assertTrue(first > 0);
+        assertTrue(generator.getId() > first);
+    }
+
+    @Test
+    public void testIdLayout() {
+        ConcurrentSnowflakeIdGenerator generator = new ConcurrentSnowflakeIdGenerator();
+        long before = System.currentTimeMillis();
+        long id = generator.getId();
+
+        long nodeId = (id >>> SnowflakeIdGenerator.SEQUENCE_BITS) & ~(-1L << SnowflakeIdGenerator.NODE_ID_BITS);
+        long timestamp = (id >>> (SnowflakeIdGenerator.SEQUENCE_BITS + SnowflakeIdGenerator.NODE_ID_BITS))
+            + SnowflakeIdGenerator.EPOCH;
+        assertEquals(generator.nodeId, nodeId);
+        assertTrue(timestamp >= before);
+        assertTrue(timestamp <= System.currentTimeMillis());
+    }
+
+    @Test
+    public void testSequenceOverflow() {
+        // more ids than the sequence can hold in a millisecond
+        ConcurrentSnowflakeIdGenerator generator = new ConcurrentSnowflakeIdGenerator();
+        long previous = 0;
+        for (int i = 0; i < 100000; i++) {
+            long id = generator.getId();
+            assertTrue(id > previous);
+            previous = id;
+        }
+    }
+
+    @Test
+    public void testUniqueIdsUnderContention() throws Exception {
+        assertEquals(32 * 20000, generateIds(new ConcurrentSnowflakeIdGenerator(), 32, 20000).size());
+    }
+
+    @Test
+    public void testBenchmark() throws Exception {
+        // compares the throughput with the synchronized generator
+        int threadCount = 32;
+        int iterationCount = 20000;
+
+        long begin = System.nanoTime();
+        generateIds(new SnowflakeIdGenerator(), threadCount, iterationCount);
+        long synchronizedTime = System.nanoTime() - begin;
+
+        begin = System.nanoTime();
+        generateIds(new ConcurrentSnowflakeIdGenerator(), threadCount, iterationCount);
+        long lockFreeTime = System.nanoTime() - begin;
+
+        System.out.println("generated " + (threadCount * iterationCount) + " ids with " + threadCount
+            + " threads, synchronized: " + TimeUnit.NANOSECONDS.toMillis(synchronizedTime)
+            + " ms, lock-free: " + TimeUnit.NANOSECONDS.toMillis(lockFreeTime) + " ms");
+    }
+
+    private Set<Long> generateIds(IdGenerator generator, int threadCount, int iterationCount) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threadCount);
+        List<long[]> results = new CopyOnWriteArrayList<>();
+
+        try {
+            for (int i = 0; i < threadCount; i++) {
+                executor.submit(() -> {
+                    try {
+                        start.await();
+                        long[] ids = new long[iterationCount];
+                        for (int j = 0; j < iterationCount; j++) {
+                            ids[j] = generator.getId();
+                        }
+                        results.add(ids);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            }
+
+            start.countDown();
+            assertTrue(done.await(1, TimeUnit.MINUTES));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(threadCount, results.size());
+        Set<Long> uniqueIds = new HashSet<>();
+        for (long[] ids : results) {
+            for (int j = 0; j < ids.length; j++) {
+                // the ids of a thread are time ordered
+                if (j > 0) {
+                    assertTrue(ids[j] > ids[j - 1]);
+                }
+                uniqueIds.add(ids[j]);
+            }
+        }
+        return uniqueIds;
+    }
+}
@@ -19,6 +19,7 @@ package org.dizitart.no2.collection;
 
 import org.dizitart.no2.common.SortOrder;
 import org.dizitart.no2.common.SortableFields;
+import org.dizitart.no2.exceptions.ValidationException;
 import org.junit.Test;
 
 import java.text.Collator;
@@ -121,5 +122,16 @@ public class FindOptionsTest {
         FindOptions orderByResult = FindOptions.orderBy("Field Name", SortOrder.Ascending);
         assertSame(orderByResult, orderByResult.thenOrderBy("Field Name", SortOrder.Ascending));
     }
-}
 
+    @Test
+    public void testParallelScan() {
+        FindOptions findOptions = FindOptions.parallelScan(4);
+        assertEquals(4, findOptions.parallelism().intValue());
+        assertNull(findOptions.skip(10).parallelism(null).parallelism());
+    }
+
+    @Test(expected = ValidationException.class)
+    public void testInvalidParallelism() {
+        new FindOptions().parallelism(0);
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.collection;
+
+import org.dizitart.no2.common.FieldPath;
+import org.dizitart.no2.common.codec.DocumentCodec;
+import org.dizitart.no2.common.codec.FieldNameDictionary;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.dizitart.no2.collection.Document.createDocument;
+import static org.junit.Assert.*;
+
+public class LazyDocumentTest {
+    private DocumentCodec codec;
+    private Document document;
+
+    @Before
+    public void setUp() {
+        Map<Integer, String> dictionary = new HashMap<>();
+        codec = new DocumentCodec(new FieldNameDictionary(dictionary, dictionary::put));
+        document = createDocument("name", "John")
+            .put("age", 42)
+            .put("address", createDocument("city", "Kolkata").put("zip", 700001))
+            .put("tags", new ArrayList<>(Arrays.asList("a", "b")))
+            .put("nothing", null);
+        document.getId();
+    }
+
+    @Test
+    public void testFieldAccessWithoutDecoding() {
+        LazyDocument lazy = lazy(document);
+
+        assertEquals("John", lazy.get("name"));
+        assertEquals(42, (int) lazy.get("age", Integer.class));
+        assertEquals(700001, lazy.get("address.zip"));
+        assertEquals("Kolkata", lazy.getByPath(FieldPath.of("address.city")));
+        assertEquals("a", lazy.get("tags.0"));
+        assertNull(lazy.get("missing"));
+        assertNull(lazy.get("nothing"));
+        assertTrue(lazy.containsKey("nothing"));
+        assertFalse(lazy.containsKey("missing"));
+        assertTrue(lazy.hasId());
+        assertEquals(document.getId(), lazy.getId());
+        assertEquals(document.size(), lazy.size());
+        assertEquals(document.getRevision(), lazy.getRevision());
+        assertTrue(lazy.isEncoded());
+    }
+
+    @Test
+    public void testDecodeOnMutation() {
+        LazyDocument lazy = lazy(document);
+        lazy.put("age", 43);
+
+        assertFalse(lazy.isEncoded());
+        assertEquals(43, lazy.get("age"));
+        assertEquals("John", lazy.get("name"));
+        assertEquals(document.size(), lazy.size());
+        assertNull(lazy.getEncoded(codec));
+
+        lazy.remove("name");
+        assertFalse(lazy.containsKey("name"));
+    }
+
+    @Test
+    public void testEquality() {
+        LazyDocument lazy = lazy(document);
+        assertEquals(document, lazy);
+        assertEquals(lazy(document), document);
+        assertEquals(document.hashCode(), lazy(document).hashCode());
+        assertEquals(document.getFields(), lazy(document).getFields());
+    }
+
+    @Test
+    public void testClone() {
+        Document clone = lazy(document).clone();
+        assertFalse(clone instanceof LazyDocument);
+        assertEquals(document, clone);
+    }
+
+    @Test
+    public void testIteration() {
+        LazyDocument lazy = lazy(document);
+        int count = 0;
+        for (Map.Entry<String, Object> entry : lazy.entrySet()) {
+            assertEquals(document.get(entry.getKey()), entry.getValue());
+            count++;
+        }
+        assertEquals(document.size(), count);
+    }
+
+    @Test
+    public void testGetEncoded() {
+        byte[] bytes = codec.encode(document);
+        LazyDocument lazy = (LazyDocument) codec.decodeLazily(ByteBuffer.wrap(bytes));
+
+        assertArrayEquals(bytes, lazy.getEncoded(codec));
+        assertArrayEquals(bytes, codec.encode(lazy));
+        assertNull(lazy.getEncoded(new DocumentCodec(new FieldNameDictionary(new HashMap<>(), (id, name) -> {}))));
+        assertTrue(lazy.isEncoded());
+    }
+
+    @Test
+    public void testSerialization() throws IOException, ClassNotFoundException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(bos)) {
+            oos.writeObject(lazy(document));
+        }
+
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bos.toByteArray()))) {
+            Object copy = ois.readObject();
+            assertFalse(copy instanceof LazyDocument);
+            assertEquals(document, copy);
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testNestedValueChangeIsKept() {
+        LazyDocument lazy = lazy(document);
+
+        Document address = lazy.get("address", Document.class);
+        assertSame(address, lazy.get("address"));
+        address.put("city", "Delhi");
+        ((List<String>) lazy.get("tags")).add("c");
+        assertEquals("Delhi", lazy.get("address.city"));
+        assertTrue(lazy.isEncoded());
+
+        // decoding the whole document keeps the changed instances
+        lazy.put("age", 43);
+        assertFalse(lazy.isEncoded());
+        assertSame(address, lazy.get("address"));
+        assertEquals("Delhi", lazy.get("address.city"));
+        assertEquals(Arrays.asList("a", "b", "c"), lazy.get("tags"));
+    }
+
+    private LazyDocument lazy(Document document) {
+        return (LazyDocument) codec.decodeLazily(ByteBuffer.wrap(codec.encode(document)));
+    }
+}
@@ -1,6 +1,7 @@
 package org.dizitart.no2.collection;
 
 import com.fasterxml.jackson.databind.introspect.AnnotatedMethodMap;
+import org.dizitart.no2.common.FieldPath;
 import org.dizitart.no2.exceptions.InvalidIdException;
 import org.dizitart.no2.exceptions.InvalidOperationException;
 import org.dizitart.no2.exceptions.ValidationException;
@@ -228,5 +229,18 @@ public class NitriteDocumentTest {
         nitriteDocument1.put("Field", null);
         assertTrue(nitriteDocument.equals(nitriteDocument1));
     }
-}
 
+    @Test
+    public void testGetByPath() {
+        NitriteDocument nitriteDocument = new NitriteDocument();
+        nitriteDocument.put("address.city", "Kolkata");
+        nitriteDocument.put("tags", new String[]{"a", "b"});
+        nitriteDocument.put("name", "Nitrite");
+
+        assertEquals("Kolkata", nitriteDocument.getByPath(FieldPath.of("address.city")));
+        assertEquals("b", nitriteDocument.getByPath(FieldPath.of("tags.1")));
+        assertEquals("Nitrite", nitriteDocument.getByPath(FieldPath.of("name")));
+        assertNull(nitriteDocument.getByPath(FieldPath.of("address.zip")));
+        assertThrows(ValidationException.class, () -> nitriteDocument.getByPath(FieldPath.of("tags.2")));
+    }
+}
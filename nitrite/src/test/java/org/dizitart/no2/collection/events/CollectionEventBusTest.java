@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.collection.events;
+
+import org.dizitart.no2.Nitrite;
+import org.dizitart.no2.NitriteConfig;
+import org.dizitart.no2.collection.Document;
+import org.dizitart.no2.collection.NitriteCollection;
+import org.dizitart.no2.common.event.BackpressurePolicy;
+import org.dizitart.no2.common.event.EventQueueMetrics;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static org.awaitility.Awaitility.await;
+import static org.dizitart.no2.collection.Document.createDocument;
+import static org.junit.Assert.*;
+
+public class CollectionEventBusTest {
+
+    @Test
+    public void testPost() {
+        CollectionEventBus eventBus = new CollectionEventBus(new NitriteConfig());
+        List<CollectionEventInfo<?>> received = Collections.synchronizedList(new ArrayList<>());
+        eventBus.register(received::add);
+
+        for (int i = 0; i < 100; i++) {
+            eventBus.post(new CollectionEventInfo<>(createDocument("index", i), EventType.Insert, i, null));
+        }
+
+        await().atMost(5, TimeUnit.SECONDS).until(() -> received.size() == 100);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, received.get(i).getTimestamp());
+        }
+
+        EventQueueMetrics metrics = eventBus.getMetrics();
+        assertEquals(1, metrics.getListenerCount());
+        assertEquals(0, metrics.getQueueDepth());
+        assertEquals(0, metrics.getDroppedEventCount());
+        eventBus.close();
+        assertEquals(0, eventBus.getMetrics().getListenerCount());
+    }
+
+    @Test
+    public void testCoalescingKey() {
+        NitriteConfig nitriteConfig = new NitriteConfig();
+        nitriteConfig.eventBackpressure(BackpressurePolicy.Coalesce);
+        CollectionEventBus eventBus = new CollectionEventBus(nitriteConfig);
+
+        Document document = createDocument("name", "John");
+        document.getId();
+        Object insertKey = eventBus.coalescingKey(new CollectionEventInfo<>(document, EventType.Insert, 0, null));
+        Object updateKey = eventBus.coalescingKey(new CollectionEventInfo<>(document.clone(), EventType.Update, 0, null));
+        Object sameKey = eventBus.coalescingKey(new CollectionEventInfo<>(document.clone(), EventType.Insert, 1, null));
+
+        assertNotNull(insertKey);
+        assertEquals(insertKey, sameKey);
+        assertNotEquals(insertKey, updateKey);
+        assertNull(eventBus.coalescingKey(new CollectionEventInfo<>(EventType.IndexStart)));
+        assertNull(eventBus.coalescingKey(new CollectionEventInfo<>(createDocument("name", "Jane"),
+            EventType.Insert, 0, null)));
+    }
+
+    @Test
+    public void testListenerReadingCollectionUnderBackpressure() throws Exception {
+        Nitrite db = Nitrite.builder()
+            .eventQueueCapacity(1)
+            .eventBackpressure(BackpressurePolicy.Block)
+            .openOrCreate();
+        try {
+            NitriteCollection collection = db.getCollection("test");
+            AtomicInteger received = new AtomicInteger();
+            // the listener needs the collection lock, which the writer holds while posting
+            collection.subscribe(eventInfo -> {
+                collection.find().size();
+                received.incrementAndGet();
+            });
+
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+            try {
+                Future<?> writer = executor.submit(() -> {
+                    for (int i = 0; i < 100; i++) {
+                        collection.insert(createDocument("index", i));
+                    }
+                });
+                writer.get(10, TimeUnit.SECONDS);
+            } finally {
+                executor.shutdownNow();
+            }
+
+            await().atMost(5, TimeUnit.SECONDS).until(() -> received.get() == 100);
+            assertEquals(100, collection.size());
+        } finally {
+            db.close();
+        }
+    }
+
+    @Test
+    public void testQueueBoundedUnderWriteLock() {
+        NitriteConfig nitriteConfig = new NitriteConfig();
+        nitriteConfig.eventQueueCapacity(4);
+        ReentrantReadWriteLock collectionLock = new ReentrantReadWriteLock();
+        CollectionEventBus eventBus = new CollectionEventBus(nitriteConfig, collectionLock);
+        AtomicInteger received = new AtomicInteger();
+        AtomicInteger maxDepth = new AtomicInteger();
+        eventBus.register(eventInfo -> {
+            maxDepth.accumulateAndGet(eventBus.getMetrics().getMaxQueueDepth(), Math::max);
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            received.incrementAndGet();
+        });
+
+        // a bulk write posts all its events under the write lock
+        collectionLock.writeLock().lock();
+        try {
+            for (int i = 0; i < 100; i++) {
+                eventBus.post(new CollectionEventInfo<>(createDocument("index", i), EventType.Insert, i, null));
+                maxDepth.accumulateAndGet(eventBus.getMetrics().getMaxQueueDepth(), Math::max);
+            }
+        } finally {
+            collectionLock.writeLock().unlock();
+        }
+
+        await().atMost(5, TimeUnit.SECONDS).until(() -> received.get() == 100);
+        assertTrue(maxDepth.get() <= 4);
+        eventBus.close();
+    }
+}
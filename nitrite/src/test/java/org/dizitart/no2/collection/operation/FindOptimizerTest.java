@@ -23,12 +23,18 @@ import org.dizitart.no2.common.Fields;
 import org.dizitart.no2.common.SortOrder;
 import org.dizitart.no2.filters.Filter;
 import org.dizitart.no2.index.IndexDescriptor;
+import org.dizitart.no2.index.IndexType;
+import org.dizitart.no2.store.NitriteStore;
+import org.dizitart.no2.index.IndexDescriptor;
 import org.junit.Test;
 
 import java.util.ArrayList;
 
+import static org.dizitart.no2.filters.Filter.and;
+import static org.dizitart.no2.filters.FluentFilter.where;
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 public class FindOptimizerTest {
     @Test
@@ -108,5 +114,58 @@ public class FindOptimizerTest {
         assertNull(actualOptimizeResult.getSkip());
         assertNull(actualOptimizeResult.getLimit());
     }
-}
 
+    @Test
+    public void testOptimizeAnchoredRegexOnIndex() {
+        FindOptimizer findOptimizer = new FindOptimizer();
+        ArrayList<IndexDescriptor> indexDescriptorList = new ArrayList<>();
+        indexDescriptorList.add(new IndexDescriptor(IndexType.NON_UNIQUE, Fields.withNames("sku"), "products"));
+
+        Filter regex = where("sku").regex("^ABC-\\d+$");
+        FindPlan findPlan = findOptimizer.optimize(regex, new FindOptions(), indexDescriptorList);
+        assertEquals("sku", findPlan.getIndexDescriptor().getIndexFields().getFieldNames().get(0));
+        assertEquals("[(sku startsWith ABC-)]", findPlan.getIndexScanFilter().getFilters().toString());
+        assertEquals(regex, findPlan.getCollectionScanFilter());
+
+        Filter filter = and(where("price").gt(10), where("sku").regex("^ABC-"));
+        findPlan = findOptimizer.optimize(filter, new FindOptions(), indexDescriptorList);
+        assertEquals("[(sku startsWith ABC-)]", findPlan.getIndexScanFilter().getFilters().toString());
+        assertEquals("((price > 10) && (sku regex ^ABC-))", findPlan.getCollectionScanFilter().toString());
+    }
+
+    @Test
+    public void testOptimizeUnanchoredRegexOnIndex() {
+        FindOptimizer findOptimizer = new FindOptimizer();
+        ArrayList<IndexDescriptor> indexDescriptorList = new ArrayList<>();
+        indexDescriptorList.add(new IndexDescriptor(IndexType.NON_UNIQUE, Fields.withNames("sku"), "products"));
+
+        Filter regex = where("sku").regex("ABC-\\d+");
+        FindPlan findPlan = findOptimizer.optimize(regex, new FindOptions(), indexDescriptorList);
+        assertNull(findPlan.getIndexDescriptor());
+        assertNull(findPlan.getIndexScanFilter());
+        assertEquals(regex, findPlan.getCollectionScanFilter());
+    }
+
+    @Test
+    public void testOptimizePrefixWithoutNaturalKeyOrder() {
+        NitriteStore<?> store = mock(NitriteStore.class);
+        when(store.hasNaturalKeyOrder()).thenReturn(false);
+        FindOptimizer findOptimizer = new FindOptimizer(store);
+        ArrayList<IndexDescriptor> indexDescriptorList = new ArrayList<>();
+        indexDescriptorList.add(new IndexDescriptor(IndexType.NON_UNIQUE, Fields.withNames("sku"), "products"));
+
+        Filter startsWith = where("sku").startsWith("ABC");
+        FindPlan findPlan = findOptimizer.optimize(startsWith, new FindOptions(), indexDescriptorList);
+        assertNull(findPlan.getIndexScanFilter());
+        assertEquals(startsWith, findPlan.getCollectionScanFilter());
+
+        Filter regex = where("sku").regex("^ABC-\\d+$");
+        findPlan = findOptimizer.optimize(regex, new FindOptions(), indexDescriptorList);
+        assertNull(findPlan.getIndexScanFilter());
+        assertEquals(regex, findPlan.getCollectionScanFilter());
+
+        // other filters on the index are still planned on it
+        findPlan = findOptimizer.optimize(where("sku").eq("ABC"), new FindOptions(), indexDescriptorList);
+        assertEquals("[(sku == ABC)]", findPlan.getIndexScanFilter().getFilters().toString());
+    }
+}
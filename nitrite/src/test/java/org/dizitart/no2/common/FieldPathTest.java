@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.common;
+
+import org.dizitart.no2.exceptions.ValidationException;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class FieldPathTest {
+    @Test
+    public void testOf() {
+        FieldPath fieldPath = FieldPath.of("address.city");
+        assertTrue(fieldPath.isEmbedded());
+        assertEquals(2, fieldPath.length());
+        assertEquals("address", fieldPath.segment(0));
+        assertEquals("city", fieldPath.segment(1));
+        assertEquals("address.city", fieldPath.getPath());
+        assertEquals("address.city", fieldPath.toString());
+    }
+
+    @Test
+    public void testOfTopLevelField() {
+        FieldPath fieldPath = FieldPath.of("name");
+        assertFalse(fieldPath.isEmbedded());
+        assertEquals(1, fieldPath.length());
+        assertEquals("name", fieldPath.segment(0));
+        assertFalse(fieldPath.isIndex(0));
+    }
+
+    @Test
+    public void testOfNull() {
+        assertThrows(ValidationException.class, () -> FieldPath.of(null));
+    }
+
+    @Test
+    public void testInterned() {
+        assertSame(FieldPath.of("a.b.c"), FieldPath.of("a.b.c"));
+        assertEquals(FieldPath.of("a.b.c").hashCode(), FieldPath.of("a.b.c").hashCode());
+        assertNotEquals(FieldPath.of("a.b.c"), FieldPath.of("a.b"));
+    }
+
+    @Test
+    public void testIndex() {
+        FieldPath fieldPath = FieldPath.of("books.0.tags.-1");
+        assertEquals(4, fieldPath.length());
+        assertFalse(fieldPath.isIndex(0));
+        assertTrue(fieldPath.isIndex(1));
+        assertEquals(0, fieldPath.index(1));
+        assertFalse(fieldPath.isIndex(2));
+        assertTrue(fieldPath.isIndex(3));
+        assertEquals(-1, fieldPath.index(3));
+    }
+}
@@ -106,5 +106,13 @@ public class FieldsTest {
         Fields withNamesResult = Fields.withNames("Fields", "foo", "foo");
         assertEquals(-32, withNamesResult.compareTo(Fields.withNames("foo", "foo", "foo")));
     }
-}
 
+    @Test
+    public void testGetFieldPathsWithNullName() {
+        Fields fields = Fields.withNames("a", null);
+        List<FieldPath> fieldPaths = fields.getFieldPaths();
+        assertEquals(2, fieldPaths.size());
+        assertEquals("a", fieldPaths.get(0).getPath());
+        assertNull(fieldPaths.get(1));
+    }
+}
@@ -0,0 +1,253 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.common.codec;
+
+import org.dizitart.no2.collection.Document;
+import org.dizitart.no2.collection.NitriteId;
+import org.dizitart.no2.exceptions.NitriteIOException;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.*;
+
+import static org.dizitart.no2.collection.Document.createDocument;
+import static org.junit.Assert.*;
+
+public class DocumentCodecTest {
+    private Map<Integer, String> persisted;
+    private DocumentCodec codec;
+
+    @Before
+    public void setUp() {
+        persisted = new HashMap<>();
+        codec = new DocumentCodec(new FieldNameDictionary(new HashMap<>(), persisted::put));
+    }
+
+    @Test
+    public void testRoundTrip() {
+        Document document = createDocument("string", "value")
+            .put("int", -42)
+            .put("long", Long.MAX_VALUE)
+            .put("double", 3.14)
+            .put("float", 2.5f)
+            .put("short", (short) -7)
+            .put("byte", (byte) 9)
+            .put("char", 'x')
+            .put("true", true)
+            .put("false", false)
+            .put("null", null)
+            .put("date", new Date(1234567890L))
+            .put("bigInteger", new BigInteger("123456789012345678901234567890"))
+            .put("bigDecimal", new BigDecimal("-12345.6789"))
+            .put("bytes", new byte[]{1, 2, 3})
+            .put("list", new ArrayList<>(Arrays.asList(1, "two", createDocument("three", 3))))
+            .put("set", new HashSet<>(Arrays.asList("a", "b")))
+            .put("nitriteId", NitriteId.newId())
+            .put("embedded", createDocument("inner", createDocument("deep", "value")));
+        document.getId();
+
+        Document decoded = codec.decode(codec.encode(document));
+        assertEquals(document.getFields(), decoded.getFields());
+        for (String field : document.getFields()) {
+            Object expected = document.get(field);
+            Object actual = decoded.get(field);
+            if (expected instanceof byte[]) {
+                assertArrayEquals((byte[]) expected, (byte[]) actual);
+            } else {
+                assertEquals(field, expected, actual);
+                if (expected != null) {
+                    assertEquals(field, expected.getClass(), actual.getClass());
+                }
+            }
+        }
+        assertEquals(document.getId(), decoded.getId());
+    }
+
+    @Test
+    public void testFieldOrder() {
+        Document document = createDocument("z", 1).put("a", 2).put("m", 3);
+        Document decoded = codec.decode(codec.encode(document));
+
+        List<String> fields = new ArrayList<>();
+        decoded.forEach(pair -> fields.add(pair.getFirst()));
+        assertEquals(Arrays.asList("z", "a", "m"), fields);
+    }
+
+    @Test
+    public void testFieldNamesAreStoredOnce() {
+        Document first = createDocument("firstName", "John").put("lastName", "Doe");
+        Document second = createDocument("firstName", "Jane").put("lastName", "Doe");
+        codec.encode(first);
+        codec.encode(second);
+
+        assertEquals(2, persisted.size());
+        assertTrue(persisted.containsValue("firstName"));
+        assertTrue(persisted.containsValue("lastName"));
+    }
+
+    @Test
+    public void testSmallerThanJavaSerialization() throws IOException {
+        Document document = createDocument("firstName", "John")
+            .put("lastName", "Doe")
+            .put("age", 35)
+            .put("address", createDocument("city", "Kolkata").put("zip", 700001));
+        document.getId();
+
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(bos)) {
+            oos.writeObject(document);
+        }
+        assertTrue(codec.encode(document).length * 4 < bos.size());
+    }
+
+    @Test
+    public void testDecodeFromBuffer() {
+        byte[] first = codec.encode(createDocument("a", 1));
+        byte[] second = codec.encode(createDocument("b", "two"));
+
+        ByteBuffer buffer = ByteBuffer.allocate(first.length + second.length);
+        buffer.put(first).put(second).flip();
+
+        assertEquals(1, codec.decode(buffer).get("a"));
+        assertEquals(first.length, buffer.position());
+        assertEquals("two", codec.decode(buffer).get("b"));
+        assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    public void testRegisterFields() {
+        Document document = createDocument("name", "John")
+            .put("address", createDocument("city", "Kolkata"))
+            .put("phones", new ArrayList<>(Collections.singletonList(createDocument("number", "123"))));
+        codec.registerFields(document);
+
+        assertEquals(new HashSet<>(Arrays.asList("name", "address", "city", "phones", "number")),
+            new HashSet<>(persisted.values()));
+    }
+
+    @Test
+    public void testReloadedDictionary() {
+        byte[] bytes = codec.encode(createDocument("name", "John").put("age", 40));
+
+        DocumentCodec reloaded = new DocumentCodec(new FieldNameDictionary(persisted, (id, name) -> fail()));
+        Document document = reloaded.decode(bytes);
+        assertEquals("John", document.get("name"));
+        assertEquals(40, document.get("age"));
+    }
+
+    @Test(expected = NitriteIOException.class)
+    public void testDecodeUnknownField() {
+        byte[] bytes = codec.encode(createDocument("name", "John"));
+        new DocumentCodec(new FieldNameDictionary(new HashMap<>(), (id, name) -> {})).decode(bytes);
+    }
+
+    @Test(expected = NitriteIOException.class)
+    public void testDecodeTruncated() {
+        byte[] bytes = codec.encode(createDocument("name", "John"));
+        codec.decode(Arrays.copyOf(bytes, bytes.length - 2));
+    }
+
+    @Test
+    public void testReadField() {
+        Document document = createDocument("name", "John")
+            .put("age", 40)
+            .put("address", createDocument("city", "Kolkata"))
+            .put("nothing", null);
+        byte[] bytes = prefixed(codec.encode(document));
+
+        assertEquals(4, codec.fieldCount(bytes, 3));
+        assertEquals(40, codec.readField(bytes, 3, "age"));
+        assertEquals(createDocument("city", "Kolkata"), codec.readField(bytes, 3, "address"));
+        assertNull(codec.readField(bytes, 3, "nothing"));
+        assertTrue(codec.containsField(bytes, 3, "nothing"));
+
+        // known to the dictionary, but not a top level field
+        assertNull(codec.readField(bytes, 3, "city"));
+        assertFalse(codec.containsField(bytes, 3, "city"));
+        assertFalse(codec.containsField(bytes, 3, "unknown"));
+    }
+
+    @Test
+    public void testReadFields() {
+        Document document = createDocument("b", 1).put("a", "x").put("c", 2.5);
+        byte[] bytes = prefixed(codec.encode(document));
+
+        List<String> fieldNames = new ArrayList<>();
+        Document decoded = createDocument();
+        codec.readFields(bytes, 3, (name, value) -> {
+            fieldNames.add(name);
+            decoded.put(name, value);
+        });
+        assertEquals(Arrays.asList("b", "a", "c"), fieldNames);
+        assertEquals(document, decoded);
+    }
+
+    @Test
+    public void testDecodeLazilyFromBuffer() {
+        byte[] first = codec.encode(createDocument("name", "John"));
+        byte[] second = codec.encode(createDocument("name", "Jane"));
+        ByteBuffer buffer = ByteBuffer.allocate(first.length + second.length);
+        buffer.put(first).put(second).flip();
+
+        assertEquals("John", codec.decodeLazily(buffer).get("name"));
+        assertEquals(first.length, buffer.position());
+        assertEquals("Jane", codec.decodeLazily(buffer).get("name"));
+        assertFalse(buffer.hasRemaining());
+    }
+
+    @Test(expected = NitriteIOException.class)
+    public void testDecodeLazilyTruncated() {
+        byte[] bytes = codec.encode(createDocument("name", "John"));
+        codec.decodeLazily(Arrays.copyOf(bytes, bytes.length - 2), 0);
+    }
+
+    @Test(expected = NitriteIOException.class)
+    public void testEncodeWithoutSerialization() {
+        DocumentCodec strict = new DocumentCodec(new FieldNameDictionary(new HashMap<>(), persisted::put), false);
+        strict.encode(createDocument("nitriteId", NitriteId.newId()));
+    }
+
+    @Test
+    public void testDecodeWithoutSerialization() {
+        byte[] bytes = codec.encode(createDocument("name", "John"));
+        byte[] serialized = codec.encode(createDocument("nitriteId", NitriteId.newId()));
+        Map<Integer, String> fieldNames = new HashMap<>(persisted);
+        DocumentCodec strict = new DocumentCodec(new FieldNameDictionary(fieldNames, (id, name) -> {
+        }), false);
+
+        assertEquals("John", strict.decode(bytes).get("name"));
+        try {
+            strict.decode(serialized);
+            fail("a java serialized value must not be decoded");
+        } catch (NitriteIOException e) {
+            assertTrue(e.getMessage().contains("not allowed"));
+        }
+    }
+
+    private byte[] prefixed(byte[] encoded) {
+        byte[] bytes = new byte[encoded.length + 3];
+        System.arraycopy(encoded, 0, bytes, 3, encoded.length);
+        return bytes;
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.common.codec;
+
+import org.dizitart.no2.exceptions.NitriteIOException;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class FieldNameDictionaryTest {
+
+    @Test
+    public void testGetId() {
+        Map<Integer, String> persisted = new HashMap<>();
+        FieldNameDictionary dictionary = new FieldNameDictionary(new HashMap<>(), persisted::put);
+
+        assertEquals(0, dictionary.getId("a"));
+        assertEquals(1, dictionary.getId("b"));
+        assertEquals(0, dictionary.getId("a"));
+        assertEquals("b", dictionary.getName(1));
+        assertEquals(2, dictionary.size());
+        assertEquals(2, persisted.size());
+        assertEquals("a", persisted.get(0));
+    }
+
+    @Test
+    public void testExistingEntries() {
+        Map<Integer, String> entries = new HashMap<>();
+        entries.put(0, "a");
+        entries.put(5, "b");
+
+        FieldNameDictionary dictionary = new FieldNameDictionary(entries, entries::put);
+        assertEquals(5, dictionary.getId("b"));
+        assertEquals(6, dictionary.getId("c"));
+        assertEquals("c", entries.get(6));
+        assertEquals(3, dictionary.size());
+    }
+
+    @Test(expected = NitriteIOException.class)
+    public void testUnknownId() {
+        new FieldNameDictionary(new HashMap<>(), (id, name) -> {}).getName(1);
+    }
+
+    @Test
+    public void testFailedPersist() {
+        FieldNameDictionary dictionary = new FieldNameDictionary(new HashMap<>(), (id, name) -> {
+            if ("bad".equals(name)) throw new NitriteIOException("failed");
+        });
+
+        assertThrows(NitriteIOException.class, () -> dictionary.getId("bad"));
+        // a failed id is not handed out
+        assertEquals(0, dictionary.getId("good"));
+        assertEquals(1, dictionary.size());
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.common.event;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.Assert.*;
+
+public class ListenerQueueTest {
+    private final List<Integer> received = Collections.synchronizedList(new ArrayList<>());
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @Test
+    public void testOrderedDelivery() {
+        ListenerQueue<Integer> queue = new ListenerQueue<>(received::add, e -> null,
+            100, 8, BackpressurePolicy.Block);
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            queue.offer(i);
+            expected.add(i);
+        }
+
+        await().atMost(5, TimeUnit.SECONDS).until(() -> received.size() == 1000);
+        assertEquals(expected, received);
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    public void testDropOldest() throws InterruptedException {
+        ListenerQueue<Integer> queue = new ListenerQueue<>(blockOnFirst(), e -> null,
+            2, 1, BackpressurePolicy.DropOldest);
+        queue.offer(1);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        queue.offer(2);
+        queue.offer(3);
+        queue.offer(4);
+        assertEquals(2, queue.size());
+        assertEquals(1, queue.getDroppedCount());
+
+        release.countDown();
+        await().atMost(5, TimeUnit.SECONDS).until(() -> received.size() == 3);
+        assertEquals(Arrays.asList(1, 3, 4), received);
+    }
+
+    @Test
+    public void testCoalesce() throws InterruptedException {
+        ListenerQueue<Integer> queue = new ListenerQueue<>(blockOnFirst(), e -> e % 10,
+            10, 1, BackpressurePolicy.Coalesce);
+        queue.offer(1);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        queue.offer(11);
+        queue.offer(2);
+        queue.offer(21);
+        assertEquals(2, queue.size());
+        assertEquals(1, queue.getCoalescedCount());
+
+        release.countDown();
+        await().atMost(5, TimeUnit.SECONDS).until(() -> received.size() == 3);
+        assertEquals(Arrays.asList(1, 21, 2), received);
+    }
+
+    @Test
+    public void testBlock() throws InterruptedException {
+        ListenerQueue<Integer> queue = new ListenerQueue<>(blockOnFirst(), e -> null,
+            1, 1, BackpressurePolicy.Block);
+        queue.offer(1);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        queue.offer(2);
+
+        Thread poster = new Thread(() -> queue.offer(3));
+        poster.start();
+        poster.join(200);
+        assertTrue(poster.isAlive());
+
+        release.countDown();
+        poster.join(5000);
+        assertFalse(poster.isAlive());
+        await().atMost(5, TimeUnit.SECONDS).until(() -> received.size() == 3);
+        assertEquals(Arrays.asList(1, 2, 3), received);
+    }
+
+    @Test
+    public void testOfferWithoutWaiting() throws InterruptedException {
+        ListenerQueue<Integer> queue = new ListenerQueue<>(blockOnFirst(), e -> null,
+            1, 1, BackpressurePolicy.Block);
+        queue.offer(1);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // a poster which blocks the delivering thread queues over the capacity
+        AtomicReference<Thread> deliveringThread = new AtomicReference<>();
+        Predicate<Thread> blocked = thread -> {
+            deliveringThread.set(thread);
+            return false;
+        };
+        queue.offer(2, blocked);
+        queue.offer(3, blocked);
+        assertEquals(2, queue.size());
+        assertNotNull(deliveringThread.get());
+
+        Thread poster = new Thread(queue::awaitCapacity);
+        poster.start();
+        poster.join(200);
+        assertTrue(poster.isAlive());
+
+        release.countDown();
+        poster.join(5000);
+        assertFalse(poster.isAlive());
+        await().atMost(5, TimeUnit.SECONDS).until(() -> received.size() == 3);
+        assertEquals(Arrays.asList(1, 2, 3), received);
+    }
+
+    @Test
+    public void testListenerError() {
+        ListenerQueue<Integer> queue = new ListenerQueue<>(e -> {
+            if (e == 1) throw new IllegalStateException("failed");
+            received.add(e);
+        }, e -> null, 10, 10, BackpressurePolicy.Block);
+        queue.offer(1);
+        queue.offer(2);
+
+        await().atMost(5, TimeUnit.SECONDS).until(() -> received.size() == 1);
+        assertEquals(Collections.singletonList(2), received);
+    }
+
+    @Test
+    public void testClose() throws InterruptedException {
+        ListenerQueue<Integer> queue = new ListenerQueue<>(blockOnFirst(), e -> null,
+            10, 10, BackpressurePolicy.Block);
+        queue.offer(1);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        queue.offer(2);
+        queue.close();
+        queue.offer(3);
+
+        // pending events are still delivered after close
+        release.countDown();
+        await().atMost(5, TimeUnit.SECONDS).until(() -> received.size() == 2);
+        assertEquals(Arrays.asList(1, 2), received);
+    }
+
+    private Consumer<Integer> blockOnFirst() {
+        return e -> {
+            if (started.getCount() > 0) {
+                started.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException ignore) {
+                }
+            }
+            received.add(e);
+        };
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.common.mapper;
+
+import lombok.Data;
+import org.dizitart.no2.collection.Document;
+import org.dizitart.no2.exceptions.ObjectMappingException;
+import org.dizitart.no2.repository.annotations.Entity;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.dizitart.no2.collection.Document.createDocument;
+import static org.junit.Assert.*;
+
+public class EntityConverterTest {
+    private MappableMapper mapper;
+
+    @Before
+    public void setUp() {
+        mapper = new MappableMapper();
+    }
+
+    @Test
+    public void testRoundTrip() {
+        Account account = new Account();
+        account.setName("savings");
+        account.setNumber(42);
+        account.setBalance(100.5);
+        account.setActive(true);
+        account.setType(AccountType.Personal);
+        account.setOwner(new Owner());
+        account.getOwner().setName("John");
+
+        Document document = mapper.convert(account, Document.class);
+        assertEquals("savings", document.get("name"));
+        assertEquals(42, document.get("number"));
+        assertEquals(100.5, document.get("balance"));
+        assertEquals(true, document.get("active"));
+        assertEquals("Personal", document.get("type"));
+        assertEquals(createDocument("name", "JOHN").put("age", null), document.get("owner"));
+        assertTrue(document.containsKey("id"));
+        assertNull(document.get("id"));
+
+        assertEquals(account, mapper.convert(document, Account.class));
+    }
+
+    @Test
+    public void testReadCoercion() {
+        Document document = createDocument("name", "current")
+            .put("number", 7L)
+            .put("balance", 10)
+            .put("id", 5)
+            .put("active", null)
+            .put("unknown", "ignored");
+
+        Account account = mapper.convert(document, Account.class);
+        assertEquals(7, account.getNumber());
+        assertEquals(10.0, account.getBalance(), 0.0);
+        assertEquals(Long.valueOf(5), account.getId());
+        assertFalse(account.isActive());
+    }
+
+    @Test
+    public void testSetterPrecedence() {
+        Owner owner = mapper.convert(createDocument("name", "John").put("age", 30), Owner.class);
+        assertEquals("JOHN", owner.getName());
+        assertEquals(Integer.valueOf(30), owner.getAge());
+    }
+
+    @Test
+    public void testUnsupportedEntity() {
+        assertNull(EntityConverter.create(WithList.class, mapper));
+        assertNull(EntityConverter.create(Owner.class.getSuperclass(), mapper));
+        assertThrows(ObjectMappingException.class, () -> mapper.convert(new WithList(), Document.class));
+    }
+
+    @Test(expected = ObjectMappingException.class)
+    public void testInvalidValue() {
+        mapper.convert(createDocument("number", "not a number"), Account.class);
+    }
+
+    public enum AccountType {
+        Personal, Business
+    }
+
+    @Data
+    @Entity
+    public static class Account {
+        private Long id;
+        private String name;
+        private int number;
+        private double balance;
+        private boolean active;
+        private AccountType type;
+        private Owner owner;
+    }
+
+    @Data
+    @Entity
+    public static class Owner {
+        private String name;
+        private Integer age;
+
+        public void setName(String name) {
+            this.name = name == null ? null : name.toUpperCase();
+        }
+    }
+
+    @Entity
+    public static class WithList {
+        private List<String> items;
+    }
+}
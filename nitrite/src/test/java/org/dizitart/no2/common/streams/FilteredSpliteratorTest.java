@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.common.streams;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Spliterator;
+
+import static org.junit.Assert.*;
+
+public class FilteredSpliteratorTest {
+
+    @Test
+    public void testFiltering() {
+        FilteredSpliterator<Integer> spliterator
+            = new FilteredSpliterator<>(Arrays.asList(1, 2, 3, 4, 5).spliterator(), i -> i % 2 == 1);
+
+        List<Integer> result = new ArrayList<>();
+        assertTrue(spliterator.tryAdvance(result::add));
+        spliterator.forEachRemaining(result::add);
+        assertEquals(Arrays.asList(1, 3, 5), result);
+        assertFalse(spliterator.tryAdvance(result::add));
+    }
+
+    @Test
+    public void testSplit() {
+        FilteredSpliterator<Integer> spliterator
+            = new FilteredSpliterator<>(Arrays.asList(1, 2, 3, 4, 5, 6).spliterator(), i -> i > 2);
+
+        Spliterator<Integer> prefix = spliterator.trySplit();
+        assertNotNull(prefix);
+
+        List<Integer> result = new ArrayList<>();
+        prefix.forEachRemaining(result::add);
+        spliterator.forEachRemaining(result::add);
+        assertEquals(Arrays.asList(3, 4, 5, 6), result);
+    }
+
+    @Test
+    public void testCharacteristics() {
+        FilteredSpliterator<Integer> spliterator
+            = new FilteredSpliterator<>(Arrays.asList(1, 2).spliterator(), i -> true);
+        assertFalse(spliterator.hasCharacteristics(Spliterator.SIZED));
+        assertTrue(spliterator.hasCharacteristics(Spliterator.ORDERED));
+        assertEquals(2, spliterator.estimateSize());
+    }
+}
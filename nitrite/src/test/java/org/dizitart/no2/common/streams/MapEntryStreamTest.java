@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.common.streams;
+
+import org.dizitart.no2.common.tuples.Pair;
+import org.dizitart.no2.store.memory.InMemoryMap;
+import org.dizitart.no2.store.memory.InMemoryStore;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+
+public class MapEntryStreamTest {
+
+    @Test
+    public void testStream() {
+        InMemoryMap<Integer, String> nitriteMap = new InMemoryMap<>("test", new InMemoryStore());
+        for (int i = 0; i < 1000; i++) {
+            nitriteMap.put(i, "value" + i);
+        }
+
+        MapEntryStream<Integer, String> entryStream = new MapEntryStream<>(nitriteMap);
+        assertEquals(1000, entryStream.size());
+
+        List<Integer> sequential = entryStream.stream().map(Pair::getFirst).collect(Collectors.toList());
+        List<Integer> parallel = entryStream.parallelStream().map(Pair::getFirst).collect(Collectors.toList());
+        assertEquals(1000, parallel.size());
+        assertEquals(sequential, parallel);
+    }
+}
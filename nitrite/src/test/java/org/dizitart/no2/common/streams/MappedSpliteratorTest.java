@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.common.streams;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Spliterator;
+
+import static org.junit.Assert.*;
+
+public class MappedSpliteratorTest {
+
+    @Test
+    public void testMapping() {
+        MappedSpliterator<Integer, String> spliterator
+            = new MappedSpliterator<>(Arrays.asList(1, 2, 3).spliterator(), String::valueOf);
+
+        List<String> result = new ArrayList<>();
+        assertTrue(spliterator.tryAdvance(result::add));
+        spliterator.forEachRemaining(result::add);
+        assertEquals(Arrays.asList("1", "2", "3"), result);
+    }
+
+    @Test
+    public void testSplit() {
+        MappedSpliterator<Integer, Integer> spliterator
+            = new MappedSpliterator<>(Arrays.asList(1, 2, 3, 4).spliterator(), i -> i * 10);
+        assertEquals(4, spliterator.estimateSize());
+
+        Spliterator<Integer> prefix = spliterator.trySplit();
+        assertNotNull(prefix);
+
+        List<Integer> result = new ArrayList<>();
+        prefix.forEachRemaining(result::add);
+        spliterator.forEachRemaining(result::add);
+        assertEquals(Arrays.asList(10, 20, 30, 40), result);
+    }
+
+    @Test
+    public void testCharacteristics() {
+        MappedSpliterator<Integer, Integer> spliterator
+            = new MappedSpliterator<>(Arrays.asList(1, 2).spliterator(), i -> null);
+        assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED));
+        assertTrue(spliterator.hasCharacteristics(Spliterator.ORDERED));
+        assertFalse(spliterator.hasCharacteristics(Spliterator.NONNULL));
+        assertFalse(spliterator.hasCharacteristics(Spliterator.DISTINCT));
+    }
+}
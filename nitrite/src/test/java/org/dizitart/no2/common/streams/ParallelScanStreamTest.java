@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.common.streams;
+
+import org.dizitart.no2.collection.Document;
+import org.dizitart.no2.collection.NitriteId;
+import org.dizitart.no2.common.RecordStream;
+import org.dizitart.no2.common.tuples.Pair;
+import org.dizitart.no2.exceptions.FilterException;
+import org.dizitart.no2.filters.Filter;
+import org.dizitart.no2.store.memory.InMemoryMap;
+import org.dizitart.no2.store.memory.InMemoryStore;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.dizitart.no2.collection.Document.createDocument;
+import static org.dizitart.no2.filters.FluentFilter.where;
+import static org.junit.Assert.*;
+
+public class ParallelScanStreamTest {
+    private InMemoryMap<NitriteId, Document> nitriteMap;
+
+    @Before
+    public void setUp() {
+        nitriteMap = new InMemoryMap<>("test", new InMemoryStore());
+        for (int i = 0; i < 1000; i++) {
+            Document document = createDocument("age", i).put("name", "name" + i);
+            nitriteMap.put(document.getId(), document);
+        }
+    }
+
+    @Test
+    public void testOrderedScan() {
+        Filter filter = where("age").gte(250);
+        List<Pair<NitriteId, Document>> expected = new FilteredStream(nitriteMap.entries(), filter).toList();
+        List<Pair<NitriteId, Document>> actual = new ParallelScanStream(nitriteMap, filter, 4, true).toList();
+
+        assertEquals(750, actual.size());
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void testUnorderedScan() {
+        Filter filter = where("age").lt(500);
+        List<Pair<NitriteId, Document>> expected = new FilteredStream(nitriteMap.entries(), filter).toList();
+        List<Pair<NitriteId, Document>> actual = new ParallelScanStream(nitriteMap, filter, 4, false).toList();
+
+        assertEquals(500, actual.size());
+        assertEquals(new HashSet<>(expected), new HashSet<>(actual));
+    }
+
+    @Test
+    public void testScanWithoutFilter() {
+        assertEquals(1000, new ParallelScanStream(nitriteMap, Filter.ALL, 4, true).size());
+        assertEquals(1000, new ParallelScanStream(nitriteMap, null, 4, false).size());
+    }
+
+    @Test
+    public void testSequentialFallback() {
+        Filter filter = where("age").eq(10);
+        assertEquals(1, new ParallelScanStream(nitriteMap, filter, 1, true).size());
+
+        InMemoryMap<NitriteId, Document> emptyMap = new InMemoryMap<>("empty", new InMemoryStore());
+        assertTrue(new ParallelScanStream(emptyMap, filter, 4, true).isEmpty());
+    }
+
+    @Test
+    public void testRepeatedIteration() {
+        ParallelScanStream stream = new ParallelScanStream(nitriteMap, where("name").regex("^name9"), 4, true);
+        assertEquals(111, stream.size());
+        assertEquals(111, stream.size());
+    }
+
+    @Test(expected = FilterException.class)
+    public void testFilterErrorPropagates() {
+        new ParallelScanStream(nitriteMap, where("age").regex("1"), 4, true).toList();
+    }
+
+    @Test
+    public void testSlowReaderBoundsMemory() throws InterruptedException {
+        AtomicInteger scanned = new AtomicInteger();
+        InMemoryMap<NitriteId, Document> largeMap = new InMemoryMap<NitriteId, Document>("large", new InMemoryStore()) {
+            @Override
+            public List<RecordStream<Pair<NitriteId, Document>>> splitEntries(int splitCount) {
+                List<RecordStream<Pair<NitriteId, Document>>> splits = new ArrayList<>();
+                for (RecordStream<Pair<NitriteId, Document>> split : super.splitEntries(splitCount)) {
+                    splits.add(() -> new Iterator<Pair<NitriteId, Document>>() {
+                        private final Iterator<Pair<NitriteId, Document>> iterator = split.iterator();
+
+                        @Override
+                        public boolean hasNext() {
+                            return iterator.hasNext();
+                        }
+
+                        @Override
+                        public Pair<NitriteId, Document> next() {
+                            scanned.incrementAndGet();
+                            return iterator.next();
+                        }
+                    });
+                }
+                return splits;
+            }
+        };
+        for (int i = 0; i < 100000; i++) {
+            Document document = createDocument("age", i);
+            largeMap.put(document.getId(), document);
+        }
+
+        Iterator<Pair<NitriteId, Document>> iterator
+            = new ParallelScanStream(largeMap, null, 4, true).iterator();
+        assertTrue(iterator.hasNext());
+        Thread.sleep(500);
+
+        // the ranges pause once their unread chunks are full
+        assertTrue(scanned.get() < 10000);
+
+        int count = 0;
+        while (iterator.hasNext()) {
+            iterator.next();
+            count++;
+        }
+        assertEquals(100000, count);
+    }
+}
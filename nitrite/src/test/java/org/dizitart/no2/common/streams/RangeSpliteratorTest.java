@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.common.streams;
+
+import org.dizitart.no2.common.RecordStream;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import static org.junit.Assert.*;
+
+public class RangeSpliteratorTest {
+
+    @Test
+    public void testSequentialTraversal() {
+        List<Integer> source = numbers(100);
+        RangeSpliterator<Integer> spliterator = new RangeSpliterator<>(RecordStream.fromIterable(source),
+            splitCount -> { throw new AssertionError("must not split"); }, () -> 100L);
+
+        List<Integer> result = StreamSupport.stream(spliterator, false).collect(Collectors.toList());
+        assertEquals(source, result);
+    }
+
+    @Test
+    public void testSplitIntoRanges() {
+        List<Integer> source = numbers(100);
+        RangeSpliterator<Integer> spliterator = new RangeSpliterator<>(RecordStream.fromIterable(source),
+            splitCount -> ranges(source, 4), () -> 100L);
+        assertEquals(100L, spliterator.estimateSize());
+
+        Spliterator<Integer> prefix = spliterator.trySplit();
+        assertNotNull(prefix);
+        assertEquals(50L, prefix.estimateSize());
+        assertEquals(50L, spliterator.estimateSize());
+
+        List<Integer> result = new ArrayList<>();
+        prefix.forEachRemaining(result::add);
+        spliterator.forEachRemaining(result::add);
+        assertEquals(source, result);
+    }
+
+    @Test
+    public void testSingleRangeIsNotSplit() {
+        List<Integer> source = numbers(10);
+        RangeSpliterator<Integer> spliterator = new RangeSpliterator<>(RecordStream.fromIterable(source),
+            splitCount -> Collections.singletonList(RecordStream.fromIterable(source)), () -> 10L);
+        assertNull(spliterator.trySplit());
+
+        List<Integer> result = new ArrayList<>();
+        spliterator.forEachRemaining(result::add);
+        assertEquals(source, result);
+    }
+
+    @Test
+    public void testNoSplitAfterTraversal() {
+        List<Integer> source = numbers(10);
+        RangeSpliterator<Integer> spliterator = new RangeSpliterator<>(RecordStream.fromIterable(source),
+            splitCount -> ranges(source, 2), () -> 10L);
+        assertTrue(spliterator.tryAdvance(i -> assertEquals(0, i.intValue())));
+        assertNull(spliterator.trySplit());
+    }
+
+    @Test
+    public void testParallelStream() {
+        List<Integer> source = numbers(1000);
+        RangeSpliterator<Integer> spliterator = new RangeSpliterator<>(RecordStream.fromIterable(source),
+            splitCount -> ranges(source, splitCount), () -> 1000L);
+
+        List<Integer> result = StreamSupport.stream(spliterator, true)
+            .filter(i -> i % 2 == 0).collect(Collectors.toList());
+        assertEquals(500, result.size());
+        assertEquals(source.stream().filter(i -> i % 2 == 0).collect(Collectors.toList()), result);
+    }
+
+    private List<Integer> numbers(int count) {
+        List<Integer> numbers = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            numbers.add(i);
+        }
+        return numbers;
+    }
+
+    private List<RecordStream<Integer>> ranges(List<Integer> source, int count) {
+        List<RecordStream<Integer>> ranges = new ArrayList<>();
+        int size = source.size() / count;
+        for (int i = 0; i < count; i++) {
+            int to = i == count - 1 ? source.size() : (i + 1) * size;
+            ranges.add(RecordStream.fromIterable(source.subList(i * size, to)));
+        }
+        return ranges;
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.common.streams;
+
+import org.dizitart.no2.common.RecordStream;
+import org.dizitart.no2.store.StoreSnapshot;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.*;
+
+public class SnapshotStreamTest {
+
+    @Test
+    public void testIteratorIsPinned() {
+        CountingSnapshot snapshot = new CountingSnapshot();
+        List<Boolean> pinned = new ArrayList<>();
+        RecordStream<Integer> source = RecordStream.fromIterable(Arrays.asList(1, 2, 3));
+        RecordStream<Integer> recordStream = () -> {
+            pinned.add(snapshot.pinned);
+            return source.iterator();
+        };
+
+        SnapshotStream<Integer> stream = new SnapshotStream<>(recordStream, snapshot);
+        List<Integer> result = new ArrayList<>();
+        Iterator<Integer> iterator = stream.iterator();
+        while (iterator.hasNext()) {
+            result.add(iterator.next());
+        }
+
+        assertEquals(Arrays.asList(1, 2, 3), result);
+        assertEquals(Arrays.asList(true), pinned);
+        // one for iterator, four for hasNext and three for next
+        assertEquals(8, snapshot.reads);
+        assertFalse(snapshot.pinned);
+        assertEquals(1, snapshot.closed);
+    }
+
+    @Test
+    public void testSpliteratorIsPinned() {
+        CountingSnapshot snapshot = new CountingSnapshot();
+        RecordStream<Integer> source = RecordStream.fromIterable(Arrays.asList(1, 2, 3, 4));
+        SnapshotStream<Integer> stream = new SnapshotStream<>(source, snapshot);
+
+        Spliterator<Integer> spliterator = stream.spliterator();
+        Spliterator<Integer> prefix = spliterator.trySplit();
+
+        List<Integer> result = new ArrayList<>();
+        if (prefix != null) {
+            prefix.forEachRemaining(result::add);
+        }
+        spliterator.forEachRemaining(i -> {
+            assertTrue(snapshot.pinned);
+            result.add(i);
+        });
+        assertEquals(Arrays.asList(1, 2, 3, 4), result);
+        assertFalse(snapshot.pinned);
+        assertEquals(1, snapshot.closed);
+    }
+
+    @Test
+    public void testClosedWhenAllIterationsExhausted() {
+        CountingSnapshot snapshot = new CountingSnapshot();
+        RecordStream<Integer> source = RecordStream.fromIterable(Arrays.asList(1, 2));
+        SnapshotStream<Integer> stream = new SnapshotStream<>(source, snapshot);
+
+        Iterator<Integer> first = stream.iterator();
+        Iterator<Integer> second = stream.iterator();
+        assertEquals(3, stream.stream().mapToInt(i -> i).sum());
+        while (first.hasNext()) {
+            first.next();
+        }
+        assertFalse(first.hasNext());
+        assertEquals(0, snapshot.closed);
+
+        second.next();
+        assertTrue(second.hasNext());
+        second.next();
+        assertFalse(second.hasNext());
+        assertEquals(1, snapshot.closed);
+    }
+
+    @Test
+    public void testClose() {
+        CountingSnapshot snapshot = new CountingSnapshot();
+        RecordStream<Integer> source = RecordStream.fromIterable(Arrays.asList(1, 2));
+        SnapshotStream<Integer> stream = new SnapshotStream<>(source, snapshot);
+
+        assertEquals(Integer.valueOf(1), stream.firstOrNull());
+        assertEquals(0, snapshot.closed);
+        stream.close();
+        assertEquals(1, snapshot.closed);
+    }
+
+    @Test
+    public void testLatestSnapshot() {
+        assertEquals("value", StoreSnapshot.LATEST.read(() -> "value"));
+        StoreSnapshot.LATEST.close();
+        assertEquals("value", StoreSnapshot.LATEST.read(() -> "value"));
+    }
+
+    private static class CountingSnapshot implements StoreSnapshot {
+        private boolean pinned;
+        private int reads;
+        private int closed;
+
+        @Override
+        public <T> T read(Supplier<T> reader) {
+            boolean previous = pinned;
+            pinned = true;
+            reads++;
+            try {
+                return reader.get();
+            } finally {
+                pinned = previous;
+            }
+        }
+
+        @Override
+        public void close() {
+            closed++;
+        }
+    }
+}
@@ -18,6 +18,8 @@ package org.dizitart.no2.common.util;
 
 import org.dizitart.no2.NitriteBuilderTest;
 import org.dizitart.no2.collection.Document;
+import org.dizitart.no2.common.FieldValues;
+import org.dizitart.no2.common.Fields;
 import org.dizitart.no2.common.mapper.Mappable;
 import org.dizitart.no2.common.mapper.MappableMapper;
 import org.dizitart.no2.common.mapper.NitriteMapper;
@@ -73,6 +75,17 @@ public class DocumentUtilsTest {
         assertTrue(filter instanceof ComparableFilter);
     }
 
+    @Test
+    public void testGetValuesWithNullFieldName() {
+        Document doc = createDocument("a", 1).put("b", 2);
+        FieldValues fieldValues = getValues(doc, Fields.withNames("b", null));
+        assertEquals(2, fieldValues.getValues().size());
+        assertEquals("b", fieldValues.getValues().get(0).getFirst());
+        assertEquals(2, fieldValues.getValues().get(0).getSecond());
+        assertNull(fieldValues.getValues().get(1).getFirst());
+        assertNull(fieldValues.getValues().get(1).getSecond());
+    }
+
     @Test
     public void testSkeletonDocument() {
         Class type = Object.class;
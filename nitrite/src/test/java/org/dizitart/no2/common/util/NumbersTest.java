@@ -68,6 +68,20 @@ public class NumbersTest {
                 {Double.POSITIVE_INFINITY, Float.POSITIVE_INFINITY, 0},
                 {Double.NEGATIVE_INFINITY, Float.POSITIVE_INFINITY, -1},
                 {Double.NEGATIVE_INFINITY, Float.NEGATIVE_INFINITY, 0},
+                {Long.MAX_VALUE, Long.MAX_VALUE - 1, 1},
+                {(byte) 1, 2L, -1},
+                {(short) -5, -5, 0},
+                {-0.0d, 0.0f, 0},
+                {0, -0.0d, 0},
+                {0.1f, 0.1d, 1},
+                {2.5d, 2, 1},
+                {2, 2.5d, -1},
+                {-3, -2.5d, -1},
+                {-2, -2.5d, 1},
+                {Long.MAX_VALUE, 0x1p63, -1},
+                {Long.MIN_VALUE, -0x1p63, 0},
+                {Long.MIN_VALUE, -1e300, 1},
+                {(1L << 60) + 1, (double) (1L << 60), 1},
         });
     }
 
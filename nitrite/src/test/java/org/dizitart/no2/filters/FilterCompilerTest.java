@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.filters;
+
+import org.dizitart.no2.collection.Document;
+import org.dizitart.no2.collection.NitriteId;
+import org.dizitart.no2.common.tuples.Pair;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.dizitart.no2.collection.Document.createDocument;
+import static org.dizitart.no2.filters.FluentFilter.where;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class FilterCompilerTest {
+
+    @Test
+    public void testCompileAll() {
+        assertSame(Filter.ALL, FilterCompiler.compile(Filter.ALL));
+        assertNull(FilterCompiler.compile(null));
+    }
+
+    @Test
+    public void testCompileIdempotent() {
+        Filter compiled = FilterCompiler.compile(where("a").eq(1));
+        assertSame(compiled, FilterCompiler.compile(compiled));
+    }
+
+    @Test
+    public void testSameResult() {
+        List<Filter> filters = new ArrayList<>();
+        filters.add(where("age").gt(20));
+        filters.add(where("age").gte(20L));
+        filters.add(where("age").lt(30.5));
+        filters.add(where("age").lte(25.0f));
+        filters.add(where("name").eq("John"));
+        filters.add(where("name").notEq("John"));
+        filters.add(where("name").in("John", "Jane"));
+        filters.add(where("name").notIn("John", "Jane"));
+        filters.add(where("name").regex("^J.*n$"));
+        filters.add(where("address.city").eq("Kolkata"));
+        filters.add(where("score").eq(1.0));
+        filters.add(where("age").between(20, 25).and(where("name").regex("J")));
+        filters.add(Filter.and(where("name").eq("Jane"),
+            Filter.or(where("age").gt(40), Filter.and(where("age").lt(30), where("score").gte(2)))));
+        filters.add(Filter.or(where("name").eq("Jane"), where("age").eq(21), where("score").lt(0)));
+        filters.add(where("age").gt(20).not());
+        filters.add(where("name").gt("Jane"));
+
+        List<Pair<NitriteId, Document>> documents = new ArrayList<>();
+        documents.add(record(createDocument("name", "John").put("age", 21).put("score", 1.0)
+            .put("address.city", "Kolkata")));
+        documents.add(record(createDocument("name", "Jane").put("age", 25L).put("score", 2.5f)));
+        documents.add(record(createDocument("name", "Jack").put("age", 45.5).put("score", -1)));
+        documents.add(record(createDocument("name", "Jill")));
+        documents.add(record(createDocument("age", (short) 20).put("score", -0.0)));
+
+        for (Filter filter : filters) {
+            Filter compiled = FilterCompiler.compile(filter);
+            for (Pair<NitriteId, Document> document : documents) {
+                assertEquals(filter + " on " + document.getSecond(),
+                    filter.apply(document), compiled.apply(document));
+            }
+        }
+    }
+
+    @Test
+    public void testSelectiveFilterEvaluatedFirst() {
+        Filter custom = mock(Filter.class);
+        when(custom.apply(any())).thenReturn(true);
+
+        Filter compiled = FilterCompiler.compile(Filter.and(custom, where("name").eq("John")));
+        assertFalse(compiled.apply(record(createDocument("name", "Jane"))));
+        verify(custom, never()).apply(any());
+
+        assertTrue(compiled.apply(record(createDocument("name", "John"))));
+        verify(custom).apply(any());
+    }
+
+    @Test
+    public void testRegexEvaluatedLast() {
+        // regex on a non string value throws, but it is never reached as
+        // the equality check rejects the document first
+        Filter compiled = FilterCompiler.compile(Filter.and(where("age").regex("1"), where("name").eq("John")));
+        assertFalse(compiled.apply(record(createDocument("name", "Jane").put("age", 1))));
+    }
+
+    private Pair<NitriteId, Document> record(Document document) {
+        return new Pair<>(document.getId(), document);
+    }
+}
@@ -38,6 +38,14 @@ public class FluentFilterTest {
         assertFalse(actualRegexResult.getObjectFilter());
     }
 
+    @Test
+    public void testStartsWith() {
+        NitriteFilter actualStartsWithResult = FluentFilter.where("Field").startsWith("42");
+        assertEquals("(Field startsWith 42)", actualStartsWithResult.toString());
+        assertEquals("Field", ((StartsWithFilter) actualStartsWithResult).getField());
+        assertFalse(actualStartsWithResult.getObjectFilter());
+    }
+
     @Test
     public void testElemMatch() {
         assertFalse(FluentFilter.where("Field").elemMatch(mock(Filter.class)).getObjectFilter());
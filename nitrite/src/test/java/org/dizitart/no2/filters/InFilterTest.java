@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.filters;
+
+import org.dizitart.no2.collection.NitriteId;
+import org.dizitart.no2.index.DBValue;
+import org.dizitart.no2.index.IndexMap;
+import org.dizitart.no2.store.memory.InMemoryMap;
+import org.dizitart.no2.store.memory.InMemoryStore;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class InFilterTest {
+    @Test
+    public void testApplyOnIndexWithLookups() {
+        Map<Integer, NitriteId> ids = new HashMap<>();
+        InMemoryMap<DBValue, Object> nitriteMap = spy(createIndex(ids));
+
+        InFilter filter = new InFilter("field", 50, 5, 7, 1000);
+        List<?> result = filter.applyOnIndex(new IndexMap(nitriteMap));
+
+        assertEquals(Arrays.asList(ids.get(5), ids.get(7), ids.get(50)), result);
+        verify(nitriteMap, never()).entries();
+    }
+
+    @Test
+    public void testApplyOnIndexWithReverseLookups() {
+        Map<Integer, NitriteId> ids = new HashMap<>();
+        IndexMap indexMap = new IndexMap(createIndex(ids));
+        indexMap.setReverseScan(true);
+
+        InFilter filter = new InFilter("field", 50, 5, 7);
+        assertEquals(Arrays.asList(ids.get(50), ids.get(7), ids.get(5)), filter.applyOnIndex(indexMap));
+    }
+
+    @Test
+    public void testApplyOnIndexWithScan() {
+        Map<Integer, NitriteId> ids = new HashMap<>();
+        InMemoryMap<DBValue, Object> nitriteMap = spy(createIndex(ids));
+
+        Comparable<?>[] values = new Comparable<?>[60];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = 59 - i;
+        }
+
+        InFilter filter = new InFilter("field", values);
+        List<?> result = filter.applyOnIndex(new IndexMap(nitriteMap));
+
+        assertEquals(60, result.size());
+        assertEquals(ids.get(0), result.get(0));
+        assertEquals(ids.get(59), result.get(59));
+        verify(nitriteMap).entries();
+    }
+
+    @Test
+    public void testApplyOnCompoundIndex() {
+        NavigableMap<DBValue, Object> subMap = new TreeMap<>();
+        subMap.put(new DBValue("x"), new ArrayList<>(Collections.singletonList(NitriteId.newId())));
+
+        NavigableMap<DBValue, Object> indexMap = new TreeMap<>();
+        for (int i = 0; i < 20; i++) {
+            indexMap.put(new DBValue(i), subMap);
+        }
+
+        InFilter filter = new InFilter("field", 3, 4);
+        List<?> result = filter.applyOnIndex(new IndexMap(indexMap));
+        assertEquals(2, result.size());
+        assertSame(subMap, result.get(0));
+    }
+
+    static InMemoryMap<DBValue, Object> createIndex(Map<Integer, NitriteId> ids) {
+        InMemoryMap<DBValue, Object> nitriteMap = new InMemoryMap<>("index", new InMemoryStore());
+        for (int i = 0; i < 100; i++) {
+            NitriteId nitriteId = NitriteId.newId();
+            ids.put(i, nitriteId);
+            nitriteMap.put(new DBValue(i), new ArrayList<>(Collections.singletonList(nitriteId)));
+        }
+        return nitriteMap;
+    }
+}
@@ -3,8 +3,15 @@ package org.dizitart.no2.filters;
 import org.dizitart.no2.collection.Document;
 import org.dizitart.no2.collection.NitriteId;
 import org.dizitart.no2.common.tuples.Pair;
+import org.dizitart.no2.index.DBValue;
+import org.dizitart.no2.index.IndexMap;
+import org.dizitart.no2.store.memory.InMemoryMap;
+import org.dizitart.no2.store.memory.InMemoryStore;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Collections;
+
 import static org.junit.Assert.*;
 import static org.junit.Assert.assertEquals;
 
@@ -48,5 +55,21 @@ public class NotEqualsFilterTest {
         assertTrue(notEqualsFilter.apply(pair));
         assertTrue(notEqualsFilter.getValue() instanceof String);
     }
-}
 
+    @Test
+    public void testApplyOnIndex() {
+        InMemoryMap<DBValue, Object> nitriteMap = new InMemoryMap<>("index", new InMemoryStore());
+        NitriteId first = NitriteId.newId();
+        NitriteId second = NitriteId.newId();
+        nitriteMap.put(new DBValue("a"), new ArrayList<>(Collections.singletonList(first)));
+        nitriteMap.put(new DBValue("b"), new ArrayList<>(Collections.singletonList(second)));
+
+        NotEqualsFilter notEqualsFilter = new NotEqualsFilter("field", "a");
+        assertEquals(Collections.singletonList(second), notEqualsFilter.applyOnIndex(new IndexMap(nitriteMap)));
+
+        for (int i = 0; i < 10; i++) {
+            nitriteMap.put(new DBValue("c" + i), new ArrayList<>(Collections.singletonList(NitriteId.newId())));
+        }
+        assertEquals(11, notEqualsFilter.applyOnIndex(new IndexMap(nitriteMap)).size());
+    }
+}
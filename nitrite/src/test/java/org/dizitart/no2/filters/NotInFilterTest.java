@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.filters;
+
+import org.dizitart.no2.collection.NitriteId;
+import org.dizitart.no2.index.DBValue;
+import org.dizitart.no2.index.IndexMap;
+import org.dizitart.no2.store.memory.InMemoryMap;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.dizitart.no2.filters.InFilterTest.createIndex;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class NotInFilterTest {
+    @Test
+    public void testApplyOnIndexWithScan() {
+        Map<Integer, NitriteId> ids = new HashMap<>();
+        InMemoryMap<DBValue, Object> nitriteMap = spy(createIndex(ids));
+
+        NotInFilter filter = new NotInFilter("field", 5, 7);
+        List<?> result = filter.applyOnIndex(new IndexMap(nitriteMap));
+
+        assertEquals(98, result.size());
+        assertFalse(result.contains(ids.get(5)));
+        assertFalse(result.contains(ids.get(7)));
+        verify(nitriteMap).entries();
+    }
+
+    @Test
+    public void testApplyOnIndexExcludingMostKeys() {
+        Map<Integer, NitriteId> ids = new HashMap<>();
+        InMemoryMap<DBValue, Object> nitriteMap = spy(createIndex(ids));
+
+        Comparable<?>[] values = new Comparable<?>[95];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i + 3;
+        }
+
+        NotInFilter filter = new NotInFilter("field", values);
+        List<?> result = filter.applyOnIndex(new IndexMap(nitriteMap));
+
+        assertEquals(Arrays.asList(ids.get(0), ids.get(1), ids.get(2), ids.get(98), ids.get(99)), result);
+        // only the complement ranges are walked, the excluded values are never read
+        verify(nitriteMap, never()).entries();
+        verify(nitriteMap, times(5)).get(any());
+    }
+
+    @Test
+    public void testApplyOnIndexExcludingMostKeysInReverse() {
+        Map<Integer, NitriteId> ids = new HashMap<>();
+        InMemoryMap<DBValue, Object> nitriteMap = spy(createIndex(ids));
+
+        Comparable<?>[] values = new Comparable<?>[98];
+        for (int i = 0; i < 97; i++) {
+            values[i] = i + 2;
+        }
+        // keys which are not indexed are excluded as well
+        values[97] = 500;
+
+        IndexMap indexMap = new IndexMap(nitriteMap);
+        indexMap.setReverseScan(true);
+        List<?> result = new NotInFilter("field", values).applyOnIndex(indexMap);
+
+        assertEquals(Arrays.asList(ids.get(99), ids.get(1), ids.get(0)), result);
+        verify(nitriteMap, never()).entries();
+        verify(nitriteMap, never()).reversedEntries();
+    }
+}
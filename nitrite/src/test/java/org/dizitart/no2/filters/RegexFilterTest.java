@@ -5,8 +5,7 @@ import org.dizitart.no2.collection.NitriteId;
 import org.dizitart.no2.common.tuples.Pair;
 import org.junit.Test;
 
-import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.*;
 
 public class RegexFilterTest {
     @Test
@@ -46,5 +45,48 @@ public class RegexFilterTest {
         NitriteId first = NitriteId.newId();
         assertFalse(regexFilter.apply(new Pair<>(first, Document.createDocument())));
     }
-}
 
+    @Test
+    public void testGetPrefixFilter() {
+        assertPrefix("^ABC-\\d+", "ABC-");
+        assertPrefix("^ABC", "ABC");
+        assertPrefix("^ABC$", "ABC");
+        assertPrefix("^AB\\.C.*", "AB.C");
+        assertPrefix("^ABC?", "AB");
+        assertPrefix("^ABC*D", "AB");
+        assertPrefix("^ABC{2}", "AB");
+        assertPrefix("^ABC+D", "ABC");
+        assertPrefix("^AB(C|D)", "AB");
+        assertPrefix("^AB[|]", "AB");
+        assertPrefix("^AB\\|C", "AB|C");
+
+        assertPrefix("ABC", null);
+        assertPrefix("^", null);
+        assertPrefix("^.ABC", null);
+        assertPrefix("^\\dABC", null);
+        assertPrefix("^ABC|DEF", null);
+        assertPrefix("(?i)^ABC", null);
+    }
+
+    @Test
+    public void testPrefixFilterKeepsFilterState() {
+        RegexFilter regexFilter = new RegexFilter("field", "^ABC");
+        regexFilter.setObjectFilter(true);
+        regexFilter.setCollectionName("collection");
+
+        StringFilter prefixFilter = regexFilter.getPrefixFilter();
+        assertEquals("field", prefixFilter.getField());
+        assertEquals("collection", prefixFilter.getCollectionName());
+        assertTrue(prefixFilter.getObjectFilter());
+    }
+
+    private static void assertPrefix(String regex, String prefix) {
+        StringFilter prefixFilter = new RegexFilter("field", regex).getPrefixFilter();
+        if (prefix == null) {
+            assertNull(regex, prefixFilter);
+        } else {
+            assertTrue(regex, prefixFilter instanceof StartsWithFilter);
+            assertEquals(regex, prefix, prefixFilter.getStringValue());
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.dizitart.no2.filters;
+
+import org.dizitart.no2.collection.Document;
+import org.dizitart.no2.collection.NitriteId;
+import org.dizitart.no2.common.tuples.Pair;
+import org.dizitart.no2.exceptions.ValidationException;
+import org.dizitart.no2.index.DBValue;
+import org.dizitart.no2.index.IndexMap;
+import org.dizitart.no2.store.memory.InMemoryMap;
+import org.dizitart.no2.store.memory.InMemoryStore;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class StartsWithFilterTest {
+    private static final String[] KEYS = {"AB", "ABB", "ABC-", "ABC-1", "ABC-10", "ABC-2", "ABD", "B"};
+
+    @Test
+    public void testApply() {
+        StartsWithFilter filter = new StartsWithFilter("field", "ABC-");
+        assertTrue(filter.apply(new Pair<>(NitriteId.newId(), Document.createDocument("field", "ABC-12"))));
+        assertTrue(filter.apply(new Pair<>(NitriteId.newId(), Document.createDocument("field", "ABC-"))));
+        assertFalse(filter.apply(new Pair<>(NitriteId.newId(), Document.createDocument("field", "ABD-12"))));
+        assertFalse(filter.apply(new Pair<>(NitriteId.newId(), Document.createDocument("field", 12))));
+        assertFalse(filter.apply(new Pair<>(NitriteId.newId(), Document.createDocument())));
+    }
+
+    @Test(expected = ValidationException.class)
+    public void testNullPrefix() {
+        new StartsWithFilter("field", null);
+    }
+
+    @Test
+    public void testToString() {
+        assertEquals("(field startsWith ABC-)", new StartsWithFilter("field", "ABC-").toString());
+    }
+
+    @Test
+    public void testApplyOnIndex() {
+        Map<String, NitriteId> ids = new HashMap<>();
+        InMemoryMap<DBValue, Object> nitriteMap = spy(createIndex(ids));
+
+        StartsWithFilter filter = new StartsWithFilter("field", "ABC-");
+        List<?> result = filter.applyOnIndex(new IndexMap(nitriteMap));
+
+        assertEquals(Arrays.asList(ids.get("ABC-"), ids.get("ABC-1"), ids.get("ABC-10"), ids.get("ABC-2")), result);
+        verify(nitriteMap, never()).entries();
+    }
+
+    @Test
+    public void testApplyOnIndexWithReverseScan() {
+        Map<String, NitriteId> ids = new HashMap<>();
+        IndexMap indexMap = new IndexMap(createIndex(ids));
+        indexMap.setReverseScan(true);
+
+        StartsWithFilter filter = new StartsWithFilter("field", "ABC-1");
+        assertEquals(Arrays.asList(ids.get("ABC-10"), ids.get("ABC-1")), filter.applyOnIndex(indexMap));
+        assertTrue(indexMap.isReverseScan());
+    }
+
+    @Test
+    public void testApplyOnIndexWithoutMatch() {
+        Map<String, NitriteId> ids = new HashMap<>();
+        IndexMap indexMap = new IndexMap(createIndex(ids));
+
+        assertTrue(new StartsWithFilter("field", "ABCD").applyOnIndex(indexMap).isEmpty());
+        assertTrue(new StartsWithFilter("field", "C").applyOnIndex(indexMap).isEmpty());
+        assertEquals(KEYS.length - 1, new StartsWithFilter("field", "A").applyOnIndex(indexMap).size());
+    }
+
+    @Test
+    public void testApplyOnCompoundIndex() {
+        NavigableMap<DBValue, Object> subMap = new TreeMap<>();
+        subMap.put(new DBValue(1), new ArrayList<>(Collections.singletonList(NitriteId.newId())));
+
+        NavigableMap<DBValue, Object> navigableMap = new TreeMap<>();
+        navigableMap.put(new DBValue("ABC-1"), subMap);
+        navigableMap.put(new DBValue("ABD-1"), new TreeMap<>());
+
+        List<?> result = new StartsWithFilter("field", "ABC").applyOnIndex(new IndexMap(navigableMap));
+        assertEquals(Collections.singletonList(subMap), result);
+    }
+
+    private static InMemoryMap<DBValue, Object> createIndex(Map<String, NitriteId> ids) {
+        InMemoryMap<DBValue, Object> nitriteMap = new InMemoryMap<>("index", new InMemoryStore());
+        for (String key : KEYS) {
+            NitriteId id = NitriteId.newId();
+            ids.put(key, id);
+            nitriteMap.put(new DBValue(key), new ArrayList<>(Collections.singletonList(id)));
+        }
+        return nitriteMap;
+    }
+}
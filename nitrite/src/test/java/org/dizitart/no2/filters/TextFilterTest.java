@@ -17,6 +17,9 @@
 
 package org.dizitart.no2.filters;
 
+import org.dizitart.no2.collection.Document;
+import org.dizitart.no2.collection.NitriteId;
+import org.dizitart.no2.common.tuples.Pair;
 import org.dizitart.no2.exceptions.FilterException;
 import org.dizitart.no2.index.fulltext.EnglishTextTokenizer;
 import org.dizitart.no2.store.memory.InMemoryMap;
@@ -63,5 +66,27 @@ public class TextFilterTest {
         assertThrows(FilterException.class,
                 () -> textFilter.applyOnIndex(new InMemoryMap<>("Map Name", null)));
     }
-}
 
+    @Test
+    public void testApplyPhrase() {
+        Pair<NitriteId, Document> element = Pair.pair(NitriteId.newId(),
+            Document.createDocument("Field", "The quick brown fox"));
+        assertTrue(new TextFilter("Field", "\"quick brown\"").apply(element));
+        assertTrue(new TextFilter("Field", "\"Quick Brown\"~2").apply(element));
+        assertFalse(new TextFilter("Field", "\"brown quick\"").apply(element));
+    }
+
+    @Test
+    public void testApplyProximityPhrase() {
+        Pair<NitriteId, Document> element = Pair.pair(NitriteId.newId(),
+            Document.createDocument("Field", "The quick, brown fox jumps over the lazy dog"));
+        assertTrue(new TextFilter("Field", "\"quick fox\"~1").apply(element));
+        assertFalse(new TextFilter("Field", "\"quick fox\"~0").apply(element));
+        assertTrue(new TextFilter("Field", "\"quick jumps\"~2").apply(element));
+        assertFalse(new TextFilter("Field", "\"quick over\"~2").apply(element));
+        assertFalse(new TextFilter("Field", "\"fox quick\"~5").apply(element));
+        assertTrue(new TextFilter("Field", "\"the dog\"~1").apply(element));
+        assertTrue(new TextFilter("Field", "\"quick fox\"~1 \"lazy dog\"").apply(element));
+        assertFalse(new TextFilter("Field", "\"quick fox\"~1 \"dog lazy\"").apply(element));
+    }
+}
@@ -18,9 +18,13 @@
 package org.dizitart.no2.index;
 
 import org.dizitart.no2.collection.NitriteId;
+import org.dizitart.no2.common.DBNull;
 import org.dizitart.no2.store.memory.InMemoryMap;
+import org.dizitart.no2.store.memory.InMemoryStore;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.TreeMap;
 import java.util.concurrent.CopyOnWriteArrayList;
@@ -52,5 +56,48 @@ public class IndexMapTest {
         assertTrue(inMemoryMap.isEmpty());
         assertNull(inMemoryMap.getStore());
     }
-}
 
+    @Test
+    public void testHasMoreKeysThan() {
+        InMemoryMap<DBValue, Object> inMemoryMap = new InMemoryMap<>("Map Name", new InMemoryStore());
+        inMemoryMap.put(DBNull.getInstance(), "null");
+        inMemoryMap.put(new DBValue(2), "two");
+        inMemoryMap.put(new DBValue(1), "one");
+
+        IndexMap indexMap = new IndexMap(inMemoryMap);
+        assertTrue(indexMap.hasMoreKeysThan(0));
+        assertTrue(indexMap.hasMoreKeysThan(2));
+        assertFalse(indexMap.hasMoreKeysThan(3));
+
+        TreeMap<DBValue, Object> treeMap = new TreeMap<>();
+        treeMap.put(new DBValue("b"), "b");
+        treeMap.put(new DBValue("a"), "a");
+        indexMap = new IndexMap(treeMap);
+        assertTrue(indexMap.hasMoreKeysThan(1));
+        assertFalse(indexMap.hasMoreKeysThan(2));
+        assertFalse(new IndexMap(new TreeMap<>()).hasMoreKeysThan(0));
+    }
+
+    @Test
+    public void testValuesExcept() {
+        InMemoryMap<DBValue, Object> inMemoryMap = new InMemoryMap<>("Map Name", new InMemoryStore());
+        inMemoryMap.put(DBNull.getInstance(), "null");
+        inMemoryMap.put(new DBValue(1), "one");
+        inMemoryMap.put(new DBValue(2), "two");
+        inMemoryMap.put(new DBValue(3), "three");
+
+        IndexMap indexMap = new IndexMap(inMemoryMap);
+        assertEquals(Arrays.asList("null", "one", "three"), indexMap.valuesExcept(Collections.singletonList(2)));
+        assertEquals(Arrays.asList("one", "three"), indexMap.valuesExcept(Arrays.asList(null, 2, 5)));
+        assertEquals(Arrays.asList("null", "one", "two", "three"),
+            indexMap.valuesExcept(Collections.emptyList()));
+
+        TreeMap<DBValue, Object> treeMap = new TreeMap<>();
+        treeMap.put(new DBValue("a"), "a");
+        treeMap.put(new DBValue("b"), "b");
+        treeMap.put(new DBValue("c"), "c");
+        indexMap = new IndexMap(treeMap);
+        indexMap.setReverseScan(true);
+        assertEquals(Arrays.asList("c", "a"), indexMap.valuesExcept(Collections.singletonList("b")));
+    }
+}
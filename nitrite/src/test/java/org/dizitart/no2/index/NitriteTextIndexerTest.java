@@ -95,9 +95,10 @@ public class NitriteTextIndexerTest {
         NitriteConfig nitriteConfig = mock(NitriteConfig.class);
         doReturn(new InMemoryStore()).when(nitriteConfig).getNitriteStore();
         nitriteTextIndexer.dropIndex(indexDescriptor, nitriteConfig);
-        verify(indexDescriptor).getIndexType();
-        verify(indexDescriptor).getIndexFields();
-        verify(indexDescriptor).getCollectionName();
+        // the map names are derived to look up an existing scored text index first
+        verify(indexDescriptor, times(2)).getIndexType();
+        verify(indexDescriptor, times(2)).getIndexFields();
+        verify(indexDescriptor, times(2)).getCollectionName();
         verify(nitriteConfig).getNitriteStore();
     }
 
@@ -0,0 +1,328 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.dizitart.no2.index;
+
+import org.dizitart.no2.collection.FindPlan;
+import org.dizitart.no2.collection.NitriteId;
+import org.dizitart.no2.common.FieldValues;
+import org.dizitart.no2.common.Fields;
+import org.dizitart.no2.common.tuples.Pair;
+import org.dizitart.no2.exceptions.FilterException;
+import org.dizitart.no2.exceptions.IndexingException;
+import org.dizitart.no2.filters.ComparableFilter;
+import org.dizitart.no2.filters.IndexScanFilter;
+import org.dizitart.no2.index.fulltext.EnglishTextTokenizer;
+import org.dizitart.no2.store.memory.InMemoryStore;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.dizitart.no2.filters.FluentFilter.where;
+import static org.junit.Assert.*;
+
+public class ScoredTextIndexTest {
+    private InMemoryStore store;
+    private IndexDescriptor indexDescriptor;
+    private ScoredTextIndex textIndex;
+
+    @Before
+    public void setUp() {
+        store = new InMemoryStore();
+        indexDescriptor = new IndexDescriptor(IndexType.FULL_TEXT, Fields.withNames("text"), "test");
+        textIndex = new ScoredTextIndex(new EnglishTextTokenizer(), indexDescriptor, store);
+    }
+
+    @Test
+    public void testFindNitriteIdsWithoutFilter() {
+        assertTrue(textIndex.findNitriteIds(new FindPlan()).isEmpty());
+        assertFalse(ScoredTextIndex.exists(indexDescriptor, store));
+    }
+
+    @Test
+    public void testRankByTermFrequency() {
+        NitriteId once = write("a red apple on a green tree");
+        NitriteId twice = write("red apple and red cherry on a tree");
+        NitriteId none = write("a green pear");
+
+        assertTrue(ScoredTextIndex.exists(indexDescriptor, store));
+        assertEquals(Arrays.asList(twice, once), find("red"));
+        assertEquals(Collections.singletonList(none), find("pear"));
+        assertTrue(find("banana").isEmpty());
+    }
+
+    @Test
+    public void testRankByDocumentLength() {
+        NitriteId longer = write("red apple with a long description of the taste and the color");
+        NitriteId shorter = write("red apple");
+
+        assertEquals(Arrays.asList(shorter, longer), find("apple"));
+    }
+
+    @Test
+    public void testRankByRareTerms() {
+        NitriteId common = write("apple fruit");
+        NitriteId rare = write("apple quince");
+        write("apple tree");
+        write("apple juice");
+
+        // quince appears in one document, apple in all of them
+        assertEquals(rare, find("apple quince").get(0));
+        assertEquals(4, find("apple quince").size());
+        assertTrue(find("apple quince").contains(common));
+    }
+
+    @Test
+    public void testWildCards() {
+        NitriteId first = write("colorful painting");
+        NitriteId second = write("discolored wall");
+        NitriteId third = write("watercolor");
+
+        assertEquals(Collections.singletonList(first), find("color*"));
+        assertEquals(Collections.singletonList(third), find("*color"));
+        assertEquals(3, find("*color*").size());
+        assertEquals(Collections.singletonList(second), find("*wal*"));
+        assertTrue(find("*xyz*").isEmpty());
+    }
+
+    @Test(expected = FilterException.class)
+    public void testInvalidWildCard() {
+        write("colorful painting");
+        find("*");
+    }
+
+    @Test(expected = FilterException.class)
+    public void testMultipleWordsWithWildCard() {
+        write("colorful painting");
+        find("color* paint*");
+    }
+
+    @Test
+    public void testFuzzy() {
+        NitriteId color = write("color");
+        NitriteId colour = write("colour");
+        write("cooler");
+
+        assertEquals(Collections.singletonList(color), find("colr~1"));
+        assertEquals(Arrays.asList(colour, color), find("colour~1"));
+        assertEquals(Collections.singletonList(colour), find("colour~0"));
+        assertEquals(2, find("colour~").size());
+        assertEquals(3, find("colr~").size());
+        assertEquals(color, find("colr~").get(0));
+    }
+
+    @Test
+    public void testPhrase() {
+        NitriteId first = write("the quick brown fox jumps");
+        NitriteId second = write("brown quick fox");
+        NitriteId third = write("quick red brown fox");
+
+        assertEquals(Collections.singletonList(first), find("\"quick brown\""));
+        assertEquals(Collections.singletonList(first), find("\"quick brown fox\""));
+        assertEquals(Collections.singletonList(second), find("\"quick fox\""));
+        assertTrue(find("\"fox quick\"").isEmpty());
+        assertTrue(find("\"quick banana\"").isEmpty());
+
+        // a leading stop word does not restrict the phrase
+        assertEquals(3, find("\"the quick\"").size());
+        assertTrue(find("\"quick the red\"").isEmpty());
+        assertEquals(Collections.singletonList(third), find("\"quick the red\"~1"));
+    }
+
+    @Test
+    public void testProximityPhrase() {
+        NitriteId first = write("the quick brown fox jumps");
+        NitriteId second = write("brown quick fox");
+        NitriteId third = write("quick red brown fox");
+
+        assertEquals(new HashSet<>(Arrays.asList(first, second)), new HashSet<>(find("\"quick fox\"~1")));
+        assertEquals(new HashSet<>(Arrays.asList(first, second, third)), new HashSet<>(find("\"quick fox\"~2")));
+        assertEquals(Collections.singletonList(second), find("\"quick fox\"~0"));
+
+        // the order of the terms still matters
+        assertTrue(find("\"fox quick\"~5").isEmpty());
+    }
+
+    @Test
+    public void testPhraseWithRepeatedTerms() {
+        NitriteId id = write("blue blue sky");
+        write("blue ocean and sky");
+
+        assertEquals(Collections.singletonList(id), find("\"blue sky\""));
+        assertEquals(Collections.singletonList(id), find("\"blue blue\""));
+        assertEquals(Collections.singletonList(id), find("\"blue blue sky\""));
+        assertEquals(2, find("\"blue sky\"~2").size());
+    }
+
+    @Test
+    public void testPhraseWithStopWords() {
+        NitriteId id = write("the apple of the orchard");
+
+        // the stop words keep their positions
+        assertTrue(find("\"apple orchard\"").isEmpty());
+        assertEquals(Collections.singletonList(id), find("\"apple orchard\"~2"));
+        assertEquals(Collections.singletonList(id), find("\"apple of the orchard\""));
+        assertEquals(Collections.singletonList(id), find("\"apple in an orchard\""));
+        assertTrue(find("\"apple of orchard\"").isEmpty());
+    }
+
+    @Test
+    public void testPhraseWithTerms() {
+        NitriteId first = write("the quick brown fox jumps");
+        write("brown quick fox");
+        NitriteId third = write("quick red brown fox");
+
+        // all phrases must match, the other terms only change the rank
+        assertEquals(Arrays.asList(third, first), find("\"brown fox\" red"));
+        assertEquals(Collections.singletonList(first), find("\"quick brown\" \"brown fox\""));
+        assertEquals(Collections.singletonList(first), find("\"quick brown\" banana"));
+        assertTrue(find("\"quick brown\" \"red brown\"").isEmpty());
+    }
+
+    @Test
+    public void testPhraseOnArrayValues() {
+        NitriteId id = NitriteId.newId();
+        textIndex.write(fieldValues(id, Arrays.asList("red apple", "green pear")));
+
+        assertEquals(Collections.singletonList(id), find("\"red apple\""));
+        assertEquals(Collections.singletonList(id), find("\"green pear\""));
+        assertTrue(find("\"apple green\"").isEmpty());
+    }
+
+    @Test
+    public void testPhraseAfterRemove() {
+        NitriteId first = write("red apple");
+        NitriteId second = write("red apple pie");
+
+        textIndex.remove(fieldValues(first, "red apple"));
+        assertEquals(Collections.singletonList(second), find("\"red apple\""));
+    }
+
+    @Test
+    public void testTopResults() {
+        List<NitriteId> ids = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            StringBuilder text = new StringBuilder("apple");
+            for (int j = 0; j < i; j++) {
+                text.append(" apple");
+            }
+            ids.add(write(text.append(" pie").toString()));
+        }
+        Collections.reverse(ids);
+
+        FindPlan findPlan = findPlan("apple");
+        findPlan.setLimit(3L);
+        assertEquals(ids.subList(0, 3), new ArrayList<>(textIndex.findNitriteIds(findPlan)));
+
+        findPlan.setSkip(2L);
+        assertEquals(ids.subList(0, 5), new ArrayList<>(textIndex.findNitriteIds(findPlan)));
+
+        // a collection scan filter must see all results
+        findPlan.setCollectionScanFilter(where("text").eq("apple pie"));
+        assertEquals(ids, new ArrayList<>(textIndex.findNitriteIds(findPlan)));
+    }
+
+    @Test
+    public void testRemove() {
+        NitriteId first = write("red apple");
+        NitriteId second = write("red cherry");
+
+        textIndex.remove(fieldValues(first, "red apple"));
+        assertEquals(Collections.singletonList(second), find("red"));
+        assertTrue(find("apple").isEmpty());
+        assertTrue(find("app*").isEmpty());
+
+        // removing an unknown document does not change the index
+        textIndex.remove(fieldValues(NitriteId.newId(), "red cherry"));
+        assertEquals(Collections.singletonList(second), find("cherry"));
+    }
+
+    @Test
+    public void testDictionaryFollowsWrites() {
+        write("red apple");
+        assertEquals(1, find("app*").size());
+
+        NitriteId second = write("apricot jam");
+        assertEquals(2, find("ap*").size());
+
+        textIndex.remove(fieldValues(second, "apricot jam"));
+        assertEquals(1, find("ap*").size());
+    }
+
+    @Test
+    public void testArrayValues() {
+        NitriteId id = NitriteId.newId();
+        textIndex.write(fieldValues(id, Arrays.asList("red apple", "green apple")));
+        textIndex.write(fieldValues(NitriteId.newId(), new String[]{"green pear"}));
+
+        assertEquals(Collections.singletonList(id), find("apple"));
+        assertEquals(2, find("green").size());
+    }
+
+    @Test(expected = IndexingException.class)
+    public void testNonStringValue() {
+        textIndex.write(fieldValues(NitriteId.newId(), 42));
+    }
+
+    @Test
+    public void testDrop() {
+        write("red apple");
+        assertEquals(1, find("app*").size());
+
+        textIndex.drop();
+        assertFalse(ScoredTextIndex.exists(indexDescriptor, store));
+        assertTrue(find("app*").isEmpty());
+        assertTrue(find("apple").isEmpty());
+    }
+
+    @Test(timeout = 30000)
+    public void testManyDocumentsWithCommonTerm() {
+        // a write must not copy the postings of its terms
+        for (int i = 0; i < 20000; i++) {
+            write("common term " + i);
+        }
+        assertEquals(20000, find("common").size());
+    }
+
+    private NitriteId write(String text) {
+        NitriteId id = NitriteId.newId();
+        textIndex.write(fieldValues(id, text));
+        return id;
+    }
+
+    private List<NitriteId> find(String searchString) {
+        return new ArrayList<>(textIndex.findNitriteIds(findPlan(searchString)));
+    }
+
+    private static FindPlan findPlan(String searchString) {
+        FindPlan findPlan = new FindPlan();
+        ComparableFilter filter = (ComparableFilter) where("text").text(searchString);
+        findPlan.setIndexScanFilter(new IndexScanFilter(Collections.singletonList(filter)));
+        return findPlan;
+    }
+
+    private static FieldValues fieldValues(NitriteId id, Object value) {
+        FieldValues fieldValues = new FieldValues();
+        fieldValues.setNitriteId(id);
+        fieldValues.getValues().add(Pair.pair("text", value));
+        return fieldValues;
+    }
+}
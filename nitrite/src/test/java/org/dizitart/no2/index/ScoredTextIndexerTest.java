@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.dizitart.no2.index;
+
+import org.dizitart.no2.NitriteConfig;
+import org.dizitart.no2.collection.FindPlan;
+import org.dizitart.no2.collection.NitriteId;
+import org.dizitart.no2.common.FieldValues;
+import org.dizitart.no2.common.Fields;
+import org.dizitart.no2.common.tuples.Pair;
+import org.dizitart.no2.filters.ComparableFilter;
+import org.dizitart.no2.filters.IndexScanFilter;
+import org.dizitart.no2.index.fulltext.EnglishTextTokenizer;
+import org.dizitart.no2.store.NitriteStore;
+import org.dizitart.no2.store.memory.InMemoryStore;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.dizitart.no2.common.util.IndexUtils.deriveIndexMapName;
+import static org.dizitart.no2.filters.FluentFilter.where;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ScoredTextIndexerTest {
+    private NitriteStore<?> store;
+    private NitriteConfig nitriteConfig;
+    private IndexDescriptor indexDescriptor;
+
+    @Before
+    public void setUp() {
+        store = new InMemoryStore();
+        nitriteConfig = mock(NitriteConfig.class);
+        when(nitriteConfig.getNitriteStore()).then(invocation -> store);
+        indexDescriptor = new IndexDescriptor(IndexType.FULL_TEXT, Fields.withNames("text"), "test");
+    }
+
+    @Test
+    public void testGetIndexType() {
+        assertEquals(IndexType.FULL_TEXT, new ScoredTextIndexer().getIndexType());
+        assertEquals(IndexType.FULL_TEXT, new ScoredTextIndexer(new EnglishTextTokenizer()).getIndexType());
+    }
+
+    @Test
+    public void testCreatesScoredIndex() {
+        ScoredTextIndexer indexer = new ScoredTextIndexer();
+        indexer.writeIndexEntry(fieldValues("red apple"), indexDescriptor, nitriteConfig);
+
+        assertTrue(ScoredTextIndex.exists(indexDescriptor, store));
+        assertFalse(store.hasMap(deriveIndexMapName(indexDescriptor)));
+        assertEquals(1, indexer.findByFilter(findPlan("apple"), nitriteConfig).size());
+    }
+
+    @Test
+    public void testKeepsExistingTextIndex() {
+        new NitriteTextIndexer().writeIndexEntry(fieldValues("red apple"), indexDescriptor, nitriteConfig);
+
+        ScoredTextIndexer indexer = new ScoredTextIndexer();
+        indexer.writeIndexEntry(fieldValues("green apple"), indexDescriptor, nitriteConfig);
+        assertFalse(ScoredTextIndex.exists(indexDescriptor, store));
+        assertEquals(2, indexer.findByFilter(findPlan("apple"), nitriteConfig).size());
+
+        // a rebuild drops the index and creates the scored one
+        indexer.dropIndex(indexDescriptor, nitriteConfig);
+        indexer.writeIndexEntry(fieldValues("green apple"), indexDescriptor, nitriteConfig);
+        assertTrue(ScoredTextIndex.exists(indexDescriptor, store));
+        assertEquals(1, indexer.findByFilter(findPlan("apple"), nitriteConfig).size());
+    }
+
+    @Test
+    public void testDefaultIndexerOpensScoredIndex() {
+        new ScoredTextIndexer().writeIndexEntry(fieldValues("red apple"), indexDescriptor, nitriteConfig);
+
+        NitriteTextIndexer indexer = new NitriteTextIndexer();
+        indexer.writeIndexEntry(fieldValues("green apple"), indexDescriptor, nitriteConfig);
+        assertFalse(store.hasMap(deriveIndexMapName(indexDescriptor)));
+        assertEquals(2, indexer.findByFilter(findPlan("apple"), nitriteConfig).size());
+    }
+
+    private FindPlan findPlan(String searchString) {
+        FindPlan findPlan = new FindPlan();
+        findPlan.setIndexDescriptor(indexDescriptor);
+        ComparableFilter filter = (ComparableFilter) where("text").text(searchString);
+        findPlan.setIndexScanFilter(new IndexScanFilter(Collections.singletonList(filter)));
+        return findPlan;
+    }
+
+    private static FieldValues fieldValues(String text) {
+        FieldValues fieldValues = new FieldValues();
+        fieldValues.setNitriteId(NitriteId.newId());
+        fieldValues.getValues().add(Pair.pair("text", text));
+        return fieldValues;
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.dizitart.no2.index;
+
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class TermDictionaryTest {
+    private static TermDictionary createDictionary() {
+        TermDictionary dictionary = new TermDictionary();
+        for (String term : new String[]{"color", "colour", "colors", "cool", "discolor", "dolor", "red", "redcolor"}) {
+            dictionary.add(term);
+        }
+        return dictionary;
+    }
+
+    @Test
+    public void testWithPrefix() {
+        TermDictionary dictionary = createDictionary();
+        assertEquals(Arrays.asList("color", "colors", "colour"), dictionary.withPrefix("col"));
+        assertEquals(Arrays.asList("red", "redcolor"), dictionary.withPrefix("red"));
+        assertTrue(dictionary.withPrefix("x").isEmpty());
+    }
+
+    @Test
+    public void testWithSuffix() {
+        TermDictionary dictionary = createDictionary();
+        assertEquals(new HashSet<>(Arrays.asList("color", "discolor", "dolor", "redcolor")),
+            new HashSet<>(dictionary.withSuffix("olor")));
+        assertEquals(Collections.singletonList("colour"), dictionary.withSuffix("our"));
+        assertTrue(dictionary.withSuffix("xyz").isEmpty());
+    }
+
+    @Test
+    public void testContaining() {
+        TermDictionary dictionary = createDictionary();
+        assertEquals(new HashSet<>(Arrays.asList("color", "colors", "discolor", "redcolor")),
+            new HashSet<>(dictionary.containing("color")));
+        assertEquals(Collections.singletonList("colour"), dictionary.containing("ou"));
+        assertEquals(new HashSet<>(Arrays.asList("red", "redcolor")), new HashSet<>(dictionary.containing("ed")));
+        assertTrue(dictionary.containing("xyz").isEmpty());
+    }
+
+    @Test
+    public void testSimilarTo() {
+        TermDictionary dictionary = createDictionary();
+        Map<String, Integer> similar = dictionary.similarTo("colr", 1);
+        assertEquals(Integer.valueOf(1), similar.get("color"));
+        assertEquals(1, similar.size());
+
+        similar = dictionary.similarTo("colour", 2);
+        assertEquals(Integer.valueOf(0), similar.get("colour"));
+        assertEquals(Integer.valueOf(1), similar.get("color"));
+        assertEquals(Integer.valueOf(2), similar.get("colors"));
+        assertFalse(similar.containsKey("cool"));
+
+        assertTrue(dictionary.similarTo("blue", 1).isEmpty());
+        assertEquals(Integer.valueOf(1), dictionary.similarTo("rad", 1).get("red"));
+    }
+
+    @Test
+    public void testRemove() {
+        TermDictionary dictionary = createDictionary();
+        dictionary.remove("color");
+        dictionary.remove("unknown");
+        assertEquals(7, dictionary.size());
+        assertEquals(Arrays.asList("colors", "colour"), dictionary.withPrefix("col"));
+        assertFalse(dictionary.withSuffix("olor").contains("color"));
+        assertFalse(dictionary.containing("olo").contains("color"));
+        assertFalse(dictionary.similarTo("colr", 1).containsKey("color"));
+
+        dictionary.clear();
+        assertEquals(0, dictionary.size());
+        assertTrue(dictionary.containing("o").isEmpty());
+    }
+
+    @Test
+    public void testEditDistance() {
+        assertEquals(0, TermDictionary.editDistance("color", "color", 2));
+        assertEquals(1, TermDictionary.editDistance("color", "colour", 2));
+        assertEquals(2, TermDictionary.editDistance("kitten", "sittin", 2));
+        assertEquals(3, TermDictionary.editDistance("kitten", "sitting", 2));
+        assertEquals(2, TermDictionary.editDistance("", "ab", 2));
+    }
+}
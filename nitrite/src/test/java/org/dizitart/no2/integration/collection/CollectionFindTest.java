@@ -335,6 +335,32 @@ public class CollectionFindTest extends BaseCollectionTest {
         assertEquals(cursor.size(), 3);
     }
 
+    @Test
+    public void testFindByPrefixOnIndex() {
+        NitriteCollection products = db.getCollection("products");
+        products.createIndex(IndexOptions.indexOptions(IndexType.NON_UNIQUE), "sku");
+        for (String sku : new String[]{"ABB-1", "ABC-1", "ABC-10", "ABC-2", "ABC-X", "ABD-1", "XABC-1"}) {
+            products.insert(createDocument("sku", sku));
+        }
+
+        DocumentCursor cursor = products.find(where("sku").startsWith("ABC-"));
+        assertNotNull(cursor.getFindPlan().getIndexScanFilter());
+        assertEquals(4, cursor.size());
+
+        cursor = products.find(where("sku").regex("^ABC-\\d+$"),
+            orderBy("sku", SortOrder.Descending));
+        assertNotNull(cursor.getFindPlan().getIndexScanFilter());
+        assertNotNull(cursor.getFindPlan().getCollectionScanFilter());
+        List<String> skus = cursor.toList().stream()
+            .map(document -> document.get("sku", String.class))
+            .collect(Collectors.toList());
+        assertEquals(Arrays.asList("ABC-2", "ABC-10", "ABC-1"), skus);
+
+        cursor = products.find(where("sku").regex("ABC-"));
+        assertNull(cursor.getFindPlan().getIndexScanFilter());
+        assertEquals(5, cursor.size());
+    }
+
     @Test
     public void testProject() {
         insert();
@@ -806,4 +832,45 @@ public class CollectionFindTest extends BaseCollectionTest {
         result = collection.find(or(byId(nitriteId), where("tag").eq(document.get("tag")))).firstOrNull();
         assertEquals(document, result);
     }
+
+    @Test
+    public void testFindWithParallelScan() {
+        for (int i = 0; i < 500; i++) {
+            collection.insert(createDocument("serial", i).put("group", i % 5));
+        }
+
+        List<Document> sequential = collection.find(where("group").eq(3)).toList();
+        List<Document> parallel = collection.find(where("group").eq(3), parallelScan(4)).toList();
+        assertEquals(100, parallel.size());
+        assertEquals(new HashSet<>(sequential), new HashSet<>(parallel));
+
+        // sorting and paging keep the result of a sequential scan
+        DocumentCursor cursor = collection.find(where("serial").gte(100),
+            orderBy("serial", SortOrder.Descending).skip(10).limit(20).parallelism(4));
+        List<Document> page = cursor.toList();
+        assertEquals(20, page.size());
+        assertEquals(489, page.get(0).get("serial"));
+        assertEquals(470, page.get(19).get("serial"));
+
+        // or filters scan their sub plans in parallel
+        cursor = collection.find(or(where("group").eq(1), where("serial").lt(10)), parallelScan(4));
+        assertEquals(108, cursor.size());
+    }
+
+    @Test
+    public void testFindAsStream() {
+        for (int i = 0; i < 500; i++) {
+            collection.insert(createDocument("serial", i).put("group", i % 5));
+        }
+
+        List<Integer> sequential = collection.find(where("group").eq(3)).stream()
+            .map(document -> document.get("serial", Integer.class)).collect(Collectors.toList());
+        List<Integer> parallel = collection.find(where("group").eq(3)).parallelStream()
+            .map(document -> document.get("serial", Integer.class)).collect(Collectors.toList());
+        assertEquals(100, parallel.size());
+        assertEquals(sequential, parallel);
+
+        long count = collection.find().parallelStream().filter(document -> document.containsKey("serial")).count();
+        assertEquals(500, count);
+    }
 }
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.dizitart.no2.integration.collection;
+
+import org.dizitart.no2.Nitrite;
+import org.dizitart.no2.collection.Document;
+import org.dizitart.no2.collection.NitriteCollection;
+import org.dizitart.no2.index.ScoredTextIndexer;
+import org.dizitart.no2.transaction.Session;
+import org.dizitart.no2.transaction.Transaction;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.dizitart.no2.collection.Document.createDocument;
+import static org.dizitart.no2.collection.FindOptions.limitBy;
+import static org.dizitart.no2.common.module.NitriteModule.module;
+import static org.dizitart.no2.filters.FluentFilter.where;
+import static org.dizitart.no2.index.IndexOptions.indexOptions;
+import static org.dizitart.no2.index.IndexType.FULL_TEXT;
+import static org.junit.Assert.*;
+
+/**
+ * @author Anindya Chatterjee
+ */
+public class CollectionScoredTextIndexTest {
+    private Nitrite db;
+    private NitriteCollection collection;
+
+    @Before
+    public void setUp() {
+        db = Nitrite.builder()
+            .loadModule(module(new ScoredTextIndexer()))
+            .fieldSeparator(".")
+            .openOrCreate();
+
+        collection = db.getCollection("products");
+        collection.createIndex(indexOptions(FULL_TEXT), "description");
+        collection.insert(createDocument("sku", 1).put("description", "red apple from the orchard"));
+        collection.insert(createDocument("sku", 2).put("description", "red red apple, a very red apple"));
+        collection.insert(createDocument("sku", 3).put("description", "green pear"));
+        collection.insert(createDocument("sku", 4).put("description", "pineapple juice"));
+    }
+
+    @After
+    public void tearDown() {
+        if (db != null && !db.isClosed()) {
+            db.close();
+        }
+    }
+
+    @Test
+    public void testRankedSearch() {
+        assertEquals(2, collection.find(where("description").text("apple")).size());
+        assertEquals(2, skus(collection.find(where("description").text("red apple")).toList()).get(0).intValue());
+        assertEquals(1, collection.find(where("description").text("pear")).size());
+    }
+
+    @Test
+    public void testTopResults() {
+        List<Integer> skus = skus(collection.find(where("description").text("red"), limitBy(1)).toList());
+        assertEquals(1, skus.size());
+        assertEquals(2, skus.get(0).intValue());
+    }
+
+    @Test
+    public void testWildCardAndFuzzySearch() {
+        assertEquals(3, collection.find(where("description").text("*apple")).size());
+        assertEquals(2, collection.find(where("description").text("app*")).size());
+        assertEquals(1, collection.find(where("description").text("*eappl*")).size());
+        assertEquals(2, collection.find(where("description").text("appel~")).size());
+        assertEquals(1, collection.find(where("description").text("peer~1")).size());
+    }
+
+    @Test
+    public void testPhraseSearch() {
+        List<Integer> skus = skus(collection.find(where("description").text("\"red apple\"")).toList());
+        assertEquals(2, skus.size());
+        assertEquals(2, skus.get(0).intValue());
+
+        assertEquals(0, collection.find(where("description").text("\"apple red\"")).size());
+        // the stop words between the terms are counted
+        assertEquals(0, collection.find(where("description").text("\"apple red\"~1")).size());
+        assertEquals(1, collection.find(where("description").text("\"apple red\"~2")).size());
+
+        // the other terms only change the rank
+        skus = skus(collection.find(where("description").text("\"red apple\" orchard")).toList());
+        assertEquals(2, skus.size());
+        assertEquals(1, skus.get(0).intValue());
+
+        assertEquals(1, collection.find(where("description").text("\"green pear\"")).size());
+    }
+
+    @Test
+    public void testUpdateAndRemove() {
+        collection.update(where("sku").eq(3), createDocument("description", "green apple"));
+        assertEquals(3, collection.find(where("description").text("apple")).size());
+        assertEquals(0, collection.find(where("description").text("pear")).size());
+
+        collection.remove(where("sku").eq(1));
+        assertEquals(2, collection.find(where("description").text("apple")).size());
+        assertEquals(0, collection.find(where("description").text("orchard")).size());
+    }
+
+    @Test
+    public void testRebuildIndex() {
+        collection.rebuildIndex("description");
+        assertEquals(2, collection.find(where("description").text("apple")).size());
+        assertEquals(3, collection.find(where("description").text("*apple")).size());
+    }
+
+    @Test
+    public void testTransactionRollback() {
+        try (Session session = db.createSession()) {
+            Transaction transaction = session.beginTransaction();
+            NitriteCollection txCol = transaction.getCollection("products");
+            txCol.insert(createDocument("sku", 5).put("description", "green apple"));
+            txCol.remove(where("sku").eq(1));
+            assertEquals(2, txCol.find(where("description").text("apple")).size());
+
+            // the postings of the collection are not changed before commit
+            List<Integer> skus = skus(collection.find(where("description").text("apple")).toList());
+            assertEquals(2, skus.size());
+            assertTrue(skus.contains(1));
+            assertFalse(skus.contains(5));
+
+            transaction.rollback();
+        }
+
+        List<Integer> skus = skus(collection.find(where("description").text("apple")).toList());
+        assertEquals(2, skus.size());
+        assertTrue(skus.contains(1));
+        assertTrue(skus.contains(2));
+    }
+
+    private static List<Integer> skus(List<Document> documents) {
+        return documents.stream().map(document -> document.get("sku", Integer.class)).collect(Collectors.toList());
+    }
+}
@@ -23,6 +23,11 @@ import org.dizitart.no2.integration.repository.data.Employee;
 import org.junit.Test;
 
 import java.util.AbstractCollection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.dizitart.no2.filters.FluentFilter.where;
+import static org.junit.Assert.assertEquals;
 
 /**
  * @author Anindya Chatterjee
@@ -52,4 +57,21 @@ public class ObjectCursorTest extends BaseObjectRepositoryTest {
         Cursor<Employee> cursor = employeeRepository.find();
         cursor.project(AbstractCollection.class);
     }
+
+    @Test
+    public void testStream() {
+        List<Long> ids = employeeRepository.find().stream()
+            .map(Employee::getEmpId).sorted().collect(Collectors.toList());
+        assertEquals(10, ids.size());
+        assertEquals(1L, ids.get(0).longValue());
+
+        long sum = employeeRepository.find().parallelStream().mapToLong(Employee::getEmpId).sum();
+        assertEquals(55, sum);
+
+        // index scan splits the posting list
+        List<Long> selected = employeeRepository.find(where("empId").gt(5L)).parallelStream()
+            .map(Employee::getEmpId).sorted().collect(Collectors.toList());
+        assertEquals(5, selected.size());
+        assertEquals(6L, selected.get(0).longValue());
+    }
 }
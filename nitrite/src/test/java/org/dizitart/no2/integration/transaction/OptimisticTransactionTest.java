@@ -0,0 +1,387 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.dizitart.no2.integration.transaction;
+
+import org.dizitart.no2.Nitrite;
+import org.dizitart.no2.collection.Document;
+import org.dizitart.no2.collection.NitriteCollection;
+import org.dizitart.no2.collection.NitriteId;
+import org.dizitart.no2.exceptions.TransactionException;
+import org.dizitart.no2.index.IndexType;
+import org.dizitart.no2.transaction.Session;
+import org.dizitart.no2.transaction.State;
+import org.dizitart.no2.transaction.Transaction;
+import org.dizitart.no2.transaction.TransactionMode;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.dizitart.no2.collection.Document.createDocument;
+import static org.dizitart.no2.filters.FluentFilter.where;
+import static org.junit.Assert.*;
+
+/**
+ * @author Anindya Chatterjee
+ */
+public class OptimisticTransactionTest {
+    private Nitrite db;
+    private NitriteCollection collection;
+
+    @Before
+    public void setUp() {
+        db = Nitrite.builder().fieldSeparator(".").openOrCreate();
+        collection = db.getCollection("test");
+    }
+
+    @After
+    public void tearDown() {
+        if (db != null && !db.isClosed()) {
+            db.close();
+        }
+    }
+
+    @Test
+    public void testCommitInsert() {
+        try (Session session = db.createSession()) {
+            Transaction transaction = session.beginTransaction(TransactionMode.Optimistic);
+            NitriteCollection txCol = transaction.getCollection("test");
+
+            txCol.insert(createDocument("firstName", "John"));
+            assertEquals(1, txCol.find(where("firstName").eq("John")).size());
+            assertEquals(0, collection.find(where("firstName").eq("John")).size());
+
+            transaction.commit();
+            assertEquals(State.Closed, transaction.getState());
+            assertEquals(1, collection.find(where("firstName").eq("John")).size());
+        }
+    }
+
+    @Test
+    public void testCommitUpdateAndRemove() {
+        Document john = createDocument("firstName", "John").put("lastName", "Doe");
+        Document jane = createDocument("firstName", "Jane").put("lastName", "Doe");
+        insert(john, jane);
+
+        try (Session session = db.createSession()) {
+            Transaction transaction = session.beginTransaction(TransactionMode.Optimistic);
+            NitriteCollection txCol = transaction.getCollection("test");
+
+            txCol.update(where("firstName").eq("John"), createDocument("lastName", "Smith"));
+            txCol.remove(where("firstName").eq("Jane"));
+            assertEquals(2, collection.size());
+
+            transaction.commit();
+        }
+
+        assertEquals(1, collection.size());
+        Document document = collection.getById(john.getId());
+        assertEquals("Smith", document.get("lastName"));
+        assertEquals(2, (int) document.getRevision());
+        assertNull(collection.getById(jane.getId()));
+    }
+
+    @Test
+    public void testCommitRemovedField() {
+        Document john = createDocument("firstName", "John").put("lastName", "Doe");
+        insert(john);
+
+        try (Session session = db.createSession()) {
+            Transaction transaction = session.beginTransaction(TransactionMode.Optimistic);
+            NitriteCollection txCol = transaction.getCollection("test");
+
+            Document document = txCol.getById(john.getId()).clone();
+            document.remove("lastName");
+            txCol.remove(document);
+            txCol.insert(document);
+            transaction.commit();
+        }
+
+        Document document = collection.getById(john.getId());
+        assertEquals("John", document.get("firstName"));
+        assertFalse(document.containsKey("lastName"));
+    }
+
+    @Test
+    public void testCommitClear() {
+        collection.insert(createDocument("firstName", "John"), createDocument("firstName", "Jane"));
+
+        try (Session session = db.createSession()) {
+            Transaction transaction = session.beginTransaction(TransactionMode.Optimistic);
+            NitriteCollection txCol = transaction.getCollection("test");
+
+            txCol.clear();
+            txCol.insert(createDocument("firstName", "Jim"));
+            transaction.commit();
+        }
+
+        assertEquals(1, collection.size());
+        assertEquals(1, collection.find(where("firstName").eq("Jim")).size());
+    }
+
+    @Test
+    public void testCommitCreateIndex() {
+        try (Session session = db.createSession()) {
+            Transaction transaction = session.beginTransaction(TransactionMode.Optimistic);
+            NitriteCollection txCol = transaction.getCollection("test");
+
+            txCol.createIndex("firstName");
+            txCol.insert(createDocument("firstName", "John"));
+            assertFalse(collection.hasIndex("firstName"));
+
+            transaction.commit();
+        }
+
+        assertTrue(collection.hasIndex("firstName"));
+        assertEquals(1, collection.find(where("firstName").eq("John")).size());
+    }
+
+    @Test
+    public void testWriteWriteConflict() {
+        Document john = createDocument("firstName", "John").put("age", 30);
+        insert(john);
+
+        try (Session session = db.createSession()) {
+            Transaction tx1 = session.beginTransaction(TransactionMode.Optimistic);
+            Transaction tx2 = session.beginTransaction(TransactionMode.Optimistic);
+
+            tx1.getCollection("test").update(where("firstName").eq("John"), createDocument("age", 31));
+            tx2.getCollection("test").update(where("firstName").eq("John"), createDocument("age", 32));
+
+            tx1.commit();
+
+            boolean failed = false;
+            try {
+                tx2.commit();
+            } catch (TransactionException e) {
+                failed = true;
+                assertEquals(State.Failed, tx2.getState());
+                tx2.rollback();
+            }
+            assertTrue(failed);
+        }
+
+        assertEquals(31, (int) collection.getById(john.getId()).get("age", Integer.class));
+    }
+
+    @Test
+    public void testReadConflict() {
+        Document john = createDocument("firstName", "John").put("age", 30);
+        Document jane = createDocument("firstName", "Jane").put("age", 25);
+        insert(john, jane);
+
+        try (Session session = db.createSession()) {
+            Transaction tx1 = session.beginTransaction(TransactionMode.Optimistic);
+            NitriteCollection txCol = tx1.getCollection("test");
+
+            // decides on jane based on what it has read of john
+            Integer age = txCol.getById(john.getId()).get("age", Integer.class);
+            txCol.update(where("firstName").eq("Jane"), createDocument("age", age));
+
+            collection.update(where("firstName").eq("John"), createDocument("age", 40));
+
+            boolean failed = false;
+            try {
+                tx1.commit();
+            } catch (TransactionException e) {
+                failed = true;
+                tx1.rollback();
+            }
+            assertTrue(failed);
+        }
+
+        assertEquals(25, (int) collection.getById(jane.getId()).get("age", Integer.class));
+    }
+
+    @Test
+    public void testReadOfAbsentDocument() {
+        NitriteId nitriteId = NitriteId.newId();
+
+        try (Session session = db.createSession()) {
+            Transaction tx1 = session.beginTransaction(TransactionMode.Optimistic);
+            NitriteCollection txCol = tx1.getCollection("test");
+            assertNull(txCol.getById(nitriteId));
+            txCol.insert(createDocument("firstName", "John"));
+
+            Document document = createDocument("firstName", "Jane");
+            document.put("_id", nitriteId.getIdValue());
+            collection.insert(document);
+
+            boolean failed = false;
+            try {
+                tx1.commit();
+            } catch (TransactionException e) {
+                failed = true;
+                tx1.rollback();
+            }
+            assertTrue(failed);
+        }
+
+        assertEquals(1, collection.size());
+    }
+
+    @Test
+    public void testNonConflictingCommits() {
+        Document john = createDocument("firstName", "John").put("age", 30);
+        Document jane = createDocument("firstName", "Jane").put("age", 25);
+        insert(john, jane);
+
+        try (Session session = db.createSession()) {
+            Transaction tx1 = session.beginTransaction(TransactionMode.Optimistic);
+            Transaction tx2 = session.beginTransaction(TransactionMode.Optimistic);
+
+            tx1.getCollection("test").update(where("firstName").eq("John"), createDocument("age", 31));
+            tx2.getCollection("test").update(where("firstName").eq("Jane"), createDocument("age", 26));
+
+            tx2.commit();
+            tx1.commit();
+        }
+
+        assertEquals(31, (int) collection.getById(john.getId()).get("age", Integer.class));
+        assertEquals(26, (int) collection.getById(jane.getId()).get("age", Integer.class));
+    }
+
+    @Test
+    public void testMultiCollectionCommit() {
+        NitriteCollection other = db.getCollection("other");
+        other.createIndex(IndexType.UNIQUE, "name");
+
+        try (Session session = db.createSession()) {
+            Transaction transaction = session.beginTransaction(TransactionMode.Optimistic);
+            transaction.getCollection("test").insert(createDocument("firstName", "John"));
+            transaction.getCollection("other").insert(createDocument("name", "John"));
+            transaction.commit();
+        }
+
+        assertEquals(1, collection.size());
+        assertEquals(1, other.find(where("name").eq("John")).size());
+    }
+
+    @Test
+    public void testFailedCommitIsReverted() {
+        NitriteCollection a = db.getCollection("a");
+        NitriteCollection b = db.getCollection("b");
+        b.createIndex(IndexType.UNIQUE, "k");
+
+        Document john = createDocument("firstName", "John").put("age", 30);
+        Document jane = createDocument("firstName", "Jane").put("age", 25);
+        a.insert(john, jane);
+        Document storedJohn = a.getById(john.getId());
+
+        try (Session session = db.createSession()) {
+            Transaction transaction = session.beginTransaction(TransactionMode.Optimistic);
+            NitriteCollection txA = transaction.getCollection("a");
+            txA.insert(createDocument("firstName", "Jack"));
+            txA.update(where("firstName").eq("John"), createDocument("age", 31));
+            txA.remove(where("firstName").eq("Jane"));
+            transaction.getCollection("b").insert(createDocument("k", 7));
+
+            b.insert(createDocument("k", 7));
+
+            boolean failed = false;
+            try {
+                transaction.commit();
+            } catch (TransactionException e) {
+                failed = true;
+                assertEquals(State.Failed, transaction.getState());
+                transaction.rollback();
+            }
+            assertTrue(failed);
+        }
+
+        assertEquals(2, a.size());
+        assertEquals(0, a.find(where("firstName").eq("Jack")).size());
+        assertEquals(1, a.find(where("firstName").eq("Jane")).size());
+        assertEquals(storedJohn, a.getById(john.getId()));
+        assertEquals(1, b.size());
+    }
+
+    @Test
+    public void testRollback() {
+        collection.insert(createDocument("firstName", "John"));
+
+        try (Session session = db.createSession()) {
+            Transaction transaction = session.beginTransaction(TransactionMode.Optimistic);
+            NitriteCollection txCol = transaction.getCollection("test");
+            txCol.insert(createDocument("firstName", "Jane"));
+            txCol.remove(where("firstName").eq("John"));
+            transaction.rollback();
+            assertEquals(State.Closed, transaction.getState());
+        }
+
+        assertEquals(1, collection.size());
+        assertEquals(1, collection.find(where("firstName").eq("John")).size());
+    }
+
+    @Test
+    public void testConcurrentIncrements() throws Exception {
+        Document counter = createDocument("name", "counter").put("value", 0);
+        insert(counter);
+        NitriteId id = counter.getId();
+
+        int threads = 8;
+        int increments = 50;
+        AtomicInteger conflicts = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    Session session = db.createSession();
+                    int done = 0;
+                    while (done < increments) {
+                        Transaction transaction = session.beginTransaction(TransactionMode.Optimistic);
+                        try {
+                            NitriteCollection txCol = transaction.getCollection("test");
+                            Document document = txCol.getById(id).clone();
+                            document.put("value", document.get("value", Integer.class) + 1);
+                            txCol.update(document);
+                            transaction.commit();
+                            done++;
+                        } catch (TransactionException e) {
+                            conflicts.incrementAndGet();
+                            transaction.rollback();
+                        }
+                    }
+                    session.close();
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(2, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // no increment is lost, the conflicting ones have been retried
+        assertEquals(threads * increments, (int) collection.getById(id).get("value", Integer.class));
+        System.out.println("optimistic increments: " + threads * increments + ", conflicts retried: " + conflicts.get());
+    }
+
+    private void insert(Document... documents) {
+        for (Document document : documents) {
+            // generate the id on the document itself
+            document.getId();
+        }
+        collection.insert(documents);
+    }
+}
@@ -17,15 +17,39 @@
 
 package org.dizitart.no2.repository;
 
+import org.dizitart.no2.Nitrite;
 import org.dizitart.no2.NitriteConfig;
 import org.dizitart.no2.collection.CollectionFactory;
 import org.dizitart.no2.common.concurrent.LockService;
 import org.dizitart.no2.exceptions.ValidationException;
+import org.dizitart.no2.integration.repository.data.Employee;
+import org.junit.After;
+import org.junit.Before;
 import org.junit.Test;
 
-import static org.junit.Assert.assertThrows;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
 
 public class RepositoryFactoryTest {
+    private Nitrite db;
+
+    @Before
+    public void setUp() {
+        db = Nitrite.builder().openOrCreate();
+    }
+
+    @After
+    public void tearDown() {
+        if (db != null && !db.isClosed()) {
+            db.close();
+        }
+    }
 
     @Test
     public void testGetRepository() {
@@ -51,5 +75,85 @@ public class RepositoryFactoryTest {
         assertThrows(ValidationException.class,
             () -> repositoryFactory.getRepository(new NitriteConfig(), null, "Key"));
     }
-}
 
+    @Test
+    public void testGetOpenedRepository() {
+        RepositoryFactory repositoryFactory = new RepositoryFactory(new CollectionFactory(new LockService()));
+        ObjectRepository<Employee> repository = repositoryFactory.getRepository(db.getConfig(), Employee.class);
+        assertSame(repository, repositoryFactory.getRepository(db.getConfig(), Employee.class));
+        assertNotSame(repository, repositoryFactory.getRepository(db.getConfig(), Employee.class, "key"));
+    }
+
+    @Test
+    public void testGetClosedRepository() {
+        RepositoryFactory repositoryFactory = new RepositoryFactory(new CollectionFactory(new LockService()));
+        ObjectRepository<Employee> repository = repositoryFactory.getRepository(db.getConfig(), Employee.class);
+        repository.close();
+
+        ObjectRepository<Employee> reopened = repositoryFactory.getRepository(db.getConfig(), Employee.class);
+        assertNotSame(repository, reopened);
+        assertTrue(reopened.isOpen());
+    }
+
+    @Test
+    public void testClear() {
+        RepositoryFactory repositoryFactory = new RepositoryFactory(new CollectionFactory(new LockService()));
+        ObjectRepository<Employee> repository = repositoryFactory.getRepository(db.getConfig(), Employee.class);
+
+        repositoryFactory.clear();
+        assertFalse(repository.isOpen());
+        assertNotSame(repository, repositoryFactory.getRepository(db.getConfig(), Employee.class));
+    }
+
+    @Test
+    public void testGetRepositoryUnderContention() throws Exception {
+        // doubles as a contention benchmark of the lookup path
+        // of already opened repositories
+        RepositoryFactory repositoryFactory = new RepositoryFactory(new CollectionFactory(new LockService()));
+        NitriteConfig config = db.getConfig();
+        int threadCount = 16;
+        int iterationCount = 20000;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threadCount);
+        List<ObjectRepository<Employee>> opened = new CopyOnWriteArrayList<>();
+        List<Throwable> errors = new CopyOnWriteArrayList<>();
+
+        try {
+            for (int i = 0; i < threadCount; i++) {
+                executor.submit(() -> {
+                    try {
+                        start.await();
+                        for (int j = 0; j < iterationCount; j++) {
+                            ObjectRepository<Employee> repository = repositoryFactory.getRepository(config,
+                                Employee.class);
+                            if (j == 0) {
+                                opened.add(repository);
+                            }
+                        }
+                    } catch (Throwable t) {
+                        errors.add(t);
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            }
+
+            long begin = System.nanoTime();
+            start.countDown();
+            assertTrue(done.await(1, TimeUnit.MINUTES));
+            long elapsed = System.nanoTime() - begin;
+
+            System.out.println((threadCount * iterationCount * 1_000_000_000L / Math.max(elapsed, 1))
+                + " repository lookups per second with " + threadCount + " threads");
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertTrue(errors.isEmpty());
+        // every thread must have got the same instance
+        assertEquals(1, opened.stream().distinct().count());
+        assertEquals(threadCount, opened.size());
+    }
+}
@@ -1,8 +1,13 @@
 package org.dizitart.no2.store.memory;
 
+import org.dizitart.no2.common.RecordStream;
+import org.dizitart.no2.common.tuples.Pair;
 import org.dizitart.no2.exceptions.ValidationException;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.junit.Assert.*;
 
 public class InMemoryMapTest {
@@ -385,5 +390,36 @@ public class InMemoryMapTest {
         assertNull(actualInMemoryMap.getStore());
     }
 
-}
+    @Test
+    public void testSplitEntries() {
+        InMemoryMap<Integer, String> inMemoryMap = new InMemoryMap<>("Map Name", new InMemoryStore());
+        for (int i = 0; i < 100; i++) {
+            inMemoryMap.put(i, "Value" + i);
+        }
+
+        List<RecordStream<Pair<Integer, String>>> splits = inMemoryMap.splitEntries(8);
+        assertEquals(8, splits.size());
+
+        List<Integer> keys = new ArrayList<>();
+        for (RecordStream<Pair<Integer, String>> split : splits) {
+            assertFalse(split.isEmpty());
+            for (Pair<Integer, String> pair : split) {
+                keys.add(pair.getFirst());
+            }
+        }
 
+        // ranges are contiguous, non overlapping and in key order
+        assertEquals(100, keys.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, keys.get(i).intValue());
+        }
+    }
+
+    @Test
+    public void testSplitEntriesSmallMap() {
+        InMemoryMap<Integer, String> inMemoryMap = new InMemoryMap<>("Map Name", new InMemoryStore());
+        inMemoryMap.put(1, "Value");
+        assertEquals(1, inMemoryMap.splitEntries(8).size());
+        assertEquals(1, inMemoryMap.splitEntries(1).size());
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2017-2021 Nitrite author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.dizitart.no2.transaction;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.Assert.*;
+
+public class TransactionalListTest {
+    @Test
+    public void testReadThrough() {
+        List<Integer> primary = new CopyOnWriteArrayList<>(Arrays.asList(1, 2, 3));
+        TransactionalList<Integer> list = new TransactionalList<>(primary);
+
+        assertEquals(3, list.size());
+        assertTrue(list.contains(2));
+        assertEquals(Arrays.asList(1, 2, 3), new ArrayList<>(list));
+        assertEquals(2, list.get(1).intValue());
+    }
+
+    @Test
+    public void testAddAndRemove() {
+        List<Integer> primary = new CopyOnWriteArrayList<>(Arrays.asList(1, 2, 3));
+        TransactionalList<Integer> list = new TransactionalList<>(primary);
+
+        assertTrue(list.add(4));
+        assertTrue(list.remove((Integer) 2));
+        assertFalse(list.remove((Integer) 5));
+
+        assertEquals(3, list.size());
+        assertFalse(list.contains(2));
+        assertTrue(list.contains(4));
+        assertEquals(Arrays.asList(1, 3, 4), new ArrayList<>(list));
+        assertEquals(4, list.get(2).intValue());
+
+        // the primary list is not changed
+        assertEquals(Arrays.asList(1, 2, 3), primary);
+    }
+
+    @Test
+    public void testRemoveAdded() {
+        TransactionalList<Integer> list = new TransactionalList<>(new CopyOnWriteArrayList<>());
+        list.add(1);
+        assertTrue(list.remove((Integer) 1));
+        assertTrue(list.isEmpty());
+        assertFalse(list.remove((Integer) 1));
+    }
+
+    @Test
+    public void testAddRemoved() {
+        List<Integer> primary = new CopyOnWriteArrayList<>(Arrays.asList(1, 2));
+        TransactionalList<Integer> list = new TransactionalList<>(primary);
+
+        list.remove((Integer) 1);
+        assertEquals(1, list.size());
+        list.add(1);
+        assertEquals(2, list.size());
+        assertTrue(list.contains(1));
+        assertEquals(Arrays.asList(1, 2), new ArrayList<>(list));
+    }
+
+    @Test
+    public void testIsolatedFromCommitters() {
+        List<Integer> primary = new CopyOnWriteArrayList<>(Arrays.asList(1, 2));
+        TransactionalList<Integer> list = new TransactionalList<>(primary);
+        list.remove((Integer) 1);
+
+        // other transactions commit changes of the same list
+        primary.remove((Integer) 1);
+        primary.remove((Integer) 2);
+        primary.add(3);
+        assertEquals(1, list.size());
+        assertFalse(list.isEmpty());
+        assertTrue(list.contains(2));
+        assertFalse(list.contains(3));
+        assertEquals(Arrays.asList(2), new ArrayList<>(list));
+
+        list.add(1);
+        assertEquals(2, list.size());
+        assertEquals(Arrays.asList(1, 2), new ArrayList<>(list));
+    }
+
+    @Test(timeout = 10000)
+    public void testManyChangesOfLargeList() {
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < 100000; i++) {
+            ids.add(i);
+        }
+        TransactionalList<Integer> list = new TransactionalList<>(new CopyOnWriteArrayList<>(ids));
+
+        // every change checks the size, like the index code does
+        for (int i = 0; i < 20000; i++) {
+            assertTrue(list.remove((Integer) (i * 5)));
+            assertEquals(100000 - i - 1, list.size());
+        }
+        for (int i = 0; i < 20000; i++) {
+            assertTrue(list.add(100000 + i));
+            assertTrue(list.contains(100000 + i));
+        }
+        assertEquals(100000, list.size());
+        assertEquals(1, list.get(0).intValue());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGetOutOfBounds() {
+        TransactionalList<Integer> list = new TransactionalList<>(new CopyOnWriteArrayList<>(Arrays.asList(1)));
+        list.remove((Integer) 1);
+        list.get(0);
+    }
+}
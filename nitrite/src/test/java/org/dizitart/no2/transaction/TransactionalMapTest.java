@@ -17,11 +17,18 @@
 
 package org.dizitart.no2.transaction;
 
+import org.dizitart.no2.collection.Document;
+import org.dizitart.no2.collection.NitriteId;
+import org.dizitart.no2.common.tuples.Pair;
 import org.dizitart.no2.store.StoreConfig;
 import org.dizitart.no2.store.memory.InMemoryMap;
 import org.dizitart.no2.store.memory.InMemoryStore;
 import org.junit.Test;
 
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
 import static org.junit.Assert.*;
 
 public class TransactionalMapTest {
@@ -511,5 +518,128 @@ public class TransactionalMapTest {
         assertSame(transactionStore, actualTransactionalMap.getStore());
         assertEquals("Map Name", actualTransactionalMap.getName());
     }
-}
 
+    @Test
+    public void testPutAfterClear() {
+        InMemoryStore store = new InMemoryStore();
+        InMemoryMap<Object, Object> primary = new InMemoryMap<>("Map Name", store);
+        primary.put("1", "one");
+        primary.put("2", "two");
+
+        TransactionalMap<Object, Object> transactionalMap = new TransactionalMap<>("Map Name", primary, store);
+        transactionalMap.clear();
+        transactionalMap.put("3", "three");
+
+        assertNull(transactionalMap.get("1"));
+        assertFalse(transactionalMap.containsKey("2"));
+        assertEquals("three", transactionalMap.get("3"));
+        assertEquals(1, transactionalMap.keys().toList().size());
+        assertEquals(2, primary.size());
+    }
+
+    @Test
+    public void testRemoveFromPrimary() {
+        InMemoryStore store = new InMemoryStore();
+        InMemoryMap<Object, Object> primary = new InMemoryMap<>("Map Name", store);
+        Document document = Document.createDocument("firstName", "John");
+        primary.put("1", document);
+
+        TransactionalMap<Object, Object> transactionalMap = new TransactionalMap<>("Map Name", primary, store);
+        Document removed = (Document) transactionalMap.remove("1");
+        removed.put("firstName", "Jane");
+
+        assertNull(transactionalMap.get("1"));
+        assertEquals("John", ((Document) primary.get("1")).get("firstName"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testListValueIsNotCopied() {
+        InMemoryStore store = new InMemoryStore();
+        InMemoryMap<Object, Object> primary = new InMemoryMap<>("Map Name", store);
+        List<Object> ids = new CopyOnWriteArrayList<>(Arrays.asList(1, 2, 3));
+        primary.put("key", ids);
+
+        TransactionalMap<Object, Object> transactionalMap = new TransactionalMap<>("Map Name", primary, store);
+        List<Object> list = (List<Object>) transactionalMap.get("key");
+        list.add(4);
+        list.remove((Object) 1);
+        transactionalMap.put("key", list);
+
+        assertSame(list, transactionalMap.get("key"));
+        assertEquals(Arrays.asList(2, 3, 4), new ArrayList<>(list));
+        assertEquals(Arrays.asList(1, 2, 3), primary.get("key"));
+
+        // a change committed to the primary list afterwards is not visible
+        ids.add(5);
+        assertEquals(Arrays.asList(2, 3, 4), new ArrayList<>(list));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testPostingIsCopiedOnFirstRead() {
+        InMemoryStore store = new InMemoryStore();
+        InMemoryMap<Object, Object> primary = new InMemoryMap<>("Map Name", store);
+        Map<Object, Object> posting = new ConcurrentHashMap<>();
+        posting.put(1, new int[]{1});
+        primary.put("term", posting);
+
+        TransactionalMap<Object, Object> transactionalMap = new TransactionalMap<>("Map Name", primary, store);
+        Map<Object, Object> copy = (Map<Object, Object>) transactionalMap.get("term");
+        copy.put(2, new int[]{2});
+        copy.remove(1);
+
+        assertSame(copy, transactionalMap.get("term"));
+        assertEquals(Collections.singleton(2), copy.keySet());
+        assertEquals(Collections.singleton(1), posting.keySet());
+    }
+
+    @Test
+    public void testEntriesOfChangedKeys() {
+        InMemoryStore store = new InMemoryStore();
+        InMemoryMap<Object, Object> primary = new InMemoryMap<>("Map Name", store);
+        primary.put("1", "one");
+        primary.put("2", "two");
+        primary.put("3", "three");
+
+        TransactionalMap<Object, Object> transactionalMap = new TransactionalMap<>("Map Name", primary, store);
+        transactionalMap.put("2", "TWO");
+        transactionalMap.remove("3");
+        transactionalMap.put("4", "four");
+
+        Map<Object, Object> entries = new HashMap<>();
+        for (Pair<Object, Object> entry : transactionalMap.entries()) {
+            assertNull(entries.put(entry.getFirst(), entry.getSecond()));
+        }
+        assertEquals(3, entries.size());
+        assertEquals("one", entries.get("1"));
+        assertEquals("TWO", entries.get("2"));
+        assertEquals("four", entries.get("4"));
+
+        assertEquals(3, transactionalMap.keys().toList().size());
+        assertEquals(3, transactionalMap.values().toList().size());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testLargeListValue() {
+        InMemoryStore store = new InMemoryStore();
+        InMemoryMap<Object, Object> primary = new InMemoryMap<>("Map Name", store);
+        List<Object> ids = new ArrayList<>();
+        for (long i = 0; i < 1_000_000; i++) {
+            ids.add(NitriteId.createId(Long.toString(i + 1)));
+        }
+        primary.put("key", new CopyOnWriteArrayList<>(ids));
+
+        TransactionalMap<Object, Object> transactionalMap = new TransactionalMap<>("Map Name", primary, store);
+        long start = System.nanoTime();
+        List<Object> list = (List<Object>) transactionalMap.get("key");
+        list.add(NitriteId.newId());
+        transactionalMap.put("key", list);
+        long elapsed = System.nanoTime() - start;
+        System.out.println("changed an index entry of 1M ids in " + elapsed / 1000 + " us");
+
+        assertEquals(1_000_001, list.size());
+        assertEquals(1_000_000, ((List<Object>) primary.get("key")).size());
+    }
+}